@@ -0,0 +1,37 @@
+package com.spring3.oauth.jwt.configurations;
+
+import com.spring3.oauth.jwt.entity.enums.UserInteractionTypeEnum;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "novel.recommend")
+@Getter
+@Setter
+public class NovelRecommendationProperties {
+
+    // Số truyện gợi ý tính sẵn cho mỗi người dùng
+    private int topK = 100;
+
+    // Số truyện giống nhất giữ lại cho mỗi truyện trong mô hình item-item
+    private int maxNeighbors = 50;
+
+    // Giới hạn số tương tác mỗi người dùng khi dựng mô hình (chi phí tăng theo bình phương)
+    private int maxItemsPerUser = 200;
+
+    private float likeWeight = 3.0f;
+    private float rateWeight = 4.0f;
+    private float readingWeight = 2.0f;
+    private float libraryWeight = 3.0f;
+
+    public float getWeight(UserInteractionTypeEnum type) {
+        return switch (type) {
+            case LIKE -> likeWeight;
+            case RATE -> rateWeight;
+            case READING -> readingWeight;
+            case LIBRARY -> libraryWeight;
+        };
+    }
+}
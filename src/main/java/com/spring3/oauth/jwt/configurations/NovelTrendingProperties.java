@@ -0,0 +1,36 @@
+package com.spring3.oauth.jwt.configurations;
+
+import com.spring3.oauth.jwt.entity.enums.NovelActivityTypeEnum;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "novel.trending")
+@Getter
+@Setter
+public class NovelTrendingProperties {
+
+    // Sau mỗi half-life, điểm của một hoạt động giảm còn một nửa
+    private Duration halfLife = Duration.ofHours(48);
+
+    // Khi khởi động, nạp lại lịch sử hoạt động trong khoảng bằng bấy nhiêu half-life
+    private int bootstrapHalfLives = 8;
+
+    private double likeWeight = 3.0;
+    private double readWeight = 1.0;
+    private double rateWeight = 4.0;
+    private double commentWeight = 2.0;
+
+    public double getWeight(NovelActivityTypeEnum type) {
+        return switch (type) {
+            case LIKE -> likeWeight;
+            case READ -> readWeight;
+            case RATE -> rateWeight;
+            case COMMENT -> commentWeight;
+        };
+    }
+}
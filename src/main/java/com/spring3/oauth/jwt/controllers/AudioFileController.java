@@ -1,9 +1,25 @@
 package com.spring3.oauth.jwt.controllers;
 
+import com.spring3.oauth.jwt.helpers.ContentVersion;
+import com.spring3.oauth.jwt.helpers.LocalAudio;
+import com.spring3.oauth.jwt.helpers.ZeroCopyFileSender;
 import com.spring3.oauth.jwt.services.impl.AudioFileServiceImpl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequiredArgsConstructor
@@ -18,4 +34,111 @@ public class AudioFileController {
         return ResponseEntity.ok(audioFileService.getAudioFileByChapterId(chapterId));
     }
 
+    // Body là nguyên file audio, Content-Type là định dạng của file (audio/mpeg, audio/aac, audio/mp4, audio/ogg).
+    // duration (giây) chỉ dùng khi server không tự tính được từ file (MP4 / Ogg)
+    @PostMapping(value = "/{chapterId}/upload",
+        consumes = {"audio/mpeg", "audio/mp3", "audio/aac", "audio/mp4", "audio/x-m4a", "audio/ogg"})
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> uploadAudioFile(@PathVariable Integer chapterId,
+                                             @RequestParam(required = false) Long duration,
+                                             @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                             InputStream body) throws IOException {
+        return ResponseEntity.ok(audioFileService.uploadAudioFile(chapterId, contentType, duration, body));
+    }
+
+    // Stream audio lưu trên máy chủ: Range một khoảng trả 206 (tua / tải tiếp), If-Range không khớp thì trả cả file.
+    // Body gửi bằng sendfile / transferTo, không copy qua heap. Range nhiều khoảng được bỏ qua (200 cả file),
+    // trình phát chỉ dùng một khoảng
+    @GetMapping("/{chapterId}/stream")
+    public ResponseEntity<?> streamAudioFile(@PathVariable Integer chapterId,
+                                             @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                             @RequestHeader(value = HttpHeaders.IF_RANGE,
+                                                 required = false) String ifRange,
+                                             WebRequest webRequest, HttpServletRequest request,
+                                             HttpServletResponse response) throws IOException {
+        return sendLocalFile(audioFileService.getLocalAudio(chapterId), null, range, ifRange, webRequest, request,
+            response);
+    }
+
+    // Bảng tua của file đang lưu: client tải một lần rồi tua tới t bằng Range: bytes=offsets[t / intervalMs]-
+    @GetMapping("/{chapterId}/seek-table")
+    public ResponseEntity<?> getSeekTable(@PathVariable Integer chapterId, WebRequest webRequest) {
+        return audioFileService.getSeekTableVersion(chapterId)
+            .respond(webRequest, () -> audioFileService.getSeekTable(chapterId));
+    }
+
+    // Playlist HLS (VOD) của chương; URI segment tương đối, đổi theo mỗi lần tải audio lên
+    @GetMapping("/{chapterId}/hls/playlist.m3u8")
+    public ResponseEntity<?> getHlsPlaylist(@PathVariable Integer chapterId,
+                                            WebRequest webRequest, HttpServletRequest request,
+                                            HttpServletResponse response) throws IOException {
+        return sendLocalFile(audioFileService.getHlsPlaylist(chapterId), CacheControl.noCache(), null, null,
+            webRequest, request, response);
+    }
+
+    // Segment không bao giờ đổi nội dung dưới cùng một URL nên cho cache vĩnh viễn (CDN / trình duyệt)
+    @GetMapping("/{chapterId}/hls/{fileId}/{segmentNo:\\d+}.{extension}")
+    public ResponseEntity<?> getHlsSegment(@PathVariable Integer chapterId, @PathVariable String fileId,
+                                           @PathVariable int segmentNo, @PathVariable String extension,
+                                           @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                           @RequestHeader(value = HttpHeaders.IF_RANGE,
+                                               required = false) String ifRange,
+                                           WebRequest webRequest, HttpServletRequest request,
+                                           HttpServletResponse response) throws IOException {
+        return sendLocalFile(audioFileService.getHlsSegment(chapterId, fileId, segmentNo, extension),
+            CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable(), range, ifRange, webRequest,
+            request, response);
+    }
+
+    private static ResponseEntity<?> sendLocalFile(LocalAudio audio, CacheControl cacheControl, String range,
+                                                   String ifRange, WebRequest webRequest,
+                                                   HttpServletRequest request, HttpServletResponse response)
+        throws IOException {
+        ContentVersion version = audio.getVersion();
+        if (version.isNotModified(webRequest)) {
+            return version.notModified();
+        }
+        long size = audio.getSize();
+        long start = 0;
+        long length = size;
+        HttpRange requested = range != null && version.matchesIfRange(ifRange) ? singleRange(range) : null;
+        if (requested != null) {
+            try {
+                start = requested.getRangeStart(size);
+                length = requested.getRangeEnd(size) - start + 1;
+            } catch (IllegalArgumentException e) {
+                length = 0;
+            }
+            if (length <= 0) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                    .build();
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + length - 1) + "/" + size);
+        }
+        response.setContentType(audio.getContentType());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, version.getEtag());
+        if (version.getLastModified() > 0) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, version.getLastModified());
+        }
+        if (cacheControl != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        }
+        ZeroCopyFileSender.send(request, response, audio.getPath(), start, length);
+        // Response đã được ghi trực tiếp
+        return null;
+    }
+
+    // Range sai cú pháp hoặc nhiều khoảng thì coi như không có Range
+    private static HttpRange singleRange(String range) {
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
 }
@@ -5,6 +5,7 @@ import com.spring3.oauth.jwt.services.impl.AuthorServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequiredArgsConstructor
@@ -14,9 +15,10 @@ public class AuthorController {
 
     private final AuthorServiceImpl authorService;
 
+    // Hỗ trợ If-None-Match / If-Modified-Since, trả 304 mà không load danh sách
     @GetMapping("/")
-    public ResponseEntity<?> getAllAuthors() {
-        return ResponseEntity.ok(authorService.getAllAuthors());
+    public ResponseEntity<?> getAllAuthors(WebRequest webRequest) {
+        return authorService.getAuthorsVersion().respond(webRequest, authorService::getAllAuthors);
     }
 
     @GetMapping("/{id}")
@@ -1,14 +1,37 @@
 package com.spring3.oauth.jwt.controllers;
 
+import com.spring3.oauth.jwt.helpers.ContentVersion;
+import com.spring3.oauth.jwt.models.dtos.ChapterResponseDTO;
 import com.spring3.oauth.jwt.models.request.UpsertChapterRequest;
+import com.spring3.oauth.jwt.services.impl.ChapterIngestServiceImpl;
+import com.spring3.oauth.jwt.services.impl.ChapterRevisionServiceImpl;
 import com.spring3.oauth.jwt.services.impl.ChapterServiceImpl;
+import com.spring3.oauth.jwt.services.impl.NovelBundleServiceImpl;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
@@ -17,10 +40,28 @@ import org.springframework.web.bind.annotation.*;
 public class ChapterController {
 
     private final ChapterServiceImpl chapterService;
+    private final ChapterIngestServiceImpl chapterIngestService;
+    private final ChapterRevisionServiceImpl chapterRevisionService;
+    private final NovelBundleServiceImpl novelBundleService;
 
+    // Conditional GET theo version của chương (updated_at): client đã có bản mới nhất thì trả 304
     @GetMapping("/{slug}")
-    public ResponseEntity<?> getAllChaptersInNovel(@PathVariable String slug) {
-        return ResponseEntity.ok(chapterService.getAllChaptersInNovel(slug));
+    public ResponseEntity<?> getAllChaptersInNovel(@PathVariable String slug, WebRequest webRequest) {
+        return chapterService.getChaptersVersion(slug)
+            .respond(webRequest, () -> chapterService.getAllChaptersInNovel(slug));
+    }
+
+    // Mục lục đầy đủ ghi dần ra response theo từng lô, dùng cho truyện có hàng nghìn chương
+    @GetMapping("/{slug}/toc")
+    public ResponseEntity<StreamingResponseBody> getChapterTocInNovel(@PathVariable String slug,
+                                                                      WebRequest webRequest) {
+        ContentVersion version = chapterService.getChaptersVersion(slug);
+        if (version.isNotModified(webRequest)) {
+            return version.notModified();
+        }
+        return version.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(out -> chapterService.writeToc(slug, out));
     }
 
     @GetMapping("/page/{slug}")
@@ -28,13 +69,124 @@ public class ChapterController {
                                                        @PageableDefault(size = 10,
                                                            sort = "chapterNo",
                                                            direction = Sort.Direction.ASC)
-                                                       Pageable pageable) {
-        return ResponseEntity.ok(chapterService.getAllChapterInNovelBySlug(slug, pageable));
+                                                       Pageable pageable,
+                                                       @RequestParam(defaultValue = "true") boolean withTotal,
+                                                       WebRequest webRequest) {
+        return chapterService.getChaptersVersion(slug)
+            .respond(webRequest, () -> chapterService.getAllChapterInNovelBySlug(slug, pageable, withTotal));
     }
 
     @GetMapping("/{slug}/chap-{chapNo}")
-    public ResponseEntity<?> getChapterDetailInNovel(@PathVariable String slug, @PathVariable int chapNo) {
-        return ResponseEntity.ok(chapterService.getChapterByChapNoInNovel(slug, chapNo));
+    public ResponseEntity<?> getChapterDetailInNovel(@PathVariable String slug, @PathVariable int chapNo,
+                                                     WebRequest webRequest) {
+        // Version lấy từ bản trong cache đọc trước (cache hit không chạm DB);
+        // 304 là client đọc lại bản đã có, không tính thêm lượt đọc
+        ChapterResponseDTO chapter = chapterService.getChapterByChapNoInNovel(slug, chapNo);
+        ContentVersion version = chapterService.getChapterDetailVersion(chapter);
+        if (version.isNotModified(webRequest)) {
+            return version.notModified();
+        }
+        chapterService.countChapterRead(chapter);
+        ResponseEntity.BodyBuilder response = version.ok();
+        // Gợi ý trình duyệt / client tải trước chương kế, server cũng đã nạp sẵn chương này vào cache
+        if (chapter.getNextChapterNo() != null) {
+            response.header(HttpHeaders.LINK, "</api/v1/chapters/" + slug + "/chap-" + chapter.getNextChapterNo()
+                + ">; rel=prefetch");
+        }
+        return response.body(chapter);
+    }
+
+    // Chỉ nội dung chương: client nhận gzip thì ghi thẳng vùng đã map của kho segment ra response
+    // (Content-Encoding: gzip), không copy qua mảng heap.
+    // Request có Range nhận các khoảng byte của nội dung UTF-8 không nén (206), dùng cùng danh sách phần ở /chunks;
+    // bản không nén được cache nên các Range kế tiếp của cùng chương không phải giải nén lại;
+    // Spring tự xử lý Range / 416 cho body kiểu Resource. If-Range không khớp (chương đã sửa) thì trả cả nội dung 200.
+    // Bản gzip có ETag riêng, Range chỉ áp lên bản không nén
+    @GetMapping("/{slug}/chap-{chapNo}/content")
+    public ResponseEntity<?> getChapterContentInNovel(@PathVariable String slug, @PathVariable int chapNo,
+                                                      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING,
+                                                          required = false) String acceptEncoding,
+                                                      @RequestHeader(value = HttpHeaders.RANGE,
+                                                          required = false) String range,
+                                                      @RequestHeader(value = HttpHeaders.IF_RANGE,
+                                                          required = false) String ifRange,
+                                                      WebRequest webRequest) {
+        ContentVersion version = chapterService.getChapterVersion(slug, chapNo);
+        if (range != null && !version.matchesIfRange(ifRange)) {
+            range = null;
+        }
+        boolean gzip = range == null && acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        if (gzip) {
+            version = version.variant("gzip");
+        }
+        if (version.isNotModified(webRequest)) {
+            return version.notModified();
+        }
+        ResponseEntity.BodyBuilder response = version.ok()
+            .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (gzip) {
+            ByteBuffer compressed = chapterService.getCompressedChapterContent(slug, chapNo, true);
+            StreamingResponseBody body = out -> {
+                WritableByteChannel channel = Channels.newChannel(out);
+                while (compressed.hasRemaining()) {
+                    channel.write(compressed);
+                }
+            };
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .contentLength(compressed.remaining())
+                .body(body);
+        }
+        byte[] content = chapterService.getChapterContentBytes(slug, chapNo, range == null || startsAtZero(range));
+        return response.body(range != null ? new ByteArrayResource(content) : content);
+    }
+
+    // Danh sách khoảng byte cắt theo đoạn văn kèm nội dung phần đầu: client hiển thị ngay rồi lấy tiếp bằng Range
+    @GetMapping("/{slug}/chap-{chapNo}/content/chunks")
+    public ResponseEntity<?> getChapterContentChunks(@PathVariable String slug, @PathVariable int chapNo,
+                                                     @RequestParam(defaultValue = "4096") int firstBytes,
+                                                     @RequestParam(defaultValue = "32768") int targetBytes,
+                                                     WebRequest webRequest) {
+        return chapterService.getChapterVersion(slug, chapNo)
+            .respond(webRequest, () -> chapterService.getChapterChunks(slug, chapNo, firstBytes, targetBytes));
+    }
+
+    // Gói tải offline cả truyện (zip: thông tin truyện, mục lục, audio manifest, nội dung từng chương dạng gzip).
+    // Bản đã cache trên đĩa trả kèm Content-Length và hỗ trợ Range; Range kèm If-Range không khớp version hiện tại
+    // thì gửi lại toàn bộ. Chưa có cache thì vừa sinh vừa stream (chunked) và ghi cache cho lần sau.
+    @GetMapping("/{slug}/offline-bundle")
+    public ResponseEntity<?> getOfflineBundle(@PathVariable String slug,
+                                              @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                              @RequestHeader(value = HttpHeaders.IF_RANGE,
+                                                  required = false) String ifRange,
+                                              WebRequest webRequest) throws IOException {
+        ContentVersion version = novelBundleService.getBundleVersion(slug);
+        if (version.isNotModified(webRequest)) {
+            return version.notModified();
+        }
+        ResponseEntity.BodyBuilder response = version.ok()
+            .contentType(MediaType.parseMediaType("application/zip"))
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(slug + ".zip").build().toString())
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (range != null && version.matchesIfRange(ifRange)) {
+            return response.body(novelBundleService.getBundle(slug, version));
+        }
+        Resource cached = range == null ? novelBundleService.getCachedBundle(slug, version) : null;
+        if (cached != null) {
+            return response.body(cached);
+        }
+        // Body không phải Resource nên Spring bỏ qua header Range
+        StreamingResponseBody body = out -> novelBundleService.writeBundle(slug, version, out);
+        return response.body(body);
+    }
+
+    // Chuyển nội dung còn nằm trong cột content_doc sang kho segment, chạy theo lô
+    @PostMapping("/content/migrate")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> migrateChapterContent(@RequestParam(defaultValue = "200") int batchSize) {
+        return ResponseEntity.ok(Map.of("migrated", chapterService.migrateChapterContent(batchSize)));
     }
 
     @PostMapping("/create")
@@ -42,9 +194,47 @@ public class ChapterController {
         return ResponseEntity.ok(chapterService.saveChapter(request));
     }
 
+    // Nhập hàng loạt: body là mảng JSON hoặc NDJSON các UpsertChapterRequest, đọc dần không cần giữ cả request
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> ingestChapters(@RequestParam int novelId, InputStream body) {
+        return ResponseEntity.ok(chapterIngestService.ingestJson(novelId, body));
+    }
+
+    // File zip: mỗi entry "<chapterNo>[ - title].html|txt|md" là nội dung một chương, hoặc một chương dạng .json
+    @PostMapping(value = "/bulk", consumes = "application/zip")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> ingestChapterArchive(@RequestParam int novelId, InputStream body) {
+        return ResponseEntity.ok(chapterIngestService.ingestZip(novelId, body));
+    }
+
+    // Lịch sử sửa chương, mới nhất trước (bản đầu danh sách là bản hiện tại)
+    @GetMapping("/{slug}/chap-{chapNo}/revisions")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> getChapterRevisions(@PathVariable String slug, @PathVariable int chapNo) {
+        return ResponseEntity.ok(chapterRevisionService.getRevisions(slug, chapNo));
+    }
+
+    @GetMapping("/{slug}/chap-{chapNo}/revisions/{revisionNo}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> getChapterRevision(@PathVariable String slug, @PathVariable int chapNo,
+                                                @PathVariable int revisionNo) {
+        return ResponseEntity.ok(chapterRevisionService.getRevision(slug, chapNo, revisionNo));
+    }
+
     @PutMapping("/{slug}/chap-{chapNo}/update")
     public ResponseEntity<?> updateChapter(@PathVariable String slug, @PathVariable int chapNo, @Valid @RequestBody UpsertChapterRequest request) {
         return ResponseEntity.ok(chapterService.updateChapter(chapNo, slug, request));
     }
 
+    // Range mở đầu từ byte 0 là lần đọc mới, các Range sau đó không tính thêm lượt đọc
+    private static boolean startsAtZero(String range) {
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return !ranges.isEmpty() && ranges.get(0).getRangeStart(Long.MAX_VALUE) == 0;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
 }
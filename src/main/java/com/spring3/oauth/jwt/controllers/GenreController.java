@@ -5,6 +5,7 @@ import com.spring3.oauth.jwt.services.impl.GenreServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequiredArgsConstructor
@@ -13,9 +14,10 @@ import org.springframework.web.bind.annotation.*;
 public class GenreController {
     private final GenreServiceImpl genreService;
 
+    // Hỗ trợ If-None-Match / If-Modified-Since, trả 304 mà không load danh sách
     @GetMapping("/")
-    public ResponseEntity<?> getAllGenres() {
-        return ResponseEntity.ok(genreService.getAllGenres());
+    public ResponseEntity<?> getAllGenres(WebRequest webRequest) {
+        return genreService.getGenresVersion().respond(webRequest, genreService::getAllGenres);
     }
 
     @GetMapping("/{id}")
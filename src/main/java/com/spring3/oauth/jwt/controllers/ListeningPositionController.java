@@ -0,0 +1,36 @@
+package com.spring3.oauth.jwt.controllers;
+
+import com.spring3.oauth.jwt.models.request.ListeningHeartbeatRequest;
+import com.spring3.oauth.jwt.services.impl.ListeningPositionServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:3388", "https://80ba-14-231-167-47.ngrok-free.app"})
+@RequestMapping("/api/v1/listening-positions")
+public class ListeningPositionController {
+
+    private final ListeningPositionServiceImpl listeningPositionService;
+
+    // Trình phát gọi vài giây một lần; chỉ ghi vào bộ nhớ, xuống DB theo lô ở lần flush kế tiếp
+    @PostMapping("/heartbeat")
+    public ResponseEntity<?> heartbeat(@RequestBody ListeningHeartbeatRequest request) {
+        listeningPositionService.heartbeat(request);
+        return ResponseEntity.accepted().build();
+    }
+
+    // Cùng heartbeat qua STOMP (/app/listening-positions/heartbeat) cho client đã mở sẵn kết nối WebSocket
+    @MessageMapping("/listening-positions/heartbeat")
+    public void heartbeatOverStomp(@Payload ListeningHeartbeatRequest request) {
+        listeningPositionService.heartbeat(request);
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getPosition(@RequestParam long userId, @RequestParam String slug) {
+        return ResponseEntity.ok(listeningPositionService.getPosition(userId, slug));
+    }
+}
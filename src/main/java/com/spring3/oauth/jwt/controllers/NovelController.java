@@ -2,9 +2,14 @@ package com.spring3.oauth.jwt.controllers;
 
 
 import com.spring3.oauth.jwt.entity.User;
+import com.spring3.oauth.jwt.entity.enums.NovelStatusEnum;
+import com.spring3.oauth.jwt.helpers.NovelCatalogSnapshot;
 import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
 import com.spring3.oauth.jwt.models.request.UpdateNovelRequest;
 import com.spring3.oauth.jwt.models.request.UpsertNovelRequest;
+import com.spring3.oauth.jwt.services.impl.AudioFileServiceImpl;
+import com.spring3.oauth.jwt.services.impl.NovelCatalogServiceImpl;
+import com.spring3.oauth.jwt.services.impl.NovelSearchServiceImpl;
 import com.spring3.oauth.jwt.services.impl.NovelServiceImpl;
 import com.spring3.oauth.jwt.services.impl.UserServiceImpl;
 import jakarta.validation.Valid;
@@ -13,9 +18,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -27,20 +34,47 @@ public class NovelController {
 
     private final NovelServiceImpl novelService;
     private final UserServiceImpl userService;
+    private final NovelCatalogServiceImpl novelCatalogService;
+    private final NovelSearchServiceImpl novelSearchService;
+    private final AudioFileServiceImpl audioFileService;
 
+    // Trả thẳng JSON đã serialize sẵn trong bộ nhớ, hỗ trợ If-None-Match
     @GetMapping("/")
-    public ResponseEntity<?> getAllNovels() {
-        return ResponseEntity.ok(novelService.getAllNovelDtos());
+    public ResponseEntity<byte[]> getAllNovels(WebRequest webRequest) {
+        NovelCatalogSnapshot snapshot = novelCatalogService.getSnapshot();
+        if (webRequest.checkNotModified(snapshot.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+            .eTag(snapshot.getEtag())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(snapshot.getBody());
+    }
+
+    // ETag theo version của truyện + trạng thái của user, khớp If-None-Match thì trả 304 không load entity
+    @GetMapping("/{slug}")
+    public ResponseEntity<?> getNovelBySlug(@PathVariable String slug, @RequestParam long userId, WebRequest webRequest) {
+        return novelService.getDetailNovelVersion(slug, userId)
+            .respond(webRequest, () -> novelService.getDetailNovel(slug, userId));
     }
 
-    @GetMapping("/{slug}")
-    public ResponseEntity<?> getNovelBySlug(@PathVariable String slug, @RequestParam long userId) {
-        return ResponseEntity.ok(novelService.getDetailNovel(slug, userId));
+    // Audio của mọi chương (id, URL, thời lượng, bảng tua, playlist HLS) trong một lần gọi để trình phát nạp sẵn
+    @GetMapping("/{slug}/audio-manifest")
+    public ResponseEntity<?> getAudioManifest(@PathVariable String slug, WebRequest webRequest) {
+        return audioFileService.getAudioManifestVersion(slug)
+            .respond(webRequest, () -> audioFileService.getAudioManifest(slug));
     }
 
+    // Tra index trong bộ nhớ, không truy vấn DB
+    @GetMapping("/{slug}/similar")
+    public ResponseEntity<?> getSimilarNovels(@PathVariable String slug,
+                                              @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(novelService.findSimilarNovels(slug, limit));
+    }
+
+    // Xếp theo điểm hot đã tính sẵn, tham số sort không có tác dụng
     @GetMapping("/trending")
-    public ResponseEntity<?> getTrendingNovels(
-        @PageableDefault(size = 10, sort = "likeCounts", direction = Sort.Direction.DESC) Pageable pageable) {
+    public ResponseEntity<?> getTrendingNovels(@PageableDefault(size = 10) Pageable pageable) {
         return ResponseEntity.ok(novelService.getAllTrendingNovels(pageable));
     }
 
@@ -51,28 +85,52 @@ public class NovelController {
         return ResponseEntity.ok(novelService.getAllNovelsRecommend(userId, pageable));
     }
 
+    // withTotal=false: không chạy COUNT, pagination chỉ có hasNext (dùng cho danh sách cuộn / nút "trang sau")
     @GetMapping("/top-read")
     public ResponseEntity<?> getTopReadNovels(
-        @PageableDefault(size = 10, sort = "readCounts", direction = Sort.Direction.DESC) Pageable pageable) {
-        return ResponseEntity.ok(novelService.getAllTopNovels(pageable));
+        @PageableDefault(size = 10, sort = "readCounts", direction = Sort.Direction.DESC) Pageable pageable,
+        @RequestParam(defaultValue = "true") boolean withTotal) {
+        return ResponseEntity.ok(novelService.getAllTopNovels(pageable, withTotal));
     }
 
     @GetMapping("/bxh/top-read")
     public ResponseEntity<?> getBxhTopReadNovels(
-        @PageableDefault(size = 10, sort = "readCounts", direction = Sort.Direction.DESC) Pageable pageable) {
-        return ResponseEntity.ok(novelService.getAllTopNovels(pageable));
+        @PageableDefault(size = 10, sort = "readCounts", direction = Sort.Direction.DESC) Pageable pageable,
+        @RequestParam(defaultValue = "true") boolean withTotal) {
+        return ResponseEntity.ok(novelService.getAllTopNovels(pageable, withTotal));
     }
 
     @GetMapping("/new-released")
     public ResponseEntity<?> getNovelsReleasedLast7Days(
-        @PageableDefault(size = 10, sort = "releasedAt", direction = Sort.Direction.DESC) Pageable pageable) {
-        return ResponseEntity.ok(novelService.findAllByReleasedAtWithinLast7Days(pageable));
+        @PageableDefault(size = 10, sort = "releasedAt", direction = Sort.Direction.DESC) Pageable pageable,
+        @RequestParam(defaultValue = "true") boolean withTotal) {
+        return ResponseEntity.ok(novelService.findAllByReleasedAtWithinLast7Days(pageable, withTotal));
+    }
+
+    // Phân trang bằng cursor cho infinite scroll, cùng bảng xếp hạng điểm hot với /trending
+    @GetMapping("/trending/cursor")
+    public ResponseEntity<?> getTrendingNovelsByCursor(@RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(novelService.getTrendingNovelsByCursor(cursor, size));
+    }
+
+    @GetMapping("/top-read/cursor")
+    public ResponseEntity<?> getTopReadNovelsByCursor(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(novelService.getTopNovelsByCursor(cursor, size));
+    }
+
+    @GetMapping("/new-released/cursor")
+    public ResponseEntity<?> getNovelsReleasedLast7DaysByCursor(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(novelService.getNovelsReleasedLast7DaysByCursor(cursor, size));
     }
 
     @GetMapping("/genre/{genreName}")
     public ResponseEntity<?> getNovelsByGenreName(@PathVariable String genreName,
-        @PageableDefault(size = 10, sort = "likeCounts", direction = Sort.Direction.DESC) Pageable pageable) {
-        return ResponseEntity.ok(novelService.getAllNovelsByGenreName(genreName, pageable));
+        @PageableDefault(size = 10, sort = "likeCounts", direction = Sort.Direction.DESC) Pageable pageable,
+        @RequestParam(defaultValue = "true") boolean withTotal) {
+        return ResponseEntity.ok(novelService.getAllNovelsByGenreName(genreName, pageable, withTotal));
     }
 
     @PostMapping("/save")
@@ -95,31 +153,47 @@ public class NovelController {
         return new ResponseEntity<>(novel, HttpStatus.OK);
     }
 
+    // Lọc theo thể loại (matchAll = false: có ít nhất một thể loại, true: có đủ), trạng thái, đóng / mở;
+    // trả kèm số truyện theo từng facet. Sắp xếp: likeCounts (mặc định), readCounts, releasedAt, id
     @GetMapping("/filter-by-genre")
-    public ResponseEntity<?> getAllNovelsByGenre(@RequestParam List<Integer> genreIds, Pageable pageable) {
-        return ResponseEntity.ok(novelService.findAllByGenre(genreIds, pageable));
+    public ResponseEntity<?> getAllNovelsByGenre(@RequestParam(required = false) List<Integer> genreIds,
+                                                 @RequestParam(defaultValue = "false") boolean matchAll,
+                                                 @RequestParam(required = false) List<NovelStatusEnum> status,
+                                                 @RequestParam(required = false) Boolean closed,
+                                                 Pageable pageable) {
+        return ResponseEntity.ok(novelService.findAllByGenre(genreIds, matchAll, status, closed, pageable));
+    }
+
+    // Tìm kiếm toàn văn (tên, tác giả, thể loại, mô tả), không phân biệt dấu tiếng Việt
+    @GetMapping("/search")
+    public ResponseEntity<?> searchNovels(@RequestParam String q, Pageable pageable) {
+        return ResponseEntity.ok(novelSearchService.search(q, pageable));
     }
 
     @GetMapping("/search/by-author")
-    public ResponseEntity<?> searchNovelsByAuthorName(@RequestParam String authorName, Pageable pageable) {
-        return ResponseEntity.ok(novelService.findAllByAuthorName(authorName, pageable));
+    public ResponseEntity<?> searchNovelsByAuthorName(@RequestParam String authorName, Pageable pageable,
+                                                      @RequestParam(defaultValue = "true") boolean withTotal) {
+        return ResponseEntity.ok(novelService.findAllByAuthorName(authorName, pageable, withTotal));
     }
 
     @GetMapping("/auth/my-novels")
     @PreAuthorize("hasRole('ROLE_AUTHOR') or hasRole('ROLE_ADMIN')")
-    public ResponseEntity<?> searchNovelsByAuthorAuthName(@RequestParam String authorName, Pageable pageable) {
-        return ResponseEntity.ok(novelService.findAllByAuthorAuthName(authorName, pageable));
+    public ResponseEntity<?> searchNovelsByAuthorAuthName(@RequestParam String authorName, Pageable pageable,
+                                                          @RequestParam(defaultValue = "true") boolean withTotal) {
+        return ResponseEntity.ok(novelService.findAllByAuthorAuthName(authorName, pageable, withTotal));
     }
 
 
     @GetMapping("/search/by-author-id/{authorId}")
-    public ResponseEntity<?> searchNovelsByAuthorId(@PathVariable Integer authorId, Pageable pageable) {
-        return ResponseEntity.ok(novelService.findAllByAuthorId(authorId, pageable));
+    public ResponseEntity<?> searchNovelsByAuthorId(@PathVariable Integer authorId, Pageable pageable,
+                                                    @RequestParam(defaultValue = "true") boolean withTotal) {
+        return ResponseEntity.ok(novelService.findAllByAuthorId(authorId, pageable, withTotal));
     }
 
     @GetMapping("/search/by-title")
-    public ResponseEntity<?> searchNovelsByTitle(@RequestParam String title, Pageable pageable) {
-        return ResponseEntity.ok(novelService.findAllByTitle(title, pageable));
+    public ResponseEntity<?> searchNovelsByTitle(@RequestParam String title, Pageable pageable,
+                                                 @RequestParam(defaultValue = "true") boolean withTotal) {
+        return ResponseEntity.ok(novelService.findAllByTitle(title, pageable, withTotal));
     }
 
     // API kiểm tra trạng thái like của người dùng cho một truyện
@@ -134,6 +208,20 @@ public class NovelController {
         return novelService.getLikedNovelSlugsByUser(userId);
     }
 
+    // API đánh dấu trạng thái like cho cả một trang truyện (content của PagedResponseDTO) trong một lần tra bộ nhớ
+    @PostMapping("/liked-flags")
+    public ResponseEntity<List<NovelResponseDTO>> markLikedNovels(@RequestParam long userId,
+                                                                  @RequestBody List<NovelResponseDTO> novels) {
+        return ResponseEntity.ok(novelService.markLikedNovels(userId, novels));
+    }
+
+    // Số liệu hit / miss của các cache truyện (slug -> id, header, truyện đã like, chương đọc trước)
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> getCacheStats() {
+        return ResponseEntity.ok(novelService.getCacheStats());
+    }
+
     // API để "like" truyện dựa trên slug
     @PostMapping("/like/{slug}")
     public ResponseEntity<Boolean> likeNovel(@PathVariable String slug, @RequestParam long userId) {
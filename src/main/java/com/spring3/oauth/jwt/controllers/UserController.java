@@ -25,6 +25,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -92,6 +93,7 @@ public class UserController {
             Author author = new Author();
             author.setName(user.getFullName());
             author.setDob(user.getDob());
+            author.setUpdatedAt(LocalDateTime.now());
             user.setRoles(roles);
             authorRepository.save(author);
             userRepository.save(user);
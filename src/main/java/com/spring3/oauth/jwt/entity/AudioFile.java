@@ -3,7 +3,7 @@ package com.spring3.oauth.jwt.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.util.Timer;
+import java.time.LocalDateTime;
 
 @Entity
 @Data
@@ -21,8 +21,39 @@ public class  AudioFile {
     @Column(name = "audio_url")
     private String audioUrl;
 
+    // Giây; tính từ header frame khi file parse được (MP3 / AAC), không thì là giá trị client gửi lên
     private Long duration;
 
+    // File trong kho audio local (AudioFileStore), null nếu audio chỉ nằm ở audioUrl bên ngoài
+    @Column(name = "storage_key")
+    private String storageKey;
+
+    @Column(name = "content_type", length = 64)
+    private String contentType;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    // Thời điểm tải file lên, dùng làm version cho ETag / Last-Modified khi stream
+    @Column(name = "stored_at")
+    private LocalDateTime storedAt;
+
+    // Số segment HLS đã cắt từ file trong kho, null nếu định dạng không cắt được (MP4 / Ogg)
+    @Column(name = "hls_segments")
+    private Integer hlsSegments;
+
+    // Thời lượng chính xác và bitrate trung bình (bit / giây) tính lúc tải lên, null nếu định dạng không parse được
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    private Integer bitrate;
+
+    // AudioSeekTable.encode(): offset byte theo từng mốc thời gian để tua bằng một request Range
+    @ToString.Exclude
+    @Lob
+    @Column(name = "seek_table", columnDefinition = "LONGBLOB")
+    private byte[] seekTable;
+
     @OneToOne
     @JoinColumn(name = "chapter_id")
     private Chapter chapter;
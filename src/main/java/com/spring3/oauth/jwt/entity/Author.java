@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
 @Data
@@ -19,4 +20,7 @@ public class Author {
     private int id;
     private String name;
     private LocalDate dob;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
 }
@@ -13,7 +13,10 @@ import java.time.LocalDateTime;
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "CHAPTERS")
+@Table(name = "CHAPTERS", indexes = {
+    // Mục lục đọc theo truyện, thứ tự chapter_no (cả phân trang keyset)
+    @Index(name = "idx_chapter_novel_no", columnList = "novel_id, chapter_no")
+})
 public class Chapter {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,13 +30,45 @@ public class Chapter {
     @Column(name = "chapter_no")
     private int chapterNo;
 
+    // Chỉ còn dùng cho chương chưa chuyển sang kho segment (xem ChapterContentService)
     @Column(name = "content_doc", columnDefinition = "LONGTEXT")
     private String contentDoc;
 
+    // Vị trí nội dung đã nén trong kho segment, null nếu nội dung vẫn nằm ở content_doc
+    @Column(name = "content_segment")
+    private Integer contentSegment;
+
+    @Column(name = "content_offset")
+    private Long contentOffset;
+
+    @Column(name = "content_length")
+    private Integer contentLength;
+
+    @Column(name = "content_crc")
+    private Long contentCrc;
+
+    // Tính sẵn khi lưu nội dung để mục lục không phải đọc nội dung chương
+    @Column(name = "excerpt", length = 200)
+    private String excerpt;
+
+    @Column(name = "word_count")
+    private Integer wordCount;
+
+    @Column(name = "reading_minutes")
+    private Integer readingMinutes;
+
     @Column(name = "thumbnail_image_url")
     private String thumbnailImageUrl;
 
     @ManyToOne
     @JoinColumn(name = "novel_id")
     private Novel novel;
+
+    // Số phiên bản hiện tại, null là bản đầu tiên (chưa sửa lần nào); các bản cũ nằm ở CHAPTER_REVISIONS
+    @Column(name = "revision_no")
+    private Integer revisionNo;
+
+    // Thời điểm sửa nội dung gần nhất, dùng làm version cho ETag / Last-Modified
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
 }
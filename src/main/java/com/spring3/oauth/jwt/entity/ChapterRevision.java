@@ -0,0 +1,61 @@
+package com.spring3.oauth.jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+// Phiên bản cũ của một chương. Bản hiện tại luôn là nội dung của Chapter (kho segment); mỗi lần sửa, bản vừa bị
+// thay được lưu ở đây dưới dạng delta ngược so với bản mới hơn nó một số, hoặc bản đầy đủ (snapshot) định kỳ
+// để dựng lại phiên bản bất kỳ chỉ cần một số bước áp delta có giới hạn (xem ChapterRevisionService).
+@Entity
+@Data
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "CHAPTER_REVISIONS", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_chapter_revision", columnNames = {"chapter_id", "revision_no"})
+})
+public class ChapterRevision {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chapter_id")
+    private Chapter chapter;
+
+    @Column(name = "revision_no")
+    private int revisionNo;
+
+    private String title;
+
+    // true: data là nội dung đầy đủ; false: data là delta, áp lên nội dung của revision_no + 1 ra nội dung bản này
+    @Column(name = "is_snapshot")
+    private boolean snapshot;
+
+    // Nén gzip
+    @ToString.Exclude
+    @Lob
+    @Column(name = "data", columnDefinition = "LONGBLOB")
+    private byte[] data;
+
+    // Độ dài nội dung đầy đủ (bytes UTF-8), null nếu bản này không có nội dung
+    @Column(name = "content_length")
+    private Integer contentLength;
+
+    @Column(name = "stored_bytes")
+    private int storedBytes;
+
+    // Thời điểm bản này bắt đầu là bản hiện tại
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Thời điểm bản này bị bản mới thay thế
+    @Column(name = "replaced_at")
+    private LocalDateTime replacedAt;
+}
@@ -3,6 +3,8 @@ package com.spring3.oauth.jwt.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Data
 @ToString
@@ -18,4 +20,7 @@ public class Genre {
 
     @Column(name = "genre_name")
     private String name;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
 }
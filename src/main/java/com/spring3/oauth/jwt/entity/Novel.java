@@ -3,6 +3,7 @@ package com.spring3.oauth.jwt.entity;
 import com.spring3.oauth.jwt.entity.enums.NovelStatusEnum;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -17,7 +18,13 @@ import static jakarta.persistence.FetchType.LAZY;
 @Getter
 @Setter
 @AllArgsConstructor
-@Table(name = "NOVELS")
+// Chỉ UPDATE các cột thay đổi, tránh ghi đè read_counts / like_counts vừa được flush theo lô
+@DynamicUpdate
+@Table(name = "NOVELS", indexes = {
+    @Index(name = "idx_novel_closed_like", columnList = "is_closed, like_counts, id"),
+    @Index(name = "idx_novel_closed_read", columnList = "is_closed, read_counts, id"),
+    @Index(name = "idx_novel_closed_released", columnList = "is_closed, released_at, id")
+})
 public class Novel {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -35,6 +42,7 @@ public class Novel {
     private LocalDateTime releasedAt;
 
     private NovelStatusEnum status;
+    @Column(name = "is_closed")
     private boolean isClosed;
 
     @Column(name = "thumbnail_url")
@@ -58,4 +66,8 @@ public class Novel {
 
     @ManyToMany(fetch = LAZY)
     private List<Genre> genres;
+
+    // Thời điểm sửa nội dung gần nhất, dùng làm version cho ETag / Last-Modified
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
 }
@@ -0,0 +1,28 @@
+package com.spring3.oauth.jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+// Sổ các lô journal bộ đếm đã cộng xuống bảng novels (NovelCounterServiceImpl). Dòng được ghi trong cùng transaction
+// với các UPDATE của lô, nên lô nào đã có ở đây thì khi phát lại journal sau crash sẽ bị bỏ qua thay vì cộng hai lần
+@Entity
+@Data
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "novel_counter_batches", indexes = {
+    @Index(name = "idx_counter_batch_applied_at", columnList = "applied_at")
+})
+public class NovelCounterBatch {
+    @Id
+    @Column(name = "batch_id", length = 64)
+    private String batchId;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+}
@@ -0,0 +1,42 @@
+package com.spring3.oauth.jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Vị trí nghe audio gần nhất của user trong một truyện. Ghi theo lô bằng upsert JDBC (ListeningPositionServiceImpl),
+// không qua JPA, nên khóa (user_id, novel_id) phải là unique
+@Entity
+@Data
+@ToString
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "user_listening_positions", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_listening_user_novel", columnNames = {"user_id", "novel_id"})
+})
+public class UserListeningPosition {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "novel_id", nullable = false)
+    private Novel novel;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chapter_id", nullable = false)
+    private Chapter chapter;
+
+    @Column(name = "position_ms", nullable = false)
+    private long positionMs;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,7 @@
+package com.spring3.oauth.jwt.entity.enums;
+
+public enum ChapterIngestStatusEnum {
+    CREATED,
+    DUPLICATE,
+    INVALID
+}
@@ -0,0 +1,8 @@
+package com.spring3.oauth.jwt.entity.enums;
+
+public enum NovelActivityTypeEnum {
+    LIKE,
+    READ,
+    RATE,
+    COMMENT
+}
@@ -0,0 +1,8 @@
+package com.spring3.oauth.jwt.entity.enums;
+
+public enum UserInteractionTypeEnum {
+    LIKE,
+    RATE,
+    READING,
+    LIBRARY
+}
@@ -0,0 +1,17 @@
+package com.spring3.oauth.jwt.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+// Phát ra khi audio của một chương được tải lên / thay thế. storageKey là file mới trong kho audio,
+// previousStorageKey là file bị thay (null nếu trước đó chưa có file trên máy chủ)
+@Getter
+@ToString
+@AllArgsConstructor
+public class AudioFileChangedEvent {
+    private final int novelId;
+    private final int chapterId;
+    private final String storageKey;
+    private final String previousStorageKey;
+}
@@ -0,0 +1,14 @@
+package com.spring3.oauth.jwt.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+// Phát ra khi chương được tạo / cập nhật để các cache chương của truyện tự làm mới
+@Getter
+@ToString
+@AllArgsConstructor
+public class ChapterChangedEvent {
+    private final int novelId;
+    private final String novelSlug;
+}
@@ -0,0 +1,15 @@
+package com.spring3.oauth.jwt.events;
+
+import com.spring3.oauth.jwt.entity.enums.NovelActivityTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+// Phát ra khi người dùng like / đọc / đánh giá / bình luận một truyện, dùng để tính điểm "hot"
+@Getter
+@ToString
+@AllArgsConstructor
+public class NovelActivityEvent {
+    private final int novelId;
+    private final NovelActivityTypeEnum type;
+}
@@ -0,0 +1,14 @@
+package com.spring3.oauth.jwt.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+// Phát ra khi truyện được tạo / cập nhật / xóa để các read model trong bộ nhớ tự làm mới
+@Getter
+@ToString
+@AllArgsConstructor
+public class NovelChangedEvent {
+    private final int novelId;
+    private final boolean deleted;
+}
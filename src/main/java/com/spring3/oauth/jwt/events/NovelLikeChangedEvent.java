@@ -0,0 +1,15 @@
+package com.spring3.oauth.jwt.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+// Phát ra khi người dùng like / bỏ like một truyện, dùng để cập nhật cache truyện đã like của người đó
+@Getter
+@ToString
+@AllArgsConstructor
+public class NovelLikeChangedEvent {
+    private final long userId;
+    private final int novelId;
+    private final boolean liked;
+}
@@ -0,0 +1,35 @@
+package com.spring3.oauth.jwt.events;
+
+import com.spring3.oauth.jwt.entity.enums.UserInteractionTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+// Phát ra khi người dùng thể hiện sự quan tâm tới một truyện, dùng để cập nhật gợi ý cá nhân hóa.
+// strength trong khoảng [0, 1], ví dụ điểm đánh giá đã chuẩn hóa; các loại khác dùng 1.
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserNovelInteractionEvent {
+    private final long userId;
+    private final int novelId;
+    private final UserInteractionTypeEnum type;
+    private final float strength;
+
+    private static final float MAX_RATE_POINT = 5f;
+
+    public static UserNovelInteractionEvent ofRate(long userId, int novelId, BigDecimal ratePoint) {
+        return new UserNovelInteractionEvent(userId, novelId, UserInteractionTypeEnum.RATE, rateStrength(ratePoint));
+    }
+
+    // Đánh giá từ nửa thang điểm trở xuống coi như không thích (strength = 0)
+    public static float rateStrength(BigDecimal ratePoint) {
+        if (ratePoint == null) {
+            return 0f;
+        }
+        float half = MAX_RATE_POINT / 2;
+        return Math.max(0f, Math.min(1f, (ratePoint.floatValue() - half) / half));
+    }
+}
@@ -0,0 +1,128 @@
+package com.spring3.oauth.jwt.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+// Kho audio chương trên đĩa local. Mỗi lần tải lên là một file mới, không ghi đè file cũ, nên file đang được
+// stream không bao giờ bị đổi nội dung giữa chừng; file cũ chỉ bị xóa sau khi DB đã trỏ sang file mới.
+// Key là đường dẫn tương đối "<chapterId & 0xFF dạng hex>/<chapterId>-<uuid>.<ext>" để mỗi thư mục không quá nhiều file.
+// Segment HLS của file (nếu có) nằm trong thư mục "<chapterId>-<uuid>.hls" cạnh file gốc.
+public class AudioFileStore {
+
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+    private static final String SEGMENT_DIRECTORY_SUFFIX = ".hls";
+
+    private final Path directory;
+    private final long maxFileBytes;
+
+    @Getter
+    @AllArgsConstructor
+    public static class StoredFile {
+        private final String key;
+        private final long size;
+    }
+
+    public AudioFileStore(Path directory, long maxFileBytes) throws IOException {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.maxFileBytes = maxFileBytes;
+        Files.createDirectories(this.directory);
+    }
+
+    // Ghi ra file tạm rồi đổi tên; vượt quá maxFileBytes thì ném IllegalArgumentException và không giữ lại gì
+    public StoredFile store(int chapterId, String extension, InputStream content) throws IOException {
+        String key = String.format("%02x/%d-%s.%s", chapterId & 0xFF, chapterId, UUID.randomUUID(), extension);
+        Path file = resolve(key);
+        Files.createDirectories(file.getParent());
+        Path part = Files.createTempFile(file.getParent(), chapterId + "-", ".part");
+        try {
+            long size = 0;
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE);
+                 OutputStream out = Channels.newOutputStream(channel)) {
+                byte[] buffer = new byte[COPY_BUFFER_BYTES];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxFileBytes) {
+                        throw new IllegalArgumentException("Audio file exceeds " + maxFileBytes + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+                channel.force(false);
+            }
+            Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+            return new StoredFile(key, size);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    public Path resolve(String key) {
+        Path file = directory.resolve(key).normalize();
+        if (!file.startsWith(directory)) {
+            throw new IllegalArgumentException("Invalid audio storage key " + key);
+        }
+        return file;
+    }
+
+    // Thư mục segment HLS của file, cạnh file gốc: "<key bỏ phần mở rộng>.hls"
+    public Path segmentDirectory(String key) {
+        return resolve(key.substring(0, key.lastIndexOf('.')) + SEGMENT_DIRECTORY_SUFFIX);
+    }
+
+    // Tên file không kèm thư mục / phần mở rộng, đổi theo mỗi lần tải lên nên dùng trong URL bất biến của segment
+    public static String fileId(String key) {
+        return key.substring(key.lastIndexOf('/') + 1, key.lastIndexOf('.'));
+    }
+
+    // Ghi các segment vào thư mục tạm rồi đổi tên, thư mục segment chỉ xuất hiện khi đã đầy đủ
+    public HlsSegmenter.Result segment(String key, AudioFrameReader.Format format, String uriPrefix,
+                                       double targetSeconds) throws IOException {
+        Path target = segmentDirectory(key);
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        deleteRecursively(part);
+        try {
+            HlsSegmenter.Result result = HlsSegmenter.segment(resolve(key), format, part, uriPrefix,
+                extension(key), targetSeconds);
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+            return result;
+        } finally {
+            deleteRecursively(part);
+        }
+    }
+
+    public static String extension(String key) {
+        return key.substring(key.lastIndexOf('.') + 1);
+    }
+
+    // Xóa cả file gốc lẫn các segment HLS của nó
+    public boolean delete(String key) throws IOException {
+        deleteRecursively(segmentDirectory(key));
+        return Files.deleteIfExists(resolve(key));
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(path)) {
+                for (Path child : children) {
+                    deleteRecursively(child);
+                }
+            }
+        }
+        Files.deleteIfExists(path);
+    }
+}
@@ -0,0 +1,255 @@
+package com.spring3.oauth.jwt.helpers;
+
+import java.nio.ByteBuffer;
+
+// Đọc tuần tự các frame của luồng MP3 (MPEG-1/2/2.5 layer I/II/III) hoặc AAC dạng ADTS chỉ bằng header frame,
+// không giải mã. Dùng kiểu con trỏ (next() rồi đọc getter) để duyệt file dài hàng trăm nghìn frame không cấp phát.
+// Tag ID3v2 ở đầu được bỏ qua; gặp byte rác (ID3v1, APE, dữ liệu hỏng) thì dò frame kế tiếp, chỉ nhận khi
+// frame sau nó cũng hợp lệ để tránh nhầm sync giả.
+public final class AudioFrameReader {
+
+    public enum Format {
+        MP3, ADTS
+    }
+
+    private static final int[][] MP3_BITRATES = {
+        // MPEG-1 layer I, II, III
+        {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},
+        {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},
+        {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320},
+        // MPEG-2 / 2.5 layer I, II + III
+        {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},
+        {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}
+    };
+    private static final int[] MP3_SAMPLE_RATES = {44100, 48000, 32000};
+    private static final int[] ADTS_SAMPLE_RATES = {
+        96000, 88200, 64000, 48000, 44100, 32000, 24000, 22050, 16000, 12000, 11025, 8000, 7350
+    };
+    private static final int ID3_HEADER_SIZE = 10;
+
+    private final ByteBuffer data;
+    private final Format format;
+    private final int limit;
+
+    private int position;
+    private long skippedBytes;
+
+    // Frame hiện tại
+    private int offset = -1;
+    private int length;
+    private int samples;
+    private int sampleRate;
+    private int channels;
+    private int headerSize;
+    private int version;
+
+    // Kết quả của lần parseHeader gần nhất
+    private int parsedLength;
+    private int parsedSamples;
+    private int parsedSampleRate;
+    private int parsedChannels;
+    private int parsedHeaderSize;
+    private int parsedVersion;
+
+    public AudioFrameReader(ByteBuffer data, Format format) {
+        this.data = data;
+        this.format = format;
+        this.limit = data.limit();
+        this.position = data.position() + id3Size(data, data.position());
+    }
+
+    // null nếu định dạng không parse được theo frame (vd. MP4 / Ogg)
+    public static Format formatOf(String contentType) {
+        if ("audio/mpeg".equals(contentType) || "audio/mp3".equals(contentType)) {
+            return Format.MP3;
+        }
+        if ("audio/aac".equals(contentType)) {
+            return Format.ADTS;
+        }
+        return null;
+    }
+
+    public boolean next() {
+        int start = position;
+        while (position + 4 <= limit) {
+            if (parseHeader(position)) {
+                int end = position + parsedLength;
+                // Frame ngay sau frame trước thì tin luôn, vừa dò lại thì cần frame kế tiếp (nếu còn) xác nhận
+                if (end <= limit && (position == start || end + 4 > limit || confirmHeader(end))) {
+                    skippedBytes += position - start;
+                    offset = position;
+                    length = parsedLength;
+                    samples = parsedSamples;
+                    sampleRate = parsedSampleRate;
+                    channels = parsedChannels;
+                    headerSize = parsedHeaderSize;
+                    version = parsedVersion;
+                    position = end;
+                    return true;
+                }
+            }
+            position++;
+        }
+        skippedBytes += limit - start;
+        position = limit;
+        offset = -1;
+        return false;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    // Bit / giây của frame hiện tại (VBR thì mỗi frame một khác)
+    public int getBitrate() {
+        return (int) ((long) length * 8 * sampleRate / samples);
+    }
+
+    public long getSkippedBytes() {
+        return skippedBytes;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    // Frame đầu của file MP3 VBR thường là frame thông tin Xing / Info / VBRI: hợp lệ nhưng không chứa âm thanh
+    public boolean isInfoFrame() {
+        if (format != Format.MP3 || offset < 0) {
+            return false;
+        }
+        int sideInfo = version == 3 ? (channels == 1 ? 17 : 32) : (channels == 1 ? 9 : 17);
+        return matches(offset + headerSize + sideInfo, "Xing") || matches(offset + headerSize + sideInfo, "Info")
+            || matches(offset + headerSize + 32, "VBRI");
+    }
+
+    private boolean confirmHeader(int at) {
+        int savedLength = parsedLength;
+        int savedSamples = parsedSamples;
+        int savedSampleRate = parsedSampleRate;
+        int savedChannels = parsedChannels;
+        int savedHeaderSize = parsedHeaderSize;
+        int savedVersion = parsedVersion;
+        boolean valid = parseHeader(at);
+        parsedLength = savedLength;
+        parsedSamples = savedSamples;
+        parsedSampleRate = savedSampleRate;
+        parsedChannels = savedChannels;
+        parsedHeaderSize = savedHeaderSize;
+        parsedVersion = savedVersion;
+        return valid;
+    }
+
+    private boolean parseHeader(int at) {
+        return format == Format.MP3 ? parseMp3Header(at) : parseAdtsHeader(at);
+    }
+
+    private boolean parseMp3Header(int at) {
+        int header = data.getInt(at);
+        if ((header >>> 21) != 0x7FF) {
+            return false;
+        }
+        int versionBits = (header >>> 19) & 3;
+        int layerBits = (header >>> 17) & 3;
+        int bitrateIndex = (header >>> 12) & 0xF;
+        int sampleRateIndex = (header >>> 10) & 3;
+        // Phiên bản / layer dự phòng, bitrate "free" hoặc sai, tần số dự phòng
+        if (versionBits == 1 || layerBits == 0 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+            return false;
+        }
+        boolean mpeg1 = versionBits == 3;
+        int layer = 4 - layerBits;
+        int table = mpeg1 ? layer - 1 : (layer == 1 ? 3 : 4);
+        int bitrate = MP3_BITRATES[table][bitrateIndex] * 1000;
+        int rate = MP3_SAMPLE_RATES[sampleRateIndex] >> (mpeg1 ? 0 : versionBits == 2 ? 1 : 2);
+        int padding = (header >>> 9) & 1;
+        if (layer == 1) {
+            parsedLength = (12 * bitrate / rate + padding) * 4;
+            parsedSamples = 384;
+        } else if (layer == 2 || mpeg1) {
+            parsedLength = 144 * bitrate / rate + padding;
+            parsedSamples = 1152;
+        } else {
+            parsedLength = 72 * bitrate / rate + padding;
+            parsedSamples = 576;
+        }
+        parsedSampleRate = rate;
+        parsedChannels = ((header >>> 6) & 3) == 3 ? 1 : 2;
+        // Có CRC thì header dài thêm 2 byte
+        parsedHeaderSize = ((header >>> 16) & 1) == 0 ? 6 : 4;
+        parsedVersion = versionBits;
+        return parsedLength > 4;
+    }
+
+    private boolean parseAdtsHeader(int at) {
+        if (at + 7 > limit) {
+            return false;
+        }
+        int b1 = data.get(at + 1) & 0xFF;
+        // Sync 12 bit, layer luôn là 0
+        if ((data.get(at) & 0xFF) != 0xFF || (b1 & 0xF6) != 0xF0) {
+            return false;
+        }
+        int b2 = data.get(at + 2) & 0xFF;
+        int b3 = data.get(at + 3) & 0xFF;
+        int sampleRateIndex = (b2 >>> 2) & 0xF;
+        if (sampleRateIndex >= ADTS_SAMPLE_RATES.length) {
+            return false;
+        }
+        int headerLength = (b1 & 1) == 1 ? 7 : 9;
+        int frameLength = ((b3 & 3) << 11) | ((data.get(at + 4) & 0xFF) << 3) | ((data.get(at + 5) & 0xFF) >>> 5);
+        if (frameLength <= headerLength) {
+            return false;
+        }
+        parsedLength = frameLength;
+        parsedSamples = ((data.get(at + 6) & 3) + 1) * 1024;
+        parsedSampleRate = ADTS_SAMPLE_RATES[sampleRateIndex];
+        int channelConfig = ((b2 & 1) << 2) | (b3 >>> 6);
+        parsedChannels = channelConfig == 0 ? 2 : channelConfig;
+        parsedHeaderSize = headerLength;
+        parsedVersion = 0;
+        return true;
+    }
+
+    private boolean matches(int at, String tag) {
+        if (at < 0 || at + tag.length() > limit) {
+            return false;
+        }
+        for (int i = 0; i < tag.length(); i++) {
+            if (data.get(at + i) != tag.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Tổng kích thước các tag ID3v2 liên tiếp bắt đầu tại at (kích thước dạng syncsafe, có thể kèm footer)
+    private static int id3Size(ByteBuffer data, int at) {
+        int total = 0;
+        while (at + total + ID3_HEADER_SIZE <= data.limit()
+            && data.get(at + total) == 'I' && data.get(at + total + 1) == 'D' && data.get(at + total + 2) == '3') {
+            int base = at + total;
+            int size = ((data.get(base + 6) & 0x7F) << 21) | ((data.get(base + 7) & 0x7F) << 14)
+                | ((data.get(base + 8) & 0x7F) << 7) | (data.get(base + 9) & 0x7F);
+            boolean footer = (data.get(base + 5) & 0x10) != 0;
+            total += ID3_HEADER_SIZE + size + (footer ? ID3_HEADER_SIZE : 0);
+        }
+        return Math.min(total, data.limit() - at);
+    }
+}
@@ -0,0 +1,130 @@
+package com.spring3.oauth.jwt.helpers;
+
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Metadata tính từ header frame lúc nhận file: thời lượng chính xác, bitrate trung bình và bảng tua.
+// Mốc thứ k của bảng tua là offset byte của frame chứa thời điểm k * intervalMillis, nên "tua tới t" chỉ cần
+// một request Range: bytes=offsetAt(t)- (sai số tối đa một frame, ~26 ms với MP3 44.1 kHz).
+// Mã hóa gọn: varint intervalMillis, varint số mốc, rồi varint hiệu offset giữa hai mốc liên tiếp (~2 byte / mốc).
+@Getter
+public final class AudioSeekTable {
+
+    private final int intervalMillis;
+    private final long[] offsets;
+    // Chỉ có khi vừa quét file, bảng decode từ DB không mang theo
+    private final long durationMillis;
+    private final int bitrate;
+
+    private AudioSeekTable(int intervalMillis, long[] offsets, long durationMillis, int bitrate) {
+        this.intervalMillis = intervalMillis;
+        this.offsets = offsets;
+        this.durationMillis = durationMillis;
+        this.bitrate = bitrate;
+    }
+
+    // Frame Xing / Info đầu file không tính vào thời lượng; không có frame hợp lệ nào thì ném IllegalArgumentException
+    public static AudioSeekTable scan(Path source, AudioFrameReader.Format format, int intervalMillis)
+        throws IOException {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Seek interval must be positive");
+        }
+        AudioFrameReader frames;
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            frames = new AudioFrameReader(in.map(FileChannel.MapMode.READ_ONLY, 0, in.size()), format);
+        }
+        long intervalNanos = intervalMillis * 1_000_000L;
+        long[] offsets = new long[64];
+        int count = 0;
+        long elapsedNanos = 0;
+        long audioBytes = 0;
+        boolean first = true;
+        while (frames.next()) {
+            if (first) {
+                first = false;
+                if (frames.isInfoFrame()) {
+                    continue;
+                }
+            }
+            // Cộng dồn theo nano giây để sai số làm tròn không tích lũy qua hàng trăm nghìn frame
+            long endNanos = elapsedNanos + frames.getSamples() * 1_000_000_000L / frames.getSampleRate();
+            while ((long) count * intervalNanos < endNanos) {
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                }
+                offsets[count++] = frames.getOffset();
+            }
+            elapsedNanos = endNanos;
+            audioBytes += frames.getLength();
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("No " + format + " frames found in audio file");
+        }
+        return new AudioSeekTable(intervalMillis, Arrays.copyOf(offsets, count),
+            Math.round(elapsedNanos / 1_000_000.0), (int) Math.round(audioBytes * 8 * 1e9 / elapsedNanos));
+    }
+
+    // Ném IllegalArgumentException nếu dữ liệu hỏng
+    public static AudioSeekTable decode(byte[] data) {
+        int[] cursor = {0};
+        int intervalMillis = (int) readVarint(data, cursor);
+        int count = (int) readVarint(data, cursor);
+        if (intervalMillis <= 0 || count < 0 || count > data.length) {
+            throw new IllegalArgumentException("Corrupt seek table");
+        }
+        long[] offsets = new long[count];
+        long offset = 0;
+        for (int i = 0; i < count; i++) {
+            offset += readVarint(data, cursor);
+            offsets[i] = offset;
+        }
+        return new AudioSeekTable(intervalMillis, offsets, -1, -1);
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + offsets.length * 2);
+        writeVarint(out, intervalMillis);
+        writeVarint(out, offsets.length);
+        long previous = 0;
+        for (long offset : offsets) {
+            writeVarint(out, offset - previous);
+            previous = offset;
+        }
+        return out.toByteArray();
+    }
+
+    // Offset của frame chứa thời điểm millis; quá cuối file thì trả mốc cuối cùng
+    public long offsetAt(long millis) {
+        int index = (int) Math.min(Math.max(millis, 0) / intervalMillis, offsets.length - 1);
+        return offsets[index];
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(byte[] data, int[] cursor) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (cursor[0] >= data.length) {
+                throw new IllegalArgumentException("Corrupt seek table");
+            }
+            byte b = data[cursor[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Corrupt seek table");
+    }
+}
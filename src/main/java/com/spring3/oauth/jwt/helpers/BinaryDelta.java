@@ -0,0 +1,175 @@
+package com.spring3.oauth.jwt.helpers;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+// Delta nhị phân kiểu copy / insert giữa 2 phiên bản nội dung: target = các đoạn copy từ base + các byte chèn mới.
+// Base được đánh chỉ số theo khối BLOCK byte (hash tại mỗi vị trí chia hết cho BLOCK), target được quét bằng
+// rolling hash; khớp được thì nới rộng về hai phía rồi ghi lệnh COPY. Delta tỉ lệ với phần bị sửa, không với
+// độ dài chương. Định dạng: varint độ dài base, varint độ dài target, rồi các lệnh
+// COPY (0, varint offset, varint length) / INSERT (1, varint length, bytes).
+public final class BinaryDelta {
+
+    private static final int BLOCK = 16;
+    private static final int PRIME = 0x01000193;
+    private static final byte COPY = 0;
+    private static final byte INSERT = 1;
+
+    // PRIME^(BLOCK - 1) để bỏ byte đầu cửa sổ khi trượt
+    private static final int OUTGOING_FACTOR;
+
+    static {
+        int factor = 1;
+        for (int i = 1; i < BLOCK; i++) {
+            factor *= PRIME;
+        }
+        OUTGOING_FACTOR = factor;
+    }
+
+    private BinaryDelta() {
+    }
+
+    public static byte[] encode(byte[] base, byte[] target) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + target.length / 8);
+        writeVarint(out, base.length);
+        writeVarint(out, target.length);
+
+        int[] index = buildIndex(base);
+        int mask = index.length - 1;
+        int literalStart = 0;
+        int position = 0;
+        int hash = target.length >= BLOCK ? hash(target, 0) : 0;
+        while (position + BLOCK <= target.length) {
+            int candidate = index.length == 0 ? -1 : index[mix(hash) & mask] - 1;
+            if (candidate >= 0 && Arrays.equals(base, candidate, candidate + BLOCK, target, position, position + BLOCK)) {
+                int baseStart = candidate;
+                int targetStart = position;
+                while (targetStart > literalStart && baseStart > 0 && target[targetStart - 1] == base[baseStart - 1]) {
+                    targetStart--;
+                    baseStart--;
+                }
+                int end = position + BLOCK;
+                int baseEnd = candidate + BLOCK;
+                while (end < target.length && baseEnd < base.length && target[end] == base[baseEnd]) {
+                    end++;
+                    baseEnd++;
+                }
+                writeInsert(out, target, literalStart, targetStart);
+                out.write(COPY);
+                writeVarint(out, baseStart);
+                writeVarint(out, end - targetStart);
+                position = end;
+                literalStart = end;
+                if (position + BLOCK <= target.length) {
+                    hash = hash(target, position);
+                }
+            } else {
+                if (position + BLOCK < target.length) {
+                    hash = (hash - target[position] * OUTGOING_FACTOR) * PRIME + target[position + BLOCK];
+                }
+                position++;
+            }
+        }
+        writeInsert(out, target, literalStart, target.length);
+        return out.toByteArray();
+    }
+
+    // Ném IllegalStateException nếu delta không khớp với base (sai phiên bản hoặc dữ liệu hỏng)
+    public static byte[] apply(byte[] base, byte[] delta) {
+        int[] cursor = {0};
+        int baseLength = readVarint(delta, cursor);
+        int targetLength = readVarint(delta, cursor);
+        if (baseLength != base.length) {
+            throw new IllegalStateException("Delta expects a base of " + baseLength + " bytes, got " + base.length);
+        }
+        byte[] target = new byte[targetLength];
+        int written = 0;
+        while (cursor[0] < delta.length) {
+            byte op = delta[cursor[0]++];
+            if (op == COPY) {
+                int offset = readVarint(delta, cursor);
+                int length = readVarint(delta, cursor);
+                checkRange(offset, length, base.length);
+                checkRange(written, length, targetLength);
+                System.arraycopy(base, offset, target, written, length);
+                written += length;
+            } else if (op == INSERT) {
+                int length = readVarint(delta, cursor);
+                checkRange(cursor[0], length, delta.length);
+                checkRange(written, length, targetLength);
+                System.arraycopy(delta, cursor[0], target, written, length);
+                cursor[0] += length;
+                written += length;
+            } else {
+                throw new IllegalStateException("Unknown delta instruction " + op);
+            }
+        }
+        if (written != targetLength) {
+            throw new IllegalStateException("Delta produced " + written + " bytes, expected " + targetLength);
+        }
+        return target;
+    }
+
+    // Bảng băm địa chỉ mở một vị trí / bucket, lưu offset + 1 (0 là ô trống); khối trùng hash giữ khối đầu tiên
+    private static int[] buildIndex(byte[] base) {
+        int blocks = base.length / BLOCK;
+        if (blocks == 0) {
+            return new int[0];
+        }
+        int[] index = new int[Integer.highestOneBit(blocks * 2 - 1) << 1];
+        int mask = index.length - 1;
+        for (int offset = (blocks - 1) * BLOCK; offset >= 0; offset -= BLOCK) {
+            index[mix(hash(base, offset)) & mask] = offset + 1;
+        }
+        return index;
+    }
+
+    private static int hash(byte[] bytes, int offset) {
+        int hash = 0;
+        for (int i = offset; i < offset + BLOCK; i++) {
+            hash = hash * PRIME + bytes[i];
+        }
+        return hash;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 15) ^ (hash >>> 7);
+    }
+
+    private static void writeInsert(ByteArrayOutputStream out, byte[] target, int from, int to) {
+        if (to > from) {
+            out.write(INSERT);
+            writeVarint(out, to - from);
+            out.write(target, from, to - from);
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] bytes, int[] cursor) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (cursor[0] >= bytes.length) {
+                throw new IllegalStateException("Truncated delta");
+            }
+            byte b = bytes[cursor[0]++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in delta");
+    }
+
+    private static void checkRange(int offset, int length, int limit) {
+        if (offset < 0 || length < 0 || offset > limit - length) {
+            throw new IllegalStateException("Delta instruction out of range");
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.spring3.oauth.jwt.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Kho nội dung chương dạng append-only: nội dung nén gzip được ghi nối tiếp vào các file segment,
+// DB chỉ giữ vị trí (segment, offset, length) và CRC32C. Đọc qua memory-mapped file nên không copy qua heap
+// cho tới khi cần giải nén; bytes gzip có thể trả thẳng cho client với Content-Encoding: gzip.
+// Mỗi bản ghi: header 16 byte (magic, chapterId, length, crc) rồi tới payload; offset trỏ vào payload.
+// Bản ghi mồ côi (ghi xong nhưng transaction DB rollback) chỉ tốn chỗ, không ảnh hưởng dữ liệu.
+public class ChapterSegmentStore implements Closeable {
+
+    private static final int MAGIC = 0x43485031;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+    private static final String SEGMENT_GLOB = "chapters-*.seg";
+    // Glob khớp cả file lạ như chapters-old.seg nên lọc lại bằng regex
+    private static final Pattern SEGMENT_NAME = Pattern.compile("chapters-(\\d{1,9})\\.seg");
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final Map<Integer, MappedByteBuffer> mapped = new ConcurrentHashMap<>();
+
+    private int activeSegment;
+    private FileChannel activeChannel;
+    private long activeSize;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Location {
+        private final int segment;
+        private final long offset;
+        private final int length;
+        private final long crc;
+    }
+
+    public ChapterSegmentStore(Path directory, long maxSegmentBytes) throws IOException {
+        if (maxSegmentBytes <= HEADER_SIZE || maxSegmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must be between " + HEADER_SIZE + " and 2 GB");
+        }
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        Files.createDirectories(directory);
+        int last = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_GLOB)) {
+            for (Path file : files) {
+                last = Math.max(last, segmentNumber(file));
+            }
+        }
+        openSegment(Math.max(last, 1));
+    }
+
+    public synchronized Location append(int chapterId, byte[] compressed) throws IOException {
+        if (activeSize > 0 && activeSize + HEADER_SIZE + compressed.length > maxSegmentBytes) {
+            activeChannel.force(false);
+            activeChannel.close();
+            openSegment(activeSegment + 1);
+        }
+        long crc = checksum(ByteBuffer.wrap(compressed));
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + compressed.length)
+            .putInt(MAGIC)
+            .putInt(chapterId)
+            .putInt(compressed.length)
+            .putInt((int) crc)
+            .put(compressed)
+            .flip();
+        long recordStart = activeSize;
+        while (record.hasRemaining()) {
+            activeSize += activeChannel.write(record);
+        }
+        return new Location(activeSegment, recordStart + HEADER_SIZE, compressed.length, crc);
+    }
+
+    // Gọi trước khi commit con trỏ xuống DB để con trỏ không bao giờ trỏ vào dữ liệu chưa xuống đĩa
+    public synchronized void sync() throws IOException {
+        activeChannel.force(false);
+    }
+
+    // Trả về view chỉ đọc trên vùng đã map (không copy), ném IllegalStateException nếu sai checksum
+    public ByteBuffer read(Location location) throws IOException {
+        MappedByteBuffer buffer = map(location.getSegment(), location.getOffset() + location.getLength());
+        ByteBuffer payload = buffer.slice((int) location.getOffset(), location.getLength()).asReadOnlyBuffer();
+        if (checksum(payload.duplicate()) != location.getCrc()) {
+            throw new IllegalStateException("Chapter content checksum mismatch in segment " + location.getSegment()
+                + " at offset " + location.getOffset());
+        }
+        return payload;
+    }
+
+    public static byte[] compress(String content) {
+        return compress(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static byte[] compress(byte[] content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, content.length / 3));
+        // Chương ghi một lần, đọc rất nhiều lần: dùng mức nén cao nhất
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static String decompress(ByteBuffer compressed) {
+        return new String(decompressBytes(compressed), StandardCharsets.UTF_8);
+    }
+
+    public static byte[] decompressBytes(ByteBuffer compressed) {
+        try (InputStream in = new GZIPInputStream(new ByteBufferInputStream(compressed.duplicate()))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        activeChannel.force(false);
+        activeChannel.close();
+        mapped.clear();
+    }
+
+    // Segment đang ghi lớn dần nên map lại khi vùng cần đọc nằm ngoài phần đã map
+    private MappedByteBuffer map(int segment, long end) throws IOException {
+        MappedByteBuffer buffer = mapped.get(segment);
+        if (buffer != null && buffer.capacity() >= end) {
+            return buffer;
+        }
+        synchronized (mapped) {
+            buffer = mapped.get(segment);
+            if (buffer == null || buffer.capacity() < end) {
+                try (FileChannel channel = FileChannel.open(segmentFile(segment), StandardOpenOption.READ)) {
+                    long size = channel.size();
+                    if (size < end) {
+                        throw new IllegalStateException("Chapter content segment " + segment + " is truncated");
+                    }
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                }
+                mapped.put(segment, buffer);
+            }
+            return buffer;
+        }
+    }
+
+    private void openSegment(int segment) throws IOException {
+        activeSegment = segment;
+        activeChannel = FileChannel.open(segmentFile(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+        activeSize = activeChannel.size();
+    }
+
+    private Path segmentFile(int segment) {
+        return directory.resolve(String.format("chapters-%06d.seg", segment));
+    }
+
+    // 0 nếu tên file không phải segment của kho
+    private static int segmentNumber(Path file) {
+        Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
+    private static long checksum(ByteBuffer bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.spring3.oauth.jwt.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Thông tin tóm tắt của một chương cho mục lục: đoạn trích, số từ, thời gian đọc ước tính.
+// Nội dung có thể là HTML từ editor nên bỏ qua các thẻ và gộp khoảng trắng.
+@Getter
+@AllArgsConstructor
+public class ChapterTextStats {
+
+    public static final int EXCERPT_LENGTH = 200;
+    private static final int WORDS_PER_MINUTE = 200;
+
+    private final String excerpt;
+    private final int wordCount;
+    private final int readingMinutes;
+
+    public static ChapterTextStats of(String content) {
+        if (content == null) {
+            return new ChapterTextStats(null, 0, 0);
+        }
+        StringBuilder excerpt = new StringBuilder(EXCERPT_LENGTH);
+        int words = 0;
+        boolean inTag = false;
+        boolean inWord = false;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '<') {
+                inTag = true;
+            } else if (c == '>' && inTag) {
+                inTag = false;
+                // Thẻ (vd. </p><p>) ngăn cách hai từ
+                c = ' ';
+            }
+            if (inTag) {
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                if (inWord && excerpt.length() < EXCERPT_LENGTH) {
+                    excerpt.append(' ');
+                }
+                inWord = false;
+            } else {
+                if (!inWord) {
+                    words++;
+                    inWord = true;
+                }
+                if (excerpt.length() < EXCERPT_LENGTH) {
+                    excerpt.append(c);
+                }
+            }
+        }
+        int minutes = words == 0 ? 0 : Math.max(1, Math.round((float) words / WORDS_PER_MINUTE));
+        return new ChapterTextStats(excerpt.toString().strip(), words, minutes);
+    }
+}
@@ -0,0 +1,90 @@
+package com.spring3.oauth.jwt.helpers;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.function.Supplier;
+
+// Phiên bản của một tài nguyên, tính từ thời điểm cập nhật / các giá trị thay đổi được lấy bằng query nhẹ.
+// Dùng cho conditional GET: client gửi If-None-Match / If-Modified-Since khớp thì trả 304 mà không load entity.
+@Getter
+public final class ContentVersion {
+
+    private final String etag;
+    // Epoch millis, -1 nếu tài nguyên không có thời điểm sửa đổi rõ ràng (vd. có bộ đếm thay đổi liên tục)
+    private final long lastModified;
+
+    private ContentVersion(String etag, long lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    public static ContentVersion of(LocalDateTime lastModified, Object... parts) {
+        StringBuilder key = new StringBuilder();
+        for (Object part : parts) {
+            key.append(part).append('|');
+        }
+        String etag = "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        return new ContentVersion(etag, lastModified == null ? -1
+            : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    // Cùng phiên bản nhưng khác biểu diễn (vd. gzip): ETag mạnh phải khác nhau để cache không ghép byte của hai bản
+    public ContentVersion variant(String name) {
+        return new ContentVersion(etag.substring(0, etag.length() - 1) + "-" + name + "\"", lastModified);
+    }
+
+    // Chỉ gọi body khi client chưa có bản mới nhất
+    public <T> ResponseEntity<T> respond(WebRequest request, Supplier<T> body) {
+        return isNotModified(request) ? notModified() : ok().body(body.get());
+    }
+
+    public boolean isNotModified(WebRequest request) {
+        return lastModified > 0 ? request.checkNotModified(etag, lastModified) : request.checkNotModified(etag);
+    }
+
+    // If-Range (ETag hoặc HTTP-date) còn khớp thì tải tiếp theo Range được, không khớp thì phải gửi lại toàn bộ
+    public boolean matchesIfRange(String ifRange) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        if (ifRange.startsWith("W/") || lastModified <= 0) {
+            return false;
+        }
+        try {
+            long since = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return since / 1000 == lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    public <T> ResponseEntity<T> notModified() {
+        return response(HttpStatus.NOT_MODIFIED).build();
+    }
+
+    // 200 kèm ETag / Last-Modified, caller thêm header và body
+    public ResponseEntity.BodyBuilder ok() {
+        return response(HttpStatus.OK);
+    }
+
+    private ResponseEntity.BodyBuilder response(HttpStatus status) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status).eTag(etag);
+        if (lastModified > 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,157 @@
+package com.spring3.oauth.jwt.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Cắt file MP3 / AAC (ADTS) thành các segment HLS dạng "packed audio" theo ranh giới frame, không giải mã lại.
+// Mỗi segment gồm tag ID3 PRIV com.apple.streaming.transportStreamTimestamp (PTS 90 kHz của sample đầu tiên,
+// bắt buộc với packed audio) rồi tới các frame nguyên vẹn copy từ file gốc bằng transferTo.
+// Ghi vào thư mục đích: <số thứ tự 5 chữ số>.<ext> và index.m3u8 (VOD, URI segment = uriPrefix + tên file).
+public final class HlsSegmenter {
+
+    public static final String PLAYLIST_FILE = "index.m3u8";
+
+    private static final String TIMESTAMP_OWNER = "com.apple.streaming.transportStreamTimestamp";
+    private static final long PTS_CLOCK = 90_000;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final int segments;
+        private final double durationSeconds;
+    }
+
+    private HlsSegmenter() {
+    }
+
+    public static String segmentFileName(int segmentNo, String extension) {
+        return String.format("%05d.%s", segmentNo, extension);
+    }
+
+    // Không có frame hợp lệ nào thì ném IllegalArgumentException
+    public static Result segment(Path source, AudioFrameReader.Format format, Path directory, String uriPrefix,
+                                 String extension, double targetSeconds) throws IOException {
+        Files.createDirectories(directory);
+        List<Double> durations = new ArrayList<>();
+        double totalSeconds = 0;
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            MappedByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            AudioFrameReader frames = new AudioFrameReader(data, format);
+            FileChannel out = null;
+            double segmentSeconds = 0;
+            // Đoạn frame liên tiếp trong file gốc chưa copy sang segment hiện tại
+            long runStart = -1;
+            long runEnd = -1;
+            try {
+                while (frames.next()) {
+                    if (out == null) {
+                        out = openSegment(directory, durations.size(), extension, totalSeconds);
+                    }
+                    if (frames.getOffset() != runEnd) {
+                        copy(in, runStart, runEnd, out);
+                        runStart = frames.getOffset();
+                    }
+                    runEnd = frames.getOffset() + frames.getLength();
+                    // Frame Xing / Info đầu file không phát ra âm thanh nên không tính thời lượng
+                    double frameSeconds = totalSeconds == 0 && frames.isInfoFrame() ? 0
+                        : (double) frames.getSamples() / frames.getSampleRate();
+                    segmentSeconds += frameSeconds;
+                    totalSeconds += frameSeconds;
+                    if (segmentSeconds >= targetSeconds) {
+                        copy(in, runStart, runEnd, out);
+                        out.close();
+                        out = null;
+                        runStart = runEnd = -1;
+                        durations.add(segmentSeconds);
+                        segmentSeconds = 0;
+                    }
+                }
+                if (out != null) {
+                    copy(in, runStart, runEnd, out);
+                    durations.add(segmentSeconds);
+                }
+            } finally {
+                if (out != null) {
+                    out.close();
+                }
+            }
+        }
+        if (durations.isEmpty()) {
+            throw new IllegalArgumentException("No " + format + " frames found in audio file");
+        }
+        writePlaylist(directory.resolve(PLAYLIST_FILE), durations, uriPrefix, extension);
+        return new Result(durations.size(), totalSeconds);
+    }
+
+    private static FileChannel openSegment(Path directory, int segmentNo, String extension, double startSeconds)
+        throws IOException {
+        FileChannel out = FileChannel.open(directory.resolve(segmentFileName(segmentNo, extension)),
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        ByteBuffer tag = timestampTag(Math.round(startSeconds * PTS_CLOCK));
+        while (tag.hasRemaining()) {
+            out.write(tag);
+        }
+        return out;
+    }
+
+    private static void copy(FileChannel in, long start, long end, FileChannel out) throws IOException {
+        long position = start;
+        while (position < end) {
+            position += in.transferTo(position, end - position, out);
+        }
+    }
+
+    // ID3v2.4 gồm đúng một frame PRIV: owner + '\0' + PTS 33 bit trong 8 byte big-endian
+    private static ByteBuffer timestampTag(long pts) {
+        byte[] owner = TIMESTAMP_OWNER.getBytes(StandardCharsets.ISO_8859_1);
+        int frameBodySize = owner.length + 1 + Long.BYTES;
+        int tagSize = 10 + frameBodySize;
+        ByteBuffer tag = ByteBuffer.allocate(10 + tagSize);
+        tag.put((byte) 'I').put((byte) 'D').put((byte) '3').put((byte) 4).put((byte) 0).put((byte) 0);
+        putSyncsafe(tag, tagSize);
+        tag.put((byte) 'P').put((byte) 'R').put((byte) 'I').put((byte) 'V');
+        putSyncsafe(tag, frameBodySize);
+        tag.putShort((short) 0);
+        tag.put(owner).put((byte) 0);
+        tag.putLong(pts & 0x1FFFFFFFFL);
+        return tag.flip();
+    }
+
+    private static void putSyncsafe(ByteBuffer buffer, int value) {
+        buffer.put((byte) ((value >>> 21) & 0x7F))
+            .put((byte) ((value >>> 14) & 0x7F))
+            .put((byte) ((value >>> 7) & 0x7F))
+            .put((byte) (value & 0x7F));
+    }
+
+    private static void writePlaylist(Path file, List<Double> durations, String uriPrefix, String extension)
+        throws IOException {
+        double longest = durations.stream().mapToDouble(Double::doubleValue).max().orElse(0);
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("#EXTM3U\n");
+            writer.write("#EXT-X-VERSION:3\n");
+            writer.write("#EXT-X-PLAYLIST-TYPE:VOD\n");
+            writer.write("#EXT-X-INDEPENDENT-SEGMENTS\n");
+            writer.write("#EXT-X-TARGETDURATION:" + (long) Math.ceil(longest) + "\n");
+            writer.write("#EXT-X-MEDIA-SEQUENCE:0\n");
+            for (int i = 0; i < durations.size(); i++) {
+                writer.write(String.format(Locale.ROOT, "#EXTINF:%.3f,\n", durations.get(i)));
+                writer.write(uriPrefix + segmentFileName(i, extension) + "\n");
+            }
+            writer.write("#EXT-X-ENDLIST\n");
+        }
+    }
+}
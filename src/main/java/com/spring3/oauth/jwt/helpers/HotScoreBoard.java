@@ -0,0 +1,102 @@
+package com.spring3.oauth.jwt.helpers;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Điểm "hot" giảm dần theo hàm mũ cho từng truyện.
+// Mỗi hoạt động cộng weight * 2^((t - epoch) / halfLife), nên các điểm luôn so sánh được với nhau
+// mà không phải giảm từng điểm theo thời gian; epoch chỉ được dời lên khi xếp hạng để tránh tràn số.
+public class HotScoreBoard {
+
+    // Điểm nhỏ hơn ngưỡng này (sau khi quy về hiện tại) coi như đã nguội và bị loại khỏi bảng
+    private static final double MIN_SCORE = 1e-3;
+
+    private final double halfLifeMillis;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private ConcurrentHashMap<Integer, DoubleAdder> scores = new ConcurrentHashMap<>();
+    private long epochMillis;
+
+    public HotScoreBoard(long halfLifeMillis, long nowMillis) {
+        this.halfLifeMillis = halfLifeMillis;
+        this.epochMillis = nowMillis;
+    }
+
+    public void add(int novelId, double weight, long atMillis) {
+        lock.readLock().lock();
+        try {
+            scores.computeIfAbsent(novelId, id -> new DoubleAdder()).add(weight * decay(atMillis - epochMillis));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public double getScore(int novelId, long nowMillis) {
+        lock.readLock().lock();
+        try {
+            DoubleAdder score = scores.get(novelId);
+            return score == null ? 0 : score.sum() * decay(epochMillis - nowMillis);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return scores.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Trả về id các truyện còn điểm, xếp theo điểm giảm dần (bằng điểm thì id lớn hơn trước)
+    public int[] rank(long nowMillis) {
+        lock.writeLock().lock();
+        try {
+            rebase(nowMillis);
+            int[] ids = new int[scores.size()];
+            double[] values = new double[ids.length];
+            Integer[] order = new Integer[ids.length];
+            int i = 0;
+            for (Map.Entry<Integer, DoubleAdder> entry : scores.entrySet()) {
+                ids[i] = entry.getKey();
+                values[i] = entry.getValue().sum();
+                order[i] = i;
+                i++;
+            }
+            Arrays.sort(order, (a, b) -> values[a] != values[b]
+                ? Double.compare(values[b], values[a])
+                : Integer.compare(ids[b], ids[a]));
+            int[] ranked = new int[ids.length];
+            for (int j = 0; j < order.length; j++) {
+                ranked[j] = ids[order[j]];
+            }
+            return ranked;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Quy toàn bộ điểm về mốc hiện tại và bỏ các truyện đã nguội
+    private void rebase(long nowMillis) {
+        double factor = decay(epochMillis - nowMillis);
+        ConcurrentHashMap<Integer, DoubleAdder> rebased = new ConcurrentHashMap<>(scores.size() * 2);
+        scores.forEach((novelId, score) -> {
+            double value = score.sum() * factor;
+            if (value >= MIN_SCORE) {
+                DoubleAdder adder = new DoubleAdder();
+                adder.add(value);
+                rebased.put(novelId, adder);
+            }
+        });
+        scores = rebased;
+        epochMillis = nowMillis;
+    }
+
+    private double decay(long deltaMillis) {
+        return Math.pow(2, deltaMillis / halfLifeMillis);
+    }
+}
@@ -0,0 +1,110 @@
+package com.spring3.oauth.jwt.helpers;
+
+import java.util.Arrays;
+
+// Hash map int -> float dùng open addressing, không boxing Integer / Float khi cộng dồn hàng triệu cặp.
+// Key phải >= 0 (chỉ số dày đặc của truyện / người dùng). clear() chỉ xóa các ô đã dùng.
+public class IntFloatHashMap {
+
+    private static final int FREE = -1;
+
+    private int[] keys;
+    private float[] values;
+    private int[] usedSlots;
+    private int size;
+    private int mask;
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, float value);
+    }
+
+    public IntFloatHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    public void add(int key, float delta) {
+        int slot = findSlot(key);
+        if (keys[slot] == FREE) {
+            keys[slot] = key;
+            values[slot] = delta;
+            usedSlots[size++] = slot;
+            if (size * 4 >= keys.length * 3) {
+                grow();
+            }
+        } else {
+            values[slot] += delta;
+        }
+    }
+
+    // Giữ giá trị lớn nhất thay vì cộng dồn
+    public void putMax(int key, float value) {
+        int slot = findSlot(key);
+        if (keys[slot] == FREE) {
+            add(key, value);
+        } else if (value > values[slot]) {
+            values[slot] = value;
+        }
+    }
+
+    public float get(int key) {
+        int slot = findSlot(key);
+        return keys[slot] == FREE ? 0f : values[slot];
+    }
+
+    public boolean containsKey(int key) {
+        return keys[findSlot(key)] != FREE;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            int slot = usedSlots[i];
+            consumer.accept(keys[slot], values[slot]);
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            keys[usedSlots[i]] = FREE;
+        }
+        size = 0;
+    }
+
+    private int findSlot(int key) {
+        // Trộn bit để các chỉ số liên tiếp không dồn cụm
+        int slot = (key * 0x9E3779B9) >>> 1 & mask;
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        float[] oldValues = values;
+        int[] oldUsed = usedSlots;
+        int oldSize = size;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldSize; i++) {
+            int oldSlot = oldUsed[i];
+            int slot = findSlot(oldKeys[oldSlot]);
+            keys[slot] = oldKeys[oldSlot];
+            values[slot] = oldValues[oldSlot];
+            usedSlots[size++] = slot;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, FREE);
+        values = new float[capacity];
+        usedSlots = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+}
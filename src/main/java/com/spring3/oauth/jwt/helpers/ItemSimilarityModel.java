@@ -0,0 +1,255 @@
+package com.spring3.oauth.jwt.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntPredicate;
+
+// Mô hình collaborative filtering item-item: độ tương đồng cosine giữa hai truyện tính từ
+// những người dùng cùng tương tác (like, đánh giá cao, đang đọc, thư viện yêu thích).
+// Mỗi truyện chỉ giữ maxNeighbors truyện giống nhất, lưu bằng mảng nguyên thủy. Đối tượng bất biến.
+public class ItemSimilarityModel {
+
+    public static final ItemSimilarityModel EMPTY =
+        new ItemSimilarityModel(new int[0], new int[0][], new float[0][]);
+
+    // Chỉ số dày đặc -> id truyện, tăng dần để tra ngược bằng binary search
+    private final int[] novelIds;
+    private final int[][] neighbors;
+    private final float[][] similarities;
+
+    // Tương tác của một người dùng: id truyện và trọng số tương ứng
+    @Getter
+    @AllArgsConstructor
+    public static class UserProfile {
+        private final int[] novelIds;
+        private final float[] weights;
+    }
+
+    private ItemSimilarityModel(int[] novelIds, int[][] neighbors, float[][] similarities) {
+        this.novelIds = novelIds;
+        this.neighbors = neighbors;
+        this.similarities = similarities;
+    }
+
+    public int size() {
+        return novelIds.length;
+    }
+
+    public static ItemSimilarityModel build(Collection<UserProfile> profiles, int maxNeighbors, int maxItemsPerUser) {
+        int[] novelIds = profiles.stream()
+            .flatMapToInt(profile -> Arrays.stream(profile.getNovelIds()))
+            .distinct()
+            .sorted()
+            .toArray();
+        int itemCount = novelIds.length;
+
+        // Ma trận user x item thưa dạng CSR, mỗi người dùng giữ tối đa maxItemsPerUser tương tác mạnh nhất
+        int[][] userItems = new int[profiles.size()][];
+        float[][] userWeights = new float[profiles.size()][];
+        int[] itemUserCounts = new int[itemCount];
+        int u = 0;
+        for (UserProfile profile : profiles) {
+            UserProfile capped = strongest(profile, maxItemsPerUser);
+            userItems[u] = new int[capped.novelIds.length];
+            userWeights[u] = capped.weights;
+            for (int i = 0; i < capped.novelIds.length; i++) {
+                int item = Arrays.binarySearch(novelIds, capped.novelIds[i]);
+                userItems[u][i] = item;
+                itemUserCounts[item]++;
+            }
+            u++;
+        }
+
+        // Chỉ mục ngược item -> users và chuẩn của từng vector item
+        int[][] itemUsers = new int[itemCount][];
+        float[][] itemUserWeights = new float[itemCount][];
+        double[] norms = new double[itemCount];
+        for (int item = 0; item < itemCount; item++) {
+            itemUsers[item] = new int[itemUserCounts[item]];
+            itemUserWeights[item] = new float[itemUserCounts[item]];
+            itemUserCounts[item] = 0;
+        }
+        for (u = 0; u < userItems.length; u++) {
+            for (int i = 0; i < userItems[u].length; i++) {
+                int item = userItems[u][i];
+                int position = itemUserCounts[item]++;
+                itemUsers[item][position] = u;
+                itemUserWeights[item][position] = userWeights[u][i];
+                norms[item] += (double) userWeights[u][i] * userWeights[u][i];
+            }
+        }
+        for (int item = 0; item < itemCount; item++) {
+            norms[item] = Math.sqrt(norms[item]);
+        }
+
+        // Tính từng hàng của ma trận đồng xuất hiện rồi chỉ giữ top láng giềng, không cần cả ma trận N x N
+        int[][] neighbors = new int[itemCount][];
+        float[][] similarities = new float[itemCount][];
+        IntFloatHashMap row = new IntFloatHashMap(1024);
+        TopK top = new TopK(maxNeighbors);
+        for (int item = 0; item < itemCount; item++) {
+            row.clear();
+            for (int k = 0; k < itemUsers[item].length; k++) {
+                int user = itemUsers[item][k];
+                float weight = itemUserWeights[item][k];
+                for (int i = 0; i < userItems[user].length; i++) {
+                    if (userItems[user][i] != item) {
+                        row.add(userItems[user][i], weight * userWeights[user][i]);
+                    }
+                }
+            }
+            top.reset();
+            double itemNorm = norms[item];
+            row.forEach((other, dot) -> top.offer(other, (float) (dot / (itemNorm * norms[other]))));
+            neighbors[item] = top.sortedKeys();
+            similarities[item] = top.sortedScores();
+        }
+        return new ItemSimilarityModel(novelIds, neighbors, similarities);
+    }
+
+    // Điểm của truyện j = tổng(trọng số truyện i đã tương tác * sim(i, j)), bỏ qua truyện đã tương tác
+    public int[] recommend(UserProfile profile, int limit, IntPredicate allowedNovelId) {
+        IntFloatHashMap scores = new IntFloatHashMap(256);
+        IntFloatHashMap seen = new IntFloatHashMap(profile.novelIds.length);
+        for (int i = 0; i < profile.novelIds.length; i++) {
+            int item = Arrays.binarySearch(novelIds, profile.novelIds[i]);
+            if (item >= 0) {
+                seen.add(item, 1f);
+            }
+        }
+        for (int i = 0; i < profile.novelIds.length; i++) {
+            int item = Arrays.binarySearch(novelIds, profile.novelIds[i]);
+            if (item < 0) {
+                continue;
+            }
+            float weight = profile.weights[i];
+            for (int n = 0; n < neighbors[item].length; n++) {
+                int candidate = neighbors[item][n];
+                if (!seen.containsKey(candidate) && allowedNovelId.test(novelIds[candidate])) {
+                    scores.add(candidate, weight * similarities[item][n]);
+                }
+            }
+        }
+        TopK top = new TopK(limit);
+        scores.forEach(top::offer);
+        int[] ranked = top.sortedKeys();
+        for (int i = 0; i < ranked.length; i++) {
+            ranked[i] = novelIds[ranked[i]];
+        }
+        return ranked;
+    }
+
+    private static UserProfile strongest(UserProfile profile, int maxItems) {
+        if (profile.novelIds.length <= maxItems) {
+            return profile;
+        }
+        TopK top = new TopK(maxItems);
+        for (int i = 0; i < profile.novelIds.length; i++) {
+            top.offer(i, profile.weights[i]);
+        }
+        int[] positions = top.sortedKeys();
+        int[] ids = new int[positions.length];
+        float[] weights = new float[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            ids[i] = profile.novelIds[positions[i]];
+            weights[i] = profile.weights[positions[i]];
+        }
+        return new UserProfile(ids, weights);
+    }
+
+    // Min-heap kích thước cố định trên mảng nguyên thủy để chọn top-k theo điểm
+    private static class TopK {
+        private final int capacity;
+        private final int[] keys;
+        private final float[] scores;
+        private int size;
+
+        TopK(int capacity) {
+            this.capacity = capacity;
+            this.keys = new int[capacity];
+            this.scores = new float[capacity];
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        void offer(int key, float score) {
+            if (capacity == 0 || !(score > 0)) {
+                return;
+            }
+            if (size < capacity) {
+                keys[size] = key;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (less(0, key, score)) {
+                keys[0] = key;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        int[] sortedKeys() {
+            sortDescending();
+            return Arrays.copyOf(keys, size);
+        }
+
+        float[] sortedScores() {
+            return Arrays.copyOf(scores, size);
+        }
+
+        // Heap sort tại chỗ: sau khi xong mảng xếp giảm dần theo điểm; heap không dùng tiếp được
+        private void sortDescending() {
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                int saved = size;
+                size = end;
+                siftDown(0);
+                size = saved;
+            }
+        }
+
+        // Phần tử ở vị trí i "nhỏ hơn" (key, score): điểm thấp hơn, bằng điểm thì key lớn hơn
+        private boolean less(int i, int key, float score) {
+            return scores[i] < score || (scores[i] == score && keys[i] > key);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!less(i, keys[parent], scores[parent])) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    return;
+                }
+                int child = left + 1 < size && less(left + 1, keys[left], scores[left]) ? left + 1 : left;
+                if (!less(child, keys[i], scores[i])) {
+                    return;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int key = keys[a];
+            keys[a] = keys[b];
+            keys[b] = key;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.spring3.oauth.jwt.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+// File audio của một chương nằm trong kho local, kèm version để trả ETag / Last-Modified và kiểm tra If-Range
+@Getter
+@AllArgsConstructor
+public class LocalAudio {
+    private final Path path;
+    private final long size;
+    private final String contentType;
+    private final ContentVersion version;
+}
@@ -0,0 +1,124 @@
+package com.spring3.oauth.jwt.helpers;
+
+import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
+import org.springframework.util.DigestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Ảnh chụp bất biến của danh sách truyện đang mở: mảng id đã sắp xếp, DTO và JSON đã serialize sẵn
+// cho từng truyện. Mỗi thay đổi tạo ra một snapshot mới, reader không bao giờ bị khóa.
+// DTO là lớp mutable nên chỉ trả ra bản sao, người gọi sửa (vd. đánh dấu liked) không làm bẩn snapshot dùng chung.
+public final class NovelCatalogSnapshot {
+
+    public static final NovelCatalogSnapshot EMPTY =
+        new NovelCatalogSnapshot(new int[0], new NovelResponseDTO[0], new byte[0][]);
+
+    private final int[] ids;
+    private final NovelResponseDTO[] novels;
+    private final byte[][] fragments;
+    private final byte[] body;
+    private final String etag;
+
+    public NovelCatalogSnapshot(int[] ids, NovelResponseDTO[] novels, byte[][] fragments) {
+        this.ids = ids;
+        this.novels = novels;
+        this.fragments = fragments;
+        this.body = join(fragments);
+        this.etag = "\"0" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public List<NovelResponseDTO> getNovels() {
+        List<NovelResponseDTO> result = new ArrayList<>(novels.length);
+        for (NovelResponseDTO novel : novels) {
+            result.add(copy(novel));
+        }
+        return result;
+    }
+
+    public NovelResponseDTO findById(int id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index < 0 ? null : copy(novels[index]);
+    }
+
+    public NovelCatalogSnapshot upsert(NovelResponseDTO novel, byte[] fragment) {
+        int index = Arrays.binarySearch(ids, novel.getId());
+        if (index >= 0) {
+            NovelResponseDTO[] newNovels = novels.clone();
+            byte[][] newFragments = fragments.clone();
+            newNovels[index] = novel;
+            newFragments[index] = fragment;
+            return new NovelCatalogSnapshot(ids, newNovels, newFragments);
+        }
+        int insertAt = -index - 1;
+        int[] newIds = new int[ids.length + 1];
+        NovelResponseDTO[] newNovels = new NovelResponseDTO[ids.length + 1];
+        byte[][] newFragments = new byte[ids.length + 1][];
+        System.arraycopy(ids, 0, newIds, 0, insertAt);
+        System.arraycopy(novels, 0, newNovels, 0, insertAt);
+        System.arraycopy(fragments, 0, newFragments, 0, insertAt);
+        newIds[insertAt] = novel.getId();
+        newNovels[insertAt] = novel;
+        newFragments[insertAt] = fragment;
+        System.arraycopy(ids, insertAt, newIds, insertAt + 1, ids.length - insertAt);
+        System.arraycopy(novels, insertAt, newNovels, insertAt + 1, ids.length - insertAt);
+        System.arraycopy(fragments, insertAt, newFragments, insertAt + 1, ids.length - insertAt);
+        return new NovelCatalogSnapshot(newIds, newNovels, newFragments);
+    }
+
+    public NovelCatalogSnapshot remove(int id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return this;
+        }
+        int[] newIds = new int[ids.length - 1];
+        NovelResponseDTO[] newNovels = new NovelResponseDTO[ids.length - 1];
+        byte[][] newFragments = new byte[ids.length - 1][];
+        System.arraycopy(ids, 0, newIds, 0, index);
+        System.arraycopy(novels, 0, newNovels, 0, index);
+        System.arraycopy(fragments, 0, newFragments, 0, index);
+        System.arraycopy(ids, index + 1, newIds, index, ids.length - index - 1);
+        System.arraycopy(novels, index + 1, newNovels, index, ids.length - index - 1);
+        System.arraycopy(fragments, index + 1, newFragments, index, ids.length - index - 1);
+        return new NovelCatalogSnapshot(newIds, newNovels, newFragments);
+    }
+
+    private static NovelResponseDTO copy(NovelResponseDTO novel) {
+        return novel.toBuilder()
+            .genreNames(novel.getGenreNames() == null ? null : new ArrayList<>(novel.getGenreNames()))
+            .build();
+    }
+
+    // Ghép các fragment JSON thành một mảng JSON hoàn chỉnh
+    private static byte[] join(byte[][] fragments) {
+        int length = 2 + Math.max(0, fragments.length - 1);
+        for (byte[] fragment : fragments) {
+            length += fragment.length;
+        }
+        byte[] result = new byte[length];
+        int position = 0;
+        result[position++] = '[';
+        for (int i = 0; i < fragments.length; i++) {
+            if (i > 0) {
+                result[position++] = ',';
+            }
+            System.arraycopy(fragments[i], 0, result, position, fragments[i].length);
+            position += fragments[i].length;
+        }
+        result[position] = ']';
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+package com.spring3.oauth.jwt.helpers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Journal append-only cho các lượt đọc / lượt like chưa ghi xuống DB, để tắt đột ngột không bị mất.
+// Mỗi bản ghi 9 byte: novelId (int), loại bộ đếm (byte), delta (int).
+// Khi flush, file đang ghi được đổi tên thành *.pending và chỉ bị xóa sau khi DB đã commit.
+// Tên file pending (bỏ tiền tố / hậu tố) là id của lô, duy nhất giữa các instance nhờ phần UUID.
+public class NovelCounterJournal implements Closeable {
+
+    public static final byte READ_COUNTS = 0;
+    public static final byte LIKE_COUNTS = 1;
+
+    private static final int RECORD_SIZE = Integer.BYTES + 1 + Integer.BYTES;
+    private static final String ACTIVE_FILE_NAME = "novel-counters.journal";
+    private static final String FILE_PREFIX = "novel-counters.";
+    private static final String PENDING_SUFFIX = ".pending";
+
+    private final Path directory;
+    private final Path activeFile;
+    private FileChannel channel;
+    private int rotations;
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(int novelId, byte counter, int delta);
+    }
+
+    public NovelCounterJournal(Path directory) throws IOException {
+        this.directory = directory;
+        this.activeFile = directory.resolve(ACTIVE_FILE_NAME);
+        Files.createDirectories(directory);
+        // File còn sót lại từ lần chạy trước chưa kịp flush
+        if (Files.exists(activeFile) && Files.size(activeFile) > 0) {
+            moveToPending();
+        }
+        open();
+    }
+
+    // FileChannel tự tuần tự hóa các lệnh write nên nhiều thread có thể ghi cùng lúc
+    public void append(int novelId, byte counter, int delta) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE)
+            .putInt(novelId)
+            .put(counter)
+            .putInt(delta)
+            .flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+    public void sync() throws IOException {
+        channel.force(false);
+    }
+
+    // Caller phải chặn mọi append trong lúc rotate
+    public Path rotate() throws IOException {
+        channel.force(false);
+        channel.close();
+        Path pending = moveToPending();
+        open();
+        return pending;
+    }
+
+    public List<Path> listPending() throws IOException {
+        List<Path> result = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + PENDING_SUFFIX)) {
+            files.forEach(result::add);
+        }
+        result.sort(null);
+        return result;
+    }
+
+    public void delete(Path pending) throws IOException {
+        Files.deleteIfExists(pending);
+    }
+
+    public static String batchId(Path pending) {
+        String name = pending.getFileName().toString();
+        return name.substring(FILE_PREFIX.length(), name.length() - PENDING_SUFFIX.length());
+    }
+
+    // Bản ghi cuối bị ghi dở (crash giữa chừng) được bỏ qua
+    public static void read(Path file, RecordConsumer consumer) throws IOException {
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file));
+        while (content.remaining() >= RECORD_SIZE) {
+            consumer.accept(content.getInt(), content.get(), content.getInt());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.force(false);
+        channel.close();
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(activeFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+    }
+
+    private Path moveToPending() throws IOException {
+        String name = String.format("%s%013d-%06d-%s%s", FILE_PREFIX, System.currentTimeMillis(), rotations++,
+            UUID.randomUUID(), PENDING_SUFFIX);
+        return Files.move(activeFile, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,60 @@
+package com.spring3.oauth.jwt.helpers;
+
+import com.spring3.oauth.jwt.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+// Cursor cho phân trang keyset: (sortKey, id) của phần tử cuối cùng đã trả về, mã hóa base64url
+@Getter
+@AllArgsConstructor
+public class NovelCursor {
+
+    public static final NovelCursor FIRST = new NovelCursor(Long.MAX_VALUE, Integer.MAX_VALUE);
+
+    private final long sortKey;
+    private final int id;
+
+    public static NovelCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length != Long.BYTES + Integer.BYTES) {
+                throw new BadRequestException("Invalid cursor: " + cursor);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new NovelCursor(buffer.getLong(), buffer.getInt());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+        buffer.putLong(sortKey).putInt(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    // Thời gian được lưu dạng micro giây để khớp độ chính xác datetime(6) của MySQL
+    public static long toSortKey(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    public static LocalDateTime toDateTime(long sortKey) {
+        if (sortKey == Long.MAX_VALUE) {
+            return LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(sortKey, 1_000_000L),
+            (int) Math.floorMod(sortKey, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    public int intSortKey() {
+        return (int) Math.min(sortKey, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,335 @@
+package com.spring3.oauth.jwt.helpers;
+
+import com.spring3.oauth.jwt.entity.enums.NovelStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Facet engine trong bộ nhớ cho lọc truyện theo thể loại / trạng thái / đóng-mở.
+// Mỗi giá trị facet là một bitset trên id truyện (id tự tăng nên đủ dày để dùng làm ordinal),
+// lọc AND / OR và đếm facet đều là phép toán trên từng word 64 bit. Đối tượng bất biến: cập nhật một truyện
+// tạo index mới, chỉ sao chép các bitset bị ảnh hưởng, reader không cần khóa.
+public class NovelFacetIndex {
+
+    public enum SortField {
+        LIKE_COUNTS, READ_COUNTS, RELEASED_AT, ID
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class NovelFacets {
+        private final int novelId;
+        private final NovelStatusEnum status;
+        private final boolean closed;
+        private final int likeCounts;
+        private final int readCounts;
+        // Số phút kể từ epoch, 0 nếu chưa phát hành
+        private final int releasedAtMinutes;
+        private final int[] genreIds;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final int total;
+        private final int[] novelIds;
+        private final Map<Integer, Integer> genreCounts;
+        private final Map<NovelStatusEnum, Integer> statusCounts;
+        private final int openCount;
+        private final int closedCount;
+    }
+
+    // Bitset dạng long[]: bit thứ i của word i >> 6 ứng với truyện có id i
+    private final long[] all;
+    private final Map<Integer, long[]> genres;
+    private final Map<NovelStatusEnum, long[]> statuses;
+    private final long[] closed;
+
+    // Đánh chỉ số theo id truyện
+    private final NovelFacets[] novels;
+
+    private NovelFacetIndex(long[] all, Map<Integer, long[]> genres, Map<NovelStatusEnum, long[]> statuses,
+                            long[] closed, NovelFacets[] novels) {
+        this.all = all;
+        this.genres = genres;
+        this.statuses = statuses;
+        this.closed = closed;
+        this.novels = novels;
+    }
+
+    public static NovelFacetIndex build(Collection<NovelFacets> novels) {
+        int maxId = novels.stream().mapToInt(NovelFacets::getNovelId).max().orElse(-1);
+        int words = wordCount(maxId);
+        NovelFacets[] byId = new NovelFacets[maxId + 1];
+        long[] all = new long[words];
+        Map<Integer, long[]> genres = new HashMap<>();
+        Map<NovelStatusEnum, long[]> statuses = new EnumMap<>(NovelStatusEnum.class);
+        long[] closed = new long[words];
+        for (NovelFacets novel : novels) {
+            int id = novel.novelId;
+            byId[id] = novel;
+            set(all, id);
+            for (int genreId : novel.genreIds) {
+                set(genres.computeIfAbsent(genreId, key -> new long[words]), id);
+            }
+            if (novel.status != null) {
+                set(statuses.computeIfAbsent(novel.status, key -> new long[words]), id);
+            }
+            if (novel.closed) {
+                set(closed, id);
+            }
+        }
+        return new NovelFacetIndex(all, genres, statuses, closed, byId);
+    }
+
+    public int size() {
+        return cardinality(all);
+    }
+
+    // Thêm mới hoặc thay thế một truyện
+    public NovelFacetIndex with(NovelFacets novel) {
+        return update(novel.novelId, novel);
+    }
+
+    public NovelFacetIndex without(int novelId) {
+        return novelId < novels.length && novels[novelId] != null ? update(novelId, null) : this;
+    }
+
+    // genreIds rỗng thì không lọc thể loại; matchAll = true: có đủ mọi thể loại, false: có ít nhất một
+    public Result search(Collection<Integer> genreIds, boolean matchAll, Collection<NovelStatusEnum> statusFilter,
+                         Boolean closedFilter, SortField sortField, boolean ascending, long offset, int limit) {
+        long[] matched = all.clone();
+        if (genreIds != null && !genreIds.isEmpty()) {
+            if (matchAll) {
+                for (Integer genreId : genreIds) {
+                    and(matched, genres.get(genreId));
+                }
+            } else {
+                long[] any = new long[matched.length];
+                for (Integer genreId : genreIds) {
+                    or(any, genres.get(genreId));
+                }
+                and(matched, any);
+            }
+        }
+        if (statusFilter != null && !statusFilter.isEmpty()) {
+            long[] any = new long[matched.length];
+            for (NovelStatusEnum status : statusFilter) {
+                or(any, statuses.get(status));
+            }
+            and(matched, any);
+        }
+        if (closedFilter != null) {
+            if (closedFilter) {
+                and(matched, closed);
+            } else {
+                andNot(matched, closed);
+            }
+        }
+
+        int total = cardinality(matched);
+        Map<Integer, Integer> genreCounts = new TreeMap<>();
+        genres.forEach((genreId, bits) -> {
+            int count = andCardinality(matched, bits);
+            if (count > 0) {
+                genreCounts.put(genreId, count);
+            }
+        });
+        Map<NovelStatusEnum, Integer> statusCounts = new LinkedHashMap<>();
+        for (NovelStatusEnum status : NovelStatusEnum.values()) {
+            statusCounts.put(status, andCardinality(matched, statuses.get(status)));
+        }
+        int closedCount = andCardinality(matched, closed);
+
+        int[] page = page(matched, total, sortField, ascending, offset, limit);
+        return new Result(total, page, genreCounts, statusCounts, total - closedCount, closedCount);
+    }
+
+    // Khóa sắp xếp ghép (giá trị << 32 | id): so sánh long là đủ, bằng giá trị thì id lớn hơn đứng trước
+    private int[] page(long[] matched, int total, SortField sortField, boolean ascending, long offset, int limit) {
+        if (offset >= total || limit <= 0) {
+            return new int[0];
+        }
+        int wanted = (int) Math.min(total, offset + limit);
+        long[] top = new long[wanted];
+        int size = 0;
+        for (int word = 0; word < matched.length; word++) {
+            long bits = matched[word];
+            while (bits != 0) {
+                int id = word << 6 | Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int value = sortValue(novels[id], sortField);
+                long key = (long) (ascending ? ~value : value) << 32 | id;
+                if (size < wanted) {
+                    top[size] = key;
+                    siftUp(top, size++);
+                } else if (key > top[0]) {
+                    top[0] = key;
+                    siftDown(top, wanted);
+                }
+            }
+        }
+        Arrays.sort(top, 0, size);
+        int from = (int) offset;
+        int[] ids = new int[size - from];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = (int) top[size - 1 - from - i];
+        }
+        return ids;
+    }
+
+    private static int sortValue(NovelFacets novel, SortField sortField) {
+        return switch (sortField) {
+            case LIKE_COUNTS -> novel.likeCounts;
+            case READ_COUNTS -> novel.readCounts;
+            case RELEASED_AT -> novel.releasedAtMinutes;
+            case ID -> novel.novelId;
+        };
+    }
+
+    // Min-heap trên mảng long: phần tử nhỏ nhất trong top nằm ở gốc
+    private static void siftUp(long[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= heap[i]) {
+                return;
+            }
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int child = left + 1 < size && heap[left + 1] < heap[left] ? left + 1 : left;
+            if (heap[i] <= heap[child]) {
+                return;
+            }
+            swap(heap, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(long[] heap, int a, int b) {
+        long value = heap[a];
+        heap[a] = heap[b];
+        heap[b] = value;
+    }
+
+    private NovelFacetIndex update(int novelId, NovelFacets novel) {
+        NovelFacets old = novelId < novels.length ? novels[novelId] : null;
+        NovelFacets[] newNovels = Arrays.copyOf(novels, Math.max(novels.length, novelId + 1));
+        newNovels[novelId] = novel;
+
+        Map<Integer, long[]> newGenres = new HashMap<>(genres);
+        if (old != null) {
+            for (int genreId : old.genreIds) {
+                newGenres.put(genreId, withBit(newGenres.get(genreId), novelId, false));
+            }
+        }
+        if (novel != null) {
+            for (int genreId : novel.genreIds) {
+                newGenres.put(genreId, withBit(newGenres.get(genreId), novelId, true));
+            }
+        }
+        newGenres.values().removeIf(bits -> cardinality(bits) == 0);
+
+        Map<NovelStatusEnum, long[]> newStatuses = new EnumMap<>(NovelStatusEnum.class);
+        newStatuses.putAll(statuses);
+        if (old != null && old.status != null) {
+            newStatuses.put(old.status, withBit(newStatuses.get(old.status), novelId, false));
+        }
+        if (novel != null && novel.status != null) {
+            newStatuses.put(novel.status, withBit(newStatuses.get(novel.status), novelId, true));
+        }
+
+        return new NovelFacetIndex(
+            withBit(all, novelId, novel != null),
+            newGenres,
+            newStatuses,
+            withBit(closed, novelId, novel != null && novel.closed),
+            newNovels);
+    }
+
+    // Copy-on-write: chỉ sao chép bitset khi bit thực sự thay đổi
+    private static long[] withBit(long[] bits, int id, boolean value) {
+        long[] current = bits == null ? new long[0] : bits;
+        if (get(current, id) == value) {
+            return current;
+        }
+        long[] copy = Arrays.copyOf(current, Math.max(current.length, wordCount(id)));
+        if (value) {
+            set(copy, id);
+        } else {
+            copy[id >> 6] &= ~(1L << id);
+        }
+        return copy;
+    }
+
+    private static int wordCount(int maxId) {
+        return (maxId >> 6) + 1;
+    }
+
+    private static void set(long[] bits, int id) {
+        bits[id >> 6] |= 1L << id;
+    }
+
+    private static boolean get(long[] bits, int id) {
+        return id >> 6 < bits.length && (bits[id >> 6] & 1L << id) != 0;
+    }
+
+    // Các bitset có thể dài ngắn khác nhau (truyện mới thêm sau), phần thiếu coi như toàn bit 0
+    private static void and(long[] target, long[] bits) {
+        int common = bits == null ? 0 : Math.min(target.length, bits.length);
+        for (int i = 0; i < common; i++) {
+            target[i] &= bits[i];
+        }
+        Arrays.fill(target, common, target.length, 0L);
+    }
+
+    private static void or(long[] target, long[] bits) {
+        int common = bits == null ? 0 : Math.min(target.length, bits.length);
+        for (int i = 0; i < common; i++) {
+            target[i] |= bits[i];
+        }
+    }
+
+    private static void andNot(long[] target, long[] bits) {
+        int common = Math.min(target.length, bits.length);
+        for (int i = 0; i < common; i++) {
+            target[i] &= ~bits[i];
+        }
+    }
+
+    private static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static int andCardinality(long[] a, long[] b) {
+        if (b == null) {
+            return 0;
+        }
+        int count = 0;
+        int common = Math.min(a.length, b.length);
+        for (int i = 0; i < common; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,23 @@
+package com.spring3.oauth.jwt.helpers;
+
+import com.spring3.oauth.jwt.models.projections.NovelHeaderProjection;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+// Thông tin tối thiểu của một truyện (không kèm tác giả / thể loại), bất biến để dùng chung trong cache
+@Getter
+@ToString
+@AllArgsConstructor
+public class NovelHeader {
+    private final int id;
+    private final String slug;
+    private final String title;
+    private final Integer authorId;
+    private final boolean closed;
+
+    public static NovelHeader from(NovelHeaderProjection row) {
+        return new NovelHeader(row.getId(), row.getSlug(), row.getTitle(), row.getAuthorId(),
+            Boolean.TRUE.equals(row.getClosed()));
+    }
+}
@@ -0,0 +1,389 @@
+package com.spring3.oauth.jwt.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Inverted index trong bộ nhớ cho tìm kiếm truyện theo tên, tác giả, thể loại và mô tả.
+// Chấm điểm BM25 theo trọng số từng field, nhân thêm hệ số độ phổ biến (like + lượt đọc).
+public class NovelSearchIndex {
+
+    private static final int FILE_MAGIC = 0x4E534931; // "NSI1"
+
+    private static final float TITLE_BOOST = 3.0f;
+    private static final float AUTHOR_BOOST = 2.0f;
+    private static final float GENRE_BOOST = 1.5f;
+    private static final float DESCRIPTION_BOOST = 1.0f;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // Từ cuối cùng của query được tìm theo tiền tố (gõ tới đâu tìm tới đó)
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final float PREFIX_PENALTY = 0.8f;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final TreeMap<String, Map<Integer, Float>> postings = new TreeMap<>();
+    private final Map<Integer, IndexedDocument> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object fileLock = new Object();
+    private final float popularityWeight;
+
+    private double totalLength;
+    private double maxPopularity;
+
+    public NovelSearchIndex(float popularityWeight) {
+        this.popularityWeight = popularityWeight;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Document {
+        private final int id;
+        private final String title;
+        private final String authorName;
+        private final String genres;
+        private final String description;
+        private final int likeCounts;
+        private final int readCounts;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SearchResult {
+        private final List<Integer> ids;
+        private final int totalHits;
+    }
+
+    private static class IndexedDocument {
+        private final Document document;
+        private final Map<String, Float> termWeights;
+        private final float length;
+        private final double popularity;
+
+        IndexedDocument(Document document) {
+            this.document = document;
+            this.termWeights = new HashMap<>();
+            addField(document.getTitle(), TITLE_BOOST);
+            addField(document.getAuthorName(), AUTHOR_BOOST);
+            addField(document.getGenres(), GENRE_BOOST);
+            addField(document.getDescription(), DESCRIPTION_BOOST);
+            float sum = 0;
+            for (float weight : termWeights.values()) {
+                sum += weight;
+            }
+            this.length = sum;
+            this.popularity = Math.log1p(Math.max(0, document.getLikeCounts()) * 2.0 + Math.max(0, document.getReadCounts()));
+        }
+
+        private void addField(String text, float boost) {
+            for (String token : tokenize(text)) {
+                termWeights.merge(token, boost, Float::sum);
+            }
+        }
+    }
+
+    // Bỏ dấu tiếng Việt: "Đấu Phá Thương Khung" -> "dau pha thuong khung"
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").replace('đ', 'd');
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(fold(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(Document document) {
+        IndexedDocument indexed = new IndexedDocument(document);
+        lock.writeLock().lock();
+        try {
+            removeInternal(document.getId());
+            documents.put(document.getId(), indexed);
+            totalLength += indexed.length;
+            maxPopularity = Math.max(maxPopularity, indexed.popularity);
+            for (Map.Entry<String, Float> term : indexed.termWeights.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), key -> new HashMap<>())
+                    .put(document.getId(), term.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void replaceAll(Collection<Document> newDocuments) {
+        List<IndexedDocument> indexed = new ArrayList<>(newDocuments.size());
+        for (Document document : newDocuments) {
+            indexed.add(new IndexedDocument(document));
+        }
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+            maxPopularity = 0;
+            for (IndexedDocument document : indexed) {
+                int id = document.document.getId();
+                documents.put(id, document);
+                totalLength += document.length;
+                maxPopularity = Math.max(maxPopularity, document.popularity);
+                for (Map.Entry<String, Float> term : document.termWeights.entrySet()) {
+                    postings.computeIfAbsent(term.getKey(), key -> new HashMap<>()).put(id, term.getValue());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Document> getDocuments() {
+        lock.readLock().lock();
+        try {
+            List<Document> result = new ArrayList<>(documents.size());
+            for (IndexedDocument document : documents.values()) {
+                result.add(document.document);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SearchResult search(String query, int offset, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new SearchResult(List.of(), 0);
+        }
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return new SearchResult(List.of(), 0);
+            }
+            double averageLength = totalLength / documents.size();
+            Map<Integer, Double> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                boolean prefix = i == terms.size() - 1;
+                Map<Integer, Double> termScores = scoreTerm(terms.get(i), prefix, averageLength);
+                // Mọi từ trong query đều phải khớp (AND)
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Integer, Double> merged = new HashMap<>();
+                    for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                        Double other = termScores.get(entry.getKey());
+                        if (other != null) {
+                            merged.put(entry.getKey(), entry.getValue() + other);
+                        }
+                    }
+                    scores = merged;
+                }
+                if (scores.isEmpty()) {
+                    return new SearchResult(List.of(), 0);
+                }
+            }
+
+            int[] ids = new int[scores.size()];
+            double[] finalScores = new double[scores.size()];
+            int count = 0;
+            for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                IndexedDocument document = documents.get(entry.getKey());
+                double popularityBoost = maxPopularity == 0 ? 0 : document.popularity / maxPopularity;
+                ids[count] = entry.getKey();
+                finalScores[count] = entry.getValue() * (1 + popularityWeight * popularityBoost);
+                count++;
+            }
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> {
+                int compare = Double.compare(finalScores[b], finalScores[a]);
+                return compare != 0 ? compare : Integer.compare(ids[a], ids[b]);
+            });
+            List<Integer> page = new ArrayList<>();
+            for (int i = offset; i < Math.min(count, offset + limit); i++) {
+                page.add(ids[order[i]]);
+            }
+            return new SearchResult(page, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, Double> scoreTerm(String term, boolean prefix, double averageLength) {
+        Map<Integer, Double> result = new HashMap<>();
+        Map<Integer, Float> exact = postings.get(term);
+        if (exact != null) {
+            accumulate(result, exact, averageLength, 1.0f);
+        }
+        if (prefix) {
+            NavigableMap<String, Map<Integer, Float>> expansions =
+                postings.subMap(term, false, term + Character.MAX_VALUE, false);
+            int expanded = 0;
+            for (Map<Integer, Float> posting : expansions.values()) {
+                if (expanded++ >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                accumulate(result, posting, averageLength, PREFIX_PENALTY);
+            }
+        }
+        return result;
+    }
+
+    // Một tài liệu khớp nhiều biến thể tiền tố thì lấy điểm cao nhất
+    private void accumulate(Map<Integer, Double> result, Map<Integer, Float> posting, double averageLength,
+                            float penalty) {
+        int documentCount = documents.size();
+        double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+        for (Map.Entry<Integer, Float> entry : posting.entrySet()) {
+            float weight = entry.getValue();
+            float length = documents.get(entry.getKey()).length;
+            double score = penalty * idf * weight * (K1 + 1)
+                / (weight + K1 * (1 - B + B * length / averageLength));
+            result.merge(entry.getKey(), score, Math::max);
+        }
+    }
+
+    private void removeInternal(int id) {
+        IndexedDocument existing = documents.remove(id);
+        if (existing == null) {
+            return;
+        }
+        totalLength -= existing.length;
+        // Truyện phổ biến nhất bị xóa / cập nhật: tính lại mức chuẩn hóa, nếu không điểm phổ biến
+        // của các truyện còn lại bị nén theo một giá trị không còn tồn tại
+        if (existing.popularity >= maxPopularity) {
+            maxPopularity = 0;
+            for (IndexedDocument document : documents.values()) {
+                maxPopularity = Math.max(maxPopularity, document.popularity);
+            }
+        }
+        for (String term : existing.termWeights.keySet()) {
+            Map<Integer, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    // Ghi file tạm rồi đổi tên để file index luôn ở trạng thái hoàn chỉnh. Mỗi lần ghi một file tạm riêng;
+    // các lần ghi được tuần tự hóa để snapshot cũ không đè lên snapshot mới hơn
+    public void writeTo(Path file) throws IOException {
+        synchronized (fileLock) {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                writeSnapshot(temp, getDocuments());
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private static void writeSnapshot(Path temp, List<Document> snapshot) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(snapshot.size());
+            for (Document document : snapshot) {
+                out.writeInt(document.getId());
+                out.writeInt(document.getLikeCounts());
+                out.writeInt(document.getReadCounts());
+                writeString(out, document.getTitle());
+                writeString(out, document.getAuthorName());
+                writeString(out, document.getGenres());
+                writeString(out, document.getDescription());
+            }
+        }
+    }
+
+    public static List<Document> readFrom(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Not a novel search index file: " + file);
+            }
+            int count = in.readInt();
+            List<Document> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                int likeCounts = in.readInt();
+                int readCounts = in.readInt();
+                result.add(new Document(id, readString(in), readString(in), readString(in), readString(in),
+                    likeCounts, readCounts));
+            }
+            return result;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
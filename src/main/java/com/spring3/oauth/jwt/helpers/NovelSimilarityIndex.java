@@ -0,0 +1,289 @@
+package com.spring3.oauth.jwt.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Index MinHash / LSH để tìm truyện tương tự trong bộ nhớ, không truy vấn DB.
+// Mỗi truyện có 2 chữ ký MinHash: tập thể loại và tập người đọc (đã like); tác giả so khớp chính xác.
+// Điểm tương tự = trộn Jaccard ước lượng của từng phần. Ứng viên lấy từ các bucket LSH (band x row)
+// nên mỗi truy vấn chỉ chấm điểm vài trăm truyện thay vì toàn bộ danh mục. Đối tượng bất biến.
+public class NovelSimilarityIndex {
+
+    private static final int GENRE_HASHES = 32;
+    private static final int READER_HASHES = 64;
+    private static final int ROWS_PER_BAND = 4;
+
+    private static final float GENRE_WEIGHT = 0.5f;
+    private static final float AUTHOR_WEIGHT = 0.2f;
+    private static final float READER_WEIGHT = 0.3f;
+
+    // Bucket quá lớn (vd. rất nhiều truyện cùng một bộ thể loại) chỉ lấy tối đa bấy nhiêu ứng viên
+    private static final int MAX_CANDIDATES = 1000;
+    private static final int MAX_GENRE_CANDIDATES = 300;
+
+    private static final long[] SEEDS = new SplittableRandom(0x5EED_CAFEL)
+        .longs(GENRE_HASHES + READER_HASHES)
+        .toArray();
+
+    public static final NovelSimilarityIndex EMPTY = build(List.of());
+
+    private final int[] novelIds;
+    private final Map<String, Integer> slugIndex;
+    private final int[] authorIds;
+    private final int[][] genreSignatures;
+    private final int[][] readerSignatures;
+
+    // Mỗi band là mảng long đã sắp xếp: 32 bit cao là hash của band, 32 bit thấp là chỉ số truyện
+    private final long[][] genreBands;
+    private final long[][] readerBands;
+    private final long[] authorBucket;
+
+    @Getter
+    @AllArgsConstructor
+    public static class NovelFeatures {
+        private final int novelId;
+        private final String slug;
+        private final Integer authorId;
+        private final Collection<String> genres;
+        private final long[] readerIds;
+    }
+
+    private NovelSimilarityIndex(int[] novelIds, Map<String, Integer> slugIndex, int[] authorIds,
+                                 int[][] genreSignatures, int[][] readerSignatures) {
+        this.novelIds = novelIds;
+        this.slugIndex = slugIndex;
+        this.authorIds = authorIds;
+        this.genreSignatures = genreSignatures;
+        this.readerSignatures = readerSignatures;
+        this.genreBands = buildBands(genreSignatures, GENRE_HASHES / ROWS_PER_BAND);
+        this.readerBands = buildBands(readerSignatures, READER_HASHES / ROWS_PER_BAND);
+
+        int withAuthor = 0;
+        for (int authorId : authorIds) {
+            if (authorId != 0) {
+                withAuthor++;
+            }
+        }
+        this.authorBucket = new long[withAuthor];
+        int position = 0;
+        for (int i = 0; i < authorIds.length; i++) {
+            if (authorIds[i] != 0) {
+                authorBucket[position++] = pack(authorIds[i], i);
+            }
+        }
+        Arrays.sort(authorBucket);
+    }
+
+    public static NovelSimilarityIndex build(List<NovelFeatures> novels) {
+        NovelFeatures[] sorted = novels.toArray(new NovelFeatures[0]);
+        Arrays.sort(sorted, (a, b) -> Integer.compare(a.novelId, b.novelId));
+        int count = sorted.length;
+        int[] novelIds = new int[count];
+        int[] authorIds = new int[count];
+        int[][] genreSignatures = new int[count][];
+        int[][] readerSignatures = new int[count][];
+        Map<String, Integer> slugIndex = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            NovelFeatures novel = sorted[i];
+            novelIds[i] = novel.novelId;
+            authorIds[i] = novel.authorId == null ? 0 : novel.authorId;
+            if (novel.slug != null) {
+                slugIndex.put(novel.slug, i);
+            }
+            genreSignatures[i] = novel.genres == null || novel.genres.isEmpty() ? null
+                : signature(novel.genres.stream().mapToLong(NovelSimilarityIndex::hashString).toArray(), 0, GENRE_HASHES);
+            readerSignatures[i] = novel.readerIds == null || novel.readerIds.length == 0 ? null
+                : signature(Arrays.stream(novel.readerIds).map(NovelSimilarityIndex::mix64).toArray(), GENRE_HASHES, READER_HASHES);
+        }
+        return new NovelSimilarityIndex(novelIds, slugIndex, authorIds, genreSignatures, readerSignatures);
+    }
+
+    public int size() {
+        return novelIds.length;
+    }
+
+    public boolean contains(String slug) {
+        return slugIndex.containsKey(slug);
+    }
+
+    // Trả về id các truyện tương tự nhất, điểm giảm dần; mảng rỗng nếu slug chưa có trong index
+    public int[] findSimilar(String slug, int limit) {
+        Integer index = slugIndex.get(slug);
+        return index == null ? new int[0] : findSimilar(index, limit);
+    }
+
+    public int[] findSimilarById(int novelId, int limit) {
+        int index = Arrays.binarySearch(novelIds, novelId);
+        return index < 0 ? new int[0] : findSimilar(index, limit);
+    }
+
+    private int[] findSimilar(int index, int limit) {
+        IntFloatHashMap candidates = new IntFloatHashMap(256);
+        // Người đọc phân biệt tốt nhất nên lấy trước, thể loại (bucket thường rất lớn) lấy sau cùng
+        collectBandCandidates(readerSignatures[index], readerBands, index, candidates, MAX_CANDIDATES);
+        if (authorIds[index] != 0) {
+            collectBucket(authorBucket, authorIds[index], index, candidates, MAX_CANDIDATES);
+        }
+        collectBandCandidates(genreSignatures[index], genreBands, index, candidates,
+            Math.min(MAX_CANDIDATES, candidates.size() + MAX_GENRE_CANDIDATES));
+
+        // limit nhỏ nên giữ top bằng chèn vào mảng đã sắp xếp, phần lớn ứng viên bị loại ngay
+        int[] top = new int[Math.min(limit, candidates.size())];
+        float[] topScores = new float[top.length];
+        int[] size = {0};
+        candidates.forEach((candidate, ignored) -> {
+            float score = score(index, candidate);
+            if (score <= 0 || (size[0] == top.length && !ranksBefore(score, candidate, topScores[size[0] - 1], top[size[0] - 1]))) {
+                return;
+            }
+            int position = size[0] == top.length ? size[0] - 1 : size[0]++;
+            while (position > 0 && ranksBefore(score, candidate, topScores[position - 1], top[position - 1])) {
+                top[position] = top[position - 1];
+                topScores[position] = topScores[position - 1];
+                position--;
+            }
+            top[position] = candidate;
+            topScores[position] = score;
+        });
+        int[] result = new int[size[0]];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = novelIds[top[i]];
+        }
+        return result;
+    }
+
+    // Điểm cao hơn đứng trước, bằng điểm thì truyện mới hơn (id lớn hơn) đứng trước
+    private static boolean ranksBefore(float score, int index, float otherScore, int otherIndex) {
+        return score > otherScore || (score == otherScore && index > otherIndex);
+    }
+
+    private float score(int a, int b) {
+        float score = 0;
+        if (genreSignatures[a] != null && genreSignatures[b] != null) {
+            score += GENRE_WEIGHT * agreement(genreSignatures[a], genreSignatures[b]);
+        }
+        if (authorIds[a] != 0 && authorIds[a] == authorIds[b]) {
+            score += AUTHOR_WEIGHT;
+        }
+        if (readerSignatures[a] != null && readerSignatures[b] != null) {
+            score += READER_WEIGHT * agreement(readerSignatures[a], readerSignatures[b]);
+        }
+        return score;
+    }
+
+    // Tỉ lệ vị trí trùng nhau của 2 chữ ký MinHash ~ hệ số Jaccard của 2 tập
+    private static float agreement(int[] a, int[] b) {
+        int same = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                same++;
+            }
+        }
+        return (float) same / a.length;
+    }
+
+    private static void collectBandCandidates(int[] signature, long[][] bands, int self,
+                                              IntFloatHashMap candidates, int maxCandidates) {
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < bands.length && candidates.size() < maxCandidates; band++) {
+            collectBucket(bands[band], bandHash(signature, band), self, candidates, maxCandidates);
+        }
+    }
+
+    private static void collectBucket(long[] bucket, int key, int self, IntFloatHashMap candidates, int maxCandidates) {
+        int position = lowerBound(bucket, (long) key << 32);
+        while (position < bucket.length && (int) (bucket[position] >> 32) == key
+            && candidates.size() < maxCandidates) {
+            int candidate = (int) bucket[position];
+            if (candidate != self) {
+                candidates.putMax(candidate, 1f);
+            }
+            position++;
+        }
+    }
+
+    private static long[][] buildBands(int[][] signatures, int bandCount) {
+        int withSignature = 0;
+        for (int[] signature : signatures) {
+            if (signature != null) {
+                withSignature++;
+            }
+        }
+        long[][] bands = new long[bandCount][withSignature];
+        for (int band = 0; band < bandCount; band++) {
+            int position = 0;
+            for (int i = 0; i < signatures.length; i++) {
+                if (signatures[i] != null) {
+                    bands[band][position++] = pack(bandHash(signatures[i], band), i);
+                }
+            }
+            Arrays.sort(bands[band]);
+        }
+        return bands;
+    }
+
+    private static int bandHash(int[] signature, int band) {
+        long hash = band;
+        for (int row = band * ROWS_PER_BAND; row < (band + 1) * ROWS_PER_BAND; row++) {
+            hash = hash * 0x100000001B3L + signature[row];
+        }
+        return (int) (mix64(hash) >>> 32);
+    }
+
+    private static int[] signature(long[] tokens, int seedOffset, int hashes) {
+        int[] signature = new int[hashes];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long token : tokens) {
+            for (int i = 0; i < hashes; i++) {
+                int value = (int) (mix64(token ^ SEEDS[seedOffset + i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    // Giữ so sánh có dấu của long nhất quán với thứ tự sắp xếp của mảng band
+    private static long pack(int key, int index) {
+        return (long) key << 32 | (index & 0xFFFFFFFFL);
+    }
+
+    private static int lowerBound(long[] sorted, long value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long hashString(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return mix64(hash);
+    }
+
+    // Bộ trộn bit của SplitMix64
+    private static long mix64(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,97 @@
+package com.spring3.oauth.jwt.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Chia nội dung chương (bytes UTF-8) thành các khoảng byte cắt ở cuối đoạn văn, để client xin từng phần bằng
+// header Range mà mỗi phần đều hiển thị được ngay. Ranh giới đoạn: sau "</p>", "<br>" hoặc xuống dòng;
+// các ký tự này là ASCII nên không bao giờ cắt giữa một ký tự UTF-8 nhiều byte.
+public final class ParagraphChunker {
+
+    // Không tìm được ranh giới đoạn trong khoảng này thì cắt ở ranh giới thẻ / khoảng trắng gần nhất
+    private static final int MAX_OVERSHOOT_FACTOR = 2;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Chunk {
+        private final int index;
+        // Khoảng đóng [start, end] như trong header Range: bytes=start-end
+        private final long start;
+        private final long end;
+    }
+
+    private ParagraphChunker() {
+    }
+
+    public static List<Chunk> split(byte[] content, int firstBytes, int targetBytes) {
+        List<Chunk> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < content.length) {
+            int target = chunks.isEmpty() ? firstBytes : targetBytes;
+            int end = cut(content, start, target);
+            chunks.add(new Chunk(chunks.size(), start, end - 1));
+            start = end;
+        }
+        return chunks;
+    }
+
+    // Trả về vị trí (không bao gồm) kết thúc phần bắt đầu từ start
+    private static int cut(byte[] content, int start, int target) {
+        if (content.length - start <= target) {
+            return content.length;
+        }
+        int limit = (int) Math.min(content.length, (long) start + (long) target * MAX_OVERSHOOT_FACTOR);
+        for (int i = start + target; i < limit; i++) {
+            int end = paragraphEnd(content, i);
+            if (end > 0) {
+                return end;
+            }
+        }
+        // Không có ranh giới phía sau thì lấy phần ngắn hơn (ít nhất nửa target), kết thúc ở ranh giới đoạn phía trước
+        int minEnd = start + target / 2;
+        for (int i = start + target - 1; i >= minEnd; i--) {
+            int end = paragraphEnd(content, i);
+            if (end > 0) {
+                return end;
+            }
+        }
+        // Đoạn văn quá dài: lùi về ranh giới thẻ hoặc khoảng trắng, cuối cùng là ranh giới ký tự UTF-8
+        for (int i = limit - 1; i >= minEnd; i--) {
+            if (content[i] == '>' || content[i] == ' ') {
+                return i + 1;
+            }
+        }
+        int end = limit;
+        while (end < content.length && end > start + 1 && (content[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return end;
+    }
+
+    private static int paragraphEnd(byte[] content, int i) {
+        if (content[i] == '\n') {
+            return i + 1;
+        }
+        if (content[i] == '>' && (endsWith(content, i, "</p>") || endsWith(content, i, "<br>")
+            || endsWith(content, i, "<br/>") || endsWith(content, i, "<br />"))) {
+            return i + 1;
+        }
+        return -1;
+    }
+
+    private static boolean endsWith(byte[] content, int last, String tag) {
+        int from = last - tag.length() + 1;
+        if (from < 0) {
+            return false;
+        }
+        for (int j = 0; j < tag.length(); j++) {
+            if (Character.toLowerCase(content[from + j]) != tag.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,87 @@
+package com.spring3.oauth.jwt.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Bảng xếp hạng (mảng id theo thứ tự) được tính lại định kỳ, mỗi lần là một thế hệ mới.
+// Cursor trỏ vào vị trí trong một thế hệ cụ thể (sortKey = thế hệ << 32 | số phần tử đã trả, id = phần tử cuối)
+// chứ không trỏ vào điểm / bộ đếm đang thay đổi, nên cuộn qua nhiều trang không bị lặp hay sót.
+// Giữ lại vài thế hệ gần nhất; cursor của thế hệ đã bị bỏ thì đi tiếp ngay sau id cuối trong bản hiện tại.
+public class RankingSnapshots {
+
+    private final int retained;
+    private final Map<Integer, int[]> recent = new ConcurrentHashMap<>();
+    private volatile int generation;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Slice {
+        private final List<Integer> ids;
+        private final String nextCursor;
+        private final boolean hasNext;
+    }
+
+    public RankingSnapshots(int retained) {
+        this.retained = retained;
+    }
+
+    public synchronized void publish(int[] ids) {
+        int next = generation + 1;
+        recent.put(next, ids);
+        generation = next;
+        recent.remove(next - retained);
+    }
+
+    // null khi chưa tính lần nào
+    public int[] current() {
+        return recent.get(generation);
+    }
+
+    public Slice slice(NovelCursor cursor, int limit) {
+        int currentGeneration = generation;
+        int[] ids = recent.get(currentGeneration);
+        if (ids == null) {
+            return new Slice(List.of(), null, false);
+        }
+        int sliceGeneration = currentGeneration;
+        int from = 0;
+        if (cursor.getSortKey() != NovelCursor.FIRST.getSortKey()) {
+            int cursorGeneration = (int) (cursor.getSortKey() >>> 32);
+            int position = (int) cursor.getSortKey();
+            int[] retainedIds = recent.get(cursorGeneration);
+            if (retainedIds != null) {
+                ids = retainedIds;
+                sliceGeneration = cursorGeneration;
+                from = position;
+            } else {
+                int index = indexOf(ids, cursor.getId());
+                from = index >= 0 ? index + 1 : position;
+            }
+        }
+        from = Math.max(0, Math.min(from, ids.length));
+        int to = Math.min(from + limit, ids.length);
+        List<Integer> page = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            page.add(ids[i]);
+        }
+        boolean hasNext = to < ids.length;
+        String nextCursor = hasNext
+            ? new NovelCursor(((long) sliceGeneration << 32) | to, ids[to - 1]).encode()
+            : null;
+        return new Slice(page, nextCursor, hasNext);
+    }
+
+    private static int indexOf(int[] ids, int id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
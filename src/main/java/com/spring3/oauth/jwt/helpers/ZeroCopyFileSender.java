@@ -0,0 +1,53 @@
+package com.spring3.oauth.jwt.helpers;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Gửi một đoạn file làm body response mà không copy qua heap. Connector Tomcat NIO hỗ trợ sendfile thì chỉ đặt
+// các attribute sendfile: sau khi handler trả về, Tomcat gửi bằng FileChannel.transferTo trên poller, không giữ
+// thread request trong lúc client tải. Connector khác thì transferTo thẳng vào output stream của response.
+// Caller đặt status / header trước khi gọi, handler không được ghi thêm body sau đó.
+public final class ZeroCopyFileSender {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private ZeroCopyFileSender() {
+    }
+
+    public static void send(HttpServletRequest request, HttpServletResponse response, Path file, long start,
+                            long length) throws IOException {
+        response.setContentLengthLong(length);
+        if (length == 0 || "HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            // Vị trí kết thúc không bao gồm
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, out);
+                if (sent <= 0 && position >= channel.size()) {
+                    throw new IOException("File " + file + " is shorter than the requested range");
+                }
+                position += sent;
+            }
+        }
+    }
+}
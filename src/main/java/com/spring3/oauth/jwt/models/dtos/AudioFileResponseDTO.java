@@ -13,5 +13,8 @@ public class AudioFileResponseDTO {
     private Integer id;
     private String audioUrl;
     private Long duration;
+    private Long durationMs;
+    private Integer bitrate;
+    private String seekTableUrl;
     private Integer chapterId;
 }
@@ -0,0 +1,22 @@
+package com.spring3.oauth.jwt.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AudioManifestItemDTO {
+    private Integer id;
+    private Integer chapterId;
+    private Integer chapterNo;
+    private String audioUrl;
+    private Long duration;
+    private Long durationMs;
+    private Integer bitrate;
+    private String seekTableUrl;
+    private String hlsPlaylistUrl;
+}
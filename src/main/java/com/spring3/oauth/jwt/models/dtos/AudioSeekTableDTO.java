@@ -0,0 +1,20 @@
+package com.spring3.oauth.jwt.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AudioSeekTableDTO {
+    private Integer chapterId;
+    private String audioUrl;
+    private Long durationMs;
+    private Integer bitrate;
+    private Integer intervalMs;
+    // offsets[k]: byte bắt đầu frame chứa thời điểm k * intervalMs, dùng làm Range: bytes=offsets[k]-
+    private long[] offsets;
+}
@@ -0,0 +1,48 @@
+package com.spring3.oauth.jwt.models.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CacheStatsDTO {
+    private String name;
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long loadFailureCount;
+    private double averageLoadPenaltyMs;
+    private long evictionCount;
+    // Chỉ có ở cache giới hạn theo dung lượng
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long weightedBytes;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long maximumBytes;
+
+    public static CacheStatsDTO of(String name, long size, CacheStats stats) {
+        return CacheStatsDTO.builder()
+            .name(name)
+            .size(size)
+            .hitCount(stats.hitCount())
+            .missCount(stats.missCount())
+            .hitRate(stats.hitRate())
+            .loadFailureCount(stats.loadFailureCount())
+            .averageLoadPenaltyMs(stats.averageLoadPenalty() / 1_000_000.0)
+            .evictionCount(stats.evictionCount())
+            .build();
+    }
+
+    public static CacheStatsDTO of(String name, long size, CacheStats stats, long weightedBytes, long maximumBytes) {
+        CacheStatsDTO dto = of(name, size, stats);
+        dto.setWeightedBytes(weightedBytes);
+        dto.setMaximumBytes(maximumBytes);
+        return dto;
+    }
+}
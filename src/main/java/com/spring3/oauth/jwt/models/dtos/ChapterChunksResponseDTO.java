@@ -0,0 +1,22 @@
+package com.spring3.oauth.jwt.models.dtos;
+
+import com.spring3.oauth.jwt.helpers.ParagraphChunker;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChapterChunksResponseDTO {
+    private int chapterNo;
+    // Độ dài nội dung (bytes UTF-8) của /content khi không nén
+    private long contentLength;
+    // Nội dung phần đầu tiên gửi kèm để client hiển thị màn hình đầu không cần thêm request
+    private String firstChunk;
+    private List<ParagraphChunker.Chunk> chunks;
+}
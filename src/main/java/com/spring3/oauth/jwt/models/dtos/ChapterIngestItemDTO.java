@@ -0,0 +1,22 @@
+package com.spring3.oauth.jwt.models.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.spring3.oauth.jwt.entity.enums.ChapterIngestStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChapterIngestItemDTO {
+    // Vị trí của chương trong request (mảng JSON / dòng NDJSON / entry zip), tính từ 0
+    private int index;
+    private Integer chapterNo;
+    private ChapterIngestStatusEnum status;
+    private Integer chapterId;
+    private String message;
+}
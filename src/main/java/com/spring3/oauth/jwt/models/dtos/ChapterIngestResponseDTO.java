@@ -0,0 +1,21 @@
+package com.spring3.oauth.jwt.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChapterIngestResponseDTO {
+    private int novelId;
+    private int received;
+    private int created;
+    private int rejected;
+    private long elapsedMs;
+    private List<ChapterIngestItemDTO> items;
+}
@@ -1,5 +1,7 @@
 package com.spring3.oauth.jwt.models.dtos;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.spring3.oauth.jwt.entity.Novel;
 import jakarta.persistence.Column;
 import jakarta.persistence.JoinColumn;
@@ -23,4 +25,12 @@ public class ChapterResponseDTO {
     private String contentDoc;
     private String thumbnailImageUrl;
     private Integer novelId;
+    private Integer wordCount;
+    private Integer readingMinutes;
+    // Chỉ có ở chi tiết chương; null nếu đây là chương mới nhất
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer nextChapterNo;
+    // Chỉ có ở chi tiết chương, dùng tính ETag từ bản trong cache đọc trước
+    @JsonIgnore
+    private LocalDateTime updatedAt;
 }
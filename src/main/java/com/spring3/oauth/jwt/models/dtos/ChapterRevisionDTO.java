@@ -0,0 +1,28 @@
+package com.spring3.oauth.jwt.models.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChapterRevisionDTO {
+    private int revisionNo;
+    private String title;
+    private boolean current;
+    // Cách lưu của bản cũ (snapshot hay delta), null với bản hiện tại
+    private Boolean snapshot;
+    private Integer contentLength;
+    private Integer storedBytes;
+    private LocalDateTime createdAt;
+    private LocalDateTime replacedAt;
+    // Chỉ có khi lấy một phiên bản cụ thể
+    private String contentDoc;
+}
@@ -0,0 +1,18 @@
+package com.spring3.oauth.jwt.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPagedResponseDTO {
+    private List<NovelResponseDTO> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
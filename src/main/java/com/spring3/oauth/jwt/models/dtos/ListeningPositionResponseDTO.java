@@ -0,0 +1,19 @@
+package com.spring3.oauth.jwt.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ListeningPositionResponseDTO {
+    private String slug;
+    private Integer chapterId;
+    private Long positionMs;
+    private LocalDateTime updatedAt;
+}
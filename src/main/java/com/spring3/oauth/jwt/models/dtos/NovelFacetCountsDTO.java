@@ -0,0 +1,21 @@
+package com.spring3.oauth.jwt.models.dtos;
+
+import com.spring3.oauth.jwt.entity.enums.NovelStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+// Số truyện trong kết quả lọc theo từng giá trị facet
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class NovelFacetCountsDTO {
+    private Map<Integer, Integer> genres;
+    private Map<NovelStatusEnum, Integer> statuses;
+    private int open;
+    private int closed;
+}
@@ -1,5 +1,6 @@
 package com.spring3.oauth.jwt.models.dtos;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.spring3.oauth.jwt.entity.enums.NovelStatusEnum;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,8 +14,9 @@ import java.util.List;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class NovelResponseDTO {
+    private Integer id;
     private String slug;
     private String title;
     private String description;
@@ -28,4 +30,7 @@ public class NovelResponseDTO {
     private int likeCounts;
     private String authorName;
     private List<String> genreNames;
+    // Chỉ có giá trị khi đã đánh dấu theo người dùng đang xem, null thì không xuất ra JSON
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean liked;
 }
@@ -1,5 +1,6 @@
 package com.spring3.oauth.jwt.models.dtos;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,6 +13,9 @@ import lombok.NoArgsConstructor;
 public class PaginationDTO {
     private int pageNum;
     private int pageSize;
-    private long totalItems;
+    // null khi client gọi với withTotal=false (không chạy COUNT), khi đó chỉ dựa vào hasNext
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalItems;
+    private boolean hasNext;
 
 }
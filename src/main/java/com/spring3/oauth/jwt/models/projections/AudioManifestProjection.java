@@ -0,0 +1,15 @@
+package com.spring3.oauth.jwt.models.projections;
+
+// Một dòng trong danh sách audio của truyện, không load entity Chapter
+public interface AudioManifestProjection {
+    Integer getId();
+    Integer getChapterId();
+    Integer getChapterNo();
+    String getAudioUrl();
+    Long getDuration();
+    Long getDurationMs();
+    Integer getBitrate();
+    // File trong kho có bảng tua / segment HLS hay không (không select cả LOB)
+    Boolean getSeekable();
+    Boolean getSegmented();
+}
@@ -0,0 +1,10 @@
+package com.spring3.oauth.jwt.models.projections;
+
+import java.time.LocalDateTime;
+
+// Version của file audio đang lưu cho một chương, đủ để trả 304 mà không load seek table
+public interface AudioStorageProjection {
+    Integer getId();
+    String getStorageKey();
+    LocalDateTime getStoredAt();
+}
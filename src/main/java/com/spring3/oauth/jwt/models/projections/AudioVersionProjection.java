@@ -0,0 +1,11 @@
+package com.spring3.oauth.jwt.models.projections;
+
+import java.time.LocalDateTime;
+
+// Version của danh sách audio một truyện: số lượng, id lớn nhất, tổng thời lượng và lần tải file lên gần nhất
+public interface AudioVersionProjection {
+    Long getCount();
+    Integer getMaxId();
+    Long getTotalDuration();
+    LocalDateTime getStoredAt();
+}
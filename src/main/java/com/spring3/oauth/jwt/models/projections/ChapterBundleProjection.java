@@ -0,0 +1,6 @@
+package com.spring3.oauth.jwt.models.projections;
+
+// Con trỏ nội dung kèm số chương, dùng khi duyệt toàn bộ chương của một truyện theo keyset
+public interface ChapterBundleProjection extends ChapterContentProjection {
+    Integer getChapterNo();
+}
@@ -0,0 +1,11 @@
+package com.spring3.oauth.jwt.models.projections;
+
+// Con trỏ tới nội dung chương trong kho segment, không kéo cột content_doc
+public interface ChapterContentProjection {
+    Integer getId();
+    Integer getNovelId();
+    Integer getContentSegment();
+    Long getContentOffset();
+    Integer getContentLength();
+    Long getContentCrc();
+}
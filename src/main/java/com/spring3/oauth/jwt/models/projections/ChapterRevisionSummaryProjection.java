@@ -0,0 +1,13 @@
+package com.spring3.oauth.jwt.models.projections;
+
+import java.time.LocalDateTime;
+
+public interface ChapterRevisionSummaryProjection {
+    Integer getRevisionNo();
+    String getTitle();
+    Boolean getSnapshot();
+    Integer getContentLength();
+    Integer getStoredBytes();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getReplacedAt();
+}
@@ -0,0 +1,16 @@
+package com.spring3.oauth.jwt.models.projections;
+
+import java.time.LocalDateTime;
+
+// Một dòng mục lục chương, không select content_doc
+public interface ChapterTocProjection {
+    Integer getId();
+    Integer getChapterNo();
+    String getTitle();
+    LocalDateTime getReleasedAt();
+    String getThumbnailImageUrl();
+    Integer getNovelId();
+    String getExcerpt();
+    Integer getWordCount();
+    Integer getReadingMinutes();
+}
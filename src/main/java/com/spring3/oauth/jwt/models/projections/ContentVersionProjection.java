@@ -0,0 +1,9 @@
+package com.spring3.oauth.jwt.models.projections;
+
+import java.time.LocalDateTime;
+
+// Số bản ghi và thời điểm cập nhật gần nhất của một danh sách, dùng làm version cho ETag
+public interface ContentVersionProjection {
+    Long getCount();
+    LocalDateTime getUpdatedAt();
+}
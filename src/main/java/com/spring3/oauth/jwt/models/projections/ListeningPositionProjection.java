@@ -0,0 +1,9 @@
+package com.spring3.oauth.jwt.models.projections;
+
+import java.time.LocalDateTime;
+
+public interface ListeningPositionProjection {
+    Integer getChapterId();
+    Long getPositionMs();
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,8 @@
+package com.spring3.oauth.jwt.models.projections;
+
+import java.time.LocalDateTime;
+
+public interface NovelActivityProjection {
+    Integer getNovelId();
+    LocalDateTime getOccurredAt();
+}
@@ -0,0 +1,14 @@
+package com.spring3.oauth.jwt.models.projections;
+
+import com.spring3.oauth.jwt.entity.enums.NovelStatusEnum;
+
+import java.time.LocalDateTime;
+
+public interface NovelFacetProjection {
+    Integer getId();
+    NovelStatusEnum getStatus();
+    Boolean getClosed();
+    Integer getLikeCounts();
+    Integer getReadCounts();
+    LocalDateTime getReleasedAt();
+}
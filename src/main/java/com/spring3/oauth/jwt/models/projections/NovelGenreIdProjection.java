@@ -0,0 +1,6 @@
+package com.spring3.oauth.jwt.models.projections;
+
+public interface NovelGenreIdProjection {
+    Integer getNovelId();
+    Integer getGenreId();
+}
@@ -0,0 +1,6 @@
+package com.spring3.oauth.jwt.models.projections;
+
+public interface NovelGenreProjection {
+    Integer getNovelId();
+    String getGenreName();
+}
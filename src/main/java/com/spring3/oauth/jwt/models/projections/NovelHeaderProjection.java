@@ -0,0 +1,9 @@
+package com.spring3.oauth.jwt.models.projections;
+
+public interface NovelHeaderProjection {
+    Integer getId();
+    String getSlug();
+    String getTitle();
+    Integer getAuthorId();
+    Boolean getClosed();
+}
@@ -0,0 +1,7 @@
+package com.spring3.oauth.jwt.models.projections;
+
+public interface NovelKeyProjection {
+    Integer getId();
+    String getSlug();
+    Integer getAuthorId();
+}
@@ -0,0 +1,22 @@
+package com.spring3.oauth.jwt.models.projections;
+
+import com.spring3.oauth.jwt.entity.enums.NovelStatusEnum;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface NovelRowProjection {
+    Integer getId();
+    String getSlug();
+    String getTitle();
+    String getDescription();
+    LocalDateTime getReleasedAt();
+    NovelStatusEnum getStatus();
+    Boolean getClosed();
+    String getThumbnailImageUrl();
+    Integer getReadCounts();
+    Integer getTotalChapters();
+    BigDecimal getAverageRatings();
+    Integer getLikeCounts();
+    String getAuthorName();
+}
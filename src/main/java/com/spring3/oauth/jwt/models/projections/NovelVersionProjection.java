@@ -0,0 +1,16 @@
+package com.spring3.oauth.jwt.models.projections;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Các cột quyết định nội dung trang chi tiết truyện (trừ phần theo từng người dùng)
+public interface NovelVersionProjection {
+    Integer getId();
+    LocalDateTime getUpdatedAt();
+    Integer getReadCounts();
+    Integer getLikeCounts();
+    BigDecimal getAverageRatings();
+    Integer getTotalChapters();
+    LocalDateTime getAuthorUpdatedAt();
+    LocalDateTime getGenresUpdatedAt();
+}
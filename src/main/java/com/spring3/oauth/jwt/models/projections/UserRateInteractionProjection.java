@@ -0,0 +1,7 @@
+package com.spring3.oauth.jwt.models.projections;
+
+import java.math.BigDecimal;
+
+public interface UserRateInteractionProjection extends UserNovelInteractionProjection {
+    BigDecimal getRatePoint();
+}
@@ -0,0 +1,17 @@
+package com.spring3.oauth.jwt.models.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class ListeningHeartbeatRequest {
+    private Long userId;
+    private String slug;
+    private Integer chapterId;
+    private Long positionMs;
+}
@@ -1,10 +1,40 @@
 package com.spring3.oauth.jwt.repositories;
 
 import com.spring3.oauth.jwt.entity.AudioFile;
+import com.spring3.oauth.jwt.models.projections.AudioManifestProjection;
+import com.spring3.oauth.jwt.models.projections.AudioStorageProjection;
+import com.spring3.oauth.jwt.models.projections.AudioVersionProjection;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface AudioFileRepository extends JpaRepository<AudioFile, Integer>{
     AudioFile findByChapterId(Integer chapterId);
+    @Query("SELECT a.id AS id, a.storageKey AS storageKey, a.storedAt AS storedAt FROM AudioFile a " +
+        "WHERE a.chapter.id = :chapterId")
+    AudioStorageProjection findStorageByChapterId(Integer chapterId);
+    @Query("SELECT COUNT(a) AS count, MAX(a.id) AS maxId, SUM(a.duration) AS totalDuration, " +
+        "MAX(a.storedAt) AS storedAt FROM AudioFile a " +
+        "WHERE a.chapter.novel.id = :novelId")
+    AudioVersionProjection findVersionByNovelId(int novelId);
+    // Phân trang keyset theo chapterNo cho audio manifest của cả truyện
+    @Query("SELECT a.id AS id, a.chapter.id AS chapterId, a.chapter.chapterNo AS chapterNo, a.audioUrl AS audioUrl, " +
+        "a.duration AS duration, a.durationMs AS durationMs, a.bitrate AS bitrate, " +
+        "CASE WHEN a.seekTable IS NULL THEN false ELSE true END AS seekable, " +
+        "CASE WHEN a.hlsSegments IS NULL THEN false ELSE true END AS segmented " +
+        "FROM AudioFile a WHERE a.chapter.novel.id = :novelId " +
+        "AND (a.chapter.chapterNo > :afterChapterNo OR (a.chapter.chapterNo = :afterChapterNo AND a.id > :afterId)) " +
+        "ORDER BY a.chapter.chapterNo ASC, a.id ASC")
+    List<AudioManifestProjection> findManifestAfter(int novelId, int afterChapterNo, int afterId, Pageable pageable);
+    // Cả danh sách trong một query, cho audio manifest được cache theo truyện
+    @Query("SELECT a.id AS id, a.chapter.id AS chapterId, a.chapter.chapterNo AS chapterNo, a.audioUrl AS audioUrl, " +
+        "a.duration AS duration, a.durationMs AS durationMs, a.bitrate AS bitrate, " +
+        "CASE WHEN a.seekTable IS NULL THEN false ELSE true END AS seekable, " +
+        "CASE WHEN a.hlsSegments IS NULL THEN false ELSE true END AS segmented " +
+        "FROM AudioFile a WHERE a.chapter.novel.id = :novelId ORDER BY a.chapter.chapterNo ASC")
+    List<AudioManifestProjection> findManifestByNovelId(int novelId);
 }
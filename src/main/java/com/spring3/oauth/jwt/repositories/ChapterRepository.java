@@ -1,19 +1,64 @@
 package com.spring3.oauth.jwt.repositories;
 
 import com.spring3.oauth.jwt.entity.Chapter;
+import com.spring3.oauth.jwt.models.projections.ChapterBundleProjection;
+import com.spring3.oauth.jwt.models.projections.ChapterContentProjection;
+import com.spring3.oauth.jwt.models.projections.ChapterTocProjection;
+import com.spring3.oauth.jwt.models.projections.ChapterVersionProjection;
+import com.spring3.oauth.jwt.models.projections.ContentVersionProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ChapterRepository extends JpaRepository<Chapter, Integer> {
-    @Query("SELECT c FROM Chapter c WHERE c.novel.slug = :slug")
-    List<Chapter> findAllByNovelSlug(String slug);
     Chapter findByChapterNoAndNovelSlug(int chapNo, String slug);
-    @Query("SELECT c FROM Chapter c WHERE c.novel.slug = :slug ORDER BY c.chapterNo ASC")
-    Page<Chapter> findAllByNovelSlugPage(String slug, Pageable pageable);
+    // Version cho conditional GET: chỉ đọc id / thời điểm cập nhật, không load nội dung chương
+    @Query("SELECT c.id AS id, COALESCE(c.updatedAt, c.releasedAt) AS updatedAt FROM Chapter c " +
+        "WHERE c.chapterNo = :chapNo AND c.novel.slug = :slug")
+    Optional<ChapterVersionProjection> findVersionByChapterNoAndNovelSlug(int chapNo, String slug);
+    @Query("SELECT COUNT(c) AS count, MAX(COALESCE(c.updatedAt, c.releasedAt)) AS updatedAt FROM Chapter c " +
+        "WHERE c.novel.slug = :slug")
+    ContentVersionProjection findVersionByNovelSlug(String slug);
+    @Query("SELECT c.id AS id, c.novel.id AS novelId, c.contentSegment AS contentSegment, " +
+        "c.contentOffset AS contentOffset, c.contentLength AS contentLength, c.contentCrc AS contentCrc " +
+        "FROM Chapter c WHERE c.chapterNo = :chapNo AND c.novel.slug = :slug")
+    Optional<ChapterContentProjection> findContentByChapterNoAndNovelSlug(int chapNo, String slug);
+    // Chương còn nội dung trong content_doc hoặc chưa có thông tin mục lục, dùng cho công cụ chuyển dữ liệu
+    @Query("SELECT c.id FROM Chapter c WHERE (c.contentSegment IS NULL AND c.contentDoc IS NOT NULL) " +
+        "OR (c.contentSegment IS NOT NULL AND c.excerpt IS NULL) ORDER BY c.id")
+    List<Integer> findLegacyContentIds(Pageable pageable);
+
+    // Mục lục: chỉ các cột metadata, không bao giờ select content_doc
+    String SELECT_TOC = "SELECT c.id AS id, c.chapterNo AS chapterNo, c.title AS title, c.releasedAt AS releasedAt, " +
+        "c.thumbnailImageUrl AS thumbnailImageUrl, c.novel.id AS novelId, c.excerpt AS excerpt, " +
+        "c.wordCount AS wordCount, c.readingMinutes AS readingMinutes FROM Chapter c ";
+    @Query(SELECT_TOC + "WHERE c.novel.slug = :slug ORDER BY c.chapterNo ASC")
+    List<ChapterTocProjection> findTocByNovelSlug(String slug);
+    @Query(value = SELECT_TOC + "WHERE c.novel.slug = :slug ORDER BY c.chapterNo ASC",
+        countQuery = "SELECT COUNT(c) FROM Chapter c WHERE c.novel.slug = :slug")
+    Page<ChapterTocProjection> findTocPageByNovelSlug(String slug, Pageable pageable);
+    // Không COUNT, chỉ biết còn trang sau hay không
+    @Query(SELECT_TOC + "WHERE c.novel.slug = :slug ORDER BY c.chapterNo ASC")
+    Slice<ChapterTocProjection> findTocSliceByNovelSlug(String slug, Pageable pageable);
+    // Chương kế tiếp theo thứ tự chapterNo (số chương có thể không liên tiếp)
+    @Query("SELECT MIN(c.chapterNo) FROM Chapter c WHERE c.novel.slug = :slug AND c.chapterNo > :chapterNo")
+    Integer findNextChapterNo(String slug, int chapterNo);
+    // Phân trang keyset theo (chapterNo, id) cho mục lục dạng stream: chapterNo trùng không bị bỏ sót giữa hai lô
+    @Query(SELECT_TOC + "WHERE c.novel.slug = :slug " +
+        "AND (c.chapterNo > :afterChapterNo OR (c.chapterNo = :afterChapterNo AND c.id > :afterId)) " +
+        "ORDER BY c.chapterNo ASC, c.id ASC")
+    List<ChapterTocProjection> findTocAfter(String slug, int afterChapterNo, int afterId, Pageable pageable);
+    @Query("SELECT c.id AS id, c.novel.id AS novelId, c.chapterNo AS chapterNo, c.contentSegment AS contentSegment, " +
+        "c.contentOffset AS contentOffset, c.contentLength AS contentLength, c.contentCrc AS contentCrc " +
+        "FROM Chapter c WHERE c.novel.id = :novelId " +
+        "AND (c.chapterNo > :afterChapterNo OR (c.chapterNo = :afterChapterNo AND c.id > :afterId)) " +
+        "ORDER BY c.chapterNo ASC, c.id ASC")
+    List<ChapterBundleProjection> findContentAfter(int novelId, int afterChapterNo, int afterId, Pageable pageable);
 }
@@ -0,0 +1,26 @@
+package com.spring3.oauth.jwt.repositories;
+
+import com.spring3.oauth.jwt.entity.ChapterRevision;
+import com.spring3.oauth.jwt.models.projections.ChapterRevisionSummaryProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChapterRevisionRepository extends JpaRepository<ChapterRevision, Integer> {
+    // Danh sách phiên bản không select cột data
+    @Query("SELECT r.revisionNo AS revisionNo, r.title AS title, r.snapshot AS snapshot, " +
+        "r.contentLength AS contentLength, r.storedBytes AS storedBytes, r.createdAt AS createdAt, " +
+        "r.replacedAt AS replacedAt FROM ChapterRevision r WHERE r.chapter.id = :chapterId ORDER BY r.revisionNo DESC")
+    List<ChapterRevisionSummaryProjection> findSummariesByChapterId(int chapterId);
+    // Các bản từ fromNo tới toNo để dựng lại một phiên bản (xem ChapterRevisionServiceImpl)
+    @Query("SELECT r FROM ChapterRevision r WHERE r.chapter.id = :chapterId " +
+        "AND r.revisionNo BETWEEN :fromNo AND :toNo ORDER BY r.revisionNo ASC")
+    List<ChapterRevision> findChain(int chapterId, int fromNo, int toNo);
+    // Snapshot gần nhất từ fromNo trở đi; snapshot-interval có thể đã đổi nên không suy ra được từ số phiên bản
+    @Query("SELECT MIN(r.revisionNo) FROM ChapterRevision r WHERE r.chapter.id = :chapterId " +
+        "AND r.snapshot = true AND r.revisionNo >= :fromNo")
+    Integer findNextSnapshotNo(int chapterId, int fromNo);
+}
@@ -1,12 +1,15 @@
 package com.spring3.oauth.jwt.repositories;
 
 import com.spring3.oauth.jwt.entity.Comment;
+import com.spring3.oauth.jwt.models.projections.NovelActivityProjection;
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +17,7 @@ import java.util.Optional;
 public interface CommentRepository extends JpaRepository<Comment, Integer>{
     List<Comment> findAllByNovelSlug(String slug);
     List<Comment> findAllByParent_Id(Integer parentId);
+
+    @Query("SELECT c.novel.id AS novelId, c.createdAt AS occurredAt FROM Comment c WHERE c.createdAt >= :since")
+    List<NovelActivityProjection> findActivitySince(@Param("since") LocalDateTime since);
 }
@@ -1,10 +1,15 @@
 package com.spring3.oauth.jwt.repositories;
 
 import com.spring3.oauth.jwt.entity.Genre;
+import com.spring3.oauth.jwt.models.projections.ContentVersionProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface GenreRepository extends JpaRepository<Genre, Integer> {
     Genre findByName(String name);
+
+    @Query("SELECT COUNT(x) AS count, MAX(x.updatedAt) AS updatedAt FROM Genre x")
+    ContentVersionProjection findVersion();
 }
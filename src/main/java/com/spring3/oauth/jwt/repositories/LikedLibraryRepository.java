@@ -1,12 +1,18 @@
 package com.spring3.oauth.jwt.repositories;
 
 import com.spring3.oauth.jwt.entity.LikedLibrary;
+import com.spring3.oauth.jwt.models.projections.UserNovelInteractionProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface LikedLibraryRepository extends JpaRepository<LikedLibrary, Integer> {
     @Query("SELECT l FROM LikedLibrary l WHERE l.user.id = :userId")
     LikedLibrary findByUser_Id(Integer userId);
+
+    @Query("SELECT l.user.id AS userId, n.id AS novelId FROM LikedLibrary l JOIN l.novels n")
+    List<UserNovelInteractionProjection> findAllInteractions();
 }
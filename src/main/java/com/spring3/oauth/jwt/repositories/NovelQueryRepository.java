@@ -0,0 +1,205 @@
+package com.spring3.oauth.jwt.repositories;
+
+import com.spring3.oauth.jwt.entity.Novel;
+import com.spring3.oauth.jwt.models.projections.NovelFacetProjection;
+import com.spring3.oauth.jwt.models.projections.NovelGenreIdProjection;
+import com.spring3.oauth.jwt.models.projections.NovelGenreProjection;
+import com.spring3.oauth.jwt.models.projections.NovelHeaderProjection;
+import com.spring3.oauth.jwt.models.projections.NovelKeyProjection;
+import com.spring3.oauth.jwt.models.projections.NovelRowProjection;
+import com.spring3.oauth.jwt.models.projections.NovelVersionProjection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Read model cho các API danh sách truyện: chỉ select các cột cần cho NovelResponseDTO,
+// không join genres để tránh trùng dòng khi phân trang (genres được lấy bằng 1 query riêng)
+@Repository
+public interface NovelQueryRepository extends org.springframework.data.repository.Repository<Novel, Integer> {
+
+    String SELECT_ROW = "SELECT n.id AS id, " +
+        "n.slug AS slug, " +
+        "n.title AS title, " +
+        "n.description AS description, " +
+        "n.releasedAt AS releasedAt, " +
+        "n.status AS status, " +
+        "n.isClosed AS closed, " +
+        "n.thumbnailImageUrl AS thumbnailImageUrl, " +
+        "n.readCounts AS readCounts, " +
+        "n.totalChapters AS totalChapters, " +
+        "n.averageRatings AS averageRatings, " +
+        "n.likeCounts AS likeCounts, " +
+        "a.name AS authorName " +
+        "FROM Novel n " +
+        "LEFT JOIN n.author a ";
+
+    String HAS_GENRE_ID = "n.id IN (SELECT gn.id FROM Novel gn JOIN gn.genres g WHERE g.id IN :genreIds) ";
+
+    String HAS_GENRE_NAME = "n.id IN (SELECT gn.id FROM Novel gn JOIN gn.genres g " +
+        "WHERE g.name LIKE CONCAT('%', :genreName, '%')) ";
+
+    @Query(value = SELECT_ROW +
+        "WHERE n.isClosed = false " +
+        "ORDER BY n.likeCounts DESC",
+        countQuery = "SELECT COUNT(n) FROM Novel n WHERE n.isClosed = false")
+    Page<NovelRowProjection> findTrending(Pageable pageable);
+
+    @Query(value = SELECT_ROW +
+        "WHERE n.isClosed = false " +
+        "ORDER BY n.readCounts DESC",
+        countQuery = "SELECT COUNT(n) FROM Novel n WHERE n.isClosed = false")
+    Page<NovelRowProjection> findTopRead(Pageable pageable);
+
+    @Query(value = SELECT_ROW +
+        "WHERE n.isClosed = false AND n.releasedAt >= :since " +
+        "ORDER BY n.releasedAt DESC",
+        countQuery = "SELECT COUNT(n) FROM Novel n WHERE n.isClosed = false AND n.releasedAt >= :since")
+    Page<NovelRowProjection> findReleasedSince(@Param("since") LocalDateTime since, Pageable pageable);
+
+    // Phân trang keyset: không OFFSET, không COUNT, dùng index (is_closed, sort_key, id)
+    @Query(SELECT_ROW +
+        "WHERE n.isClosed = false " +
+        "AND (n.likeCounts < :sortKey OR (n.likeCounts = :sortKey AND n.id < :lastId)) " +
+        "ORDER BY n.likeCounts DESC, n.id DESC")
+    List<NovelRowProjection> findTrendingAfter(@Param("sortKey") int sortKey, @Param("lastId") int lastId,
+                                               Pageable pageable);
+
+    @Query(SELECT_ROW +
+        "WHERE n.isClosed = false AND n.releasedAt >= :since " +
+        "AND (n.releasedAt < :sortKey OR (n.releasedAt = :sortKey AND n.id < :lastId)) " +
+        "ORDER BY n.releasedAt DESC, n.id DESC")
+    List<NovelRowProjection> findReleasedSinceAfter(@Param("since") LocalDateTime since,
+                                                    @Param("sortKey") LocalDateTime sortKey,
+                                                    @Param("lastId") int lastId,
+                                                    Pageable pageable);
+
+    @Query(value = SELECT_ROW + "WHERE " + HAS_GENRE_ID,
+        countQuery = "SELECT COUNT(n) FROM Novel n WHERE " + HAS_GENRE_ID)
+    Page<NovelRowProjection> findByGenreIds(@Param("genreIds") Collection<Integer> genreIds, Pageable pageable);
+
+    @Query(value = SELECT_ROW + "WHERE " + HAS_GENRE_NAME,
+        countQuery = "SELECT COUNT(n) FROM Novel n WHERE " + HAS_GENRE_NAME)
+    Page<NovelRowProjection> findByGenreName(@Param("genreName") String genreName, Pageable pageable);
+
+    @Query(value = SELECT_ROW + "WHERE a.id = :authorId",
+        countQuery = "SELECT COUNT(n) FROM Novel n WHERE n.author.id = :authorId")
+    Page<NovelRowProjection> findByAuthorId(@Param("authorId") Integer authorId, Pageable pageable);
+
+    @Query(value = SELECT_ROW +
+        "WHERE n.isClosed = false AND a.name LIKE CONCAT('%', :authorName, '%')",
+        countQuery = "SELECT COUNT(n) FROM Novel n JOIN n.author a " +
+            "WHERE n.isClosed = false AND a.name LIKE CONCAT('%', :authorName, '%')")
+    Page<NovelRowProjection> findOpenByAuthorName(@Param("authorName") String authorName, Pageable pageable);
+
+    @Query(value = SELECT_ROW + "WHERE a.name LIKE CONCAT('%', :authorName, '%')",
+        countQuery = "SELECT COUNT(n) FROM Novel n JOIN n.author a " +
+            "WHERE a.name LIKE CONCAT('%', :authorName, '%')")
+    Page<NovelRowProjection> findByAuthorName(@Param("authorName") String authorName, Pageable pageable);
+
+    @Query(value = SELECT_ROW + "WHERE n.title LIKE CONCAT('%', :title, '%')",
+        countQuery = "SELECT COUNT(n) FROM Novel n WHERE n.title LIKE CONCAT('%', :title, '%')")
+    Page<NovelRowProjection> findByTitleContaining(@Param("title") String title, Pageable pageable);
+
+    // Các biến thể Slice: không chạy countQuery, chỉ lấy thêm 1 dòng để biết còn trang sau hay không
+    @Query(SELECT_ROW +
+        "WHERE n.isClosed = false " +
+        "ORDER BY n.likeCounts DESC")
+    Slice<NovelRowProjection> findTrendingSlice(Pageable pageable);
+
+    @Query(SELECT_ROW +
+        "WHERE n.isClosed = false " +
+        "ORDER BY n.readCounts DESC")
+    Slice<NovelRowProjection> findTopReadSlice(Pageable pageable);
+
+    @Query(SELECT_ROW +
+        "WHERE n.isClosed = false AND n.releasedAt >= :since " +
+        "ORDER BY n.releasedAt DESC")
+    Slice<NovelRowProjection> findReleasedSinceSlice(@Param("since") LocalDateTime since, Pageable pageable);
+
+    @Query(SELECT_ROW + "WHERE " + HAS_GENRE_ID)
+    Slice<NovelRowProjection> findByGenreIdsSlice(@Param("genreIds") Collection<Integer> genreIds, Pageable pageable);
+
+    @Query(SELECT_ROW + "WHERE " + HAS_GENRE_NAME)
+    Slice<NovelRowProjection> findByGenreNameSlice(@Param("genreName") String genreName, Pageable pageable);
+
+    @Query(SELECT_ROW + "WHERE a.id = :authorId")
+    Slice<NovelRowProjection> findByAuthorIdSlice(@Param("authorId") Integer authorId, Pageable pageable);
+
+    @Query(SELECT_ROW +
+        "WHERE n.isClosed = false AND a.name LIKE CONCAT('%', :authorName, '%')")
+    Slice<NovelRowProjection> findOpenByAuthorNameSlice(@Param("authorName") String authorName, Pageable pageable);
+
+    @Query(SELECT_ROW + "WHERE a.name LIKE CONCAT('%', :authorName, '%')")
+    Slice<NovelRowProjection> findByAuthorNameSlice(@Param("authorName") String authorName, Pageable pageable);
+
+    @Query(SELECT_ROW + "WHERE n.title LIKE CONCAT('%', :title, '%')")
+    Slice<NovelRowProjection> findByTitleContainingSlice(@Param("title") String title, Pageable pageable);
+
+    @Query(SELECT_ROW + "WHERE n.isClosed = false ORDER BY n.id ASC")
+    List<NovelRowProjection> findAllOpen();
+
+    // Chỉ đọc index idx_novel_closed_like, không chạm tới dữ liệu dòng
+    @Query("SELECT n.id FROM Novel n WHERE n.isClosed = false ORDER BY n.likeCounts DESC, n.id DESC")
+    List<Integer> findOpenIdsOrderByLikeCounts();
+
+    // Chỉ đọc index idx_novel_closed_read
+    @Query("SELECT n.id FROM Novel n WHERE n.isClosed = false ORDER BY n.readCounts DESC, n.id DESC")
+    List<Integer> findOpenIdsOrderByReadCounts();
+
+    @Query(SELECT_ROW + "WHERE n.id IN :ids")
+    List<NovelRowProjection> findAllByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query(SELECT_ROW + "WHERE n.id = :id")
+    Optional<NovelRowProjection> findRowById(@Param("id") Integer id);
+
+    @Query("SELECT n.id AS novelId, g.name AS genreName " +
+        "FROM Novel n " +
+        "JOIN n.genres g " +
+        "WHERE n.id IN :ids")
+    List<NovelGenreProjection> findGenreNamesByNovelIds(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT n.id AS id, n.slug AS slug, a.id AS authorId FROM Novel n LEFT JOIN n.author a " +
+        "WHERE n.isClosed = false")
+    List<NovelKeyProjection> findOpenNovelKeys();
+
+    String SELECT_HEADER = "SELECT n.id AS id, n.slug AS slug, n.title AS title, a.id AS authorId, " +
+        "n.isClosed AS closed FROM Novel n LEFT JOIN n.author a ";
+
+    @Query(SELECT_HEADER + "WHERE n.slug = :slug")
+    Optional<NovelHeaderProjection> findHeaderBySlug(@Param("slug") String slug);
+
+    @Query(SELECT_HEADER + "WHERE n.id = :id")
+    Optional<NovelHeaderProjection> findHeaderById(@Param("id") Integer id);
+
+    @Query("SELECT n.id AS novelId, g.name AS genreName FROM Novel n JOIN n.genres g WHERE n.isClosed = false")
+    List<NovelGenreProjection> findOpenGenreNames();
+
+    @Query("SELECT n.id AS id, n.updatedAt AS updatedAt, n.readCounts AS readCounts, n.likeCounts AS likeCounts, " +
+        "n.averageRatings AS averageRatings, n.totalChapters AS totalChapters, a.updatedAt AS authorUpdatedAt, " +
+        "(SELECT MAX(g.updatedAt) FROM Novel gn JOIN gn.genres g WHERE gn.id = n.id) AS genresUpdatedAt " +
+        "FROM Novel n LEFT JOIN n.author a WHERE n.id = :id")
+    Optional<NovelVersionProjection> findVersionById(@Param("id") Integer id);
+
+    String SELECT_FACETS = "SELECT n.id AS id, n.status AS status, n.isClosed AS closed, n.likeCounts AS likeCounts, " +
+        "n.readCounts AS readCounts, n.releasedAt AS releasedAt FROM Novel n ";
+
+    @Query(SELECT_FACETS)
+    List<NovelFacetProjection> findAllFacets();
+
+    @Query(SELECT_FACETS + "WHERE n.id = :id")
+    Optional<NovelFacetProjection> findFacetsById(@Param("id") Integer id);
+
+    @Query("SELECT n.id AS novelId, g.id AS genreId FROM Novel n JOIN n.genres g")
+    List<NovelGenreIdProjection> findAllGenreIds();
+
+    @Query("SELECT n.id AS novelId, g.id AS genreId FROM Novel n JOIN n.genres g WHERE n.id = :id")
+    List<NovelGenreIdProjection> findGenreIdsByNovelId(@Param("id") Integer id);
+}
@@ -3,11 +3,14 @@ package com.spring3.oauth.jwt.repositories;
 import com.spring3.oauth.jwt.entity.Novel;
 import com.spring3.oauth.jwt.entity.User;
 import com.spring3.oauth.jwt.entity.UserLike;
+import com.spring3.oauth.jwt.models.projections.NovelActivityProjection;
+import com.spring3.oauth.jwt.models.projections.UserNovelInteractionProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,10 +18,21 @@ import java.util.Optional;
 public interface UserLikeRepository extends JpaRepository<UserLike, Long> {
     Optional<UserLike> findByUser_IdAndNovel_Slug(long userId, String novelSlug);
 
+    Optional<UserLike> findByUser_IdAndNovel_Id(long userId, int novelId);
+
     @Query("SELECT ul.novel.slug FROM UserLike ul WHERE ul.user.id = :userId")
     List<String> findLikedNovelSlugsByUser(@Param("userId") Long userId);
 
+    @Query("SELECT ul.novel.id FROM UserLike ul WHERE ul.user.id = :userId")
+    List<Integer> findLikedNovelIdsByUser(@Param("userId") Long userId);
+
     @Query("SELECT ul.novel.slug FROM UserLike ul WHERE ul.user.id = :userId AND ul.novel.id IN :novelIds")
     List<String> findLikedNovels(@Param("userId") Long userId, @Param("novelIds") List<Integer> novelIds);
 
+    @Query("SELECT ul.novel.id AS novelId, ul.likedAt AS occurredAt FROM UserLike ul WHERE ul.likedAt >= :since")
+    List<NovelActivityProjection> findActivitySince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT ul.user.id AS userId, ul.novel.id AS novelId FROM UserLike ul")
+    List<UserNovelInteractionProjection> findAllInteractions();
+
 }
@@ -0,0 +1,14 @@
+package com.spring3.oauth.jwt.repositories;
+
+import com.spring3.oauth.jwt.entity.UserListeningPosition;
+import com.spring3.oauth.jwt.models.projections.ListeningPositionProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserListeningPositionRepository extends JpaRepository<UserListeningPosition, Long> {
+    @Query("SELECT p.chapter.id AS chapterId, p.positionMs AS positionMs, p.updatedAt AS updatedAt " +
+        "FROM UserListeningPosition p WHERE p.user.id = :userId AND p.novel.id = :novelId")
+    ListeningPositionProjection findPosition(long userId, int novelId);
+}
@@ -1,9 +1,15 @@
 package com.spring3.oauth.jwt.repositories;
 
 import com.spring3.oauth.jwt.entity.UserRate;
+import com.spring3.oauth.jwt.models.projections.NovelActivityProjection;
+import com.spring3.oauth.jwt.models.projections.UserRateInteractionProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +17,10 @@ public interface UserRateRepository extends JpaRepository<UserRate, Integer> {
     Optional<UserRate> findByUser_IdAndNovel_Id(Long userId, Integer novelId);
     Optional<UserRate> findByUser_IdAndNovel_Slug(Long userId, String slug);
     boolean existsByUser_IdAndNovel_Id(Long userId, Integer novelId);
+
+    @Query("SELECT ur.novel.id AS novelId, ur.ratedAt AS occurredAt FROM UserRate ur WHERE ur.ratedAt >= :since")
+    List<NovelActivityProjection> findActivitySince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT ur.user.id AS userId, ur.novel.id AS novelId, ur.ratePoint AS ratePoint FROM UserRate ur")
+    List<UserRateInteractionProjection> findAllInteractions();
 }
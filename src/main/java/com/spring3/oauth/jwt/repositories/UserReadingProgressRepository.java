@@ -1,6 +1,7 @@
 package com.spring3.oauth.jwt.repositories;
 
 import com.spring3.oauth.jwt.entity.UserReadingProgress;
+import com.spring3.oauth.jwt.models.projections.UserNovelInteractionProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -16,4 +17,7 @@ public interface UserReadingProgressRepository extends JpaRepository<UserReading
     UserReadingProgress findByNovel_SlugAndReadingLibrary_Id(String slug, Integer readingLibraryId);
 
     List<UserReadingProgress> findAllByReadingLibraryId(Integer readingLibraryId);
+
+    @Query("SELECT rl.user.id AS userId, urp.novel.id AS novelId FROM UserReadingProgress urp JOIN urp.readingLibrary rl")
+    List<UserNovelInteractionProjection> findAllInteractions();
 }
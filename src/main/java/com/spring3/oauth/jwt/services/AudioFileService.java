@@ -1,7 +1,26 @@
 package com.spring3.oauth.jwt.services;
 
+import com.spring3.oauth.jwt.helpers.ContentVersion;
+import com.spring3.oauth.jwt.helpers.LocalAudio;
 import com.spring3.oauth.jwt.models.dtos.AudioFileResponseDTO;
+import com.spring3.oauth.jwt.models.dtos.AudioManifestItemDTO;
+import com.spring3.oauth.jwt.models.dtos.AudioSeekTableDTO;
+import com.spring3.oauth.jwt.models.dtos.CacheStatsDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 public interface AudioFileService {
     AudioFileResponseDTO getAudioFileByChapterId(Integer chapterId);
+    AudioFileResponseDTO uploadAudioFile(Integer chapterId, String contentType, Long duration, InputStream content)
+        throws IOException;
+    LocalAudio getLocalAudio(Integer chapterId);
+    LocalAudio getHlsPlaylist(Integer chapterId);
+    LocalAudio getHlsSegment(Integer chapterId, String fileId, int segmentNo, String extension);
+    ContentVersion getSeekTableVersion(Integer chapterId);
+    AudioSeekTableDTO getSeekTable(Integer chapterId);
+    ContentVersion getAudioManifestVersion(String slug);
+    List<AudioManifestItemDTO> getAudioManifest(String slug);
+    CacheStatsDTO getManifestCacheStats();
 }
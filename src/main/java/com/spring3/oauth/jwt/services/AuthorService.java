@@ -1,11 +1,13 @@
 package com.spring3.oauth.jwt.services;
 
 import com.spring3.oauth.jwt.entity.Author;
+import com.spring3.oauth.jwt.helpers.ContentVersion;
 
 import java.util.List;
 
 public interface AuthorService {
     List<Author> getAllAuthors();
+    ContentVersion getAuthorsVersion();
     Author getAuthorById(Integer id);
     Author getAuthorByName(String name);
     Author saveAuthor(Author author);
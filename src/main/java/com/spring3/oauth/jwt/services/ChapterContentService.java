@@ -0,0 +1,16 @@
+package com.spring3.oauth.jwt.services;
+
+import com.spring3.oauth.jwt.entity.Chapter;
+import com.spring3.oauth.jwt.models.projections.ChapterContentProjection;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+public interface ChapterContentService {
+    void store(Chapter chapter, String content);
+    void storeAll(List<Chapter> chapters, List<String> contents);
+    String getContent(Chapter chapter);
+    ByteBuffer getCompressed(ChapterContentProjection pointer);
+    byte[] getUncompressed(ChapterContentProjection pointer);
+    int migrateLegacyContent(int batchSize);
+}
@@ -0,0 +1,10 @@
+package com.spring3.oauth.jwt.services;
+
+import com.spring3.oauth.jwt.models.dtos.ChapterIngestResponseDTO;
+
+import java.io.InputStream;
+
+public interface ChapterIngestService {
+    ChapterIngestResponseDTO ingestJson(int novelId, InputStream body);
+    ChapterIngestResponseDTO ingestZip(int novelId, InputStream body);
+}
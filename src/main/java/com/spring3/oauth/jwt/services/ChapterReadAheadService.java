@@ -0,0 +1,12 @@
+package com.spring3.oauth.jwt.services;
+
+import com.spring3.oauth.jwt.models.dtos.CacheStatsDTO;
+import com.spring3.oauth.jwt.models.dtos.ChapterResponseDTO;
+
+import java.util.function.BiFunction;
+
+public interface ChapterReadAheadService {
+    ChapterResponseDTO getChapter(String slug, int chapNo, BiFunction<String, Integer, ChapterResponseDTO> loader);
+    void evictNovel(String slug);
+    CacheStatsDTO getStats();
+}
@@ -0,0 +1,14 @@
+package com.spring3.oauth.jwt.services;
+
+import com.spring3.oauth.jwt.entity.Chapter;
+import com.spring3.oauth.jwt.models.dtos.ChapterRevisionDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ChapterRevisionService {
+    void recordRevision(Chapter chapter, String previousTitle, String previousContent, LocalDateTime previousSince,
+                        String newContent);
+    List<ChapterRevisionDTO> getRevisions(String slug, int chapNo);
+    ChapterRevisionDTO getRevision(String slug, int chapNo, int revisionNo);
+}
@@ -1,16 +1,30 @@
 package com.spring3.oauth.jwt.services;
 
+import com.spring3.oauth.jwt.helpers.ContentVersion;
+import com.spring3.oauth.jwt.models.dtos.ChapterChunksResponseDTO;
 import com.spring3.oauth.jwt.models.dtos.ChapterResponseDTO;
 import com.spring3.oauth.jwt.models.dtos.PagedChapterResponseDTO;
 import com.spring3.oauth.jwt.models.request.UpsertChapterRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 public interface ChapterService {
     List<ChapterResponseDTO> getAllChaptersInNovel(String slug);
+    void writeToc(String slug, OutputStream out) throws IOException;
     ChapterResponseDTO getChapterByChapNoInNovel(String slug, int chapNo);
+    ContentVersion getChapterDetailVersion(ChapterResponseDTO chapter);
+    void countChapterRead(ChapterResponseDTO chapter);
+    ByteBuffer getCompressedChapterContent(String slug, int chapNo, boolean countRead);
+    byte[] getChapterContentBytes(String slug, int chapNo, boolean countRead);
+    ChapterChunksResponseDTO getChapterChunks(String slug, int chapNo, int firstBytes, int targetBytes);
+    ContentVersion getChapterVersion(String slug, int chapNo);
+    int migrateChapterContent(int batchSize);
+    ContentVersion getChaptersVersion(String slug);
     ChapterResponseDTO saveChapter(UpsertChapterRequest request);
     ChapterResponseDTO updateChapter(int chapNo, String slug, UpsertChapterRequest request);
-    PagedChapterResponseDTO getAllChapterInNovelBySlug(String slug, Pageable pageable);
+    PagedChapterResponseDTO getAllChapterInNovelBySlug(String slug, Pageable pageable, boolean withTotal);
 }
@@ -1,11 +1,13 @@
 package com.spring3.oauth.jwt.services;
 
 import com.spring3.oauth.jwt.entity.Genre;
+import com.spring3.oauth.jwt.helpers.ContentVersion;
 
 import java.util.List;
 
 public interface GenreService {
     List<Genre> getAllGenres();
+    ContentVersion getGenresVersion();
     Genre getGenreById(Integer id);
     Genre getGenreByName(String name);
     Genre saveGenre(Genre genre);
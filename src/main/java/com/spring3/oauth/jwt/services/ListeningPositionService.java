@@ -0,0 +1,10 @@
+package com.spring3.oauth.jwt.services;
+
+import com.spring3.oauth.jwt.models.dtos.ListeningPositionResponseDTO;
+import com.spring3.oauth.jwt.models.request.ListeningHeartbeatRequest;
+
+public interface ListeningPositionService {
+    void heartbeat(ListeningHeartbeatRequest request);
+    ListeningPositionResponseDTO getPosition(long userId, String slug);
+    void flush();
+}
@@ -0,0 +1,15 @@
+package com.spring3.oauth.jwt.services;
+
+import com.spring3.oauth.jwt.helpers.ContentVersion;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface NovelBundleService {
+    ContentVersion getBundleVersion(String slug);
+    // null nếu bundle của version này chưa có trên đĩa
+    Resource getCachedBundle(String slug, ContentVersion version);
+    Resource getBundle(String slug, ContentVersion version) throws IOException;
+    void writeBundle(String slug, ContentVersion version, OutputStream out) throws IOException;
+}
@@ -0,0 +1,10 @@
+package com.spring3.oauth.jwt.services;
+
+import com.spring3.oauth.jwt.helpers.NovelCatalogSnapshot;
+
+public interface NovelCatalogService {
+    NovelCatalogSnapshot getSnapshot();
+    void refreshNovel(int novelId);
+    void removeNovel(int novelId);
+    void rebuild();
+}
@@ -0,0 +1,17 @@
+package com.spring3.oauth.jwt.services;
+
+import com.spring3.oauth.jwt.models.dtos.NovelDetailResponseDTO;
+import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
+
+import java.util.List;
+
+public interface NovelCounterService {
+    void incrementReadCount(int novelId);
+    void incrementLikeCount(int novelId);
+    long getPendingReadCount(int novelId);
+    long getPendingLikeCount(int novelId);
+    void applyPendingCounts(NovelResponseDTO novel);
+    void applyPendingCounts(List<NovelResponseDTO> novels);
+    void applyPendingCounts(int novelId, NovelDetailResponseDTO novel);
+    void flush();
+}
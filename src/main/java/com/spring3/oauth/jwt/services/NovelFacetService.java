@@ -0,0 +1,15 @@
+package com.spring3.oauth.jwt.services;
+
+import com.spring3.oauth.jwt.entity.enums.NovelStatusEnum;
+import com.spring3.oauth.jwt.helpers.NovelFacetIndex;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface NovelFacetService {
+    NovelFacetIndex.Result search(List<Integer> genreIds, boolean matchAll, List<NovelStatusEnum> statuses,
+                                  Boolean closed, Pageable pageable);
+    void refreshNovel(int novelId);
+    void removeNovel(int novelId);
+    void rebuild();
+}
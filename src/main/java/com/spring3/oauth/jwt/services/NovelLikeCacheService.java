@@ -0,0 +1,15 @@
+package com.spring3.oauth.jwt.services;
+
+import com.spring3.oauth.jwt.models.dtos.CacheStatsDTO;
+import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+
+import java.util.Collection;
+
+public interface NovelLikeCacheService {
+    ImmutableRoaringBitmap getLikedNovelIds(long userId);
+    boolean isLiked(long userId, int novelId);
+    void markLiked(long userId, Collection<NovelResponseDTO> novels);
+    void evict(long userId);
+    CacheStatsDTO getStats();
+}
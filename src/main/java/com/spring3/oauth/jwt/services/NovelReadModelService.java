@@ -0,0 +1,44 @@
+package com.spring3.oauth.jwt.services;
+
+import com.spring3.oauth.jwt.helpers.NovelCursor;
+import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
+import com.spring3.oauth.jwt.models.projections.NovelRowProjection;
+import com.spring3.oauth.jwt.models.projections.NovelVersionProjection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface NovelReadModelService {
+    Page<NovelResponseDTO> getTrending(Pageable pageable);
+    Page<NovelResponseDTO> getTopRead(Pageable pageable);
+    Page<NovelResponseDTO> getReleasedSince(LocalDateTime since, Pageable pageable);
+    List<NovelResponseDTO> getTrendingAfter(NovelCursor cursor, int limit);
+    List<NovelResponseDTO> getReleasedSinceAfter(LocalDateTime since, NovelCursor cursor, int limit);
+    Page<NovelResponseDTO> getByGenreIds(List<Integer> genreIds, Pageable pageable);
+    Page<NovelResponseDTO> getByGenreName(String genreName, Pageable pageable);
+    Page<NovelResponseDTO> getByAuthorId(Integer authorId, Pageable pageable);
+    Page<NovelResponseDTO> getOpenByAuthorName(String authorName, Pageable pageable);
+    Page<NovelResponseDTO> getByAuthorName(String authorName, Pageable pageable);
+    Page<NovelResponseDTO> getByTitle(String title, Pageable pageable);
+    // withTotal = false: trả Slice, bỏ query COUNT
+    Slice<NovelResponseDTO> getTrending(Pageable pageable, boolean withTotal);
+    Slice<NovelResponseDTO> getTopRead(Pageable pageable, boolean withTotal);
+    Slice<NovelResponseDTO> getReleasedSince(LocalDateTime since, Pageable pageable, boolean withTotal);
+    Slice<NovelResponseDTO> getByGenreIds(List<Integer> genreIds, Pageable pageable, boolean withTotal);
+    Slice<NovelResponseDTO> getByGenreName(String genreName, Pageable pageable, boolean withTotal);
+    Slice<NovelResponseDTO> getByAuthorId(Integer authorId, Pageable pageable, boolean withTotal);
+    Slice<NovelResponseDTO> getOpenByAuthorName(String authorName, Pageable pageable, boolean withTotal);
+    Slice<NovelResponseDTO> getByAuthorName(String authorName, Pageable pageable, boolean withTotal);
+    Slice<NovelResponseDTO> getByTitle(String title, Pageable pageable, boolean withTotal);
+    List<NovelResponseDTO> getAllOpen();
+    List<Integer> getOpenIdsByLikeCounts();
+    List<Integer> getOpenIdsByReadCounts();
+    List<NovelResponseDTO> getAllByIds(List<Integer> ids);
+    Optional<NovelResponseDTO> getById(Integer id);
+    Optional<NovelVersionProjection> getVersionById(Integer id);
+    List<NovelResponseDTO> toDtos(List<NovelRowProjection> rows);
+}
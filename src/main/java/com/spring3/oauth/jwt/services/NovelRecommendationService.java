@@ -0,0 +1,9 @@
+package com.spring3.oauth.jwt.services;
+
+import com.spring3.oauth.jwt.entity.enums.UserInteractionTypeEnum;
+
+public interface NovelRecommendationService {
+    int[] getRecommendedNovelIds(long userId);
+    void recordInteraction(long userId, int novelId, UserInteractionTypeEnum type, float strength);
+    void rebuild();
+}
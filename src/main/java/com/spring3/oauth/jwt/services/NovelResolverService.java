@@ -0,0 +1,18 @@
+package com.spring3.oauth.jwt.services;
+
+import com.spring3.oauth.jwt.entity.Novel;
+import com.spring3.oauth.jwt.helpers.NovelHeader;
+import com.spring3.oauth.jwt.models.dtos.CacheStatsDTO;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface NovelResolverService {
+    Optional<Integer> findIdBySlug(String slug);
+    int getIdBySlug(String slug);
+    Optional<NovelHeader> findHeaderBySlug(String slug);
+    Optional<NovelHeader> findHeaderById(int novelId);
+    Novel getReferenceBySlug(String slug);
+    void evict(int novelId);
+    List<CacheStatsDTO> getStats();
+}
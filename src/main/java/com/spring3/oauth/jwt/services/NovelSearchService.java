@@ -0,0 +1,11 @@
+package com.spring3.oauth.jwt.services;
+
+import com.spring3.oauth.jwt.models.dtos.PagedResponseDTO;
+import org.springframework.data.domain.Pageable;
+
+public interface NovelSearchService {
+    PagedResponseDTO search(String query, Pageable pageable);
+    void indexNovel(int novelId);
+    void removeNovel(int novelId);
+    void rebuild();
+}
@@ -2,6 +2,11 @@ package com.spring3.oauth.jwt.services;
 
 import com.spring3.oauth.jwt.entity.Novel;
 import com.spring3.oauth.jwt.entity.User;
+import com.spring3.oauth.jwt.entity.enums.NovelStatusEnum;
+import com.spring3.oauth.jwt.helpers.ContentVersion;
+import com.spring3.oauth.jwt.models.dtos.CacheStatsDTO;
+import com.spring3.oauth.jwt.models.dtos.CursorPagedResponseDTO;
+import com.spring3.oauth.jwt.models.dtos.FacetedPagedResponseDTO;
 import com.spring3.oauth.jwt.models.dtos.NovelDetailResponseDTO;
 import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
 import com.spring3.oauth.jwt.models.dtos.PagedResponseDTO;
@@ -19,20 +24,28 @@ public interface NovelService {
     NovelResponseDTO updateNovel(String novelSlug, UpdateNovelRequest request);
     void deleteNovel(Integer id);
     PagedResponseDTO getAllTrendingNovels(Pageable pageable);
-    PagedResponseDTO getAllTopNovels(Pageable pageable);
-    PagedResponseDTO findAllByReleasedAtWithinLast7Days(Pageable pageable);
+    PagedResponseDTO getAllTopNovels(Pageable pageable, boolean withTotal);
+    PagedResponseDTO findAllByReleasedAtWithinLast7Days(Pageable pageable, boolean withTotal);
+    CursorPagedResponseDTO getTrendingNovelsByCursor(String cursor, int size);
+    CursorPagedResponseDTO getTopNovelsByCursor(String cursor, int size);
+    CursorPagedResponseDTO getNovelsReleasedLast7DaysByCursor(String cursor, int size);
     NovelDetailResponseDTO getDetailNovel(String slug, long userId);
+    ContentVersion getDetailNovelVersion(String slug, long userId);
     NovelResponseDTO updateLikeCount(String slug);
-    PagedResponseDTO findAllByGenre(List<Integer> genreIds, Pageable pageable);
+    FacetedPagedResponseDTO findAllByGenre(List<Integer> genreIds, boolean matchAll, List<NovelStatusEnum> statuses,
+                                           Boolean closed, Pageable pageable);
     List<NovelResponseDTO> findSomeNovelsSameGenre(Integer genreId);
-    PagedResponseDTO getAllNovelsByGenreName(String genreName, Pageable pageable);
-    PagedResponseDTO findAllByAuthorName(String authorName, Pageable pageable);
-    PagedResponseDTO findAllByAuthorId(Integer authorId, Pageable pageable);
-    PagedResponseDTO findAllByTitle(String title, Pageable pageable);
+    List<NovelResponseDTO> findSimilarNovels(String slug, int limit);
+    PagedResponseDTO getAllNovelsByGenreName(String genreName, Pageable pageable, boolean withTotal);
+    PagedResponseDTO findAllByAuthorName(String authorName, Pageable pageable, boolean withTotal);
+    PagedResponseDTO findAllByAuthorId(Integer authorId, Pageable pageable, boolean withTotal);
+    PagedResponseDTO findAllByTitle(String title, Pageable pageable, boolean withTotal);
     PagedResponseDTO getAllNovelsRecommend( Long userId, Pageable pageable);
     boolean isNovelLikedByUser(long userId, String novelSlug);
     boolean likeNovel( long userId, String slug);
     List<String> getLikedNovelSlugsByUser(Long userId);
-    PagedResponseDTO findAllByAuthorAuthName(String authorName, Pageable pageable);
+    PagedResponseDTO findAllByAuthorAuthName(String authorName, Pageable pageable, boolean withTotal);
     List<String> getLikedNovelIdsByUserForSpecificNovels(Long userId, List<Integer> novelIds);
+    List<NovelResponseDTO> markLikedNovels(long userId, List<NovelResponseDTO> novels);
+    List<CacheStatsDTO> getCacheStats();
 }
@@ -0,0 +1,10 @@
+package com.spring3.oauth.jwt.services;
+
+import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
+
+import java.util.List;
+
+public interface NovelSimilarityService {
+    List<NovelResponseDTO> findSimilar(String slug, int limit);
+    void rebuild();
+}
@@ -0,0 +1,17 @@
+package com.spring3.oauth.jwt.services;
+
+import com.spring3.oauth.jwt.entity.enums.NovelActivityTypeEnum;
+import com.spring3.oauth.jwt.helpers.NovelCursor;
+import com.spring3.oauth.jwt.models.dtos.CursorPagedResponseDTO;
+import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface NovelTrendingService {
+    Page<NovelResponseDTO> getTrending(Pageable pageable);
+    CursorPagedResponseDTO getTrendingAfter(NovelCursor cursor, int limit);
+    CursorPagedResponseDTO getTopReadAfter(NovelCursor cursor, int limit);
+    void recordActivity(int novelId, NovelActivityTypeEnum type);
+    double getHotScore(int novelId);
+    void refreshRanking();
+}
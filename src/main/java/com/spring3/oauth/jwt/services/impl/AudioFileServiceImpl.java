@@ -1,29 +1,330 @@
 package com.spring3.oauth.jwt.services.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.spring3.oauth.jwt.entity.AudioFile;
+import com.spring3.oauth.jwt.entity.Chapter;
+import com.spring3.oauth.jwt.events.AudioFileChangedEvent;
+import com.spring3.oauth.jwt.events.ChapterChangedEvent;
+import com.spring3.oauth.jwt.exception.BadRequestException;
 import com.spring3.oauth.jwt.exception.NotFoundException;
+import com.spring3.oauth.jwt.helpers.AudioFileStore;
+import com.spring3.oauth.jwt.helpers.AudioFrameReader;
+import com.spring3.oauth.jwt.helpers.AudioSeekTable;
+import com.spring3.oauth.jwt.helpers.ContentVersion;
+import com.spring3.oauth.jwt.helpers.HlsSegmenter;
+import com.spring3.oauth.jwt.helpers.LocalAudio;
 import com.spring3.oauth.jwt.models.dtos.AudioFileResponseDTO;
+import com.spring3.oauth.jwt.models.dtos.AudioManifestItemDTO;
+import com.spring3.oauth.jwt.models.dtos.AudioSeekTableDTO;
+import com.spring3.oauth.jwt.models.dtos.CacheStatsDTO;
+import com.spring3.oauth.jwt.models.projections.AudioManifestProjection;
+import com.spring3.oauth.jwt.models.projections.AudioStorageProjection;
 import com.spring3.oauth.jwt.repositories.AudioFileRepository;
+import com.spring3.oauth.jwt.repositories.ChapterRepository;
 import com.spring3.oauth.jwt.services.AudioFileService;
-import lombok.RequiredArgsConstructor;
+import com.spring3.oauth.jwt.services.NovelResolverService;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
-@RequiredArgsConstructor
 @Transactional
 @Slf4j
 public class AudioFileServiceImpl implements AudioFileService{
 
+    // Định dạng nhận khi tải lên -> phần mở rộng file trong kho
+    private static final Map<String, String> EXTENSIONS = Map.of(
+        "audio/mpeg", "mp3",
+        "audio/mp3", "mp3",
+        "audio/aac", "aac",
+        "audio/mp4", "m4a",
+        "audio/x-m4a", "m4a",
+        "audio/ogg", "ogg");
+    private static final String HLS_PLAYLIST_TYPE = "application/vnd.apple.mpegurl";
+
+    // Manifest đã dựng của một truyện; danh sách dùng chung giữa các request nên không được sửa
+    @Getter
+    @AllArgsConstructor
+    private static class AudioManifest {
+        private final ContentVersion version;
+        private final List<AudioManifestItemDTO> items;
+    }
+
     private final AudioFileRepository audioFileRepository;
+    private final ChapterRepository chapterRepository;
+    private final NovelResolverService novelResolverService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final AudioFileStore store;
+    private final double segmentSeconds;
+    private final int seekIntervalMillis;
+    private final Cache<Integer, AudioManifest> manifests;
+    // novelId -> thế hệ manifest, tăng mỗi lần invalidate: manifest dựng trước lúc upload commit mà ghi vào cache
+    // sau lúc invalidate thì bị gỡ lại
+    private final ConcurrentHashMap<Integer, AtomicLong> manifestGenerations = new ConcurrentHashMap<>();
+
+    public AudioFileServiceImpl(AudioFileRepository audioFileRepository,
+                                ChapterRepository chapterRepository,
+                                NovelResolverService novelResolverService,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${novel.audio.dir:./data/audio}") String directory,
+                                @Value("${novel.audio.max-upload-bytes:536870912}") long maxUploadBytes,
+                                @Value("${novel.audio.hls.segment-seconds:10}") double segmentSeconds,
+                                @Value("${novel.audio.seek-interval-ms:1000}") int seekIntervalMillis,
+                                @Value("${novel.audio.manifest.maximum-size:5000}") long manifestMaximumSize,
+                                @Value("${novel.audio.manifest.expire-after-write-ms:3600000}")
+                                long manifestExpireAfterWriteMs)
+        throws IOException {
+        if (segmentSeconds <= 0) {
+            throw new IllegalArgumentException("HLS segment duration must be positive");
+        }
+        if (seekIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Seek table interval must be positive");
+        }
+        this.audioFileRepository = audioFileRepository;
+        this.chapterRepository = chapterRepository;
+        this.novelResolverService = novelResolverService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.store = new AudioFileStore(Paths.get(directory), maxUploadBytes);
+        this.segmentSeconds = segmentSeconds;
+        this.seekIntervalMillis = seekIntervalMillis;
+        this.manifests = Caffeine.newBuilder()
+            .maximumSize(manifestMaximumSize)
+            .expireAfterWrite(Duration.ofMillis(manifestExpireAfterWriteMs))
+            .recordStats()
+            .build();
+    }
 
     @Override
     public AudioFileResponseDTO getAudioFileByChapterId(Integer chapterId) {
-        if(audioFileRepository.findByChapterId(chapterId) == null) {
+        AudioFile audioFile = audioFileRepository.findByChapterId(chapterId);
+        if (audioFile == null) {
             throw new NotFoundException("Audio file not found with chapter id: " + chapterId);
         }
-        return convertToDto(audioFileRepository.findByChapterId(chapterId));
+        return convertToDto(audioFile);
+    }
+
+    // File được ghi xuống đĩa trước, DB chỉ trỏ sang file mới khi file đã hoàn chỉnh; audioUrl đổi thành endpoint stream.
+    // Nhận file (tới max-upload-bytes, client có thể chậm), quét frame và cắt segment chạy ngoài transaction để không
+    // giữ connection của pool; chỉ bước ghi dòng AUDIO_FILES chạy trong transaction ngắn
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AudioFileResponseDTO uploadAudioFile(Integer chapterId, String contentType, Long duration,
+                                                InputStream content) throws IOException {
+        Chapter chapter = chapterRepository.findById(chapterId)
+            .orElseThrow(() -> new NotFoundException("Chapter not found with id: " + chapterId));
+        String type = normalizeContentType(contentType);
+        String extension = EXTENSIONS.get(type);
+        if (extension == null) {
+            throw new BadRequestException("Unsupported audio content type: " + contentType);
+        }
+        if (duration != null && duration < 0) {
+            throw new BadRequestException("Duration must not be negative");
+        }
+        AudioFileStore.StoredFile stored;
+        try {
+            stored = store.store(chapterId, extension, content);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+        // MP3 / AAC: thời lượng, bitrate, bảng tua tính từ header frame rồi cắt sẵn thành segment HLS;
+        // không tìm thấy frame nào thì file không đúng định dạng khai báo
+        AudioSeekTable seekTable = null;
+        Integer segments = null;
+        AudioFrameReader.Format format = AudioFrameReader.formatOf(type);
+        if (format != null) {
+            try {
+                seekTable = AudioSeekTable.scan(store.resolve(stored.getKey()), format, seekIntervalMillis);
+                segments = store.segment(stored.getKey(), format, AudioFileStore.fileId(stored.getKey()) + "/",
+                    segmentSeconds).getSegments();
+            } catch (IllegalArgumentException e) {
+                deleteQuietly(stored.getKey());
+                throw new BadRequestException("Audio file is not a valid " + type + " stream");
+            } catch (IOException e) {
+                deleteQuietly(stored.getKey());
+                throw e;
+            }
+        }
+
+        AudioSeekTable metadata = seekTable;
+        Integer hlsSegments = segments;
+        AudioFileResponseDTO saved;
+        try {
+            saved = transactionTemplate.execute(status -> saveUploadedFile(chapter, type, duration, stored, metadata,
+                hlsSegments));
+        } catch (RuntimeException e) {
+            // Dòng AUDIO_FILES không trỏ tới file vừa ghi thì xóa luôn file và segment
+            deleteQuietly(stored.getKey());
+            throw e;
+        }
+        log.info("Stored audio for chapter {} ({} bytes, {})", chapterId, stored.getSize(), type);
+        return saved;
+    }
+
+    private AudioFileResponseDTO saveUploadedFile(Chapter chapter, String type, Long duration,
+                                                  AudioFileStore.StoredFile stored, AudioSeekTable seekTable,
+                                                  Integer segments) {
+        int chapterId = chapter.getId();
+        AudioFile audioFile = audioFileRepository.findByChapterId(chapterId);
+        if (audioFile == null) {
+            audioFile = new AudioFile();
+            audioFile.setChapter(chapterRepository.getReferenceById(chapterId));
+        }
+        String previousKey = audioFile.getStorageKey();
+        audioFile.setAudioUrl("/api/v1/audio-files/" + chapterId + "/stream");
+        audioFile.setDuration(seekTable != null ? Math.round(seekTable.getDurationMillis() / 1000.0) : duration);
+        audioFile.setDurationMs(seekTable != null ? seekTable.getDurationMillis() : null);
+        audioFile.setBitrate(seekTable != null ? seekTable.getBitrate() : null);
+        audioFile.setSeekTable(seekTable != null ? seekTable.encode() : null);
+        audioFile.setStorageKey(stored.getKey());
+        audioFile.setContentType(type);
+        audioFile.setSizeBytes(stored.getSize());
+        audioFile.setStoredAt(LocalDateTime.now());
+        audioFile.setHlsSegments(segments);
+        AudioFile saved = audioFileRepository.save(audioFile);
+        eventPublisher.publishEvent(new AudioFileChangedEvent(chapter.getNovel().getId(), chapterId,
+            stored.getKey(), previousKey));
+        return convertToDto(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LocalAudio getLocalAudio(Integer chapterId) {
+        AudioFile audioFile = audioFileRepository.findByChapterId(chapterId);
+        if (audioFile == null || audioFile.getStorageKey() == null) {
+            throw new NotFoundException("Stored audio not found with chapter id: " + chapterId);
+        }
+        Path path = store.resolve(audioFile.getStorageKey());
+        if (!Files.isRegularFile(path)) {
+            throw new NotFoundException("Stored audio not found with chapter id: " + chapterId);
+        }
+        return new LocalAudio(path, audioFile.getSizeBytes(), audioFile.getContentType(),
+            ContentVersion.of(audioFile.getStoredAt(), audioFile.getId(), audioFile.getStorageKey(),
+                audioFile.getSizeBytes()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LocalAudio getHlsPlaylist(Integer chapterId) {
+        AudioFile audioFile = audioFileRepository.findByChapterId(chapterId);
+        if (audioFile == null || audioFile.getStorageKey() == null || audioFile.getHlsSegments() == null) {
+            throw new NotFoundException("HLS playlist not found with chapter id: " + chapterId);
+        }
+        Path playlist = store.segmentDirectory(audioFile.getStorageKey()).resolve(HlsSegmenter.PLAYLIST_FILE);
+        return toLocalAudio(playlist, HLS_PLAYLIST_TYPE, ContentVersion.of(audioFile.getStoredAt(),
+            audioFile.getId(), audioFile.getStorageKey(), audioFile.getHlsSegments()));
+    }
+
+    // fileId là tên file gốc nên URL segment đổi theo mỗi lần tải lên: segment của bản cũ trả 404, không bao giờ sai nội dung
+    @Override
+    @Transactional(readOnly = true)
+    public LocalAudio getHlsSegment(Integer chapterId, String fileId, int segmentNo, String extension) {
+        AudioFile audioFile = audioFileRepository.findByChapterId(chapterId);
+        if (audioFile == null || audioFile.getStorageKey() == null || audioFile.getHlsSegments() == null
+            || !AudioFileStore.fileId(audioFile.getStorageKey()).equals(fileId)
+            || !AudioFileStore.extension(audioFile.getStorageKey()).equals(extension)
+            || segmentNo < 0 || segmentNo >= audioFile.getHlsSegments()) {
+            throw new NotFoundException("HLS segment " + segmentNo + " not found with chapter id: " + chapterId);
+        }
+        Path segment = store.segmentDirectory(audioFile.getStorageKey())
+            .resolve(HlsSegmenter.segmentFileName(segmentNo, extension));
+        return toLocalAudio(segment, audioFile.getContentType(),
+            ContentVersion.of(null, audioFile.getStorageKey(), segmentNo));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ContentVersion getSeekTableVersion(Integer chapterId) {
+        AudioStorageProjection storage = audioFileRepository.findStorageByChapterId(chapterId);
+        if (storage == null || storage.getStorageKey() == null) {
+            throw new NotFoundException("Seek table not found with chapter id: " + chapterId);
+        }
+        return ContentVersion.of(storage.getStoredAt(), storage.getId(), storage.getStorageKey());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AudioSeekTableDTO getSeekTable(Integer chapterId) {
+        AudioFile audioFile = audioFileRepository.findByChapterId(chapterId);
+        if (audioFile == null || audioFile.getSeekTable() == null) {
+            throw new NotFoundException("Seek table not found with chapter id: " + chapterId);
+        }
+        AudioSeekTable seekTable = AudioSeekTable.decode(audioFile.getSeekTable());
+        return AudioSeekTableDTO.builder()
+            .chapterId(chapterId)
+            .audioUrl(audioFile.getAudioUrl())
+            .durationMs(audioFile.getDurationMs())
+            .bitrate(audioFile.getBitrate())
+            .intervalMs(seekTable.getIntervalMillis())
+            .offsets(seekTable.getOffsets())
+            .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ContentVersion getAudioManifestVersion(String slug) {
+        return getManifest(slug).getVersion();
+    }
+
+    // Mọi audio của truyện theo thứ tự chương, một query projection cho mỗi lần trượt cache
+    @Override
+    @Transactional(readOnly = true)
+    public List<AudioManifestItemDTO> getAudioManifest(String slug) {
+        return getManifest(slug).getItems();
+    }
+
+    @Override
+    public CacheStatsDTO getManifestCacheStats() {
+        return CacheStatsDTO.of("audio-manifests", manifests.estimatedSize(), manifests.stats());
+    }
+
+    // File bị thay chỉ xóa sau khi commit; client đang stream file cũ vẫn đọc tiếp được tới hết
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onAudioFileChanged(AudioFileChangedEvent event) {
+        invalidateManifest(event.getNovelId());
+        if (event.getPreviousStorageKey() != null) {
+            deleteQuietly(event.getPreviousStorageKey());
+        }
+    }
+
+    // Chương đổi số thứ tự / bị xóa thì manifest phải dựng lại
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChapterChanged(ChapterChangedEvent event) {
+        invalidateManifest(event.getNovelId());
+    }
+
+    // DB rollback thì file vừa ghi không còn ai trỏ tới
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onAudioFileUploadRolledBack(AudioFileChangedEvent event) {
+        deleteQuietly(event.getStorageKey());
     }
 
     AudioFileResponseDTO convertToDto(AudioFile audioFile) {
@@ -32,6 +333,84 @@ public class AudioFileServiceImpl implements AudioFileService{
             .chapterId(audioFile.getChapter().getId())
             .audioUrl(audioFile.getAudioUrl())
             .duration(audioFile.getDuration())
+            .durationMs(audioFile.getDurationMs())
+            .bitrate(audioFile.getBitrate())
+            .seekTableUrl(audioFile.getSeekTable() != null ? seekTableUrl(audioFile.getChapter().getId()) : null)
+            .build();
+    }
+
+    private AudioManifest getManifest(String slug) {
+        int novelId = novelResolverService.getIdBySlug(slug);
+        long generation = manifestGeneration(novelId).get();
+        AudioManifest manifest = manifests.get(novelId, this::loadManifest);
+        if (manifestGeneration(novelId).get() != generation) {
+            // Bị invalidate trong lúc dựng: bản này có thể đã cũ, không giữ lại trong cache
+            manifests.asMap().remove(novelId, manifest);
+        }
+        return manifest;
+    }
+
+    // Tăng thế hệ trước khi xóa để lần dựng nào ghi vào sau thời điểm này tự gỡ bản của mình
+    private void invalidateManifest(int novelId) {
+        manifestGeneration(novelId).incrementAndGet();
+        manifests.invalidate(novelId);
+    }
+
+    private AtomicLong manifestGeneration(int novelId) {
+        return manifestGenerations.computeIfAbsent(novelId, key -> new AtomicLong());
+    }
+
+    private AudioManifest loadManifest(Integer novelId) {
+        List<AudioManifestItemDTO> items = audioFileRepository.findManifestByNovelId(novelId).stream()
+            .map(AudioFileServiceImpl::toManifestItem)
+            .toList();
+        return new AudioManifest(ContentVersion.of(null, novelId, items), items);
+    }
+
+    private static AudioManifestItemDTO toManifestItem(AudioManifestProjection audio) {
+        return AudioManifestItemDTO.builder()
+            .id(audio.getId())
+            .chapterId(audio.getChapterId())
+            .chapterNo(audio.getChapterNo())
+            .audioUrl(audio.getAudioUrl())
+            .duration(audio.getDuration())
+            .durationMs(audio.getDurationMs())
+            .bitrate(audio.getBitrate())
+            .seekTableUrl(Boolean.TRUE.equals(audio.getSeekable()) ? seekTableUrl(audio.getChapterId()) : null)
+            .hlsPlaylistUrl(Boolean.TRUE.equals(audio.getSegmented())
+                ? "/api/v1/audio-files/" + audio.getChapterId() + "/hls/playlist.m3u8" : null)
             .build();
     }
+
+    private static String seekTableUrl(Integer chapterId) {
+        return "/api/v1/audio-files/" + chapterId + "/seek-table";
+    }
+
+    private static LocalAudio toLocalAudio(Path path, String contentType, ContentVersion version) {
+        try {
+            return new LocalAudio(path, Files.size(path), contentType, version);
+        } catch (IOException e) {
+            throw new NotFoundException("Stored audio file " + path.getFileName() + " is missing");
+        }
+    }
+
+    private void deleteQuietly(String key) {
+        try {
+            store.delete(key);
+        } catch (IOException e) {
+            log.warn("Failed to delete stored audio {}", key, e);
+        }
+    }
+
+    private static String normalizeContentType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return (mediaType.getType() + "/" + mediaType.getSubtype()).toLowerCase();
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+    }
 }
@@ -2,6 +2,8 @@ package com.spring3.oauth.jwt.services.impl;
 
 import com.spring3.oauth.jwt.entity.Author;
 import com.spring3.oauth.jwt.exception.NotFoundException;
+import com.spring3.oauth.jwt.helpers.ContentVersion;
+import com.spring3.oauth.jwt.models.projections.ContentVersionProjection;
 import com.spring3.oauth.jwt.repositories.AuthorRepository;
 import com.spring3.oauth.jwt.services.AuthorService;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -24,6 +27,13 @@ public class AuthorServiceImpl implements AuthorService {
         return authorRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ContentVersion getAuthorsVersion() {
+        ContentVersionProjection version = authorRepository.findVersion();
+        return ContentVersion.of(version.getUpdatedAt(), version.getCount(), version.getUpdatedAt());
+    }
+
     @Override
     public Author getAuthorById(Integer id) {
         return authorRepository.findById(id)
@@ -44,6 +54,7 @@ public class AuthorServiceImpl implements AuthorService {
         Author authorNew = new Author();
         authorNew.setName(author.getName());
         authorNew.setDob(author.getDob());
+        authorNew.setUpdatedAt(LocalDateTime.now());
         return authorRepository.save(authorNew);
     }
 
@@ -53,6 +64,7 @@ public class AuthorServiceImpl implements AuthorService {
             .orElseThrow(() -> new NotFoundException("Author not found with id: " + id));
         author.setName(request.getName());
         author.setDob(request.getDob());
+        author.setUpdatedAt(LocalDateTime.now());
         return authorRepository.save(author);
     }
 
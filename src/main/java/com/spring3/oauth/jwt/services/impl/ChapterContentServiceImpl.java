@@ -0,0 +1,189 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring3.oauth.jwt.entity.Chapter;
+import com.spring3.oauth.jwt.helpers.ChapterSegmentStore;
+import com.spring3.oauth.jwt.helpers.ChapterTextStats;
+import com.spring3.oauth.jwt.models.projections.ChapterContentProjection;
+import com.spring3.oauth.jwt.repositories.ChapterRepository;
+import com.spring3.oauth.jwt.services.ChapterContentService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.List;
+
+// Nội dung chương nằm trong kho segment nén (ChapterSegmentStore), dòng CHAPTERS chỉ giữ con trỏ + checksum.
+// Chương cũ còn nội dung ở content_doc vẫn đọc được, và được chuyển dần sang kho bằng migrateLegacyContent.
+// Đoạn trích / số từ / thời gian đọc cho mục lục được tính mỗi lần ghi nội dung.
+// Bản giải nén (cho Range / chunks) được cache theo vị trí trong kho: kho chỉ ghi nối nên một vị trí không bao giờ
+// đổi nội dung, sửa chương tạo vị trí mới và cache không cần invalidate.
+@Service
+@Slf4j
+public class ChapterContentServiceImpl implements ChapterContentService {
+
+    private final ChapterRepository chapterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ChapterSegmentStore store;
+    // (segment << 32 | offset) -> nội dung UTF-8 không nén
+    private final Cache<Long, byte[]> uncompressed;
+
+    public ChapterContentServiceImpl(ChapterRepository chapterRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${novel.chapter-content.dir:./data/chapter-content}") String directory,
+                                     @Value("${novel.chapter-content.segment-max-bytes:268435456}") long segmentMaxBytes,
+                                     @Value("${novel.chapter-content.uncompressed-cache-bytes:67108864}") long uncompressedCacheBytes)
+        throws IOException {
+        this.chapterRepository = chapterRepository;
+        this.uncompressed = Caffeine.newBuilder()
+            .maximumWeight(uncompressedCacheBytes)
+            .weigher((Long key, byte[] content) -> content.length)
+            .build();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.store = new ChapterSegmentStore(Paths.get(directory), segmentMaxBytes);
+    }
+
+    // Chapter phải đã có id (đã save) vì id được ghi vào header bản ghi để có thể khôi phục
+    @Override
+    public void store(Chapter chapter, String content) {
+        append(chapter, content);
+        sync();
+    }
+
+    // Nhiều chương một lần sync: dùng cho nhập hàng loạt, contents[i] là nội dung của chapters[i]
+    @Override
+    public void storeAll(List<Chapter> chapters, List<String> contents) {
+        for (int i = 0; i < chapters.size(); i++) {
+            append(chapters.get(i), contents.get(i));
+        }
+        sync();
+    }
+
+    @Override
+    public String getContent(Chapter chapter) {
+        if (chapter.getContentSegment() == null) {
+            return chapter.getContentDoc();
+        }
+        return ChapterSegmentStore.decompress(read(chapter.getContentSegment(), chapter.getContentOffset(),
+            chapter.getContentLength(), chapter.getContentCrc()));
+    }
+
+    // Bytes gzip của chương; chương chưa chuyển sang kho thì nén tại chỗ
+    @Override
+    public ByteBuffer getCompressed(ChapterContentProjection pointer) {
+        if (pointer.getContentSegment() != null) {
+            return read(pointer.getContentSegment(), pointer.getContentOffset(), pointer.getContentLength(),
+                pointer.getContentCrc());
+        }
+        String content = chapterRepository.findById(pointer.getId())
+            .map(Chapter::getContentDoc)
+            .orElse("");
+        return ByteBuffer.wrap(ChapterSegmentStore.compress(content == null ? "" : content));
+    }
+
+    // Nội dung UTF-8 không nén; chương chưa chuyển sang kho thì không cache
+    @Override
+    public byte[] getUncompressed(ChapterContentProjection pointer) {
+        if (pointer.getContentSegment() == null) {
+            return ChapterSegmentStore.decompressBytes(getCompressed(pointer));
+        }
+        return uncompressed.get((long) pointer.getContentSegment() << 32 | pointer.getContentOffset(),
+            key -> ChapterSegmentStore.decompressBytes(getCompressed(pointer)));
+    }
+
+    // Mỗi lô một transaction: ghi vào segment + sync trước, sau đó mới đổi con trỏ và xóa content_doc
+    @Override
+    public int migrateLegacyContent(int batchSize) {
+        long startedAt = System.currentTimeMillis();
+        int migrated = 0;
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> {
+                List<Integer> ids = chapterRepository.findLegacyContentIds(PageRequest.ofSize(batchSize));
+                List<Chapter> chapters = chapterRepository.findAllById(ids);
+                for (Chapter chapter : chapters) {
+                    if (chapter.getContentSegment() == null) {
+                        append(chapter, chapter.getContentDoc());
+                    } else {
+                        // Đã ở trong kho nhưng chưa có thông tin mục lục
+                        applyStats(chapter, getContent(chapter));
+                    }
+                }
+                sync();
+                chapterRepository.saveAll(chapters);
+                return chapters.size();
+            });
+            if (count == null || count == 0) {
+                break;
+            }
+            migrated += count;
+            log.info("Moved {} chapter(s) to the content segment store", migrated);
+        }
+        log.info("Chapter content migration finished: {} chapter(s) in {} ms", migrated,
+            System.currentTimeMillis() - startedAt);
+        return migrated;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        store.close();
+    }
+
+    private void append(Chapter chapter, String content) {
+        applyStats(chapter, content);
+        if (content == null) {
+            clearPointer(chapter);
+            chapter.setContentDoc(null);
+            return;
+        }
+        try {
+            ChapterSegmentStore.Location location = store.append(chapter.getId(), ChapterSegmentStore.compress(content));
+            chapter.setContentSegment(location.getSegment());
+            chapter.setContentOffset(location.getOffset());
+            chapter.setContentLength(location.getLength());
+            chapter.setContentCrc(location.getCrc());
+            chapter.setContentDoc(null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store content of chapter " + chapter.getId(), e);
+        }
+    }
+
+    // Con trỏ chỉ được commit xuống DB sau khi dữ liệu đã xuống đĩa
+    private void sync() {
+        try {
+            store.sync();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not sync chapter content store", e);
+        }
+    }
+
+    private ByteBuffer read(int segment, long offset, int length, long crc) {
+        try {
+            return store.read(new ChapterSegmentStore.Location(segment, offset, length, crc));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read chapter content from segment " + segment, e);
+        }
+    }
+
+    private static void applyStats(Chapter chapter, String content) {
+        ChapterTextStats stats = ChapterTextStats.of(content);
+        chapter.setExcerpt(stats.getExcerpt());
+        chapter.setWordCount(stats.getWordCount());
+        chapter.setReadingMinutes(stats.getReadingMinutes());
+    }
+
+    private static void clearPointer(Chapter chapter) {
+        chapter.setContentSegment(null);
+        chapter.setContentOffset(null);
+        chapter.setContentLength(null);
+        chapter.setContentCrc(null);
+    }
+}
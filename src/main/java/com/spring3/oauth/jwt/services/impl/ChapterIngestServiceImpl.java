@@ -0,0 +1,349 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring3.oauth.jwt.entity.Chapter;
+import com.spring3.oauth.jwt.entity.enums.ChapterIngestStatusEnum;
+import com.spring3.oauth.jwt.events.ChapterChangedEvent;
+import com.spring3.oauth.jwt.events.NovelChangedEvent;
+import com.spring3.oauth.jwt.exception.BadRequestException;
+import com.spring3.oauth.jwt.exception.NotFoundException;
+import com.spring3.oauth.jwt.models.dtos.ChapterIngestItemDTO;
+import com.spring3.oauth.jwt.models.dtos.ChapterIngestResponseDTO;
+import com.spring3.oauth.jwt.models.request.UpsertChapterRequest;
+import com.spring3.oauth.jwt.repositories.NovelRepository;
+import com.spring3.oauth.jwt.services.ChapterContentService;
+import com.spring3.oauth.jwt.services.ChapterIngestService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+// Nhập chương hàng loạt cho một truyện: đọc dần request (mảng JSON, NDJSON hoặc zip) và ghi theo lô.
+// Mỗi lô một transaction: khóa dòng truyện (SELECT ... FOR UPDATE) để kiểm tra trùng chapterNo không bị
+// request khác chen vào, INSERT bằng JDBC batch, ghi nội dung vào kho segment (một lần sync),
+// UPDATE con trỏ nội dung theo batch, rồi cộng total_chaps bằng một câu UPDATE ... + ?.
+// Lô lỗi giữa chừng thì các lô trước vẫn giữ; kết quả trả về theo từng chương.
+@Service
+@Slf4j
+public class ChapterIngestServiceImpl implements ChapterIngestService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_TITLE_LENGTH = 255;
+
+    private static final String INSERT_SQL = "INSERT INTO chapters (title, chapter_no, released_at, updated_at, "
+        + "thumbnail_image_url, novel_id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_CONTENT_SQL = "UPDATE chapters SET content_segment = ?, content_offset = ?, "
+        + "content_length = ?, content_crc = ?, excerpt = ?, word_count = ?, reading_minutes = ? WHERE id = ?";
+    private static final String UPDATE_TOTAL_SQL =
+        "UPDATE novels SET total_chaps = total_chaps + ?, updated_at = ? WHERE id = ?";
+
+    // Tên entry zip: "<chapterNo>.html" hoặc "<chapterNo> - <title>.txt" (thư mục bị bỏ qua)
+    private static final Pattern ZIP_ENTRY_NAME = Pattern.compile("(?:.*/)?(\\d+)(?:\\s*[-_.]\\s*(.*?))?\\.(html?|txt|md)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NovelRepository novelRepository;
+    private final ChapterContentService chapterContentService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    // Một phần tử đọc được từ request: chương hợp lệ về cú pháp hoặc lỗi đọc của phần tử đó
+    @AllArgsConstructor
+    private static class Item {
+        private final int index;
+        private final UpsertChapterRequest request;
+        private final String error;
+    }
+
+    private interface ItemSource {
+        // null khi đã hết
+        Item next() throws IOException;
+    }
+
+    public ChapterIngestServiceImpl(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    NovelRepository novelRepository,
+                                    ChapterContentService chapterContentService,
+                                    ApplicationEventPublisher eventPublisher,
+                                    ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.novelRepository = novelRepository;
+        this.chapterContentService = chapterContentService;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    // Mảng JSON hoặc NDJSON (các object nối tiếp nhau): MappingIterator đọc được cả hai
+    @Override
+    public ChapterIngestResponseDTO ingestJson(int novelId, InputStream body) {
+        try (MappingIterator<UpsertChapterRequest> values = objectMapper.readerFor(UpsertChapterRequest.class)
+            .readValues(body)) {
+            int[] index = {0};
+            return ingest(novelId, () -> {
+                if (!values.hasNextValue()) {
+                    return null;
+                }
+                return new Item(index[0]++, values.nextValue(), null);
+            });
+        } catch (IOException e) {
+            throw new BadRequestException("Could not read chapters: " + e.getMessage());
+        }
+    }
+
+    // Entry .json là một UpsertChapterRequest; entry .html / .txt / .md lấy chapterNo (và title) từ tên file
+    @Override
+    public ChapterIngestResponseDTO ingestZip(int novelId, InputStream body) {
+        try (ZipInputStream zip = new ZipInputStream(body, StandardCharsets.UTF_8)) {
+            int[] index = {0};
+            return ingest(novelId, () -> {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    if (!entry.isDirectory()) {
+                        return readZipEntry(index[0]++, entry.getName(), zip.readAllBytes());
+                    }
+                }
+                return null;
+            });
+        } catch (IOException e) {
+            throw new BadRequestException("Could not read chapter archive: " + e.getMessage());
+        }
+    }
+
+    private ChapterIngestResponseDTO ingest(int novelId, ItemSource source) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        String slug = novelRepository.findById(novelId)
+            .orElseThrow(() -> new NotFoundException("Novel not found with id: " + novelId))
+            .getSlug();
+        List<ChapterIngestItemDTO> results = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        List<Item> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            Item item;
+            try {
+                item = source.next();
+            } catch (JsonProcessingException e) {
+                // Sau lỗi cú pháp không đồng bộ lại được với phần còn lại: ghi nhận rồi dừng
+                results.add(rejected(results.size() + batch.size(), null, ChapterIngestStatusEnum.INVALID,
+                    "Malformed chapter: " + e.getOriginalMessage()));
+                break;
+            }
+            if (item == null) {
+                break;
+            }
+            String error = item.error != null ? item.error : validate(novelId, item.request);
+            if (error != null) {
+                results.add(rejected(item.index, item.request == null ? null : item.request.getChapterNo(),
+                    ChapterIngestStatusEnum.INVALID, error));
+            } else if (!seen.add(item.request.getChapterNo())) {
+                results.add(rejected(item.index, item.request.getChapterNo(), ChapterIngestStatusEnum.DUPLICATE,
+                    "Chapter number repeated in this request"));
+            } else {
+                batch.add(item);
+            }
+            if (batch.size() == BATCH_SIZE) {
+                results.addAll(insertBatch(novelId, slug, batch));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            results.addAll(insertBatch(novelId, slug, batch));
+        }
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        int created = (int) results.stream().filter(r -> r.getStatus() == ChapterIngestStatusEnum.CREATED).count();
+        long elapsedMs = System.currentTimeMillis() - startedAt;
+        log.info("Ingested {} of {} chapter(s) into novel {} in {} ms", created, results.size(), novelId, elapsedMs);
+        return ChapterIngestResponseDTO.builder()
+            .novelId(novelId)
+            .received(results.size())
+            .created(created)
+            .rejected(results.size() - created)
+            .elapsedMs(elapsedMs)
+            .items(results)
+            .build();
+    }
+
+    private List<ChapterIngestItemDTO> insertBatch(int novelId, String slug, List<Item> batch) {
+        return transactionTemplate.execute(status -> {
+            // Khóa dòng truyện tới hết transaction: kiểm tra trùng + insert của các lô nhập song song chạy tuần tự
+            jdbcTemplate.queryForObject("SELECT id FROM novels WHERE id = ? FOR UPDATE", Integer.class, novelId);
+            Set<Integer> existing = findExistingChapterNos(novelId, batch);
+
+            List<ChapterIngestItemDTO> results = new ArrayList<>(batch.size());
+            List<Item> accepted = new ArrayList<>(batch.size());
+            for (Item item : batch) {
+                if (existing.contains(item.request.getChapterNo())) {
+                    results.add(rejected(item.index, item.request.getChapterNo(), ChapterIngestStatusEnum.DUPLICATE,
+                        "Chapter number already exists in novel"));
+                } else {
+                    accepted.add(item);
+                }
+            }
+            if (accepted.isEmpty()) {
+                return results;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            List<Integer> ids = insertChapters(novelId, accepted, now);
+            List<Chapter> chapters = new ArrayList<>(accepted.size());
+            List<String> contents = new ArrayList<>(accepted.size());
+            for (int i = 0; i < accepted.size(); i++) {
+                Chapter chapter = new Chapter();
+                chapter.setId(ids.get(i));
+                chapters.add(chapter);
+                contents.add(accepted.get(i).request.getContentDoc());
+            }
+            chapterContentService.storeAll(chapters, contents);
+            jdbcTemplate.batchUpdate(UPDATE_CONTENT_SQL, chapters, chapters.size(), (ps, chapter) -> {
+                ps.setObject(1, chapter.getContentSegment(), Types.INTEGER);
+                ps.setObject(2, chapter.getContentOffset(), Types.BIGINT);
+                ps.setObject(3, chapter.getContentLength(), Types.INTEGER);
+                ps.setObject(4, chapter.getContentCrc(), Types.BIGINT);
+                ps.setString(5, chapter.getExcerpt());
+                ps.setObject(6, chapter.getWordCount(), Types.INTEGER);
+                ps.setObject(7, chapter.getReadingMinutes(), Types.INTEGER);
+                ps.setInt(8, chapter.getId());
+            });
+            jdbcTemplate.update(UPDATE_TOTAL_SQL, accepted.size(), Timestamp.valueOf(now), novelId);
+            // Listener nhận sau khi lô commit: cache chương và các read model của truyện (total_chaps, updated_at)
+            eventPublisher.publishEvent(new ChapterChangedEvent(novelId, slug));
+            eventPublisher.publishEvent(new NovelChangedEvent(novelId, false));
+
+            for (int i = 0; i < accepted.size(); i++) {
+                Item item = accepted.get(i);
+                results.add(ChapterIngestItemDTO.builder()
+                    .index(item.index)
+                    .chapterNo(item.request.getChapterNo())
+                    .status(ChapterIngestStatusEnum.CREATED)
+                    .chapterId(ids.get(i))
+                    .build());
+            }
+            return results;
+        });
+    }
+
+    // JdbcTemplate.batchUpdate không trả về khóa sinh ra nên dùng PreparedStatement trực tiếp
+    private List<Integer> insertChapters(int novelId, List<Item> items, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Item item : items) {
+                    insert.setString(1, item.request.getTitle().strip());
+                    insert.setInt(2, item.request.getChapterNo());
+                    insert.setTimestamp(3, timestamp);
+                    insert.setTimestamp(4, timestamp);
+                    insert.setString(5, item.request.getThumbnailImageUrl());
+                    insert.setInt(6, novelId);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                List<Integer> ids = new ArrayList<>(items.size());
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getInt(1));
+                    }
+                }
+                if (ids.size() != items.size()) {
+                    throw new IllegalStateException("Expected " + items.size() + " generated chapter ids, got " + ids.size());
+                }
+                return ids;
+            }
+        });
+    }
+
+    // Quét theo khoảng [min, max] của lô trên index (novel_id, chapter_no) thay cho IN với hàng trăm tham số;
+    // file nhập thường đánh số liên tiếp nên khoảng này sát với lô
+    private Set<Integer> findExistingChapterNos(int novelId, List<Item> batch) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (Item item : batch) {
+            min = Math.min(min, item.request.getChapterNo());
+            max = Math.max(max, item.request.getChapterNo());
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(
+            "SELECT chapter_no FROM chapters WHERE novel_id = ? AND chapter_no BETWEEN ? AND ?",
+            Integer.class, novelId, min, max));
+    }
+
+    private Item readZipEntry(int index, String name, byte[] bytes) {
+        if (name.endsWith(".json")) {
+            try {
+                return new Item(index, objectMapper.readValue(bytes, UpsertChapterRequest.class), null);
+            } catch (IOException e) {
+                return new Item(index, null, "Malformed chapter in " + name + ": " + e.getMessage());
+            }
+        }
+        Matcher matcher = ZIP_ENTRY_NAME.matcher(name);
+        if (!matcher.matches()) {
+            return new Item(index, null, "Unsupported entry " + name
+                + ", expected <chapterNo>[ - title].html|txt|md or a .json chapter");
+        }
+        int chapterNo;
+        try {
+            chapterNo = Integer.parseInt(matcher.group(1));
+        } catch (NumberFormatException e) {
+            return new Item(index, null, "Invalid chapter number in " + name);
+        }
+        String title = matcher.group(2) == null || matcher.group(2).isBlank()
+            ? "Chương " + chapterNo
+            : matcher.group(2);
+        UpsertChapterRequest request = new UpsertChapterRequest();
+        request.setChapterNo(chapterNo);
+        request.setTitle(title);
+        request.setContentDoc(new String(bytes, StandardCharsets.UTF_8));
+        return new Item(index, request, null);
+    }
+
+    private static String validate(int novelId, UpsertChapterRequest request) {
+        if (request == null) {
+            return "Chapter must be an object";
+        }
+        if (request.getChapterNo() <= 0) {
+            return "Chapter number must be positive";
+        }
+        if (request.getTitle() == null || request.getTitle().isBlank()) {
+            return "Title is required";
+        }
+        if (request.getTitle().strip().length() > MAX_TITLE_LENGTH) {
+            return "Title must be at most " + MAX_TITLE_LENGTH + " characters";
+        }
+        if (request.getNovelId() != null && request.getNovelId() != novelId) {
+            return "Chapter belongs to novel " + request.getNovelId() + ", not " + novelId;
+        }
+        return null;
+    }
+
+    private static ChapterIngestItemDTO rejected(int index, Integer chapterNo, ChapterIngestStatusEnum status,
+                                                 String message) {
+        return ChapterIngestItemDTO.builder()
+            .index(index)
+            .chapterNo(chapterNo)
+            .status(status)
+            .message(message)
+            .build();
+    }
+}
@@ -0,0 +1,180 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring3.oauth.jwt.events.ChapterChangedEvent;
+import com.spring3.oauth.jwt.models.dtos.CacheStatsDTO;
+import com.spring3.oauth.jwt.models.dtos.ChapterResponseDTO;
+import com.spring3.oauth.jwt.services.ChapterReadAheadService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+// Cache đọc trước cho chi tiết chương: người đọc đi tuần tự theo chapterNo nên khi phục vụ chương N thì nạp sẵn
+// các chương kế tiếp (theo nextChapterNo, chương có thể không liên tiếp) ở thread nền. Giới hạn theo tổng dung lượng
+// ước tính của nội dung (LRU theo byte); DTO trong cache dùng chung giữa các request nên không được sửa.
+// Đọc trước là best-effort: hàng đợi đầy thì bỏ qua, lỗi chỉ ghi log.
+// Mỗi truyện có một số thế hệ tăng khi bị evict: lần nạp bắt đầu trước khi transaction ghi commit mà ghi vào cache
+// sau lúc evict thì bị gỡ lại, tránh cache lại DTO cũ (ETag chi tiết chương lấy từ DTO này).
+@Service
+@Slf4j
+public class ChapterReadAheadServiceImpl implements ChapterReadAheadService {
+
+    // Chi phí cố định ước tính của một entry ngoài phần chuỗi
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+    private static final int QUEUE_CAPACITY = 256;
+
+    private final Cache<String, ChapterResponseDTO> chapters;
+    private final long maximumBytes;
+    private final int depth;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor executor;
+
+    // Khóa của chương đầu tiên trong các lần đọc trước đang chạy, tránh nạp trùng khi nhiều người cùng đọc
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    // slug -> thế hệ cache của truyện
+    private final ConcurrentHashMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public ChapterReadAheadServiceImpl(PlatformTransactionManager transactionManager,
+                                       @Value("${novel.chapter-cache.maximum-bytes:268435456}") long maximumBytes,
+                                       @Value("${novel.chapter-cache.expire-after-write-ms:1800000}") long expireAfterWriteMs,
+                                       @Value("${novel.chapter-cache.read-ahead-depth:2}") int depth,
+                                       @Value("${novel.chapter-cache.read-ahead-threads:2}") int threads) {
+        this.maximumBytes = maximumBytes;
+        this.depth = depth;
+        this.chapters = Caffeine.newBuilder()
+            .maximumWeight(maximumBytes)
+            .weigher((String key, ChapterResponseDTO chapter) -> weigh(chapter))
+            .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+            .recordStats()
+            .build();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "chapter-read-ahead");
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    // loader trả về null khi chương không tồn tại (không cache); chạy trong transaction chỉ đọc riêng
+    @Override
+    public ChapterResponseDTO getChapter(String slug, int chapNo, BiFunction<String, Integer, ChapterResponseDTO> loader) {
+        String key = key(slug, chapNo);
+        long generation = generation(slug).get();
+        ChapterResponseDTO chapter = chapters.get(key, k -> load(slug, chapNo, loader));
+        if (chapter != null && generation(slug).get() != generation) {
+            // Truyện bị evict trong lúc nạp: bản vừa nạp có thể đã cũ, không giữ lại trong cache
+            chapters.asMap().remove(key, chapter);
+        }
+        if (chapter != null && depth > 0 && chapter.getNextChapterNo() != null) {
+            readAhead(slug, chapter.getNextChapterNo(), loader);
+        }
+        return chapter;
+    }
+
+    @Override
+    public void evictNovel(String slug) {
+        // Tăng thế hệ trước khi xóa: lần nạp nào ghi vào sau thời điểm này đều tự gỡ bản của mình
+        generation(slug).incrementAndGet();
+        String prefix = slug + "/";
+        chapters.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    @Override
+    public CacheStatsDTO getStats() {
+        long weightedBytes = chapters.policy().eviction()
+            .map(eviction -> eviction.weightedSize().orElse(0L))
+            .orElse(0L);
+        return CacheStatsDTO.of("chapters-read-ahead", chapters.estimatedSize(), chapters.stats(),
+            weightedBytes, maximumBytes);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChapterChanged(ChapterChangedEvent event) {
+        evictNovel(event.getNovelSlug());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void readAhead(String slug, int firstChapNo, BiFunction<String, Integer, ChapterResponseDTO> loader) {
+        String firstKey = key(slug, firstChapNo);
+        // Chương kế đã có trong cache thì các chương sau đó gần như chắc chắn cũng đã được nạp cùng lượt
+        if (chapters.policy().getIfPresentQuietly(firstKey) != null || !inFlight.add(firstKey)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    long generation = generation(slug).get();
+                    Integer chapNo = firstChapNo;
+                    for (int i = 0; i < depth && chapNo != null; i++) {
+                        String key = key(slug, chapNo);
+                        ChapterResponseDTO chapter = chapters.policy().getIfPresentQuietly(key);
+                        if (chapter == null) {
+                            chapter = load(slug, chapNo, loader);
+                            if (chapter == null) {
+                                return;
+                            }
+                            // put không tính vào hit / miss: tỉ lệ hit chỉ phản ánh request thật của người đọc
+                            chapters.put(key, chapter);
+                            if (generation(slug).get() != generation) {
+                                chapters.asMap().remove(key, chapter);
+                                return;
+                            }
+                        }
+                        chapNo = chapter.getNextChapterNo();
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Read-ahead failed for novel {} from chapter {}", slug, firstChapNo, e);
+                } finally {
+                    inFlight.remove(firstKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(firstKey);
+        }
+    }
+
+    private AtomicLong generation(String slug) {
+        return generations.computeIfAbsent(slug, key -> new AtomicLong());
+    }
+
+    private ChapterResponseDTO load(String slug, int chapNo, BiFunction<String, Integer, ChapterResponseDTO> loader) {
+        return readOnlyTransaction.execute(status -> loader.apply(slug, chapNo));
+    }
+
+    // Chuỗi Java tính 2 byte / ký tự (tiếng Việt không nén được về Latin-1)
+    private static int weigh(ChapterResponseDTO chapter) {
+        long chars = length(chapter.getContentDoc()) + length(chapter.getTitle()) + length(chapter.getThumbnailImageUrl());
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD_BYTES + 2 * chars);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static String key(String slug, int chapNo) {
+        return slug + "/" + chapNo;
+    }
+}
@@ -0,0 +1,181 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.spring3.oauth.jwt.entity.Chapter;
+import com.spring3.oauth.jwt.entity.ChapterRevision;
+import com.spring3.oauth.jwt.exception.NotFoundException;
+import com.spring3.oauth.jwt.helpers.BinaryDelta;
+import com.spring3.oauth.jwt.helpers.ChapterSegmentStore;
+import com.spring3.oauth.jwt.models.dtos.ChapterRevisionDTO;
+import com.spring3.oauth.jwt.models.projections.ChapterRevisionSummaryProjection;
+import com.spring3.oauth.jwt.repositories.ChapterRepository;
+import com.spring3.oauth.jwt.repositories.ChapterRevisionRepository;
+import com.spring3.oauth.jwt.services.ChapterContentService;
+import com.spring3.oauth.jwt.services.ChapterRevisionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// Lịch sử sửa chương kiểu RCS: bản hiện tại đầy đủ trong kho segment, mỗi bản cũ là delta ngược
+// (áp lên bản mới hơn một số ra bản cũ), nên dung lượng lịch sử tăng theo phần bị sửa.
+// Bản có revisionNo chia hết cho snapshot-interval luôn lưu đầy đủ, nên dựng lại bản k chỉ đi tới
+// snapshot kế tiếp (hoặc bản hiện tại): tối đa snapshot-interval - 1 lần áp delta.
+@Service
+@Transactional
+@Slf4j
+public class ChapterRevisionServiceImpl implements ChapterRevisionService {
+
+    private final ChapterRepository chapterRepository;
+    private final ChapterRevisionRepository chapterRevisionRepository;
+    private final ChapterContentService chapterContentService;
+    private final int snapshotInterval;
+
+    public ChapterRevisionServiceImpl(ChapterRepository chapterRepository,
+                                      ChapterRevisionRepository chapterRevisionRepository,
+                                      ChapterContentService chapterContentService,
+                                      @Value("${novel.chapter-revisions.snapshot-interval:10}") int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be positive");
+        }
+        this.chapterRepository = chapterRepository;
+        this.chapterRevisionRepository = chapterRevisionRepository;
+        this.chapterContentService = chapterContentService;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    // Gọi trong updateChapter sau khi đã ghi nội dung mới; không đổi tiêu đề lẫn nội dung thì không tạo phiên bản
+    @Override
+    public void recordRevision(Chapter chapter, String previousTitle, String previousContent, LocalDateTime previousSince,
+                               String newContent) {
+        if (Objects.equals(previousTitle, chapter.getTitle()) && Objects.equals(previousContent, newContent)) {
+            return;
+        }
+        int revisionNo = currentRevisionNo(chapter);
+        ChapterRevision revision = new ChapterRevision();
+        revision.setChapter(chapter);
+        revision.setRevisionNo(revisionNo);
+        revision.setTitle(previousTitle);
+        revision.setCreatedAt(previousSince);
+        revision.setReplacedAt(LocalDateTime.now());
+        if (previousContent != null) {
+            byte[] previous = previousContent.getBytes(StandardCharsets.UTF_8);
+            revision.setContentLength(previous.length);
+            byte[] delta = newContent == null || revisionNo % snapshotInterval == 0
+                ? null
+                : BinaryDelta.encode(newContent.getBytes(StandardCharsets.UTF_8), previous);
+            // Sửa gần như toàn bộ thì delta không lợi hơn bản đầy đủ
+            boolean snapshot = delta == null || delta.length > previous.length / 2;
+            revision.setSnapshot(snapshot);
+            revision.setData(ChapterSegmentStore.compress(snapshot ? previous : delta));
+            revision.setStoredBytes(revision.getData().length);
+        } else {
+            revision.setSnapshot(true);
+        }
+        chapterRevisionRepository.save(revision);
+        chapter.setRevisionNo(revisionNo + 1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ChapterRevisionDTO> getRevisions(String slug, int chapNo) {
+        Chapter chapter = findChapter(slug, chapNo);
+        List<ChapterRevisionDTO> revisions = new ArrayList<>();
+        revisions.add(ChapterRevisionDTO.builder()
+            .revisionNo(currentRevisionNo(chapter))
+            .title(chapter.getTitle())
+            .current(true)
+            .createdAt(chapter.getUpdatedAt() != null ? chapter.getUpdatedAt() : chapter.getReleasedAt())
+            .build());
+        for (ChapterRevisionSummaryProjection row : chapterRevisionRepository.findSummariesByChapterId(chapter.getId())) {
+            revisions.add(ChapterRevisionDTO.builder()
+                .revisionNo(row.getRevisionNo())
+                .title(row.getTitle())
+                .snapshot(row.getSnapshot())
+                .contentLength(row.getContentLength())
+                .storedBytes(row.getStoredBytes())
+                .createdAt(row.getCreatedAt())
+                .replacedAt(row.getReplacedAt())
+                .build());
+        }
+        return revisions;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChapterRevisionDTO getRevision(String slug, int chapNo, int revisionNo) {
+        Chapter chapter = findChapter(slug, chapNo);
+        int current = currentRevisionNo(chapter);
+        if (revisionNo < 1 || revisionNo > current) {
+            throw new NotFoundException("Revision " + revisionNo + " not found for chapter " + chapNo + " of novel " + slug);
+        }
+        if (revisionNo == current) {
+            String content = chapterContentService.getContent(chapter);
+            return ChapterRevisionDTO.builder()
+                .revisionNo(current)
+                .title(chapter.getTitle())
+                .current(true)
+                .contentLength(content == null ? null : content.getBytes(StandardCharsets.UTF_8).length)
+                .createdAt(chapter.getUpdatedAt() != null ? chapter.getUpdatedAt() : chapter.getReleasedAt())
+                .contentDoc(content)
+                .build();
+        }
+
+        // Chuỗi cần đọc: từ bản revisionNo tới snapshot thực có kế tiếp; không có snapshot nào thì tới bản cũ mới nhất,
+        // delta của bản đó tính trên nội dung hiện tại
+        Integer snapshotNo = chapterRevisionRepository.findNextSnapshotNo(chapter.getId(), revisionNo);
+        int lastNo = snapshotNo == null ? current - 1 : Math.min(current - 1, snapshotNo);
+        List<ChapterRevision> chain = chapterRevisionRepository.findChain(chapter.getId(), revisionNo, lastNo);
+        if (chain.size() != lastNo - revisionNo + 1) {
+            throw new IllegalStateException("Revision history of chapter " + chapter.getId() + " has gaps");
+        }
+        int start = 0;
+        while (start < chain.size() && !chain.get(start).isSnapshot()) {
+            start++;
+        }
+        byte[] content;
+        if (start < chain.size()) {
+            content = unpack(chain.get(start));
+        } else {
+            String currentContent = chapterContentService.getContent(chapter);
+            content = currentContent == null ? null : currentContent.getBytes(StandardCharsets.UTF_8);
+        }
+        for (int i = Math.min(start, chain.size()) - 1; i >= 0; i--) {
+            content = BinaryDelta.apply(content, unpack(chain.get(i)));
+        }
+
+        ChapterRevision revision = chain.get(0);
+        return ChapterRevisionDTO.builder()
+            .revisionNo(revision.getRevisionNo())
+            .title(revision.getTitle())
+            .snapshot(revision.isSnapshot())
+            .contentLength(revision.getContentLength())
+            .storedBytes(revision.getStoredBytes())
+            .createdAt(revision.getCreatedAt())
+            .replacedAt(revision.getReplacedAt())
+            .contentDoc(content == null ? null : new String(content, StandardCharsets.UTF_8))
+            .build();
+    }
+
+    private Chapter findChapter(String slug, int chapNo) {
+        Chapter chapter = chapterRepository.findByChapterNoAndNovelSlug(chapNo, slug);
+        if (chapter == null) {
+            throw new NotFoundException("Chapter not found with chapter number: " + chapNo + " with novel slug: " + slug);
+        }
+        return chapter;
+    }
+
+    private static byte[] unpack(ChapterRevision revision) {
+        return revision.getData() == null ? null : ChapterSegmentStore.decompressBytes(ByteBuffer.wrap(revision.getData()));
+    }
+
+    private static int currentRevisionNo(Chapter chapter) {
+        return chapter.getRevisionNo() == null ? 1 : chapter.getRevisionNo();
+    }
+}
@@ -2,19 +2,44 @@ package com.spring3.oauth.jwt.services.impl;
 
 import com.spring3.oauth.jwt.entity.Chapter;
 import com.spring3.oauth.jwt.entity.Novel;
+import com.spring3.oauth.jwt.entity.enums.NovelActivityTypeEnum;
+import com.spring3.oauth.jwt.events.ChapterChangedEvent;
+import com.spring3.oauth.jwt.events.NovelActivityEvent;
+import com.spring3.oauth.jwt.events.NovelChangedEvent;
+import com.spring3.oauth.jwt.exception.BadRequestException;
 import com.spring3.oauth.jwt.exception.NotFoundException;
+import com.spring3.oauth.jwt.helpers.ContentVersion;
+import com.spring3.oauth.jwt.helpers.ParagraphChunker;
 import com.spring3.oauth.jwt.models.dtos.*;
+import com.spring3.oauth.jwt.models.projections.ChapterContentProjection;
+import com.spring3.oauth.jwt.models.projections.ChapterTocProjection;
+import com.spring3.oauth.jwt.models.projections.ChapterVersionProjection;
+import com.spring3.oauth.jwt.models.projections.ContentVersionProjection;
 import com.spring3.oauth.jwt.models.request.UpsertChapterRequest;
 import com.spring3.oauth.jwt.repositories.ChapterRepository;
 import com.spring3.oauth.jwt.repositories.NovelRepository;
+import com.spring3.oauth.jwt.services.ChapterContentService;
+import com.spring3.oauth.jwt.services.ChapterReadAheadService;
+import com.spring3.oauth.jwt.services.ChapterRevisionService;
 import com.spring3.oauth.jwt.services.ChapterService;
+import com.spring3.oauth.jwt.services.NovelCounterService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -26,57 +51,212 @@ public class ChapterServiceImpl implements ChapterService {
 
     private final ChapterRepository chapterRepository;
     private final NovelRepository novelRepository;
+    private final NovelCounterService novelCounterService;
+    private final ChapterContentService chapterContentService;
+    private final ChapterReadAheadService chapterReadAheadService;
+    private final ChapterRevisionService chapterRevisionService;
+    private final ApplicationEventPublisher eventPublisher;
 
+    private static final int TOC_BATCH_SIZE = 500;
+    private static final int MAX_CHUNK_BYTES = 1 << 20;
+
+    private final ObjectMapper objectMapper;
+
+    // Mục lục: contentDoc chỉ chứa đoạn trích, nội dung đầy đủ lấy qua API chi tiết chương
     @Override
     public List<ChapterResponseDTO> getAllChaptersInNovel(String slug) {
-        if(chapterRepository.findAllByNovelSlug(slug).isEmpty()) {
-            throw new NotFoundException("Chapter not found in novel with slug : " + slug);
-        }
-        return chapterRepository.findAllByNovelSlug(slug)
+        List<ChapterResponseDTO> chapters = chapterRepository.findTocByNovelSlug(slug)
             .stream()
             .map(this::convertToDTO)
             .toList();
+        if(chapters.isEmpty()) {
+            throw new NotFoundException("Chapter not found in novel with slug : " + slug);
+        }
+        return chapters;
     }
 
+    // Ghi mục lục thành mảng JSON theo từng lô keyset, bộ nhớ không phụ thuộc số chương của truyện
     @Override
-    public PagedChapterResponseDTO getAllChapterInNovelBySlug(String slug, Pageable pageable) {
-        Page<Chapter> chapters = chapterRepository.findAllByNovelSlugPage(slug, pageable);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void writeToc(String slug, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            int afterChapterNo = Integer.MIN_VALUE;
+            int afterId = Integer.MIN_VALUE;
+            List<ChapterTocProjection> batch;
+            do {
+                batch = chapterRepository.findTocAfter(slug, afterChapterNo, afterId,
+                    PageRequest.ofSize(TOC_BATCH_SIZE));
+                for (ChapterTocProjection chapter : batch) {
+                    objectMapper.writeValue(generator, convertToDTO(chapter));
+                }
+                if (!batch.isEmpty()) {
+                    afterChapterNo = batch.get(batch.size() - 1).getChapterNo();
+                    afterId = batch.get(batch.size() - 1).getId();
+                    generator.flush();
+                }
+            } while (batch.size() == TOC_BATCH_SIZE);
+            generator.writeEndArray();
+        }
+    }
+
+    @Override
+    public PagedChapterResponseDTO getAllChapterInNovelBySlug(String slug, Pageable pageable, boolean withTotal) {
+        // withTotal = false: bỏ query COUNT, client chỉ nhận hasNext
+        Slice<ChapterTocProjection> chapters = withTotal
+            ? chapterRepository.findTocPageByNovelSlug(slug, pageable)
+            : chapterRepository.findTocSliceByNovelSlug(slug, pageable);
         if(chapters.isEmpty()) {
             throw new NotFoundException("Chapter not found in novel with slug : " + slug);
         }
-        // Mapping từ Chapter sang ChapterResponseDTO
+        // Mapping từ dòng mục lục sang ChapterResponseDTO
         List<ChapterResponseDTO> chapterDTOs = chapters.stream()
-            .map(this::convertToDTOForPage)
+            .map(this::convertToDTO)
             .toList();
 
         // Tạo đối tượng PaginationDTO
-        PaginationDTO pagination = new PaginationDTO(chapters.getNumber(), chapters.getSize(), chapters.getTotalElements());
+        Long totalItems = chapters instanceof Page<ChapterTocProjection> page ? page.getTotalElements() : null;
+        PaginationDTO pagination = new PaginationDTO(chapters.getNumber(), chapters.getSize(), totalItems,
+            chapters.hasNext());
         return new PagedChapterResponseDTO(chapterDTOs, pagination);
     }
 
+    // Đọc qua cache đọc trước: cache hit không chạm DB nên không mở transaction ở đây,
+    // lần nạp (kể cả nạp trước các chương kế) chạy trong transaction chỉ đọc riêng.
+    // Không tính lượt đọc: caller gọi countChapterRead khi thực sự trả nội dung (không phải 304)
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ChapterResponseDTO getChapterByChapNoInNovel(String slug, int chapNo) {
-        if(chapterRepository.findByChapterNoAndNovelSlug(chapNo, slug) == null) {
+        ChapterResponseDTO chapter = chapterReadAheadService.getChapter(slug, chapNo, this::loadChapter);
+        if(chapter == null) {
             throw new NotFoundException("Chapter not found with chapter number: " + chapNo + " with novel slug: " + slug);
         }
-        return convertToDTO(chapterRepository.findByChapterNoAndNovelSlug(chapNo, slug));
+        return chapter;
+    }
+
+    // Tính từ bản trong cache, không query thêm. Body có nextChapterNo (và header Link prefetch) nên version phải
+    // đổi khi chương kế được đăng; cache đọc trước bị xóa theo ChapterChangedEvent nên bản trong cache luôn mới.
+    // Không gửi Last-Modified: updated_at của chương không đổi khi chương kế được đăng
+    @Override
+    public ContentVersion getChapterDetailVersion(ChapterResponseDTO chapter) {
+        return ContentVersion.of(null, chapter.getId(), chapter.getUpdatedAt(), chapter.getNextChapterNo());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void countChapterRead(ChapterResponseDTO chapter) {
+        countRead(chapter.getNovelId());
+    }
+
+    private ChapterResponseDTO loadChapter(String slug, int chapNo) {
+        Chapter chapter = chapterRepository.findByChapterNoAndNovelSlug(chapNo, slug);
+        if (chapter == null) {
+            return null;
+        }
+        ChapterResponseDTO chapterResponseDTO = convertToDTO(chapter);
+        chapterResponseDTO.setNextChapterNo(chapterRepository.findNextChapterNo(slug, chapNo));
+        chapterResponseDTO.setUpdatedAt(chapter.getUpdatedAt());
+        return chapterResponseDTO;
+    }
+
+    // Bytes gzip đọc thẳng từ kho segment, không load dòng CHAPTERS.
+    // countRead = false cho các request Range lấy phần sau của chương, lượt đọc đã tính ở phần đầu
+    @Override
+    public ByteBuffer getCompressedChapterContent(String slug, int chapNo, boolean countRead) {
+        ChapterContentProjection pointer = findContentPointer(slug, chapNo);
+        if (countRead) {
+            countRead(pointer.getNovelId());
+        }
+        return chapterContentService.getCompressed(pointer);
+    }
+
+    @Override
+    public byte[] getChapterContentBytes(String slug, int chapNo, boolean countRead) {
+        ChapterContentProjection pointer = findContentPointer(slug, chapNo);
+        if (countRead) {
+            countRead(pointer.getNovelId());
+        }
+        return chapterContentService.getUncompressed(pointer);
+    }
+
+    @Override
+    public ChapterChunksResponseDTO getChapterChunks(String slug, int chapNo, int firstBytes, int targetBytes) {
+        if (firstBytes <= 0 || targetBytes <= 0 || firstBytes > MAX_CHUNK_BYTES || targetBytes > MAX_CHUNK_BYTES) {
+            throw new BadRequestException("Chunk size must be between 1 and " + MAX_CHUNK_BYTES + " bytes");
+        }
+        ChapterContentProjection pointer = findContentPointer(slug, chapNo);
+        countRead(pointer.getNovelId());
+        byte[] content = chapterContentService.getUncompressed(pointer);
+        List<ParagraphChunker.Chunk> chunks = ParagraphChunker.split(content, firstBytes, targetBytes);
+        String firstChunk = chunks.isEmpty() ? ""
+            : new String(content, 0, (int) chunks.get(0).getEnd() + 1, StandardCharsets.UTF_8);
+        return ChapterChunksResponseDTO.builder()
+            .chapterNo(chapNo)
+            .contentLength(content.length)
+            .firstChunk(firstChunk)
+            .chunks(chunks)
+            .build();
+    }
+
+    private ChapterContentProjection findContentPointer(String slug, int chapNo) {
+        return chapterRepository.findContentByChapterNoAndNovelSlug(chapNo, slug)
+            .orElseThrow(() -> new NotFoundException("Chapter not found with chapter number: " + chapNo + " with novel slug: " + slug));
+    }
+
+    private void countRead(int novelId) {
+        novelCounterService.incrementReadCount(novelId);
+        eventPublisher.publishEvent(new NovelActivityEvent(novelId, NovelActivityTypeEnum.READ));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ContentVersion getChapterVersion(String slug, int chapNo) {
+        ChapterVersionProjection version = chapterRepository.findVersionByChapterNoAndNovelSlug(chapNo, slug)
+            .orElseThrow(() -> new NotFoundException("Chapter not found with chapter number: " + chapNo + " with novel slug: " + slug));
+        return ContentVersion.of(version.getUpdatedAt(), version.getId(), version.getUpdatedAt());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ContentVersion getChaptersVersion(String slug) {
+        ContentVersionProjection version = chapterRepository.findVersionByNovelSlug(slug);
+        if (version.getCount() == 0) {
+            throw new NotFoundException("Chapter not found in novel with slug : " + slug);
+        }
+        return ContentVersion.of(version.getUpdatedAt(), slug, version.getCount(), version.getUpdatedAt());
+    }
+
+    // Không chạy trong transaction của service: mỗi lô tự commit
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int migrateChapterContent(int batchSize) {
+        if (batchSize <= 0) {
+            throw new BadRequestException("Batch size must be positive");
+        }
+        return chapterContentService.migrateLegacyContent(batchSize);
     }
 
     @Override
     public ChapterResponseDTO saveChapter(UpsertChapterRequest request) {
         Novel novel = novelRepository.findById(request.getNovelId())
             .orElseThrow(() -> new NotFoundException("Novel not found with id: " + request.getNovelId()));
-        novel.setTotalChapters(novel.getTotalChapters() + 1);
-        novelRepository.save(novel);
+        novelRepository.incrementTotalChapters(novel.getId(), 1, LocalDateTime.now());
 
         Chapter chapter = new Chapter();
         chapter.setChapterNo(request.getChapterNo());
         chapter.setTitle(request.getTitle());
         chapter.setReleasedAt(LocalDateTime.now());
-        chapter.setContentDoc(request.getContentDoc());
+        chapter.setUpdatedAt(chapter.getReleasedAt());
         chapter.setThumbnailImageUrl(request.getThumbnailImageUrl());
         chapter.setNovel(novel);
-        return convertToDTO(chapterRepository.save(chapter));
+        // Cần id trước khi ghi nội dung vào kho segment; con trỏ được flush khi commit
+        Chapter savedChapter = chapterRepository.save(chapter);
+        chapterContentService.store(savedChapter, request.getContentDoc());
+        // Chương trước đó trong cache đang có nextChapterNo cũ
+        eventPublisher.publishEvent(new ChapterChangedEvent(novel.getId(), novel.getSlug()));
+        // total_chaps vừa tăng: catalog snapshot / facet index cần nạp lại truyện
+        eventPublisher.publishEvent(new NovelChangedEvent(novel.getId(), false));
+        return convertToDTO(savedChapter);
     }
 
     @Override
@@ -86,23 +266,32 @@ public class ChapterServiceImpl implements ChapterService {
         if(chapter == null) {
             throw new NotFoundException("Chapter not found with chapter number: " + chapNo + " with novel slug : " + slug);
         }
+        // Bản đang bị thay được lưu vào lịch sử sửa chương
+        String previousTitle = chapter.getTitle();
+        String previousContent = chapterContentService.getContent(chapter);
+        LocalDateTime previousSince = chapter.getUpdatedAt() != null ? chapter.getUpdatedAt() : chapter.getReleasedAt();
         chapter.setChapterNo(request.getChapterNo());
         chapter.setTitle(request.getTitle());
-        chapter.setContentDoc(request.getContentDoc());
+        chapterContentService.store(chapter, request.getContentDoc());
+        chapterRevisionService.recordRevision(chapter, previousTitle, previousContent, previousSince,
+            request.getContentDoc());
         chapter.setThumbnailImageUrl(request.getThumbnailImageUrl());
+        chapter.setUpdatedAt(LocalDateTime.now());
+        eventPublisher.publishEvent(new ChapterChangedEvent(chapter.getNovel().getId(), slug));
         return convertToDTO(chapterRepository.save(chapter));
     }
 
-    ChapterResponseDTO convertToDTOForPage(Chapter chapter) {
+    ChapterResponseDTO convertToDTO(ChapterTocProjection chapter) {
         ChapterResponseDTO chapterResponseDTO = new ChapterResponseDTO();
         chapterResponseDTO.setId(chapter.getId());
         chapterResponseDTO.setChapterNo(chapter.getChapterNo());
         chapterResponseDTO.setTitle(chapter.getTitle());
         chapterResponseDTO.setReleasedAt(chapter.getReleasedAt());
-        chapterResponseDTO.setContentDoc(chapter.getContentDoc()
-            .substring(0, Math.min(chapter.getContentDoc().length(), 200)));
+        chapterResponseDTO.setContentDoc(chapter.getExcerpt());
         chapterResponseDTO.setThumbnailImageUrl(chapter.getThumbnailImageUrl());
-        chapterResponseDTO.setNovelId(chapter.getNovel().getId());
+        chapterResponseDTO.setNovelId(chapter.getNovelId());
+        chapterResponseDTO.setWordCount(chapter.getWordCount());
+        chapterResponseDTO.setReadingMinutes(chapter.getReadingMinutes());
         return chapterResponseDTO;
     }
 
@@ -112,9 +301,11 @@ public class ChapterServiceImpl implements ChapterService {
         chapterResponseDTO.setChapterNo(chapter.getChapterNo());
         chapterResponseDTO.setTitle(chapter.getTitle());
         chapterResponseDTO.setReleasedAt(chapter.getReleasedAt());
-        chapterResponseDTO.setContentDoc(chapter.getContentDoc());
+        chapterResponseDTO.setContentDoc(chapterContentService.getContent(chapter));
         chapterResponseDTO.setThumbnailImageUrl(chapter.getThumbnailImageUrl());
         chapterResponseDTO.setNovelId(chapter.getNovel().getId());
+        chapterResponseDTO.setWordCount(chapter.getWordCount());
+        chapterResponseDTO.setReadingMinutes(chapter.getReadingMinutes());
         return chapterResponseDTO;
     }
 }
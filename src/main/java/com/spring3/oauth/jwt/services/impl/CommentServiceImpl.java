@@ -4,6 +4,8 @@ import com.spring3.oauth.jwt.entity.Comment;
 import com.spring3.oauth.jwt.entity.Notification;
 import com.spring3.oauth.jwt.entity.Novel;
 import com.spring3.oauth.jwt.entity.User;
+import com.spring3.oauth.jwt.entity.enums.NovelActivityTypeEnum;
+import com.spring3.oauth.jwt.events.NovelActivityEvent;
 import com.spring3.oauth.jwt.models.dtos.CommentResponseDTO;
 import com.spring3.oauth.jwt.models.request.CreateCommentRequest;
 import com.spring3.oauth.jwt.repositories.CommentRepository;
@@ -11,10 +13,12 @@ import com.spring3.oauth.jwt.repositories.NotificationRepository;
 import com.spring3.oauth.jwt.repositories.NovelRepository;
 import com.spring3.oauth.jwt.repositories.UserRepository;
 import com.spring3.oauth.jwt.services.CommentService;
+import com.spring3.oauth.jwt.services.NovelResolverService;
 import com.spring3.oauth.jwt.services.NotificationSenderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityManager;
@@ -35,6 +39,8 @@ public class CommentServiceImpl implements CommentService {
     private final NovelRepository novelRepository;
     private final NotificationRepository notificationRepository;
     private final NotificationServiceImpl notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NovelResolverService novelResolverService;
 
     @Autowired
     private NotificationSenderService notificationSenderService;
@@ -48,10 +54,9 @@ public class CommentServiceImpl implements CommentService {
         User user = userRepository.findById(Long.valueOf(request.getUserId()))
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        Novel novel = novelRepository.findBySlug(request.getSlug());
-        if (novel == null) {
-            throw new RuntimeException("Novel not found");
-        }
+        int novelId = novelResolverService.findIdBySlug(request.getSlug())
+            .orElseThrow(() -> new RuntimeException("Novel not found"));
+        Novel novel = novelRepository.getReferenceById(novelId);
 
         Comment comment = new Comment();
         comment.setContent(request.getContent());
@@ -60,6 +65,7 @@ public class CommentServiceImpl implements CommentService {
         comment.setNovel(novel);
         comment.setParent(null);
         commentRepository.save(comment);
+        eventPublisher.publishEvent(new NovelActivityEvent(novelId, NovelActivityTypeEnum.COMMENT));
 
 
         // Kiểm tra và gửi thông báo cho tag
@@ -84,6 +90,7 @@ public class CommentServiceImpl implements CommentService {
         reply.setParent(parentComment); // Trả lời liên kết với bình luận gốc
 
         commentRepository.save(reply);
+        eventPublisher.publishEvent(new NovelActivityEvent(reply.getNovel().getId(), NovelActivityTypeEnum.COMMENT));
 
         // Kiểm tra và gửi thông báo cho tag
         handleUserTagsInContent(request.getContent(), reply);
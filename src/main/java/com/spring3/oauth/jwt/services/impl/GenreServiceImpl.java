@@ -2,6 +2,8 @@ package com.spring3.oauth.jwt.services.impl;
 
 import com.spring3.oauth.jwt.entity.Genre;
 import com.spring3.oauth.jwt.exception.NotFoundException;
+import com.spring3.oauth.jwt.helpers.ContentVersion;
+import com.spring3.oauth.jwt.models.projections.ContentVersionProjection;
 import com.spring3.oauth.jwt.repositories.GenreRepository;
 import com.spring3.oauth.jwt.services.GenreService;
 import lombok.AllArgsConstructor;
@@ -10,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 
@@ -26,6 +29,13 @@ public class GenreServiceImpl implements GenreService {
         return genreRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ContentVersion getGenresVersion() {
+        ContentVersionProjection version = genreRepository.findVersion();
+        return ContentVersion.of(version.getUpdatedAt(), version.getCount(), version.getUpdatedAt());
+    }
+
     @Override
     public Genre getGenreById(Integer id) {
         return genreRepository.findById(id)
@@ -45,6 +55,7 @@ public class GenreServiceImpl implements GenreService {
     public Genre saveGenre(Genre genre) {
         Genre newGenre = new Genre();
         newGenre.setName(genre.getName());
+        newGenre.setUpdatedAt(LocalDateTime.now());
         return genreRepository.save(newGenre);
     }
 
@@ -53,6 +64,7 @@ public class GenreServiceImpl implements GenreService {
         Genre genreUpd = genreRepository.findById(id)
             .orElseThrow(() -> new NotFoundException("Genre not found with id: " + id));
         genreUpd.setName(genre.getName());
+        genreUpd.setUpdatedAt(LocalDateTime.now());
         return genreRepository.save(genreUpd);
     }
 
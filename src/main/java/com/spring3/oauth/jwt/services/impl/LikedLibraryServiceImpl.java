@@ -4,6 +4,8 @@ import com.spring3.oauth.jwt.entity.Genre;
 import com.spring3.oauth.jwt.entity.LikedLibrary;
 import com.spring3.oauth.jwt.entity.Novel;
 import com.spring3.oauth.jwt.entity.User;
+import com.spring3.oauth.jwt.entity.enums.UserInteractionTypeEnum;
+import com.spring3.oauth.jwt.events.UserNovelInteractionEvent;
 import com.spring3.oauth.jwt.exception.NotFoundException;
 import com.spring3.oauth.jwt.models.dtos.LikedLibraryResponseDTO;
 import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
@@ -14,6 +16,7 @@ import com.spring3.oauth.jwt.repositories.UserRepository;
 import com.spring3.oauth.jwt.services.LikedLibraryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,6 +33,7 @@ public class LikedLibraryServiceImpl implements LikedLibraryService {
     private final LikedLibraryRepository likedLibraryRepository;
     private final UserRepository userRepository;
     private final NovelRepository novelRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public LikedLibraryResponseDTO getLikedLibraryByUserId(Integer userId) {
@@ -66,6 +70,8 @@ public class LikedLibraryServiceImpl implements LikedLibraryService {
                 throw new NotFoundException("Novel already exists in liked library with id: " + novelId);
             }
             novels.add(novel);
+            eventPublisher.publishEvent(new UserNovelInteractionEvent(likedLibrary.getUser().getId(), novelId,
+                UserInteractionTypeEnum.LIBRARY, 1f));
         }
         likedLibrary.setNovels(novels);
         likedLibraryRepository.save(likedLibrary);
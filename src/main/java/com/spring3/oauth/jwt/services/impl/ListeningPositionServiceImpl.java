@@ -0,0 +1,165 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.spring3.oauth.jwt.exception.BadRequestException;
+import com.spring3.oauth.jwt.exception.NotFoundException;
+import com.spring3.oauth.jwt.models.dtos.ListeningPositionResponseDTO;
+import com.spring3.oauth.jwt.models.projections.ListeningPositionProjection;
+import com.spring3.oauth.jwt.models.request.ListeningHeartbeatRequest;
+import com.spring3.oauth.jwt.repositories.UserListeningPositionRepository;
+import com.spring3.oauth.jwt.services.ListeningPositionService;
+import com.spring3.oauth.jwt.services.NovelResolverService;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Trình phát gửi vị trí nghe vài giây một lần. Mỗi cặp (user, truyện) giữ đúng một ô trong bộ nhớ, giống khóa
+// uk_listening_user_novel của bảng, heartbeat chỉ ghi đè ô đó
+// (slug -> id lấy từ cache resolver), không chạm DB trên thread request. Định kỳ các ô được tách ra và ghi
+// xuống bằng một lô upsert JDBC; n heartbeat giữa hai lần flush chỉ thành một dòng ghi.
+// Chương không thuộc truyện / user không tồn tại bị bỏ qua ngay trong câu INSERT ... SELECT, không làm hỏng cả lô.
+@Service
+@Slf4j
+public class ListeningPositionServiceImpl implements ListeningPositionService {
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO user_listening_positions (user_id, novel_id, chapter_id, position_ms, updated_at) " +
+        "SELECT u.id, c.novel_id, c.id, ?, ? FROM chapters c JOIN users u ON u.id = ? " +
+        "WHERE c.id = ? AND c.novel_id = ? " +
+        "ON DUPLICATE KEY UPDATE chapter_id = ?, position_ms = ?, updated_at = ?";
+    private static final int BATCH_SIZE = 500;
+
+    private final UserListeningPositionRepository userListeningPositionRepository;
+    private final NovelResolverService novelResolverService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // (userId, novelId) -> vị trí mới nhất chưa ghi; ô bất biến, heartbeat thay cả ô
+    private final ConcurrentHashMap<SlotKey, Slot> slots = new ConcurrentHashMap<>();
+    // Lô đang ghi, vẫn được đọc cho tới khi commit xong
+    private volatile Map<SlotKey, Slot> flushing = Map.of();
+    private final Object flushLock = new Object();
+
+    @Getter
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class SlotKey {
+        private final long userId;
+        private final int novelId;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Slot {
+        private final int chapterId;
+        private final long positionMs;
+        private final LocalDateTime updatedAt;
+    }
+
+    public ListeningPositionServiceImpl(UserListeningPositionRepository userListeningPositionRepository,
+                                        NovelResolverService novelResolverService,
+                                        JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager) {
+        this.userListeningPositionRepository = userListeningPositionRepository;
+        this.novelResolverService = novelResolverService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void heartbeat(ListeningHeartbeatRequest request) {
+        if (request.getUserId() == null || request.getChapterId() == null || request.getPositionMs() == null) {
+            throw new BadRequestException("userId, chapterId and positionMs are required");
+        }
+        if (request.getPositionMs() < 0) {
+            throw new BadRequestException("Position must not be negative");
+        }
+        int novelId = novelResolverService.getIdBySlug(request.getSlug());
+        slots.put(new SlotKey(request.getUserId(), novelId), new Slot(request.getChapterId(), request.getPositionMs(),
+            LocalDateTime.now()));
+    }
+
+    // Vị trí còn trong bộ nhớ mới hơn dòng trong DB nên được ưu tiên
+    @Override
+    public ListeningPositionResponseDTO getPosition(long userId, String slug) {
+        int novelId = novelResolverService.getIdBySlug(slug);
+        SlotKey key = new SlotKey(userId, novelId);
+        Slot slot = slots.get(key);
+        if (slot == null) {
+            slot = flushing.get(key);
+        }
+        if (slot != null) {
+            return new ListeningPositionResponseDTO(slug, slot.getChapterId(), slot.getPositionMs(),
+                slot.getUpdatedAt());
+        }
+        ListeningPositionProjection position = userListeningPositionRepository.findPosition(userId, novelId);
+        if (position == null) {
+            throw new NotFoundException("Listening position not found");
+        }
+        return new ListeningPositionResponseDTO(slug, position.getChapterId(), position.getPositionMs(),
+            position.getUpdatedAt());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${novel.listening.flush-interval-ms:5000}")
+    public void flush() {
+        synchronized (flushLock) {
+            if (slots.isEmpty()) {
+                return;
+            }
+            Map<SlotKey, Slot> batch = new HashMap<>(slots);
+            flushing = batch;
+            // Chỉ xóa ô chưa bị heartbeat mới ghi đè trong lúc tách lô
+            batch.forEach(slots::remove);
+            try {
+                transactionTemplate.executeWithoutResult(status -> upsert(batch));
+                log.debug("Flushed {} listening position(s)", batch.size());
+            } catch (RuntimeException e) {
+                // Trả lô về bộ nhớ để lần flush sau ghi lại, trừ khi user đã gửi vị trí mới hơn
+                log.error("Could not flush {} listening position(s)", batch.size(), e);
+                batch.forEach(slots::putIfAbsent);
+            } finally {
+                flushing = Map.of();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void upsert(Map<SlotKey, Slot> batch) {
+        // Ghi theo thứ tự (userId, novelId) để các instance flush cùng lúc khóa dòng theo cùng thứ tự
+        List<Map.Entry<SlotKey, Slot>> rows = new ArrayList<>(batch.entrySet());
+        rows.sort(Map.Entry.comparingByKey(Comparator.comparingLong(SlotKey::getUserId)
+            .thenComparingInt(SlotKey::getNovelId)));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            Slot slot = row.getValue();
+            Timestamp updatedAt = Timestamp.valueOf(slot.getUpdatedAt());
+            ps.setLong(1, slot.getPositionMs());
+            ps.setTimestamp(2, updatedAt);
+            ps.setLong(3, row.getKey().getUserId());
+            ps.setInt(4, slot.getChapterId());
+            ps.setInt(5, row.getKey().getNovelId());
+            ps.setInt(6, slot.getChapterId());
+            ps.setLong(7, slot.getPositionMs());
+            ps.setTimestamp(8, updatedAt);
+        });
+    }
+}
@@ -0,0 +1,345 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring3.oauth.jwt.exception.NotFoundException;
+import com.spring3.oauth.jwt.helpers.ContentVersion;
+import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
+import com.spring3.oauth.jwt.models.projections.AudioManifestProjection;
+import com.spring3.oauth.jwt.models.projections.AudioVersionProjection;
+import com.spring3.oauth.jwt.models.projections.ChapterBundleProjection;
+import com.spring3.oauth.jwt.models.projections.ContentVersionProjection;
+import com.spring3.oauth.jwt.models.projections.NovelVersionProjection;
+import com.spring3.oauth.jwt.repositories.AudioFileRepository;
+import com.spring3.oauth.jwt.repositories.ChapterRepository;
+import com.spring3.oauth.jwt.services.ChapterContentService;
+import com.spring3.oauth.jwt.services.ChapterService;
+import com.spring3.oauth.jwt.services.NovelBundleService;
+import com.spring3.oauth.jwt.services.NovelReadModelService;
+import com.spring3.oauth.jwt.services.NovelResolverService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Gói tải offline của cả truyện (zip): novel.json, chapters.json (mục lục), audio-manifest.json và
+// chapters/<id chương>.html.gz (theo id vì chapterNo có thể trùng, tên entry trùng làm hỏng zip giữa chừng).
+// Nội dung chương là nguyên bytes gzip trong kho segment, ghi dạng STORED nên không nén lại; các phần JSON ghi
+// dần theo lô keyset (chapterNo, id), bộ nhớ dùng không phụ thuộc số chương.
+// Bundle được cache trên đĩa theo version (chương, thông tin truyện, audio): lần đầu vừa stream cho client vừa ghi
+// ra file tạm rồi đổi tên, các lần sau trả thẳng file (Range / 206). Bản cũ của cùng truyện bị xóa khi có bản mới.
+@Service
+@Slf4j
+public class NovelBundleServiceImpl implements NovelBundleService {
+
+    // Đổi khi thay đổi cấu trúc bundle để các bản đã cache không còn được dùng
+    private static final int FORMAT_VERSION = 2;
+    private static final int BATCH_SIZE = 200;
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+    private static final String PART_SUFFIX = ".part";
+    private static final String CHAPTER_ENTRY_FORMAT = "chapters/%d.html.gz";
+
+    private final ChapterRepository chapterRepository;
+    private final AudioFileRepository audioFileRepository;
+    private final ChapterService chapterService;
+    private final ChapterContentService chapterContentService;
+    private final NovelResolverService novelResolverService;
+    private final NovelReadModelService novelReadModelService;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+
+    // Mỗi truyện chỉ một luồng ghi bundle ra đĩa tại một thời điểm
+    private final Map<Integer, ReentrantLock> buildLocks = new ConcurrentHashMap<>();
+
+    public NovelBundleServiceImpl(ChapterRepository chapterRepository,
+                                  AudioFileRepository audioFileRepository,
+                                  ChapterService chapterService,
+                                  ChapterContentService chapterContentService,
+                                  NovelResolverService novelResolverService,
+                                  NovelReadModelService novelReadModelService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${novel.bundle.dir:./data/bundles}") String bundleDir) throws IOException {
+        this.chapterRepository = chapterRepository;
+        this.audioFileRepository = audioFileRepository;
+        this.chapterService = chapterService;
+        this.chapterContentService = chapterContentService;
+        this.novelResolverService = novelResolverService;
+        this.novelReadModelService = novelReadModelService;
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(bundleDir);
+        Files.createDirectories(directory);
+        // File tạm còn lại từ lần chạy trước (tiến trình dừng giữa chừng)
+        try (DirectoryStream<Path> parts = Files.newDirectoryStream(directory, "*" + PART_SUFFIX)) {
+            for (Path part : parts) {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+
+    // Không có bộ đếm lượt đọc / thích trong version: novel.json chỉ là ảnh chụp lúc build
+    @Override
+    public ContentVersion getBundleVersion(String slug) {
+        int novelId = novelResolverService.getIdBySlug(slug);
+        NovelVersionProjection novel = novelReadModelService.getVersionById(novelId)
+            .orElseThrow(() -> new NotFoundException("Novel not found with slug " + slug));
+        ContentVersionProjection chapters = chapterRepository.findVersionByNovelSlug(slug);
+        if (chapters.getCount() == 0) {
+            throw new NotFoundException("Chapter not found in novel with slug : " + slug);
+        }
+        AudioVersionProjection audio = audioFileRepository.findVersionByNovelId(novelId);
+        LocalDateTime lastModified = novel.getUpdatedAt() != null && novel.getUpdatedAt().isAfter(chapters.getUpdatedAt())
+            ? novel.getUpdatedAt()
+            : chapters.getUpdatedAt();
+        return ContentVersion.of(lastModified, FORMAT_VERSION, novelId, novel.getUpdatedAt(),
+            novel.getAuthorUpdatedAt(), novel.getGenresUpdatedAt(), chapters.getCount(), chapters.getUpdatedAt(),
+            audio.getCount(), audio.getMaxId(), audio.getTotalDuration(), audio.getStoredAt());
+    }
+
+    @Override
+    public Resource getCachedBundle(String slug, ContentVersion version) {
+        Path file = bundleFile(novelResolverService.getIdBySlug(slug), version);
+        return Files.isRegularFile(file) ? new FileSystemResource(file) : null;
+    }
+
+    // Dùng cho request Range: cần file hoàn chỉnh trên đĩa, đợi luồng đang build (nếu có) rồi build nếu vẫn chưa có
+    @Override
+    public Resource getBundle(String slug, ContentVersion version) throws IOException {
+        int novelId = novelResolverService.getIdBySlug(slug);
+        Path file = bundleFile(novelId, version);
+        ReentrantLock lock = buildLocks.computeIfAbsent(novelId, id -> new ReentrantLock());
+        lock.lock();
+        try {
+            if (!Files.isRegularFile(file)) {
+                build(slug, novelId, version, file, OutputStream.nullOutputStream());
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalStateException("Novel " + slug + " changed while building its offline bundle");
+        }
+        return new FileSystemResource(file);
+    }
+
+    // Có sẵn trên đĩa thì copy file; chưa có thì sinh bundle trực tiếp ra client, đồng thời ghi vào cache nếu
+    // không có luồng khác đang build cùng truyện
+    @Override
+    public void writeBundle(String slug, ContentVersion version, OutputStream out) throws IOException {
+        int novelId = novelResolverService.getIdBySlug(slug);
+        Path file = bundleFile(novelId, version);
+        if (Files.isRegularFile(file)) {
+            Files.copy(file, out);
+            return;
+        }
+        ReentrantLock lock = buildLocks.computeIfAbsent(novelId, id -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            writeZip(slug, novelId, version, out);
+            return;
+        }
+        try {
+            if (Files.isRegularFile(file)) {
+                Files.copy(file, out);
+            } else {
+                build(slug, novelId, version, file, out);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Ghi ra file tạm (và client nếu có), xong mới đổi tên nên file trong cache luôn hoàn chỉnh.
+    // Client ngắt kết nối giữa chừng thì bỏ file tạm.
+    private void build(String slug, int novelId, ContentVersion version, Path file, OutputStream client)
+        throws IOException {
+        long startedAt = System.currentTimeMillis();
+        Path part = Files.createTempFile(directory, novelId + "-", PART_SUFFIX);
+        try {
+            try (OutputStream disk = new BufferedOutputStream(Files.newOutputStream(part), COPY_BUFFER_BYTES)) {
+                writeZip(slug, novelId, version, new TeeOutputStream(disk, client));
+            }
+            // Dữ liệu đổi trong lúc build thì nội dung không còn đúng với version đã dùng làm tên file
+            if (!version.getEtag().equals(getBundleVersion(slug).getEtag())) {
+                log.info("Novel {} changed while building its offline bundle, not caching it", novelId);
+                return;
+            }
+            Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Built offline bundle for novel {} ({} bytes) in {} ms", novelId, Files.size(file),
+                System.currentTimeMillis() - startedAt);
+            deleteOlderBundles(novelId, file);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    private void writeZip(String slug, int novelId, ContentVersion version, OutputStream out) throws IOException {
+        // Thời điểm của mọi entry cố định theo version: cùng dữ liệu luôn ra cùng bytes
+        long entryTime = Math.max(version.getLastModified(), 0);
+        // Stream đích do caller đóng; các JsonGenerator cũng không được đóng zip khi xong một entry
+        try (ZipOutputStream zip = new ZipOutputStream(StreamUtils.nonClosing(out))) {
+            OutputStream entryOut = StreamUtils.nonClosing(zip);
+
+            zip.putNextEntry(entry("novel.json", entryTime));
+            writeNovel(novelId, version, entryOut);
+            zip.closeEntry();
+
+            zip.putNextEntry(entry("chapters.json", entryTime));
+            chapterService.writeToc(slug, entryOut);
+            zip.closeEntry();
+
+            zip.putNextEntry(entry("audio-manifest.json", entryTime));
+            writeAudioManifest(novelId, entryOut);
+            zip.closeEntry();
+
+            writeChapterContents(novelId, zip, entryTime);
+        }
+    }
+
+    private void writeNovel(int novelId, ContentVersion version, OutputStream out) throws IOException {
+        NovelResponseDTO novel = novelReadModelService.getById(novelId)
+            .orElseThrow(() -> new NotFoundException("Novel not found with id: " + novelId));
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeNumberField("format", FORMAT_VERSION);
+            generator.writeStringField("version", version.getEtag());
+            generator.writeStringField("contentEncoding", "gzip");
+            generator.writeStringField("contentPathFormat", CHAPTER_ENTRY_FORMAT);
+            generator.writeFieldName("novel");
+            objectMapper.writeValue(generator, novel);
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeAudioManifest(int novelId, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            int afterChapterNo = Integer.MIN_VALUE;
+            int afterId = Integer.MIN_VALUE;
+            List<AudioManifestProjection> batch;
+            do {
+                batch = audioFileRepository.findManifestAfter(novelId, afterChapterNo, afterId,
+                    PageRequest.ofSize(BATCH_SIZE));
+                for (AudioManifestProjection audio : batch) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", audio.getId());
+                    generator.writeNumberField("chapterId", audio.getChapterId());
+                    generator.writeNumberField("chapterNo", audio.getChapterNo());
+                    generator.writeStringField("audioUrl", audio.getAudioUrl());
+                    if (audio.getDuration() != null) {
+                        generator.writeNumberField("duration", audio.getDuration());
+                    }
+                    generator.writeEndObject();
+                }
+                if (!batch.isEmpty()) {
+                    afterChapterNo = batch.get(batch.size() - 1).getChapterNo();
+                    afterId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == BATCH_SIZE);
+            generator.writeEndArray();
+        }
+    }
+
+    // Bytes gzip đã có CRC / độ dài nên ghi STORED được mà không phải đệm cả entry
+    private void writeChapterContents(int novelId, ZipOutputStream zip, long entryTime) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_BYTES];
+        int afterChapterNo = Integer.MIN_VALUE;
+        int afterId = Integer.MIN_VALUE;
+        List<ChapterBundleProjection> batch;
+        do {
+            batch = chapterRepository.findContentAfter(novelId, afterChapterNo, afterId, PageRequest.ofSize(BATCH_SIZE));
+            for (ChapterBundleProjection chapter : batch) {
+                ByteBuffer compressed = chapterContentService.getCompressed(chapter);
+                CRC32 crc = new CRC32();
+                crc.update(compressed.duplicate());
+                ZipEntry entry = entry(String.format(CHAPTER_ENTRY_FORMAT, chapter.getId()), entryTime);
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(compressed.remaining());
+                entry.setCompressedSize(compressed.remaining());
+                entry.setCrc(crc.getValue());
+                zip.putNextEntry(entry);
+                while (compressed.hasRemaining()) {
+                    int count = Math.min(buffer.length, compressed.remaining());
+                    compressed.get(buffer, 0, count);
+                    zip.write(buffer, 0, count);
+                }
+                zip.closeEntry();
+            }
+            if (!batch.isEmpty()) {
+                afterChapterNo = batch.get(batch.size() - 1).getChapterNo();
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == BATCH_SIZE);
+    }
+
+    // Client đang tải bản cũ vẫn đọc được tới hết (file đã mở), tải tiếp bằng If-Range sẽ nhận bản mới
+    private void deleteOlderBundles(int novelId, Path current) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, novelId + "-*.zip")) {
+            for (Path file : files) {
+                if (!file.equals(current)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete old offline bundles of novel {}", novelId, e);
+        }
+    }
+
+    private Path bundleFile(int novelId, ContentVersion version) {
+        String etag = version.getEtag();
+        return directory.resolve(novelId + "-" + etag.substring(1, etag.length() - 1) + ".zip");
+    }
+
+    private static ZipEntry entry(String name, long time) {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTime(time);
+        return entry;
+    }
+
+    private static class TeeOutputStream extends OutputStream {
+        private final OutputStream first;
+        private final OutputStream second;
+
+        private TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            first.write(bytes, offset, length);
+            second.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
+    }
+}
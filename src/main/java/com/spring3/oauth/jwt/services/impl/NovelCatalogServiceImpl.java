@@ -0,0 +1,106 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring3.oauth.jwt.events.NovelChangedEvent;
+import com.spring3.oauth.jwt.helpers.NovelCatalogSnapshot;
+import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
+import com.spring3.oauth.jwt.services.NovelCatalogService;
+import com.spring3.oauth.jwt.services.NovelReadModelService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NovelCatalogServiceImpl implements NovelCatalogService {
+
+    private final NovelReadModelService novelReadModelService;
+    private final ObjectMapper objectMapper;
+
+    // Reader chỉ đọc tham chiếu volatile, writer tạo snapshot mới rồi thay thế
+    private volatile NovelCatalogSnapshot snapshot;
+
+    private final Object writeLock = new Object();
+
+    @Override
+    public NovelCatalogSnapshot getSnapshot() {
+        NovelCatalogSnapshot current = snapshot;
+        if (current == null) {
+            rebuild();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    // Đọc lại trong lock: hai event của cùng truyện chạy song song không thể để bản đọc trước ghi đè bản đọc sau
+    @Override
+    public void refreshNovel(int novelId) {
+        synchronized (writeLock) {
+            if (snapshot == null) {
+                return;
+            }
+            Optional<NovelResponseDTO> novel = novelReadModelService.getById(novelId);
+            if (novel.isEmpty() || novel.get().isClosed()) {
+                snapshot = snapshot.remove(novelId);
+            } else {
+                snapshot = snapshot.upsert(novel.get(), serialize(novel.get()));
+            }
+        }
+    }
+
+    @Override
+    public void removeNovel(int novelId) {
+        synchronized (writeLock) {
+            if (snapshot != null) {
+                snapshot = snapshot.remove(novelId);
+            }
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${novel.catalog.refresh-interval-ms:300000}",
+        initialDelayString = "${novel.catalog.refresh-interval-ms:300000}")
+    public void rebuild() {
+        synchronized (writeLock) {
+            List<NovelResponseDTO> novels = novelReadModelService.getAllOpen();
+            int[] ids = new int[novels.size()];
+            NovelResponseDTO[] array = new NovelResponseDTO[novels.size()];
+            byte[][] fragments = new byte[novels.size()][];
+            for (int i = 0; i < novels.size(); i++) {
+                ids[i] = novels.get(i).getId();
+                array[i] = novels.get(i);
+                fragments[i] = serialize(novels.get(i));
+            }
+            snapshot = new NovelCatalogSnapshot(ids, array, fragments);
+            log.info("Rebuilt novel catalog snapshot with {} novels ({} bytes)", ids.length, snapshot.getBody().length);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNovelChanged(NovelChangedEvent event) {
+        if (event.isDeleted()) {
+            removeNovel(event.getNovelId());
+        } else {
+            refreshNovel(event.getNovelId());
+        }
+    }
+
+    private byte[] serialize(NovelResponseDTO novel) {
+        try {
+            return objectMapper.writeValueAsBytes(novel);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.spring3.oauth.jwt.helpers.NovelCounterJournal;
+import com.spring3.oauth.jwt.models.dtos.NovelDetailResponseDTO;
+import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
+import com.spring3.oauth.jwt.services.NovelCounterService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Gom lượt đọc / lượt like trong bộ nhớ rồi ghi xuống DB theo lô bằng UPDATE ... SET x = x + ?,
+// thay cho load-modify-save từng lượt (khóa dòng và mất cập nhật khi nhiều request cùng lúc).
+// Mỗi lô ghi id của mình vào novel_counter_batches trong cùng transaction, nên phát lại journal là idempotent.
+@Service
+@Slf4j
+public class NovelCounterServiceImpl implements NovelCounterService {
+
+    private static final String UPDATE_SQL =
+        "UPDATE novels SET read_counts = read_counts + ?, like_counts = like_counts + ? WHERE id = ?";
+    private static final String MARK_APPLIED_SQL =
+        "INSERT INTO novel_counter_batches (batch_id, applied_at) VALUES (?, ?)";
+    private static final String PRUNE_APPLIED_SQL = "DELETE FROM novel_counter_batches WHERE applied_at < ?";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NovelCounterJournal journal;
+    // Thời gian giữ id lô đã áp dụng, phải dài hơn thời gian một journal pending có thể nằm chờ phát lại
+    private final Duration appliedBatchRetention;
+
+    // Increment giữ read lock (chạy song song), rotate journal giữ write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile ConcurrentHashMap<Integer, Counters> active = new ConcurrentHashMap<>();
+
+    // Các lô đã rotate nhưng chưa commit xuống DB, theo file journal tương ứng; vẫn được cộng vào khi đọc
+    private final Map<Path, Map<Integer, long[]>> unapplied = new ConcurrentSkipListMap<>();
+    private final Object flushLock = new Object();
+
+    private static class Counters {
+        private final LongAdder readCounts = new LongAdder();
+        private final LongAdder likeCounts = new LongAdder();
+    }
+
+    public NovelCounterServiceImpl(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${novel.counters.journal-dir:./data/counters}") String journalDir,
+                                   @Value("${novel.counters.applied-batch-retention-ms:604800000}")
+                                   long appliedBatchRetentionMs) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.appliedBatchRetention = Duration.ofMillis(appliedBatchRetentionMs);
+        this.journal = new NovelCounterJournal(Paths.get(journalDir));
+        // Journal còn sót lại từ lần chạy trước sẽ được ghi xuống DB ở lần flush đầu tiên
+        for (Path pending : journal.listPending()) {
+            unapplied.put(pending, readJournal(pending));
+        }
+        if (!unapplied.isEmpty()) {
+            log.info("Recovered {} novel counter journal file(s) from {}", unapplied.size(), journalDir);
+        }
+    }
+
+    @Override
+    public void incrementReadCount(int novelId) {
+        increment(novelId, NovelCounterJournal.READ_COUNTS);
+    }
+
+    @Override
+    public void incrementLikeCount(int novelId) {
+        increment(novelId, NovelCounterJournal.LIKE_COUNTS);
+    }
+
+    @Override
+    public long getPendingReadCount(int novelId) {
+        return getPending(novelId, NovelCounterJournal.READ_COUNTS);
+    }
+
+    @Override
+    public long getPendingLikeCount(int novelId) {
+        return getPending(novelId, NovelCounterJournal.LIKE_COUNTS);
+    }
+
+    @Override
+    public void applyPendingCounts(NovelResponseDTO novel) {
+        if (novel == null || novel.getId() == null) {
+            return;
+        }
+        novel.setReadCounts(merge(novel.getReadCounts(), getPendingReadCount(novel.getId())));
+        novel.setLikeCounts(merge(novel.getLikeCounts(), getPendingLikeCount(novel.getId())));
+    }
+
+    @Override
+    public void applyPendingCounts(List<NovelResponseDTO> novels) {
+        novels.forEach(this::applyPendingCounts);
+    }
+
+    @Override
+    public void applyPendingCounts(int novelId, NovelDetailResponseDTO novel) {
+        novel.setReadCounts(merge(novel.getReadCounts(), getPendingReadCount(novelId)));
+        novel.setLikeCounts(merge(novel.getLikeCounts(), getPendingLikeCount(novelId)));
+    }
+
+    @Scheduled(fixedDelayString = "${novel.counters.sync-interval-ms:1000}")
+    public void syncJournal() {
+        lock.readLock().lock();
+        try {
+            journal.sync();
+        } catch (IOException e) {
+            log.warn("Could not sync novel counter journal", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${novel.counters.flush-interval-ms:5000}")
+    public void flush() {
+        synchronized (flushLock) {
+            rotate();
+            for (Map.Entry<Path, Map<Integer, long[]>> batch : unapplied.entrySet()) {
+                String batchId = NovelCounterJournal.batchId(batch.getKey());
+                try {
+                    transactionTemplate.executeWithoutResult(status -> applyBatch(batchId, batch.getValue()));
+                } catch (DuplicateKeyException e) {
+                    // Lô đã commit trước khi crash, chỉ còn sót file journal
+                    log.info("Novel counter batch {} was already applied, skipping replay", batchId);
+                } catch (RuntimeException e) {
+                    // Giữ lại journal, thử lại ở lần flush sau
+                    log.error("Could not flush novel counters from {}", batch.getKey(), e);
+                    return;
+                }
+                unapplied.remove(batch.getKey());
+                try {
+                    journal.delete(batch.getKey());
+                } catch (IOException e) {
+                    log.error("Could not delete flushed novel counter journal {}", batch.getKey(), e);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flush();
+        journal.close();
+    }
+
+    private void increment(int novelId, byte counter) {
+        lock.readLock().lock();
+        try {
+            try {
+                journal.append(novelId, counter, 1);
+            } catch (IOException e) {
+                // Vẫn đếm trong bộ nhớ, chỉ mất tính bền vững nếu crash trước lần flush tới
+                log.warn("Could not append novel counter journal for novel {}", novelId, e);
+            }
+            Counters counters = active.computeIfAbsent(novelId, id -> new Counters());
+            (counter == NovelCounterJournal.READ_COUNTS ? counters.readCounts : counters.likeCounts).increment();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Đổi journal và bảng đếm cùng lúc để lô vừa tách ra khớp đúng với file đã rotate
+    private void rotate() {
+        lock.writeLock().lock();
+        try {
+            if (active.isEmpty()) {
+                return;
+            }
+            Path pending = journal.rotate();
+            Map<Integer, long[]> deltas = new HashMap<>(active.size() * 2);
+            active.forEach((novelId, counters) ->
+                deltas.put(novelId, new long[]{counters.readCounts.sum(), counters.likeCounts.sum()}));
+            unapplied.put(pending, deltas);
+            active = new ConcurrentHashMap<>();
+        } catch (IOException e) {
+            log.error("Could not rotate novel counter journal", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ghi id lô trước: lô đã áp dụng thì INSERT ném DuplicateKeyException và cả transaction rollback
+    private void applyBatch(String batchId, Map<Integer, long[]> deltas) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(MARK_APPLIED_SQL, batchId, Timestamp.valueOf(now));
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((novelId, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0) {
+                rows.add(new Object[]{delta[0], delta[1], novelId});
+            }
+        });
+        jdbcTemplate.batchUpdate(UPDATE_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, (Long) row[0]);
+            ps.setLong(2, (Long) row[1]);
+            ps.setInt(3, (Integer) row[2]);
+        });
+        jdbcTemplate.update(PRUNE_APPLIED_SQL, Timestamp.valueOf(now.minus(appliedBatchRetention)));
+    }
+
+    private long getPending(int novelId, byte counter) {
+        long total = 0;
+        Counters counters = active.get(novelId);
+        if (counters != null) {
+            total += (counter == NovelCounterJournal.READ_COUNTS ? counters.readCounts : counters.likeCounts).sum();
+        }
+        for (Map<Integer, long[]> batch : unapplied.values()) {
+            long[] delta = batch.get(novelId);
+            if (delta != null) {
+                total += delta[counter];
+            }
+        }
+        return total;
+    }
+
+    private static int merge(int persisted, long pending) {
+        return (int) Math.min(Integer.MAX_VALUE, persisted + pending);
+    }
+
+    private static Map<Integer, long[]> readJournal(Path file) {
+        Map<Integer, long[]> deltas = new HashMap<>();
+        try {
+            NovelCounterJournal.read(file, (novelId, counter, delta) -> {
+                if (counter == NovelCounterJournal.READ_COUNTS || counter == NovelCounterJournal.LIKE_COUNTS) {
+                    deltas.computeIfAbsent(novelId, id -> new long[2])[counter] += delta;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return deltas;
+    }
+}
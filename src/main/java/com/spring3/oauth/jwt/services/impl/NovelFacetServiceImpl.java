@@ -0,0 +1,148 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.spring3.oauth.jwt.entity.enums.NovelStatusEnum;
+import com.spring3.oauth.jwt.events.NovelChangedEvent;
+import com.spring3.oauth.jwt.exception.BadRequestException;
+import com.spring3.oauth.jwt.helpers.NovelFacetIndex;
+import com.spring3.oauth.jwt.models.projections.NovelFacetProjection;
+import com.spring3.oauth.jwt.models.projections.NovelGenreIdProjection;
+import com.spring3.oauth.jwt.repositories.NovelQueryRepository;
+import com.spring3.oauth.jwt.services.NovelFacetService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Lọc truyện theo thể loại / trạng thái / đóng-mở bằng facet index trong bộ nhớ (xem NovelFacetIndex).
+// Truyện được tạo / sửa / xóa thì cập nhật riêng truyện đó; lượt like / đọc dùng để sắp xếp được làm mới
+// bằng cách dựng lại định kỳ.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NovelFacetServiceImpl implements NovelFacetService {
+
+    private static final Map<String, NovelFacetIndex.SortField> SORT_FIELDS = Map.of(
+        "likeCounts", NovelFacetIndex.SortField.LIKE_COUNTS,
+        "readCounts", NovelFacetIndex.SortField.READ_COUNTS,
+        "releasedAt", NovelFacetIndex.SortField.RELEASED_AT,
+        "id", NovelFacetIndex.SortField.ID);
+
+    private final NovelQueryRepository novelQueryRepository;
+
+    private volatile NovelFacetIndex index;
+
+    private final Object writeLock = new Object();
+
+    @Override
+    public NovelFacetIndex.Result search(List<Integer> genreIds, boolean matchAll, List<NovelStatusEnum> statuses,
+                                         Boolean closed, Pageable pageable) {
+        // Không sắp xếp thì mặc định nhiều like nhất trước
+        NovelFacetIndex.SortField sortField = NovelFacetIndex.SortField.LIKE_COUNTS;
+        boolean ascending = false;
+        Optional<Sort.Order> order = pageable.getSort().stream().findFirst();
+        if (order.isPresent()) {
+            sortField = SORT_FIELDS.get(order.get().getProperty());
+            if (sortField == null) {
+                throw new BadRequestException("Unsupported sort property: " + order.get().getProperty());
+            }
+            ascending = order.get().isAscending();
+        }
+        return getIndex().search(genreIds, matchAll, statuses, closed, sortField, ascending,
+            pageable.getOffset(), pageable.getPageSize());
+    }
+
+    @Override
+    public void refreshNovel(int novelId) {
+        synchronized (writeLock) {
+            if (index == null) {
+                return;
+            }
+            Optional<NovelFacetProjection> row = novelQueryRepository.findFacetsById(novelId);
+            if (row.isEmpty()) {
+                index = index.without(novelId);
+                return;
+            }
+            List<Integer> genreIds = novelQueryRepository.findGenreIdsByNovelId(novelId).stream()
+                .map(NovelGenreIdProjection::getGenreId)
+                .toList();
+            index = index.with(toFacets(row.get(), genreIds));
+        }
+    }
+
+    @Override
+    public void removeNovel(int novelId) {
+        synchronized (writeLock) {
+            if (index != null) {
+                index = index.without(novelId);
+            }
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${novel.facets.rebuild-interval-ms:300000}",
+        initialDelayString = "${novel.facets.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        synchronized (writeLock) {
+            long startedAt = System.currentTimeMillis();
+            Map<Integer, List<Integer>> genreIds = new HashMap<>();
+            for (NovelGenreIdProjection row : novelQueryRepository.findAllGenreIds()) {
+                genreIds.computeIfAbsent(row.getNovelId(), id -> new ArrayList<>()).add(row.getGenreId());
+            }
+            List<NovelFacetProjection> rows = novelQueryRepository.findAllFacets();
+            List<NovelFacetIndex.NovelFacets> novels = new ArrayList<>(rows.size());
+            for (NovelFacetProjection row : rows) {
+                novels.add(toFacets(row, genreIds.getOrDefault(row.getId(), List.of())));
+            }
+            index = NovelFacetIndex.build(novels);
+            log.info("Rebuilt novel facet index with {} novels in {} ms", index.size(),
+                System.currentTimeMillis() - startedAt);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNovelChanged(NovelChangedEvent event) {
+        if (event.isDeleted()) {
+            removeNovel(event.getNovelId());
+        } else {
+            refreshNovel(event.getNovelId());
+        }
+    }
+
+    private NovelFacetIndex getIndex() {
+        NovelFacetIndex current = index;
+        if (current == null) {
+            rebuild();
+            current = index;
+        }
+        return current;
+    }
+
+    private static NovelFacetIndex.NovelFacets toFacets(NovelFacetProjection row, List<Integer> genreIds) {
+        return new NovelFacetIndex.NovelFacets(
+            row.getId(),
+            row.getStatus(),
+            Boolean.TRUE.equals(row.getClosed()),
+            row.getLikeCounts() == null ? 0 : row.getLikeCounts(),
+            row.getReadCounts() == null ? 0 : row.getReadCounts(),
+            toEpochMinutes(row.getReleasedAt()),
+            genreIds.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static int toEpochMinutes(LocalDateTime time) {
+        return time == null ? 0 : (int) (time.atZone(ZoneId.systemDefault()).toEpochSecond() / 60);
+    }
+}
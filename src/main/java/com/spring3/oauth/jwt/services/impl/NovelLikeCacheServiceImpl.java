@@ -0,0 +1,99 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring3.oauth.jwt.events.NovelLikeChangedEvent;
+import com.spring3.oauth.jwt.models.dtos.CacheStatsDTO;
+import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
+import com.spring3.oauth.jwt.repositories.UserLikeRepository;
+import com.spring3.oauth.jwt.services.NovelLikeCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+// Cache danh sách truyện đã like của từng người dùng dưới dạng Roaring bitmap nén.
+// Nạp lười từ DB ở lần đầu cần đến, giới hạn theo tổng dung lượng bitmap (người like nhiều tốn nhiều hơn).
+// Bitmap trong cache không bao giờ bị sửa tại chỗ: like / bỏ like tạo bản sao mới rồi thay thế,
+// nên reader không cần khóa.
+@Service
+@Slf4j
+public class NovelLikeCacheServiceImpl implements NovelLikeCacheService {
+
+    // Chi phí cố định ước tính của một entry ngoài phần dữ liệu bitmap
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    private final UserLikeRepository userLikeRepository;
+    private final Cache<Long, ImmutableRoaringBitmap> likedNovels;
+
+    public NovelLikeCacheServiceImpl(UserLikeRepository userLikeRepository,
+                                     @Value("${novel.liked-cache.maximum-bytes:67108864}") long maximumBytes,
+                                     @Value("${novel.liked-cache.expire-after-access-ms:1800000}") long expireAfterAccessMs) {
+        this.userLikeRepository = userLikeRepository;
+        this.likedNovels = Caffeine.newBuilder()
+            .maximumWeight(maximumBytes)
+            .weigher((Long userId, ImmutableRoaringBitmap bitmap) -> ENTRY_OVERHEAD_BYTES + bitmap.getSizeInBytes())
+            .expireAfterAccess(Duration.ofMillis(expireAfterAccessMs))
+            .recordStats()
+            .build();
+    }
+
+    @Override
+    public ImmutableRoaringBitmap getLikedNovelIds(long userId) {
+        return likedNovels.get(userId, this::load);
+    }
+
+    @Override
+    public boolean isLiked(long userId, int novelId) {
+        return getLikedNovelIds(userId).contains(novelId);
+    }
+
+    @Override
+    public void markLiked(long userId, Collection<NovelResponseDTO> novels) {
+        ImmutableRoaringBitmap liked = getLikedNovelIds(userId);
+        for (NovelResponseDTO novel : novels) {
+            novel.setLiked(novel.getId() != null && liked.contains(novel.getId()));
+        }
+    }
+
+    @Override
+    public void evict(long userId) {
+        likedNovels.invalidate(userId);
+    }
+
+    @Override
+    public CacheStatsDTO getStats() {
+        return CacheStatsDTO.of("liked-novels-by-user", likedNovels.estimatedSize(), likedNovels.stats());
+    }
+
+    // Chạy sau commit: nếu bitmap đang được nạp thì computeIfPresent chờ nạp xong rồi mới áp thay đổi
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNovelLikeChanged(NovelLikeChangedEvent event) {
+        likedNovels.asMap().computeIfPresent(event.getUserId(), (userId, current) -> {
+            if (current.contains(event.getNovelId()) == event.isLiked()) {
+                return current;
+            }
+            MutableRoaringBitmap updated = current.toMutableRoaringBitmap();
+            if (event.isLiked()) {
+                updated.add(event.getNovelId());
+            } else {
+                updated.remove(event.getNovelId());
+            }
+            return updated;
+        });
+    }
+
+    private ImmutableRoaringBitmap load(Long userId) {
+        List<Integer> novelIds = userLikeRepository.findLikedNovelIdsByUser(userId);
+        MutableRoaringBitmap bitmap = new MutableRoaringBitmap();
+        novelIds.forEach(bitmap::add);
+        bitmap.runOptimize();
+        return bitmap;
+    }
+}
@@ -0,0 +1,227 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.spring3.oauth.jwt.helpers.NovelCursor;
+import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
+import com.spring3.oauth.jwt.models.projections.NovelGenreProjection;
+import com.spring3.oauth.jwt.models.projections.NovelRowProjection;
+import com.spring3.oauth.jwt.models.projections.NovelVersionProjection;
+import com.spring3.oauth.jwt.repositories.NovelQueryRepository;
+import com.spring3.oauth.jwt.services.NovelReadModelService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class NovelReadModelServiceImpl implements NovelReadModelService {
+
+    private final NovelQueryRepository novelQueryRepository;
+
+    @Override
+    public Page<NovelResponseDTO> getTrending(Pageable pageable) {
+        return toDtoPage(novelQueryRepository.findTrending(pageable));
+    }
+
+    @Override
+    public Page<NovelResponseDTO> getTopRead(Pageable pageable) {
+        return toDtoPage(novelQueryRepository.findTopRead(pageable));
+    }
+
+    @Override
+    public Page<NovelResponseDTO> getReleasedSince(LocalDateTime since, Pageable pageable) {
+        return toDtoPage(novelQueryRepository.findReleasedSince(since, pageable));
+    }
+
+    @Override
+    public List<NovelResponseDTO> getTrendingAfter(NovelCursor cursor, int limit) {
+        return toDtos(novelQueryRepository.findTrendingAfter(cursor.intSortKey(), cursor.getId(),
+            PageRequest.ofSize(limit)));
+    }
+
+    @Override
+    public List<NovelResponseDTO> getReleasedSinceAfter(LocalDateTime since, NovelCursor cursor, int limit) {
+        return toDtos(novelQueryRepository.findReleasedSinceAfter(since, NovelCursor.toDateTime(cursor.getSortKey()),
+            cursor.getId(), PageRequest.ofSize(limit)));
+    }
+
+    @Override
+    public Page<NovelResponseDTO> getByGenreIds(List<Integer> genreIds, Pageable pageable) {
+        return toDtoPage(novelQueryRepository.findByGenreIds(genreIds, pageable));
+    }
+
+    @Override
+    public Page<NovelResponseDTO> getByGenreName(String genreName, Pageable pageable) {
+        return toDtoPage(novelQueryRepository.findByGenreName(genreName, pageable));
+    }
+
+    @Override
+    public Page<NovelResponseDTO> getByAuthorId(Integer authorId, Pageable pageable) {
+        return toDtoPage(novelQueryRepository.findByAuthorId(authorId, pageable));
+    }
+
+    @Override
+    public Page<NovelResponseDTO> getOpenByAuthorName(String authorName, Pageable pageable) {
+        return toDtoPage(novelQueryRepository.findOpenByAuthorName(authorName, pageable));
+    }
+
+    @Override
+    public Page<NovelResponseDTO> getByAuthorName(String authorName, Pageable pageable) {
+        return toDtoPage(novelQueryRepository.findByAuthorName(authorName, pageable));
+    }
+
+    @Override
+    public Page<NovelResponseDTO> getByTitle(String title, Pageable pageable) {
+        return toDtoPage(novelQueryRepository.findByTitleContaining(title, pageable));
+    }
+
+    @Override
+    public Slice<NovelResponseDTO> getTrending(Pageable pageable, boolean withTotal) {
+        return withTotal ? getTrending(pageable) : toDtoSlice(novelQueryRepository.findTrendingSlice(pageable));
+    }
+
+    @Override
+    public Slice<NovelResponseDTO> getTopRead(Pageable pageable, boolean withTotal) {
+        return withTotal ? getTopRead(pageable) : toDtoSlice(novelQueryRepository.findTopReadSlice(pageable));
+    }
+
+    @Override
+    public Slice<NovelResponseDTO> getReleasedSince(LocalDateTime since, Pageable pageable, boolean withTotal) {
+        return withTotal ? getReleasedSince(since, pageable) : toDtoSlice(novelQueryRepository.findReleasedSinceSlice(since, pageable));
+    }
+
+    @Override
+    public Slice<NovelResponseDTO> getByGenreIds(List<Integer> genreIds, Pageable pageable, boolean withTotal) {
+        return withTotal ? getByGenreIds(genreIds, pageable) : toDtoSlice(novelQueryRepository.findByGenreIdsSlice(genreIds, pageable));
+    }
+
+    @Override
+    public Slice<NovelResponseDTO> getByGenreName(String genreName, Pageable pageable, boolean withTotal) {
+        return withTotal ? getByGenreName(genreName, pageable) : toDtoSlice(novelQueryRepository.findByGenreNameSlice(genreName, pageable));
+    }
+
+    @Override
+    public Slice<NovelResponseDTO> getByAuthorId(Integer authorId, Pageable pageable, boolean withTotal) {
+        return withTotal ? getByAuthorId(authorId, pageable) : toDtoSlice(novelQueryRepository.findByAuthorIdSlice(authorId, pageable));
+    }
+
+    @Override
+    public Slice<NovelResponseDTO> getOpenByAuthorName(String authorName, Pageable pageable, boolean withTotal) {
+        return withTotal ? getOpenByAuthorName(authorName, pageable) : toDtoSlice(novelQueryRepository.findOpenByAuthorNameSlice(authorName, pageable));
+    }
+
+    @Override
+    public Slice<NovelResponseDTO> getByAuthorName(String authorName, Pageable pageable, boolean withTotal) {
+        return withTotal ? getByAuthorName(authorName, pageable) : toDtoSlice(novelQueryRepository.findByAuthorNameSlice(authorName, pageable));
+    }
+
+    @Override
+    public Slice<NovelResponseDTO> getByTitle(String title, Pageable pageable, boolean withTotal) {
+        return withTotal ? getByTitle(title, pageable) : toDtoSlice(novelQueryRepository.findByTitleContainingSlice(title, pageable));
+    }
+
+    @Override
+    public List<NovelResponseDTO> getAllOpen() {
+        return toDtos(novelQueryRepository.findAllOpen());
+    }
+
+    @Override
+    public List<Integer> getOpenIdsByLikeCounts() {
+        return novelQueryRepository.findOpenIdsOrderByLikeCounts();
+    }
+
+    @Override
+    public List<Integer> getOpenIdsByReadCounts() {
+        return novelQueryRepository.findOpenIdsOrderByReadCounts();
+    }
+
+    @Override
+    public List<NovelResponseDTO> getAllByIds(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Giữ nguyên thứ tự của danh sách id truyền vào (ranking, search,...)
+        Map<Integer, NovelResponseDTO> byId = new HashMap<>();
+        for (NovelResponseDTO dto : toDtos(novelQueryRepository.findAllByIdIn(ids))) {
+            byId.put(dto.getId(), dto);
+        }
+        List<NovelResponseDTO> result = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            NovelResponseDTO dto = byId.get(id);
+            if (dto != null) {
+                result.add(dto);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<NovelResponseDTO> getById(Integer id) {
+        return novelQueryRepository.findRowById(id)
+            .map(row -> toDtos(List.of(row)).get(0));
+    }
+
+    @Override
+    public Optional<NovelVersionProjection> getVersionById(Integer id) {
+        return novelQueryRepository.findVersionById(id);
+    }
+
+    @Override
+    public List<NovelResponseDTO> toDtos(List<NovelRowProjection> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, NovelResponseDTO> byId = new HashMap<>();
+        List<NovelResponseDTO> result = new ArrayList<>(rows.size());
+        for (NovelRowProjection row : rows) {
+            NovelResponseDTO dto = convertToDto(row);
+            byId.put(dto.getId(), dto);
+            result.add(dto);
+        }
+        // Một query duy nhất cho genres của cả trang
+        for (NovelGenreProjection genre : novelQueryRepository.findGenreNamesByNovelIds(byId.keySet())) {
+            byId.get(genre.getNovelId()).getGenreNames().add(genre.getGenreName());
+        }
+        return result;
+    }
+
+    private Page<NovelResponseDTO> toDtoPage(Page<NovelRowProjection> rows) {
+        return new PageImpl<>(toDtos(rows.getContent()), rows.getPageable(), rows.getTotalElements());
+    }
+
+    private Slice<NovelResponseDTO> toDtoSlice(Slice<NovelRowProjection> rows) {
+        return new SliceImpl<>(toDtos(rows.getContent()), rows.getPageable(), rows.hasNext());
+    }
+
+    private NovelResponseDTO convertToDto(NovelRowProjection row) {
+        NovelResponseDTO dto = new NovelResponseDTO();
+        dto.setId(row.getId());
+        dto.setTitle(row.getTitle());
+        dto.setSlug(row.getSlug());
+        dto.setDescription(row.getDescription());
+        dto.setReleasedAt(row.getReleasedAt());
+        dto.setStatus(row.getStatus());
+        dto.setClosed(Boolean.TRUE.equals(row.getClosed()));
+        dto.setThumbnailImageUrl(row.getThumbnailImageUrl());
+        dto.setReadCounts(row.getReadCounts() == null ? 0 : row.getReadCounts());
+        dto.setTotalChapters(row.getTotalChapters() == null ? 0 : row.getTotalChapters());
+        dto.setAverageRatings(row.getAverageRatings());
+        dto.setLikeCounts(row.getLikeCounts() == null ? 0 : row.getLikeCounts());
+        dto.setAuthorName(row.getAuthorName());
+        dto.setGenreNames(new ArrayList<>());
+        return dto;
+    }
+}
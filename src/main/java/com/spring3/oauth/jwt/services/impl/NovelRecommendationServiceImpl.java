@@ -0,0 +1,211 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.spring3.oauth.jwt.configurations.NovelRecommendationProperties;
+import com.spring3.oauth.jwt.entity.enums.UserInteractionTypeEnum;
+import com.spring3.oauth.jwt.events.UserNovelInteractionEvent;
+import com.spring3.oauth.jwt.helpers.IntFloatHashMap;
+import com.spring3.oauth.jwt.helpers.ItemSimilarityModel;
+import com.spring3.oauth.jwt.models.projections.UserNovelInteractionProjection;
+import com.spring3.oauth.jwt.repositories.LikedLibraryRepository;
+import com.spring3.oauth.jwt.repositories.UserLikeRepository;
+import com.spring3.oauth.jwt.repositories.UserRateRepository;
+import com.spring3.oauth.jwt.repositories.UserReadingProgressRepository;
+import com.spring3.oauth.jwt.services.NovelReadModelService;
+import com.spring3.oauth.jwt.services.NovelRecommendationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Gợi ý cá nhân hóa bằng collaborative filtering item-item.
+// Mô hình được dựng lại định kỳ từ like, đánh giá, tiến độ đọc và thư viện yêu thích; top-K của từng
+// người dùng được tính sẵn nên API gợi ý chỉ là một lần tra map. Tương tác mới chỉ tính lại cho đúng người đó.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NovelRecommendationServiceImpl implements NovelRecommendationService {
+
+    private static final int[] NO_RECOMMENDATIONS = new int[0];
+
+    private final UserLikeRepository userLikeRepository;
+    private final UserRateRepository userRateRepository;
+    private final UserReadingProgressRepository userReadingProgressRepository;
+    private final LikedLibraryRepository likedLibraryRepository;
+    private final NovelReadModelService novelReadModelService;
+    private final NovelRecommendationProperties properties;
+
+    private volatile ItemSimilarityModel model = ItemSimilarityModel.EMPTY;
+    private volatile BitSet openNovels = new BitSet();
+    private volatile Map<Long, ItemSimilarityModel.UserProfile> profiles = new ConcurrentHashMap<>();
+    private volatile Map<Long, int[]> recommendations = new ConcurrentHashMap<>();
+
+    // Tương tác đến trong lúc đang dựng lại mô hình, được áp lại lên dữ liệu mới khi hoàn tất
+    private final List<UserNovelInteractionEvent> interactionsDuringRebuild = new ArrayList<>();
+    private boolean rebuilding;
+    private final Object profileLock = new Object();
+    private final Object rebuildLock = new Object();
+
+    @Override
+    public int[] getRecommendedNovelIds(long userId) {
+        return recommendations.getOrDefault(userId, NO_RECOMMENDATIONS);
+    }
+
+    @Override
+    public void recordInteraction(long userId, int novelId, UserInteractionTypeEnum type, float strength) {
+        float weight = properties.getWeight(type) * strength;
+        if (weight <= 0) {
+            return;
+        }
+        ItemSimilarityModel.UserProfile profile;
+        synchronized (profileLock) {
+            profile = withInteraction(profiles.get(userId), novelId, weight);
+            profiles.put(userId, profile);
+            if (rebuilding) {
+                interactionsDuringRebuild.add(new UserNovelInteractionEvent(userId, novelId, type, strength));
+            }
+        }
+        recommendations.put(userId, recommend(profile));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        // Chưa có mô hình thì API gợi ý dùng độ phổ biến theo thể loại, không chặn khởi động
+        CompletableFuture.runAsync(this::rebuild);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${novel.recommend.rebuild-interval-ms:21600000}",
+        initialDelayString = "${novel.recommend.rebuild-interval-ms:21600000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (profileLock) {
+                rebuilding = true;
+                interactionsDuringRebuild.clear();
+            }
+            try {
+                long startedAt = System.currentTimeMillis();
+                Map<Long, IntFloatHashMap> weights = new HashMap<>();
+                addInteractions(weights, userLikeRepository.findAllInteractions(),
+                    row -> properties.getWeight(UserInteractionTypeEnum.LIKE));
+                addInteractions(weights, userRateRepository.findAllInteractions(),
+                    row -> properties.getWeight(UserInteractionTypeEnum.RATE)
+                        * UserNovelInteractionEvent.rateStrength(row.getRatePoint()));
+                addInteractions(weights, userReadingProgressRepository.findAllInteractions(),
+                    row -> properties.getWeight(UserInteractionTypeEnum.READING));
+                addInteractions(weights, likedLibraryRepository.findAllInteractions(),
+                    row -> properties.getWeight(UserInteractionTypeEnum.LIBRARY));
+
+                Map<Long, ItemSimilarityModel.UserProfile> newProfiles = new ConcurrentHashMap<>(weights.size() * 2);
+                weights.forEach((userId, novels) -> newProfiles.put(userId, toProfile(novels)));
+                weights.clear();
+
+                BitSet open = new BitSet();
+                novelReadModelService.getOpenIdsByLikeCounts().forEach(open::set);
+                ItemSimilarityModel newModel = ItemSimilarityModel.build(newProfiles.values(),
+                    properties.getMaxNeighbors(), properties.getMaxItemsPerUser());
+
+                Map<Long, int[]> newRecommendations = new ConcurrentHashMap<>(newProfiles.size() * 2);
+                newProfiles.forEach((userId, profile) -> {
+                    int[] ranked = newModel.recommend(profile, properties.getTopK(), open::get);
+                    if (ranked.length > 0) {
+                        newRecommendations.put(userId, ranked);
+                    }
+                });
+
+                List<UserNovelInteractionEvent> missed;
+                synchronized (profileLock) {
+                    model = newModel;
+                    openNovels = open;
+                    profiles = newProfiles;
+                    recommendations = newRecommendations;
+                    rebuilding = false;
+                    missed = new ArrayList<>(interactionsDuringRebuild);
+                    interactionsDuringRebuild.clear();
+                }
+                // Trọng số gộp theo max nên áp lại tương tác đã có trong DB cũng không bị tính hai lần
+                missed.forEach(event -> recordInteraction(event.getUserId(), event.getNovelId(),
+                    event.getType(), event.getStrength()));
+                log.info("Rebuilt novel recommendations: {} novels, {} users, {} with recommendations in {} ms",
+                    newModel.size(), newProfiles.size(), newRecommendations.size(),
+                    System.currentTimeMillis() - startedAt);
+            } finally {
+                synchronized (profileLock) {
+                    rebuilding = false;
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserNovelInteraction(UserNovelInteractionEvent event) {
+        recordInteraction(event.getUserId(), event.getNovelId(), event.getType(), event.getStrength());
+    }
+
+    private int[] recommend(ItemSimilarityModel.UserProfile profile) {
+        BitSet open = openNovels;
+        return model.recommend(profile, properties.getTopK(), open::get);
+    }
+
+    private static <T extends UserNovelInteractionProjection> void addInteractions(Map<Long, IntFloatHashMap> weights,
+                                                                               List<T> rows,
+                                                                               Function<T, Float> weightOf) {
+        for (T row : rows) {
+            if (row.getUserId() == null || row.getNovelId() == null) {
+                continue;
+            }
+            float weight = weightOf.apply(row);
+            if (weight > 0) {
+                weights.computeIfAbsent(row.getUserId(), id -> new IntFloatHashMap(16)).putMax(row.getNovelId(), weight);
+            }
+        }
+    }
+
+    private static ItemSimilarityModel.UserProfile toProfile(IntFloatHashMap novels) {
+        int[] novelIds = new int[novels.size()];
+        float[] weights = new float[novels.size()];
+        int[] position = {0};
+        novels.forEach((novelId, weight) -> {
+            novelIds[position[0]] = novelId;
+            weights[position[0]] = weight;
+            position[0]++;
+        });
+        return new ItemSimilarityModel.UserProfile(novelIds, weights);
+    }
+
+    // Copy-on-write: profile cũ vẫn có thể đang được đọc ở thread khác
+    private static ItemSimilarityModel.UserProfile withInteraction(ItemSimilarityModel.UserProfile profile,
+                                                                  int novelId, float weight) {
+        if (profile == null) {
+            return new ItemSimilarityModel.UserProfile(new int[]{novelId}, new float[]{weight});
+        }
+        int[] novelIds = profile.getNovelIds();
+        for (int i = 0; i < novelIds.length; i++) {
+            if (novelIds[i] == novelId) {
+                if (profile.getWeights()[i] >= weight) {
+                    return profile;
+                }
+                float[] weights = profile.getWeights().clone();
+                weights[i] = weight;
+                return new ItemSimilarityModel.UserProfile(novelIds, weights);
+            }
+        }
+        int[] newIds = Arrays.copyOf(novelIds, novelIds.length + 1);
+        float[] newWeights = Arrays.copyOf(profile.getWeights(), novelIds.length + 1);
+        newIds[novelIds.length] = novelId;
+        newWeights[novelIds.length] = weight;
+        return new ItemSimilarityModel.UserProfile(newIds, newWeights);
+    }
+}
@@ -0,0 +1,143 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring3.oauth.jwt.entity.Novel;
+import com.spring3.oauth.jwt.events.NovelChangedEvent;
+import com.spring3.oauth.jwt.exception.NotFoundException;
+import com.spring3.oauth.jwt.helpers.NovelHeader;
+import com.spring3.oauth.jwt.models.dtos.CacheStatsDTO;
+import com.spring3.oauth.jwt.repositories.NovelQueryRepository;
+import com.spring3.oauth.jwt.repositories.NovelRepository;
+import com.spring3.oauth.jwt.services.NovelResolverService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Cache slug -> id và id -> NovelHeader dùng chung cho các service ghi (like, đánh giá, bình luận, tiến độ đọc).
+// Một lần trượt cache chỉ select vài cột, không load cả entity Novel kèm tác giả; khi ghi thì dùng
+// getReferenceById để lấy proxy chỉ mang id. Slug không tồn tại không được cache để truyện mới tạo tra được ngay.
+@Service
+@Slf4j
+public class NovelResolverServiceImpl implements NovelResolverService {
+
+    private final NovelRepository novelRepository;
+    private final NovelQueryRepository novelQueryRepository;
+    private final Cache<String, Integer> idsBySlug;
+    private final Cache<Integer, NovelHeader> headersById;
+    // Chiều ngược id -> các slug đang nằm trong idsBySlug, để evict theo id không phải duyệt cả cache.
+    // Thường chỉ một slug; có thể hai trong lúc đổi slug chưa kịp evict. Chỉ sửa trong compute theo từng id.
+    private final ConcurrentHashMap<Integer, Set<String>> slugsById = new ConcurrentHashMap<>();
+
+    public NovelResolverServiceImpl(NovelRepository novelRepository,
+                                    NovelQueryRepository novelQueryRepository,
+                                    @Value("${novel.resolver.maximum-size:50000}") long maximumSize,
+                                    @Value("${novel.resolver.expire-after-write-ms:3600000}") long expireAfterWriteMs) {
+        this.novelRepository = novelRepository;
+        this.novelQueryRepository = novelQueryRepository;
+        this.idsBySlug = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+            // Hết hạn / vượt kích thước thì bỏ luôn chiều ngược; invalidate tường minh chỉ đến từ evict
+            .<String, Integer>evictionListener((slug, id, cause) -> forgetSlug(id, slug))
+            .recordStats()
+            .build();
+        this.headersById = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+            .recordStats()
+            .build();
+    }
+
+    @Override
+    public Optional<Integer> findIdBySlug(String slug) {
+        if (slug == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(idsBySlug.get(slug, this::loadIdBySlug));
+    }
+
+    @Override
+    public int getIdBySlug(String slug) {
+        return findIdBySlug(slug)
+            .orElseThrow(() -> new NotFoundException("Novel not found with slug " + slug));
+    }
+
+    @Override
+    public Optional<NovelHeader> findHeaderBySlug(String slug) {
+        return findIdBySlug(slug).flatMap(this::findHeaderById);
+    }
+
+    @Override
+    public Optional<NovelHeader> findHeaderById(int novelId) {
+        return Optional.ofNullable(headersById.get(novelId, this::loadHeaderById));
+    }
+
+    // Proxy chưa khởi tạo: gán vào quan hệ @ManyToOne khi ghi mà không cần SELECT truyện
+    @Override
+    public Novel getReferenceBySlug(String slug) {
+        return novelRepository.getReferenceById(getIdBySlug(slug));
+    }
+
+    @Override
+    public void evict(int novelId) {
+        headersById.invalidate(novelId);
+        // Slug có thể đã đổi nên xóa theo các slug đã ghi nhận cho id, không theo slug hiện tại
+        Set<String> slugs = slugsById.remove(novelId);
+        if (slugs != null) {
+            idsBySlug.invalidateAll(slugs);
+        }
+    }
+
+    @Override
+    public List<CacheStatsDTO> getStats() {
+        return List.of(
+            CacheStatsDTO.of("novel-ids-by-slug", idsBySlug.estimatedSize(), idsBySlug.stats()),
+            CacheStatsDTO.of("novel-headers-by-id", headersById.estimatedSize(), headersById.stats()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNovelChanged(NovelChangedEvent event) {
+        evict(event.getNovelId());
+    }
+
+    // Trả về null (không cache) khi slug không tồn tại; header đọc kèm được cache luôn
+    private Integer loadIdBySlug(String slug) {
+        return novelQueryRepository.findHeaderBySlug(slug)
+            .map(NovelHeader::from)
+            .map(header -> {
+                headersById.put(header.getId(), header);
+                slugsById.compute(header.getId(), (id, slugs) -> {
+                    Set<String> result = slugs != null ? slugs : new HashSet<>();
+                    result.add(slug);
+                    return result;
+                });
+                return header.getId();
+            })
+            .orElse(null);
+    }
+
+    private void forgetSlug(Integer novelId, String slug) {
+        if (novelId == null) {
+            return;
+        }
+        slugsById.computeIfPresent(novelId, (id, slugs) -> {
+            slugs.remove(slug);
+            return slugs.isEmpty() ? null : slugs;
+        });
+    }
+
+    private NovelHeader loadHeaderById(Integer novelId) {
+        return novelQueryRepository.findHeaderById(novelId)
+            .map(NovelHeader::from)
+            .orElse(null);
+    }
+}
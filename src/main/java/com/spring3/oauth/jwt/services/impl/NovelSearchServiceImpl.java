@@ -0,0 +1,141 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.spring3.oauth.jwt.events.NovelChangedEvent;
+import com.spring3.oauth.jwt.exception.BadRequestException;
+import com.spring3.oauth.jwt.helpers.NovelSearchIndex;
+import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
+import com.spring3.oauth.jwt.models.dtos.PagedResponseDTO;
+import com.spring3.oauth.jwt.models.dtos.PaginationDTO;
+import com.spring3.oauth.jwt.services.NovelCounterService;
+import com.spring3.oauth.jwt.services.NovelReadModelService;
+import com.spring3.oauth.jwt.services.NovelSearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@Slf4j
+public class NovelSearchServiceImpl implements NovelSearchService {
+
+    private static final String INDEX_FILE_NAME = "novels.idx";
+
+    private final NovelReadModelService novelReadModelService;
+    private final NovelCounterService novelCounterService;
+    private final NovelSearchIndex index;
+    private final Path indexFile;
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+
+    public NovelSearchServiceImpl(NovelReadModelService novelReadModelService,
+                                  NovelCounterService novelCounterService,
+                                  @Value("${novel.search.index-dir:./data/search-index}") String indexDir,
+                                  @Value("${novel.search.popularity-weight:0.3}") float popularityWeight) {
+        this.novelReadModelService = novelReadModelService;
+        this.novelCounterService = novelCounterService;
+        this.index = new NovelSearchIndex(popularityWeight);
+        this.indexFile = Paths.get(indexDir).resolve(INDEX_FILE_NAME);
+    }
+
+    @Override
+    public PagedResponseDTO search(String query, Pageable pageable) {
+        if (query == null || NovelSearchIndex.tokenize(query).isEmpty()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        NovelSearchIndex.SearchResult result = index.search(query, (int) pageable.getOffset(), pageable.getPageSize());
+        List<NovelResponseDTO> novels = novelReadModelService.getAllByIds(result.getIds());
+        novelCounterService.applyPendingCounts(novels);
+        long totalHits = result.getTotalHits();
+        PaginationDTO pagination = new PaginationDTO(pageable.getPageNumber(), pageable.getPageSize(), totalHits,
+            pageable.getOffset() + novels.size() < totalHits);
+        return new PagedResponseDTO(novels, pagination);
+    }
+
+    @Override
+    public void indexNovel(int novelId) {
+        Optional<NovelResponseDTO> novel = novelReadModelService.getById(novelId);
+        if (novel.isEmpty() || novel.get().isClosed()) {
+            removeNovel(novelId);
+            return;
+        }
+        index.put(toDocument(novel.get()));
+        dirty.set(true);
+    }
+
+    @Override
+    public void removeNovel(int novelId) {
+        index.remove(novelId);
+        dirty.set(true);
+    }
+
+    // Khởi động nhanh: nạp index đã lưu trên đĩa, chỉ đọc DB khi chưa có file index
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        if (Files.exists(indexFile)) {
+            try {
+                index.replaceAll(NovelSearchIndex.readFrom(indexFile));
+                log.info("Loaded novel search index with {} documents from {}", index.size(), indexFile);
+                // Đối chiếu lại với DB ở background, không chặn quá trình khởi động
+                CompletableFuture.runAsync(this::rebuild);
+                return;
+            } catch (IOException e) {
+                log.warn("Could not read novel search index {}, rebuilding from database", indexFile, e);
+            }
+        }
+        rebuild();
+    }
+
+    // Đồng bộ lại toàn bộ với DB định kỳ (lượt like / lượt đọc thay đổi liên tục)
+    @Override
+    @Scheduled(fixedDelayString = "${novel.search.rebuild-interval-ms:3600000}",
+        initialDelayString = "${novel.search.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        index.replaceAll(novelReadModelService.getAllOpen()
+            .stream()
+            .map(this::toDocument)
+            .toList());
+        dirty.set(true);
+        flush();
+        log.info("Rebuilt novel search index with {} documents", index.size());
+    }
+
+    @Scheduled(fixedDelayString = "${novel.search.flush-interval-ms:30000}")
+    public void flush() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            index.writeTo(indexFile);
+        } catch (IOException e) {
+            dirty.set(true);
+            log.error("Could not write novel search index to {}", indexFile, e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNovelChanged(NovelChangedEvent event) {
+        if (event.isDeleted()) {
+            removeNovel(event.getNovelId());
+        } else {
+            indexNovel(event.getNovelId());
+        }
+    }
+
+    private NovelSearchIndex.Document toDocument(NovelResponseDTO novel) {
+        String genres = novel.getGenreNames() == null ? null : String.join(" ", novel.getGenreNames());
+        return new NovelSearchIndex.Document(novel.getId(), novel.getTitle(), novel.getAuthorName(), genres,
+            novel.getDescription(), novel.getLikeCounts(), novel.getReadCounts());
+    }
+}
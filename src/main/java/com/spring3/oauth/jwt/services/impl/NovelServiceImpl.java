@@ -1,19 +1,53 @@
 package com.spring3.oauth.jwt.services.impl;
 
 import com.spring3.oauth.jwt.entity.*;
+import com.spring3.oauth.jwt.entity.enums.NovelActivityTypeEnum;
+import com.spring3.oauth.jwt.entity.enums.NovelStatusEnum;
+import com.spring3.oauth.jwt.entity.enums.UserInteractionTypeEnum;
+import com.spring3.oauth.jwt.events.NovelActivityEvent;
+import com.spring3.oauth.jwt.events.NovelChangedEvent;
+import com.spring3.oauth.jwt.events.NovelLikeChangedEvent;
+import com.spring3.oauth.jwt.events.UserNovelInteractionEvent;
+import com.spring3.oauth.jwt.exception.BadRequestException;
 import com.spring3.oauth.jwt.exception.NotFoundException;
+import com.spring3.oauth.jwt.helpers.ContentVersion;
+import com.spring3.oauth.jwt.helpers.NovelCatalogSnapshot;
+import com.spring3.oauth.jwt.helpers.NovelCursor;
+import com.spring3.oauth.jwt.helpers.NovelFacetIndex;
+import com.spring3.oauth.jwt.models.dtos.CacheStatsDTO;
+import com.spring3.oauth.jwt.models.dtos.CursorPagedResponseDTO;
+import com.spring3.oauth.jwt.models.dtos.FacetedPagedResponseDTO;
 import com.spring3.oauth.jwt.models.dtos.NovelDetailResponseDTO;
+import com.spring3.oauth.jwt.models.dtos.NovelFacetCountsDTO;
 import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
 import com.spring3.oauth.jwt.models.dtos.PagedResponseDTO;
 import com.spring3.oauth.jwt.models.dtos.PaginationDTO;
+import com.spring3.oauth.jwt.models.projections.NovelVersionProjection;
 import com.spring3.oauth.jwt.models.request.UpdateNovelRequest;
 import com.spring3.oauth.jwt.models.request.UpsertNovelRequest;
 import com.spring3.oauth.jwt.repositories.*;
+import com.spring3.oauth.jwt.services.AudioFileService;
+import com.spring3.oauth.jwt.services.ChapterReadAheadService;
+import com.spring3.oauth.jwt.services.NovelCatalogService;
+import com.spring3.oauth.jwt.services.NovelCounterService;
+import com.spring3.oauth.jwt.services.NovelFacetService;
+import com.spring3.oauth.jwt.services.NovelLikeCacheService;
+import com.spring3.oauth.jwt.services.NovelRecommendationService;
+import com.spring3.oauth.jwt.services.NovelResolverService;
+import com.spring3.oauth.jwt.services.NovelReadModelService;
 import com.spring3.oauth.jwt.services.NovelService;
+import com.spring3.oauth.jwt.services.NovelSimilarityService;
+import com.spring3.oauth.jwt.services.NovelTrendingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,8 +55,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,6 +68,9 @@ import java.util.stream.Collectors;
 @Slf4j
 public class NovelServiceImpl implements NovelService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int SAME_GENRE_LIMIT = 10;
+
     private final NovelRepository novelRepository;
     private final AuthorRepository authorRepository;
     private final GenreRepository genreRepository;
@@ -38,6 +78,18 @@ public class NovelServiceImpl implements NovelService {
     private final UserLikeRepository userLikeRepository;
     private final RateRepository rateRepository;
     private final UserRateRepository userRateRepository;
+    private final NovelReadModelService novelReadModelService;
+    private final NovelCatalogService novelCatalogService;
+    private final NovelCounterService novelCounterService;
+    private final NovelTrendingService novelTrendingService;
+    private final NovelRecommendationService novelRecommendationService;
+    private final NovelSimilarityService novelSimilarityService;
+    private final NovelLikeCacheService novelLikeCacheService;
+    private final NovelResolverService novelResolverService;
+    private final NovelFacetService novelFacetService;
+    private final ChapterReadAheadService chapterReadAheadService;
+    private final AudioFileService audioFileService;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Override
@@ -47,90 +99,97 @@ public class NovelServiceImpl implements NovelService {
 
     @Override
     public List<NovelResponseDTO> getAllNovelDtos() {
-        return novelRepository.findAllByClosedFalse()
-            .stream()
-            .map(this::convertToDto)
-            .toList();
+        return novelCatalogService.getSnapshot().getNovels();
     }
 
     @Override
     public PagedResponseDTO getAllTrendingNovels(Pageable pageable) {
-        Page<Novel> novels = novelRepository.findAllByClosedFalseOrderByLikeCountsDesc(pageable);
-        // Mapping từ Novel sang NovelResponseDTO
-        List<NovelResponseDTO> novelDTOs = novels.stream()
-            .map(this::convertToDto)
-            .toList();
-
-        // Tạo đối tượng PaginationDTO
-        PaginationDTO pagination = new PaginationDTO(novels.getNumber(), novels.getSize(), novels.getTotalElements());
-        return new PagedResponseDTO(novelDTOs, pagination);
+        return toPagedResponse(novelTrendingService.getTrending(pageable));
     }
 
     @Override
-    public PagedResponseDTO getAllNovelsByGenreName(String genreName, Pageable pageable) {
-        Page<Novel> novels = novelRepository.findAllByGenreName(genreName, pageable);
-        // Mapping từ Novel sang NovelResponseDTO
-        List<NovelResponseDTO> novelDTOs = novels.stream()
-            .map(this::convertToDto)
-            .toList();
-
-        // Tạo đối tượng PaginationDTO
-        PaginationDTO pagination = new PaginationDTO(novels.getNumber(), novels.getSize(), novels.getTotalElements());
-        return new PagedResponseDTO(novelDTOs, pagination);
+    public PagedResponseDTO getAllNovelsByGenreName(String genreName, Pageable pageable, boolean withTotal) {
+        return toPagedResponse(novelReadModelService.getByGenreName(genreName, pageable, withTotal));
     }
 
 
     @Override
     public PagedResponseDTO getAllNovelsRecommend( Long userId, Pageable pageable) {
+        // Top-K đã tính sẵn theo collaborative filtering
+        int[] recommended = novelRecommendationService.getRecommendedNovelIds(userId);
+        if (recommended.length > 0) {
+            int from = (int) Math.min(pageable.getOffset(), recommended.length);
+            int to = Math.min(from + pageable.getPageSize(), recommended.length);
+            List<Integer> ids = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                ids.add(recommended[i]);
+            }
+            return toPagedResponse(new PageImpl<>(novelReadModelService.getAllByIds(ids), pageable, recommended.length));
+        }
+
+        // Người dùng mới chưa có tương tác: truyện phổ biến trong thể loại đã chọn, không có thì trending
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new NotFoundException("User not found with id " + userId));
-        if(user.getSelectedGenres() == null) {
-            throw new NotFoundException("User not selected any genre");
+        if(user.getSelectedGenres() == null || user.getSelectedGenres().isEmpty()) {
+            return getAllTrendingNovels(pageable);
         }
         List<Integer> userSelectedGenreIds = user.getSelectedGenres()
             .stream()
             .map(Genre::getId)
             .toList();
-        Page<Novel> recommendNovelList = novelRepository.findAllByGenres_IdIn(userSelectedGenreIds, pageable);
-
-        List<NovelResponseDTO> novelDTOs = recommendNovelList.stream()
-            .map(this::convertToDto)
-            .toList();
-
-        // Tạo đối tượng PaginationDTO
-        PaginationDTO pagination = new PaginationDTO(recommendNovelList.getNumber(), recommendNovelList.getSize(), recommendNovelList.getTotalElements());
-        return new PagedResponseDTO(novelDTOs, pagination);
+        return toPagedResponse(novelReadModelService.getByGenreIds(userSelectedGenreIds, pageable));
     }
 
     @Override
     public boolean isNovelLikedByUser(long userId, String novelSlug) {
-        return userLikeRepository.findByUser_IdAndNovel_Slug(userId, novelSlug)
-            .isPresent();
+        return novelResolverService.findIdBySlug(novelSlug)
+            .map(novelId -> novelLikeCacheService.isLiked(userId, novelId))
+            .orElse(false);
     }
 
     @Override
     public List<String> getLikedNovelSlugsByUser(Long userId) {
-        return userLikeRepository.findLikedNovelSlugsByUser(userId);
+        return toSlugs(novelLikeCacheService.getLikedNovelIds(userId).toArray());
     }
 
     @Override
     public List<String> getLikedNovelIdsByUserForSpecificNovels(Long userId, List<Integer> novelIds) {
-        return userLikeRepository.findLikedNovels(userId, novelIds);
+        ImmutableRoaringBitmap liked = novelLikeCacheService.getLikedNovelIds(userId);
+        return toSlugs(novelIds.stream()
+            .filter(novelId -> novelId != null && liked.contains(novelId))
+            .distinct()
+            .mapToInt(Integer::intValue)
+            .toArray());
+    }
+
+    @Override
+    public List<NovelResponseDTO> markLikedNovels(long userId, List<NovelResponseDTO> novels) {
+        novelLikeCacheService.markLiked(userId, novels);
+        return novels;
+    }
+
+    @Override
+    public List<CacheStatsDTO> getCacheStats() {
+        List<CacheStatsDTO> stats = new ArrayList<>(novelResolverService.getStats());
+        stats.add(novelLikeCacheService.getStats());
+        stats.add(chapterReadAheadService.getStats());
+        stats.add(audioFileService.getManifestCacheStats());
+        return stats;
     }
 
     @Override
     public boolean likeNovel( long userId, String slug) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found with id: " + userId));
-        Novel novel = novelRepository.findBySlug(slug);
-        if(novel == null) {
-            throw new NotFoundException("Novel not found with id: " + slug);
-        }
+        int novelId = novelResolverService.findIdBySlug(slug)
+            .orElseThrow(() -> new NotFoundException("Novel not found with id: " + slug));
+        Novel novel = novelRepository.getReferenceById(novelId);
         Optional<UserLike> existingLike = userLikeRepository
-            .findByUser_IdAndNovel_Slug(userId, slug);
+            .findByUser_IdAndNovel_Id(userId, novelId);
         if (existingLike.isPresent()) {
             // Nếu đã like rồi thì xóa like (unlike)
             userLikeRepository.delete(existingLike.get());
+            eventPublisher.publishEvent(new NovelLikeChangedEvent(userId, novelId, false));
             log.info("Removed like for novel: {} by user: {}", slug, userId);
             return false;
         } else {
@@ -140,6 +199,9 @@ public class NovelServiceImpl implements NovelService {
             newLike.setNovel(novel);
             newLike.setLikedAt(LocalDateTime.now());
             userLikeRepository.save(newLike);
+            eventPublisher.publishEvent(new NovelLikeChangedEvent(userId, novelId, true));
+            eventPublisher.publishEvent(new NovelActivityEvent(novelId, NovelActivityTypeEnum.LIKE));
+            eventPublisher.publishEvent(new UserNovelInteractionEvent(userId, novelId, UserInteractionTypeEnum.LIKE, 1f));
             log.info("Added like for novel: {} by user: {}", slug, userId);
             return true;
         }
@@ -147,129 +209,153 @@ public class NovelServiceImpl implements NovelService {
 
 
     @Override
-    public PagedResponseDTO findAllByAuthorName(String authorName, Pageable pageable) {
-        Page<Novel> novels = novelRepository.findAllByAuthorName(authorName, pageable);
+    public PagedResponseDTO findAllByAuthorName(String authorName, Pageable pageable, boolean withTotal) {
+        Slice<NovelResponseDTO> novels = novelReadModelService.getOpenByAuthorName(authorName, pageable, withTotal);
         if(novels.isEmpty()) {
             throw new NotFoundException("Novel not found with author name " + authorName);
         }
-        // Mapping từ Novel sang NovelResponseDTO
-        List<NovelResponseDTO> novelDTOs = novels.stream()
-            .map(this::convertToDto)
-            .toList();
-        PaginationDTO pagination = new PaginationDTO(novels.getNumber(), novels.getSize(), novels.getTotalElements());
-        return new PagedResponseDTO(novelDTOs, pagination);
+        return toPagedResponse(novels);
     }
 
     @Override
-    public PagedResponseDTO findAllByAuthorAuthName(String authorName, Pageable pageable) {
-        Page<Novel> novels = novelRepository.findAllByAuthorAuthName(authorName, pageable);
+    public PagedResponseDTO findAllByAuthorAuthName(String authorName, Pageable pageable, boolean withTotal) {
+        Slice<NovelResponseDTO> novels = novelReadModelService.getByAuthorName(authorName, pageable, withTotal);
         if(novels.isEmpty()) {
             throw new NotFoundException("Novel not found with author name " + authorName);
         }
-        // Mapping từ Novel sang NovelResponseDTO
-        List<NovelResponseDTO> novelDTOs = novels.stream()
-                .map(this::convertToDto)
-                .toList();
-        PaginationDTO pagination = new PaginationDTO(novels.getNumber(), novels.getSize(), novels.getTotalElements());
-        return new PagedResponseDTO(novelDTOs, pagination);
+        return toPagedResponse(novels);
     }
 
     @Override
-    public PagedResponseDTO findAllByAuthorId(Integer authorId, Pageable pageable) {
-        Page<Novel> novels = novelRepository.findAllByAuthor_Id(authorId, pageable);
+    public PagedResponseDTO findAllByAuthorId(Integer authorId, Pageable pageable, boolean withTotal) {
+        Slice<NovelResponseDTO> novels = novelReadModelService.getByAuthorId(authorId, pageable, withTotal);
         if(novels.isEmpty()) {
             throw new NotFoundException("Novel not found with author id " + authorId);
         }
-        // Mapping từ Novel sang NovelResponseDTO
-        List<NovelResponseDTO> novelDTOs = novels.stream()
-            .map(this::convertToDto)
-            .toList();
-        PaginationDTO pagination = new PaginationDTO(novels.getNumber(), novels.getSize(), novels.getTotalElements());
-        return new PagedResponseDTO(novelDTOs, pagination);
+        return toPagedResponse(novels);
     }
 
     @Override
-    public PagedResponseDTO findAllByTitle(String title, Pageable pageable) {
-        Page<Novel> novels = novelRepository.findAllByTitleContaining(title, pageable);
+    public PagedResponseDTO findAllByTitle(String title, Pageable pageable, boolean withTotal) {
+        Slice<NovelResponseDTO> novels = novelReadModelService.getByTitle(title, pageable, withTotal);
         if (novels.isEmpty()) {
             throw new NotFoundException("Novel not found with title " + title);
         }
-        // Mapping từ Novel sang NovelResponseDTO
-        List<NovelResponseDTO> novelDTOs = novels.stream()
-            .map(this::convertToDto)
-            .toList();
-        PaginationDTO pagination = new PaginationDTO(novels.getNumber(), novels.getSize(), novels.getTotalElements());
-        return new PagedResponseDTO(novelDTOs, pagination);
+        return toPagedResponse(novels);
     }
 
     @Override
-    public PagedResponseDTO getAllTopNovels(Pageable pageable) {
-        Page<Novel> novels = novelRepository.findAllByClosedFalseOrderByReadCountsDesc(pageable);
-        // Mapping từ Novel sang NovelResponseDTO
-        List<NovelResponseDTO> novelDTOs = novels.stream()
-            .map(this::convertToDto)
-            .toList();
-
-        // Tạo đối tượng PaginationDTO
-        PaginationDTO pagination = new PaginationDTO(novels.getNumber(), novels.getSize(), novels.getTotalElements());
-        return new PagedResponseDTO(novelDTOs, pagination);
+    public PagedResponseDTO getAllTopNovels(Pageable pageable, boolean withTotal) {
+        return toPagedResponse(novelReadModelService.getTopRead(pageable, withTotal));
     }
 
     @Override
-    public PagedResponseDTO findAllByReleasedAtWithinLast7Days(Pageable pageable) {
+    public PagedResponseDTO findAllByReleasedAtWithinLast7Days(Pageable pageable, boolean withTotal) {
         LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
-        Page<Novel> novels = novelRepository.findAllByReleasedAtWithinLast7Days(sevenDaysAgo, pageable);
-        // Mapping từ Novel sang NovelResponseDTO
-        List<NovelResponseDTO> novelDTOs = novels.stream()
-            .map(this::convertToDto)
-            .toList();
+        return toPagedResponse(novelReadModelService.getReleasedSince(sevenDaysAgo, pageable, withTotal));
+    }
+
+    @Override
+    public CursorPagedResponseDTO getTrendingNovelsByCursor(String cursor, int size) {
+        CursorPagedResponseDTO page = novelTrendingService.getTrendingAfter(NovelCursor.decode(cursor),
+            normalizeCursorPageSize(size));
+        novelCounterService.applyPendingCounts(page.getContent());
+        return page;
+    }
+
+    @Override
+    public CursorPagedResponseDTO getTopNovelsByCursor(String cursor, int size) {
+        CursorPagedResponseDTO page = novelTrendingService.getTopReadAfter(NovelCursor.decode(cursor),
+            normalizeCursorPageSize(size));
+        novelCounterService.applyPendingCounts(page.getContent());
+        return page;
+    }
 
-        // Tạo đối tượng PaginationDTO
-        PaginationDTO pagination = new PaginationDTO(novels.getNumber(), novels.getSize(), novels.getTotalElements());
-        return new PagedResponseDTO(novelDTOs, pagination);
+    @Override
+    public CursorPagedResponseDTO getNovelsReleasedLast7DaysByCursor(String cursor, int size) {
+        int limit = normalizeCursorPageSize(size);
+        LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
+        List<NovelResponseDTO> novels = novelReadModelService
+            .getReleasedSinceAfter(sevenDaysAgo, NovelCursor.decode(cursor), limit + 1);
+        return toCursorPage(novels, limit, novel -> NovelCursor.toSortKey(novel.getReleasedAt()));
     }
 
+    @Override
     public List<NovelResponseDTO> findSomeNovelsSameGenre(Integer genreId) {
-        return null;
+        Pageable top = PageRequest.of(0, SAME_GENRE_LIMIT, Sort.by(Sort.Direction.DESC, "likeCounts"));
+        List<NovelResponseDTO> novels = novelReadModelService.getByGenreIds(List.of(genreId), top, false).getContent();
+        novelCounterService.applyPendingCounts(novels);
+        return novels;
     }
 
     @Override
-    public PagedResponseDTO findAllByGenre(List<Integer> genreIds, Pageable pageable) {
-        Page<Novel> novels = novelRepository.findAllByGenres_IdIn(genreIds, pageable);
-        // Mapping từ Novel sang NovelResponseDTO
-        List<NovelResponseDTO> novelDTOs = novels.stream()
-            .map(this::convertToDto)
-            .toList();
+    public List<NovelResponseDTO> findSimilarNovels(String slug, int limit) {
+        return novelSimilarityService.findSimilar(slug, limit);
+    }
 
-        // Tạo đối tượng PaginationDTO
-        PaginationDTO pagination = new PaginationDTO(novels.getNumber(), novels.getSize(), novels.getTotalElements());
-        return new PagedResponseDTO(novelDTOs, pagination);
+    @Override
+    public FacetedPagedResponseDTO findAllByGenre(List<Integer> genreIds, boolean matchAll, List<NovelStatusEnum> statuses,
+                                                  Boolean closed, Pageable pageable) {
+        // Lọc, đếm facet và chọn trang trong bộ nhớ; chỉ query DB để lấy dữ liệu của các truyện trong trang
+        NovelFacetIndex.Result result = novelFacetService.search(genreIds, matchAll, statuses, closed, pageable);
+        List<NovelResponseDTO> content = novelReadModelService.getAllByIds(
+            Arrays.stream(result.getNovelIds()).boxed().toList());
+        novelCounterService.applyPendingCounts(content);
+        PaginationDTO pagination = new PaginationDTO(pageable.getPageNumber(), pageable.getPageSize(),
+            (long) result.getTotal(), pageable.getOffset() + content.size() < result.getTotal());
+        NovelFacetCountsDTO facets = new NovelFacetCountsDTO(result.getGenreCounts(), result.getStatusCounts(),
+            result.getOpenCount(), result.getClosedCount());
+        return new FacetedPagedResponseDTO(content, pagination, facets);
     }
 
     @Override
     public NovelDetailResponseDTO getDetailNovel(String slug, long userId) {
-        Novel novel = novelRepository.findBySlug(slug);
-        if(novel == null) {
-            throw new NotFoundException("Novel not found with slug " + slug);
-        }
-        return convertToDtoDetail(novel, userId);
+        // slug -> id lấy từ cache, sau đó load theo khóa chính
+        Novel novel = novelRepository.findById(novelResolverService.getIdBySlug(slug))
+            .orElseThrow(() -> new NotFoundException("Novel not found with slug " + slug));
+        NovelDetailResponseDTO dto = convertToDtoDetail(novel, userId);
+        novelCounterService.applyPendingCounts(novel.getId(), dto);
+        return dto;
+    }
+
+    // Version của trang chi tiết lấy từ một query nhẹ (không load entity, genres) cộng phần theo người dùng:
+    // lượt đọc / like chưa flush, trạng thái like (cache bộ nhớ) và điểm đánh giá của user
+    @Override
+    @Transactional(readOnly = true)
+    public ContentVersion getDetailNovelVersion(String slug, long userId) {
+        int novelId = novelResolverService.getIdBySlug(slug);
+        NovelVersionProjection version = novelReadModelService.getVersionById(novelId)
+            .orElseThrow(() -> new NotFoundException("Novel not found with slug " + slug));
+        BigDecimal userRate = userRateRepository.findByUser_IdAndNovel_Id(userId, novelId)
+            .map(UserRate::getRatePoint)
+            .orElse(null);
+        // Bộ đếm thay đổi liên tục nên không có Last-Modified, chỉ dùng ETag
+        return ContentVersion.of(null, novelId, version.getUpdatedAt(),
+            version.getReadCounts() + novelCounterService.getPendingReadCount(novelId),
+            version.getLikeCounts() + novelCounterService.getPendingLikeCount(novelId),
+            version.getAverageRatings(), version.getTotalChapters(),
+            version.getAuthorUpdatedAt(), version.getGenresUpdatedAt(),
+            novelLikeCacheService.isLiked(userId, novelId), userRate);
     }
 
     @Override
     public NovelResponseDTO updateLikeCount(String slug) {
-        Novel novel = novelRepository.findBySlug(slug);
-        if(novel == null) {
-            throw new NotFoundException("Novel not found with slug " + slug);
-        }
-        novel.setLikeCounts(novel.getLikeCounts() + 1);
-        return convertToDto(novelRepository.save(novel));
+        int novelId = novelResolverService.getIdBySlug(slug);
+        // Cộng dồn trong bộ nhớ, ghi xuống DB theo lô (không load-modify-save)
+        novelCounterService.incrementLikeCount(novelId);
+        NovelResponseDTO dto = novelReadModelService.getById(novelId)
+            .orElseThrow(() -> new NotFoundException("Novel not found with slug " + slug));
+        novelCounterService.applyPendingCounts(dto);
+        return dto;
     }
 
 
     @Override
     public NovelResponseDTO getNovelById(Integer id) {
-        return novelRepository.findNovelDtoById(id)
+        NovelResponseDTO novel = novelReadModelService.getById(id)
             .orElseThrow(() -> new NotFoundException("Novel not found with id " + id));
+        novelCounterService.applyPendingCounts(novel);
+        return novel;
     }
 
     @Override
@@ -288,6 +374,7 @@ public class NovelServiceImpl implements NovelService {
         novel.setSlug(request.getSlug());
         novel.setDescription(request.getDescription());
         novel.setReleasedAt(LocalDateTime.now());
+        novel.setUpdatedAt(novel.getReleasedAt());
         novel.setStatus(request.getStatus());
         novel.setThumbnailImageUrl(request.getThumbnailImageUrl());
         novel.setClosed(request.isClosed());
@@ -305,7 +392,9 @@ public class NovelServiceImpl implements NovelService {
         rate.setNovel(novel);
         rateRepository.save(rate);
 
-        return convertToDto(novelRepository.save(novel));
+        Novel savedNovel = novelRepository.save(novel);
+        eventPublisher.publishEvent(new NovelChangedEvent(savedNovel.getId(), false));
+        return convertToDto(savedNovel);
 
     }
 
@@ -327,7 +416,10 @@ public class NovelServiceImpl implements NovelService {
         novel.setAuthor(authorRepository.findById(request.getAuthorId())
             .orElseThrow(() -> new NotFoundException("Author not found with id " + request.getAuthorId())));
         novel.setGenres(genreRepository.findAllById(request.getGenreIds()));
-        return convertToDto(novelRepository.save(novel));
+        novel.setUpdatedAt(LocalDateTime.now());
+        Novel savedNovel = novelRepository.save(novel);
+        eventPublisher.publishEvent(new NovelChangedEvent(savedNovel.getId(), false));
+        return convertToDto(savedNovel);
     }
 
     @Override
@@ -335,11 +427,62 @@ public class NovelServiceImpl implements NovelService {
         Novel novel = novelRepository.findById(id)
             .orElseThrow(() -> new NotFoundException("Novel not found with id " + id));
         novelRepository.delete(novel);
+        eventPublisher.publishEvent(new NovelChangedEvent(id, true));
+    }
+
+    private int normalizeCursorPageSize(int size) {
+        if (size <= 0) {
+            throw new BadRequestException("Page size must be positive");
+        }
+        return Math.min(size, MAX_CURSOR_PAGE_SIZE);
+    }
+
+    // Lấy dư 1 phần tử để biết còn trang sau hay không, thay cho query COUNT
+    private CursorPagedResponseDTO toCursorPage(List<NovelResponseDTO> novels, int limit,
+                                                ToLongFunction<NovelResponseDTO> sortKey) {
+        boolean hasNext = novels.size() > limit;
+        List<NovelResponseDTO> content = hasNext ? novels.subList(0, limit) : novels;
+        String nextCursor = null;
+        if (hasNext) {
+            NovelResponseDTO last = content.get(content.size() - 1);
+            nextCursor = new NovelCursor(sortKey.applyAsLong(last), last.getId()).encode();
+        }
+        // Cursor phải lấy theo giá trị trong DB, cộng lượt chưa flush sau khi đã tạo cursor
+        novelCounterService.applyPendingCounts(content);
+        return new CursorPagedResponseDTO(content, nextCursor, hasNext);
+    }
+
+    // Tạo đối tượng PaginationDTO từ trang đã map sẵn sang NovelResponseDTO; Slice (không COUNT) thì không có tổng
+    private PagedResponseDTO toPagedResponse(Slice<NovelResponseDTO> novels) {
+        novelCounterService.applyPendingCounts(novels.getContent());
+        Long totalItems = novels instanceof Page<NovelResponseDTO> page ? page.getTotalElements() : null;
+        PaginationDTO pagination = new PaginationDTO(novels.getNumber(), novels.getSize(), totalItems, novels.hasNext());
+        return new PagedResponseDTO(novels.getContent(), pagination);
+    }
+
+    // Slug lấy từ catalog snapshot, chỉ truyện đã đóng (không có trong snapshot) mới phải hỏi DB
+    private List<String> toSlugs(int[] novelIds) {
+        NovelCatalogSnapshot snapshot = novelCatalogService.getSnapshot();
+        List<String> slugs = new ArrayList<>(novelIds.length);
+        List<Integer> missing = new ArrayList<>();
+        for (int novelId : novelIds) {
+            NovelResponseDTO novel = snapshot.findById(novelId);
+            if (novel != null) {
+                slugs.add(novel.getSlug());
+            } else {
+                missing.add(novelId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            slugs.addAll(novelRepository.findSlugsByIdIn(missing));
+        }
+        return slugs;
     }
 
     NovelResponseDTO convertToDto(Novel novel) {
         NovelResponseDTO dto = new NovelResponseDTO();
 
+        dto.setId(novel.getId());
         dto.setTitle(novel.getTitle());
         dto.setSlug(novel.getSlug());
         dto.setDescription(novel.getDescription());
@@ -371,11 +514,10 @@ public class NovelServiceImpl implements NovelService {
 
     NovelDetailResponseDTO convertToDtoDetail(Novel novel, long userId) {
         NovelDetailResponseDTO dto = new NovelDetailResponseDTO();
-        boolean isLiked = userLikeRepository.findByUser_IdAndNovel_Slug(userId, novel.getSlug())
-            .isPresent();
+        boolean isLiked = novelLikeCacheService.isLiked(userId, novel.getId());
 
         // Lấy thông tin rate của user nếu có
-        BigDecimal userRate = userRateRepository.findByUser_IdAndNovel_Slug(userId, novel.getSlug())
+        BigDecimal userRate = userRateRepository.findByUser_IdAndNovel_Id(userId, novel.getId())
             .map(UserRate::getRatePoint)
             .orElse(null);
 
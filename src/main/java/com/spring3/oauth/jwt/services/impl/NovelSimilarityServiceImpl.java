@@ -0,0 +1,108 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.spring3.oauth.jwt.events.NovelChangedEvent;
+import com.spring3.oauth.jwt.exception.BadRequestException;
+import com.spring3.oauth.jwt.helpers.NovelCatalogSnapshot;
+import com.spring3.oauth.jwt.helpers.NovelSimilarityIndex;
+import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
+import com.spring3.oauth.jwt.models.projections.NovelGenreProjection;
+import com.spring3.oauth.jwt.models.projections.NovelKeyProjection;
+import com.spring3.oauth.jwt.models.projections.UserNovelInteractionProjection;
+import com.spring3.oauth.jwt.repositories.NovelQueryRepository;
+import com.spring3.oauth.jwt.repositories.UserLikeRepository;
+import com.spring3.oauth.jwt.services.NovelCatalogService;
+import com.spring3.oauth.jwt.services.NovelSimilarityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Truyện tương tự: tra index MinHash / LSH trong bộ nhớ rồi lấy dữ liệu từ catalog snapshot, không truy vấn DB.
+// Index được dựng lại ở background theo lịch và khi danh mục truyện thay đổi.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NovelSimilarityServiceImpl implements NovelSimilarityService {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final NovelQueryRepository novelQueryRepository;
+    private final UserLikeRepository userLikeRepository;
+    private final NovelCatalogService novelCatalogService;
+
+    private volatile NovelSimilarityIndex index = NovelSimilarityIndex.EMPTY;
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean(false);
+    private final Object rebuildLock = new Object();
+
+    @Override
+    public List<NovelResponseDTO> findSimilar(String slug, int limit) {
+        if (limit <= 0) {
+            throw new BadRequestException("Limit must be positive");
+        }
+        int[] ids = index.findSimilar(slug, Math.min(limit, MAX_LIMIT));
+        NovelCatalogSnapshot snapshot = novelCatalogService.getSnapshot();
+        List<NovelResponseDTO> novels = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            NovelResponseDTO novel = snapshot.findById(id);
+            if (novel != null) {
+                novels.add(novel);
+            }
+        }
+        return novels;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        CompletableFuture.runAsync(this::rebuild);
+    }
+
+    // Lượt like thay đổi liên tục nên dựng lại định kỳ
+    @Override
+    @Scheduled(fixedDelayString = "${novel.similar.rebuild-interval-ms:600000}",
+        initialDelayString = "${novel.similar.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long startedAt = System.currentTimeMillis();
+            Map<Integer, List<String>> genres = new HashMap<>();
+            for (NovelGenreProjection genre : novelQueryRepository.findOpenGenreNames()) {
+                genres.computeIfAbsent(genre.getNovelId(), id -> new ArrayList<>()).add(genre.getGenreName());
+            }
+            Map<Integer, List<Long>> readers = new HashMap<>();
+            for (UserNovelInteractionProjection like : userLikeRepository.findAllInteractions()) {
+                readers.computeIfAbsent(like.getNovelId(), id -> new ArrayList<>()).add(like.getUserId());
+            }
+
+            List<NovelKeyProjection> keys = novelQueryRepository.findOpenNovelKeys();
+            List<NovelSimilarityIndex.NovelFeatures> features = new ArrayList<>(keys.size());
+            for (NovelKeyProjection key : keys) {
+                List<Long> novelReaders = readers.getOrDefault(key.getId(), List.of());
+                features.add(new NovelSimilarityIndex.NovelFeatures(key.getId(), key.getSlug(), key.getAuthorId(),
+                    genres.get(key.getId()), novelReaders.stream().mapToLong(Long::longValue).toArray()));
+            }
+            index = NovelSimilarityIndex.build(features);
+            log.info("Rebuilt novel similarity index with {} novels in {} ms", index.size(),
+                System.currentTimeMillis() - startedAt);
+        }
+    }
+
+    // Gộp nhiều thay đổi liên tiếp thành một lần dựng lại
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNovelChanged(NovelChangedEvent event) {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(() -> {
+                rebuildQueued.set(false);
+                rebuild();
+            });
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.spring3.oauth.jwt.configurations.NovelTrendingProperties;
+import com.spring3.oauth.jwt.entity.enums.NovelActivityTypeEnum;
+import com.spring3.oauth.jwt.events.NovelActivityEvent;
+import com.spring3.oauth.jwt.helpers.HotScoreBoard;
+import com.spring3.oauth.jwt.helpers.NovelCursor;
+import com.spring3.oauth.jwt.helpers.RankingSnapshots;
+import com.spring3.oauth.jwt.models.dtos.CursorPagedResponseDTO;
+import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
+import com.spring3.oauth.jwt.models.projections.NovelActivityProjection;
+import com.spring3.oauth.jwt.repositories.CommentRepository;
+import com.spring3.oauth.jwt.repositories.UserLikeRepository;
+import com.spring3.oauth.jwt.repositories.UserRateRepository;
+import com.spring3.oauth.jwt.services.NovelReadModelService;
+import com.spring3.oauth.jwt.services.NovelTrendingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+// Xếp hạng trending theo điểm "hot" giảm dần theo thời gian thay cho ORDER BY likeCounts mỗi request.
+// Bảng xếp hạng được tính lại định kỳ thành mảng id, mỗi request chỉ cắt đúng trang cần lấy.
+// Phân trang cursor đi trên bản chụp xếp hạng (RankingSnapshots); bảng theo lượt đọc được chụp cùng lúc.
+@Service
+@Slf4j
+public class NovelTrendingServiceImpl implements NovelTrendingService {
+
+    // Số bản xếp hạng được giữ lại (~10 phút với chu kỳ mặc định) để cursor đang cuộn vẫn đi tiếp đúng vị trí
+    private static final int RETAINED_RANKINGS = 10;
+
+    private final NovelReadModelService novelReadModelService;
+    private final UserLikeRepository userLikeRepository;
+    private final UserRateRepository userRateRepository;
+    private final CommentRepository commentRepository;
+    private final NovelTrendingProperties properties;
+    private final HotScoreBoard scoreBoard;
+
+    private final RankingSnapshots hotRanking = new RankingSnapshots(RETAINED_RANKINGS);
+    private final RankingSnapshots topReadRanking = new RankingSnapshots(RETAINED_RANKINGS);
+    private final Object rankingLock = new Object();
+
+    public NovelTrendingServiceImpl(NovelReadModelService novelReadModelService,
+                                    UserLikeRepository userLikeRepository,
+                                    UserRateRepository userRateRepository,
+                                    CommentRepository commentRepository,
+                                    NovelTrendingProperties properties) {
+        this.novelReadModelService = novelReadModelService;
+        this.userLikeRepository = userLikeRepository;
+        this.userRateRepository = userRateRepository;
+        this.commentRepository = commentRepository;
+        this.properties = properties;
+        this.scoreBoard = new HotScoreBoard(properties.getHalfLife().toMillis(), System.currentTimeMillis());
+    }
+
+    @Override
+    public Page<NovelResponseDTO> getTrending(Pageable pageable) {
+        int[] current = getRanking();
+        int from = (int) Math.min(pageable.getOffset(), current.length);
+        int to = Math.min(from + pageable.getPageSize(), current.length);
+        List<Integer> ids = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ids.add(current[i]);
+        }
+        return new PageImpl<>(novelReadModelService.getAllByIds(ids), pageable, current.length);
+    }
+
+    @Override
+    public CursorPagedResponseDTO getTrendingAfter(NovelCursor cursor, int limit) {
+        getRanking();
+        return toCursorPage(hotRanking.slice(cursor, limit));
+    }
+
+    // Bản chụp thứ tự theo lượt đọc: cursor không trỏ vào read_counts (thay đổi sau mỗi lần flush bộ đếm)
+    @Override
+    public CursorPagedResponseDTO getTopReadAfter(NovelCursor cursor, int limit) {
+        if (topReadRanking.current() == null) {
+            refreshRanking();
+        }
+        return toCursorPage(topReadRanking.slice(cursor, limit));
+    }
+
+    @Override
+    public void recordActivity(int novelId, NovelActivityTypeEnum type) {
+        scoreBoard.add(novelId, properties.getWeight(type), System.currentTimeMillis());
+    }
+
+    @Override
+    public double getHotScore(int novelId) {
+        return scoreBoard.getScore(novelId, System.currentTimeMillis());
+    }
+
+    // Truyện có điểm hot đứng trước, phần còn lại (chưa có hoạt động gần đây) xếp theo lượt like
+    @Override
+    @Scheduled(fixedDelayString = "${novel.trending.refresh-interval-ms:60000}",
+        initialDelayString = "${novel.trending.refresh-interval-ms:60000}")
+    public void refreshRanking() {
+        synchronized (rankingLock) {
+            int[] hot = scoreBoard.rank(System.currentTimeMillis());
+            List<Integer> openByLikes = novelReadModelService.getOpenIdsByLikeCounts();
+            BitSet open = new BitSet();
+            openByLikes.forEach(open::set);
+
+            int[] result = new int[openByLikes.size()];
+            int size = 0;
+            BitSet placed = new BitSet();
+            for (int novelId : hot) {
+                if (open.get(novelId)) {
+                    result[size++] = novelId;
+                    placed.set(novelId);
+                }
+            }
+            for (int novelId : openByLikes) {
+                if (!placed.get(novelId)) {
+                    result[size++] = novelId;
+                }
+            }
+            hotRanking.publish(Arrays.copyOf(result, size));
+            topReadRanking.publish(novelReadModelService.getOpenIdsByReadCounts().stream()
+                .mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    // Điểm hot không lưu xuống DB: khi khởi động tính lại từ lịch sử like / đánh giá / bình luận gần đây
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadHistory() {
+        LocalDateTime since = LocalDateTime.now()
+            .minus(properties.getHalfLife().multipliedBy(properties.getBootstrapHalfLives()));
+        addHistory(userLikeRepository.findActivitySince(since), NovelActivityTypeEnum.LIKE);
+        addHistory(userRateRepository.findActivitySince(since), NovelActivityTypeEnum.RATE);
+        addHistory(commentRepository.findActivitySince(since), NovelActivityTypeEnum.COMMENT);
+        refreshRanking();
+        log.info("Loaded trending scores for {} novels since {}", scoreBoard.size(), since);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNovelActivity(NovelActivityEvent event) {
+        recordActivity(event.getNovelId(), event.getType());
+    }
+
+    private int[] getRanking() {
+        int[] current = hotRanking.current();
+        if (current == null) {
+            refreshRanking();
+            current = hotRanking.current();
+        }
+        return current;
+    }
+
+    private CursorPagedResponseDTO toCursorPage(RankingSnapshots.Slice slice) {
+        return new CursorPagedResponseDTO(novelReadModelService.getAllByIds(slice.getIds()), slice.getNextCursor(),
+            slice.isHasNext());
+    }
+
+    private void addHistory(List<NovelActivityProjection> activities, NovelActivityTypeEnum type) {
+        double weight = properties.getWeight(type);
+        for (NovelActivityProjection activity : activities) {
+            if (activity.getNovelId() == null || activity.getOccurredAt() == null) {
+                continue;
+            }
+            long occurredAt = activity.getOccurredAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            scoreBoard.add(activity.getNovelId(), weight, occurredAt);
+        }
+    }
+}
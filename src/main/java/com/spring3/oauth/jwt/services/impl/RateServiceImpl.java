@@ -3,6 +3,10 @@ package com.spring3.oauth.jwt.services.impl;
 import com.spring3.oauth.jwt.entity.Novel;
 import com.spring3.oauth.jwt.entity.Rate;
 import com.spring3.oauth.jwt.entity.UserRate;
+import com.spring3.oauth.jwt.entity.enums.NovelActivityTypeEnum;
+import com.spring3.oauth.jwt.events.NovelActivityEvent;
+import com.spring3.oauth.jwt.events.NovelChangedEvent;
+import com.spring3.oauth.jwt.events.UserNovelInteractionEvent;
 import com.spring3.oauth.jwt.exception.NotFoundException;
 import com.spring3.oauth.jwt.models.dtos.RateResponseDTO;
 import com.spring3.oauth.jwt.models.request.UpdateRatePointRequest;
@@ -10,9 +14,11 @@ import com.spring3.oauth.jwt.repositories.NovelRepository;
 import com.spring3.oauth.jwt.repositories.RateRepository;
 import com.spring3.oauth.jwt.repositories.UserRateRepository;
 import com.spring3.oauth.jwt.repositories.UserRepository;
+import com.spring3.oauth.jwt.services.NovelResolverService;
 import com.spring3.oauth.jwt.services.RateService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,17 +36,18 @@ public class RateServiceImpl implements RateService {
     private final NovelRepository novelRepository;
     private final UserRateRepository userRateRepository;
     private final UserRepository userRepository;
+    private final NovelResolverService novelResolverService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public RateResponseDTO updateRatePoint(String slug, UpdateRatePointRequest request, long userId) {
 
-        Novel novel = novelRepository.findBySlug(slug);
-        if (novel == null) {
-            throw new NotFoundException("Novel not found");
-        }
+        int novelId = novelResolverService.findIdBySlug(slug)
+            .orElseThrow(() -> new NotFoundException("Novel not found"));
+        Novel novel = novelRepository.getReferenceById(novelId);
 
         // Kiểm tra và cập nhật rate của user
-        UserRate userRate = userRateRepository.findByUser_IdAndNovel_Slug(userId, slug)
+        UserRate userRate = userRateRepository.findByUser_IdAndNovel_Id(userId, novelId)
             .orElse(new UserRate());
 
         if (userRate.getId() != null) {
@@ -54,6 +61,8 @@ public class RateServiceImpl implements RateService {
         userRate.setRatePoint(request.getRatePoint());
         userRate.setRatedAt(LocalDateTime.now());
         userRateRepository.save(userRate);
+        eventPublisher.publishEvent(new NovelActivityEvent(novelId, NovelActivityTypeEnum.RATE));
+        eventPublisher.publishEvent(UserNovelInteractionEvent.ofRate(userId, novelId, request.getRatePoint()));
 
         Rate rate = rateRepository.findByNovel_Slug(slug);
 
@@ -76,7 +85,10 @@ public class RateServiceImpl implements RateService {
 
         // Cập nhật lại giá trị rate
         rate.setRate(newAverageRate);
-        novel.setAverageRatings(newAverageRate);
+        // UPDATE trực tiếp một cột, không cần load truyện chỉ để sửa điểm trung bình
+        novelRepository.updateAverageRatings(novelId, newAverageRate);
+        // Điểm trung bình nằm trong các read model / snapshot trong bộ nhớ: làm mới sau commit
+        eventPublisher.publishEvent(new NovelChangedEvent(novelId, false));
 
         // Lưu rate sau khi cập nhật
         rateRepository.save(rate);
@@ -85,7 +97,7 @@ public class RateServiceImpl implements RateService {
             .id(rate.getId())
             .rateQuantity(rate.getRateQuantity())
             .rate(rate.getRate())
-            .slug(rate.getNovel().getSlug())
+            .slug(slug)
             .userRate(userRate.getRatePoint())
             .build();
     }
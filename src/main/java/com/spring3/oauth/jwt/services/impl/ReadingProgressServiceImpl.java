@@ -1,19 +1,22 @@
 package com.spring3.oauth.jwt.services.impl;
 
 import com.spring3.oauth.jwt.entity.*;
+import com.spring3.oauth.jwt.entity.enums.UserInteractionTypeEnum;
+import com.spring3.oauth.jwt.events.UserNovelInteractionEvent;
 import com.spring3.oauth.jwt.exception.NotFoundException;
 import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
 import com.spring3.oauth.jwt.models.dtos.ReadingLibraryResponseDTO;
 import com.spring3.oauth.jwt.models.dtos.ReadingProgressResponseDTO;
 import com.spring3.oauth.jwt.models.request.UpsertReadingProgressRequest;
 import com.spring3.oauth.jwt.repositories.ChapterRepository;
-import com.spring3.oauth.jwt.repositories.NovelRepository;
 import com.spring3.oauth.jwt.repositories.ReadingLibraryRepository;
 import com.spring3.oauth.jwt.repositories.UserReadingProgressRepository;
+import com.spring3.oauth.jwt.services.NovelResolverService;
 import com.spring3.oauth.jwt.services.ReadingProgressService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.catalina.User;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,19 +31,18 @@ public class ReadingProgressServiceImpl implements ReadingProgressService {
     private final UserReadingProgressRepository userReadingProgressRepository;
     private final ReadingLibraryRepository readingLibraryRepository;
     private final ChapterRepository chapterRepository;
-    private final NovelRepository novelRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NovelResolverService novelResolverService;
 
     @Override
     public ReadingProgressResponseDTO saveReadingProgress(UpsertReadingProgressRequest request) {
         ReadingLibrary readingLibrary = readingLibraryRepository.findById(request.getReadingLibraryId())
             .orElseThrow(() -> new NotFoundException("Reading library not found"));
 
-        Novel novel = novelRepository.findBySlug(request.getSlug());
-        if (novel == null) {
-            throw new NotFoundException("Novel not found");
-        }
+        int novelId = novelResolverService.findIdBySlug(request.getSlug())
+            .orElseThrow(() -> new NotFoundException("Novel not found"));
 
-        if (userReadingProgressRepository.findByNovel_SlugAndReadingLibrary_Id(novel.getSlug(), readingLibrary.getId()) != null) {
+        if (userReadingProgressRepository.findByNovel_SlugAndReadingLibrary_Id(request.getSlug(), readingLibrary.getId()) != null) {
             throw new IllegalArgumentException("Reading progress already exists");
         }
 
@@ -48,16 +50,23 @@ public class ReadingProgressServiceImpl implements ReadingProgressService {
         Chapter chapter = chapterRepository.findById(request.getChapterId())
             .orElseThrow(() -> new NotFoundException("Chapter not found"));
 
-        if (!chapter.getNovel().getSlug().equals(novel.getSlug())) {
+        if (chapter.getNovel().getId() != novelId) {
             throw new NotFoundException("Chapter does not belong to the specified novel");
         }
 
+        // Truyện đã được load sẵn cùng chương, không cần query lại
+        Novel novel = chapter.getNovel();
         UserReadingProgress userReadingProgress = new UserReadingProgress();
         userReadingProgress.setReadingLibrary(readingLibrary);
         userReadingProgress.setNovel(novel);
         userReadingProgress.setLastReadChapter(chapter);
 
-        return convertToDto(userReadingProgressRepository.save(userReadingProgress));
+        ReadingProgressResponseDTO dto = convertToDto(userReadingProgressRepository.save(userReadingProgress));
+        if (readingLibrary.getUser() != null) {
+            eventPublisher.publishEvent(new UserNovelInteractionEvent(readingLibrary.getUser().getId(), novel.getId(),
+                UserInteractionTypeEnum.READING, 1f));
+        }
+        return dto;
     }
 
     @Override
@@ -67,15 +76,13 @@ public class ReadingProgressServiceImpl implements ReadingProgressService {
             throw new NotFoundException("Reading progress not found");
         }
 
-        Novel novel = novelRepository.findBySlug(request.getSlug());
-        if (novel == null) {
-            throw new NotFoundException("Novel not found");
-        }
+        int novelId = novelResolverService.findIdBySlug(request.getSlug())
+            .orElseThrow(() -> new NotFoundException("Novel not found"));
 
         Chapter chapter = chapterRepository.findById(request.getChapterId())
             .orElseThrow(() -> new NotFoundException("Chapter not found"));
 
-        if (!chapter.getNovel().getSlug().equals(novel.getSlug())) {
+        if (chapter.getNovel().getId() != novelId) {
             throw new NotFoundException("Chapter does not belong to the specified novel");
         }
 
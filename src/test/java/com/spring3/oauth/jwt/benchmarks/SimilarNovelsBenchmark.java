@@ -0,0 +1,154 @@
+package com.spring3.oauth.jwt.benchmarks;
+
+import com.spring3.oauth.jwt.helpers.NovelSimilarityIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// So sánh tra cứu truyện tương tự bằng index MinHash / LSH với query SQL đếm thể loại trùng nhau (H2 in-memory).
+// Chạy: mvn test-compile exec:java -Dexec.classpathScope=test
+//       -Dexec.mainClass=com.spring3.oauth.jwt.benchmarks.SimilarNovelsBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimilarNovelsBenchmark {
+
+    private static final int GENRES = 40;
+    private static final int AUTHORS = 2_000;
+    private static final int USERS = 50_000;
+    private static final int LIMIT = 10;
+
+    private static final String GENRE_OVERLAP_SQL =
+        "SELECT ng2.novel_id, COUNT(*) AS overlap " +
+        "FROM novels_genres ng1 " +
+        "JOIN novels_genres ng2 ON ng2.genres_id = ng1.genres_id AND ng2.novel_id <> ng1.novel_id " +
+        "JOIN novels n ON n.id = ng2.novel_id AND n.is_closed = FALSE " +
+        "WHERE ng1.novel_id = ? " +
+        "GROUP BY ng2.novel_id " +
+        "ORDER BY overlap DESC, ng2.novel_id DESC " +
+        "LIMIT " + LIMIT;
+
+    @Param({"5000", "20000"})
+    private int novels;
+
+    private NovelSimilarityIndex index;
+    private Connection connection;
+    private PreparedStatement genreOverlap;
+    private String[] slugs;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        SplittableRandom data = new SplittableRandom(42);
+        slugs = new String[novels];
+        List<NovelSimilarityIndex.NovelFeatures> features = new ArrayList<>(novels);
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:similar-" + novels + ";DB_CLOSE_DELAY=-1");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE novels (id INT PRIMARY KEY, slug VARCHAR(64), author_id INT, is_closed BOOLEAN)");
+            ddl.execute("CREATE TABLE novels_genres (novel_id INT, genres_id INT)");
+        }
+        try (PreparedStatement insertNovel = connection.prepareStatement("INSERT INTO novels VALUES (?, ?, ?, FALSE)");
+             PreparedStatement insertGenre = connection.prepareStatement("INSERT INTO novels_genres VALUES (?, ?)")) {
+            for (int id = 1; id <= novels; id++) {
+                String slug = "novel-" + id;
+                slugs[id - 1] = slug;
+                int authorId = 1 + data.nextInt(AUTHORS);
+
+                // 1-4 thể loại, lệch về các thể loại phổ biến
+                List<String> genres = new ArrayList<>();
+                int genreCount = 1 + data.nextInt(4);
+                while (genres.size() < genreCount) {
+                    int genre = (int) (GENRES * Math.pow(data.nextDouble(), 2));
+                    if (!genres.contains("genre-" + genre)) {
+                        genres.add("genre-" + genre);
+                        insertGenre.setInt(1, id);
+                        insertGenre.setInt(2, genre);
+                        insertGenre.addBatch();
+                    }
+                }
+
+                // Người đọc theo phân phối đuôi dài: phần lớn truyện ít like
+                int readerCount = (int) (200 * Math.pow(data.nextDouble(), 4));
+                long[] readers = new long[readerCount];
+                for (int i = 0; i < readerCount; i++) {
+                    readers[i] = 1 + data.nextInt(USERS);
+                }
+                features.add(new NovelSimilarityIndex.NovelFeatures(id, slug, authorId, genres, readers));
+
+                insertNovel.setInt(1, id);
+                insertNovel.setString(2, slug);
+                insertNovel.setInt(3, authorId);
+                insertNovel.addBatch();
+            }
+            insertNovel.executeBatch();
+            insertGenre.executeBatch();
+        }
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE INDEX idx_novels_genres_novel ON novels_genres (novel_id, genres_id)");
+            ddl.execute("CREATE INDEX idx_novels_genres_genre ON novels_genres (genres_id, novel_id)");
+        }
+        genreOverlap = connection.prepareStatement(GENRE_OVERLAP_SQL);
+        index = NovelSimilarityIndex.build(features);
+        random = new SplittableRandom(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        genreOverlap.close();
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int[] lshIndex() {
+        return index.findSimilar(slugs[random.nextInt(novels)], LIMIT);
+    }
+
+    @Benchmark
+    public void sqlGenreOverlap(Blackhole blackhole) throws SQLException {
+        genreOverlap.setInt(1, 1 + random.nextInt(novels));
+        try (ResultSet rows = genreOverlap.executeQuery()) {
+            while (rows.next()) {
+                blackhole.consume(rows.getInt(1));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(SimilarNovelsBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
@@ -0,0 +1,177 @@
+package com.spring3.oauth.jwt.benchmarks;
+
+import com.spring3.oauth.jwt.entity.Novel;
+import com.spring3.oauth.jwt.helpers.RefreshableCRUDRepositoryImpl;
+import com.spring3.oauth.jwt.models.projections.NovelRowProjection;
+import com.spring3.oauth.jwt.repositories.NovelQueryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureDataJpa;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// So sánh phân trang kiểu Page (query trang + COUNT) với Slice (query trang lấy thêm 1 dòng, không COUNT)
+// cho /top-read và /search/by-title. Gọi thẳng các phương thức của NovelQueryRepository trên H2 in-memory;
+// schema (kể cả idx_novel_closed_read) do Hibernate sinh từ entity, nên SQL được đo đúng là SQL Hibernate sinh ra.
+// Lưu ý: H2 không đọc theo thứ tự index cho ORDER BY n.readCounts DESC nên topRead* phải sắp xếp cả bảng,
+// chênh lệch Page / Slice ở đây là phần COUNT, không phải thời gian tuyệt đối như trên MySQL.
+// Chạy: mvn test-compile exec:java -Dexec.classpathScope=test
+//       -Dexec.mainClass=com.spring3.oauth.jwt.benchmarks.SliceVsPageBenchmark
+// Bộ 1.000.000 truyện cần khoảng 2 GB heap (MAVEN_OPTS=-Xmx3g).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SliceVsPageBenchmark {
+
+    private static final int AUTHORS = 20_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int PAGES = 50;
+
+    private static final String[] TITLE_WORDS = {"kiếm", "tiên", "hiệp", "đế", "ma", "long", "thần", "vương"};
+
+    // Chỉ dựng tầng JPA như @DataJpaTest, không cần web / security
+    @Configuration
+    @AutoConfigureDataJpa
+    @EntityScan(basePackageClasses = Novel.class)
+    @EnableJpaRepositories(basePackageClasses = NovelQueryRepository.class,
+        repositoryBaseClass = RefreshableCRUDRepositoryImpl.class)
+    static class Config {
+    }
+
+    @Param({"100000", "1000000"})
+    private int novels;
+
+    private ConfigurableApplicationContext context;
+    private NovelQueryRepository novelQueryRepository;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        // Tham số dòng lệnh ghi đè cấu hình MySQL trong application.properties
+        context = new SpringApplicationBuilder(Config.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=jdbc:h2:mem:slice-" + novels + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.main.banner-mode=off");
+        novelQueryRepository = context.getBean(NovelQueryRepository.class);
+
+        SplittableRandom data = new SplittableRandom(42);
+        try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+            try (PreparedStatement insertAuthor = connection.prepareStatement(
+                "INSERT INTO authors (id, name) VALUES (?, ?)")) {
+                for (int id = 1; id <= AUTHORS; id++) {
+                    insertAuthor.setInt(1, id);
+                    insertAuthor.setString(2, "author-" + id);
+                    insertAuthor.addBatch();
+                }
+                insertAuthor.executeBatch();
+            }
+            try (PreparedStatement insertNovel = connection.prepareStatement(
+                "INSERT INTO novels (id, slug, title, author_id, is_closed, read_counts, like_counts, total_chaps) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, 0)")) {
+                for (int id = 1; id <= novels; id++) {
+                    insertNovel.setInt(1, id);
+                    insertNovel.setString(2, "novel-" + id);
+                    insertNovel.setString(3, TITLE_WORDS[data.nextInt(TITLE_WORDS.length)] + " "
+                        + TITLE_WORDS[data.nextInt(TITLE_WORDS.length)] + " " + id);
+                    insertNovel.setInt(4, 1 + data.nextInt(AUTHORS));
+                    insertNovel.setBoolean(5, data.nextInt(20) == 0);
+                    // Lượt đọc theo phân phối đuôi dài
+                    insertNovel.setInt(6, (int) (1_000_000 * Math.pow(data.nextDouble(), 6)));
+                    insertNovel.setInt(7, data.nextInt(10_000));
+                    insertNovel.addBatch();
+                    if (id % 10_000 == 0) {
+                        insertNovel.executeBatch();
+                    }
+                }
+                insertNovel.executeBatch();
+            }
+        }
+        random = new SplittableRandom(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void topReadPage(Blackhole blackhole) {
+        Page<NovelRowProjection> page = novelQueryRepository.findTopRead(
+            PageRequest.of(random.nextInt(PAGES), PAGE_SIZE));
+        consumeRows(page, blackhole);
+        blackhole.consume(page.getTotalElements());
+    }
+
+    @Benchmark
+    public void topReadSlice(Blackhole blackhole) {
+        consumeRows(novelQueryRepository.findTopReadSlice(PageRequest.of(random.nextInt(PAGES), PAGE_SIZE)),
+            blackhole);
+    }
+
+    @Benchmark
+    public void byTitlePage(Blackhole blackhole) {
+        Page<NovelRowProjection> page = novelQueryRepository.findByTitleContaining(
+            TITLE_WORDS[random.nextInt(TITLE_WORDS.length)], PageRequest.of(0, PAGE_SIZE));
+        consumeRows(page, blackhole);
+        blackhole.consume(page.getTotalElements());
+    }
+
+    @Benchmark
+    public void byTitleSlice(Blackhole blackhole) {
+        consumeRows(novelQueryRepository.findByTitleContainingSlice(
+            TITLE_WORDS[random.nextInt(TITLE_WORDS.length)], PageRequest.of(0, PAGE_SIZE)), blackhole);
+    }
+
+    private static void consumeRows(Slice<NovelRowProjection> slice, Blackhole blackhole) {
+        for (NovelRowProjection row : slice) {
+            blackhole.consume(row.getId());
+            blackhole.consume(row.getTitle());
+        }
+        blackhole.consume(slice.hasNext());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(SliceVsPageBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
@@ -0,0 +1,152 @@
+package com.spring3.oauth.jwt.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.spring3.oauth.jwt.helpers.SyntheticAudio.MPEG1_L1_128K_32000;
+import static com.spring3.oauth.jwt.helpers.SyntheticAudio.MPEG1_L2_128K_48000;
+import static com.spring3.oauth.jwt.helpers.SyntheticAudio.MPEG1_L3_128K_44100;
+import static com.spring3.oauth.jwt.helpers.SyntheticAudio.MPEG25_L3_32K_11025;
+import static com.spring3.oauth.jwt.helpers.SyntheticAudio.MPEG2_L3_64K_22050;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AudioFrameReaderTests {
+
+    @Test
+    void mpeg1Layer3WithPaddingAndCrc() {
+        AudioFrameReader frames = new AudioFrameReader(new SyntheticAudio()
+            .mp3(MPEG1_L3_128K_44100, false, false)
+            .mp3(MPEG1_L3_128K_44100, true, false)
+            .mp3(MPEG1_L3_128K_44100, false, true)
+            .mp3(MPEG1_L3_128K_44100, true, true)
+            .toBuffer(), AudioFrameReader.Format.MP3);
+
+        assertThat(readLengths(frames)).containsExactly(417, 418, 417, 418);
+        assertThat(frames.getSkippedBytes()).isZero();
+    }
+
+    @Test
+    void frameMetadata() {
+        AudioFrameReader frames = new AudioFrameReader(new SyntheticAudio().mp3(MPEG1_L3_128K_44100, 2).toBuffer(),
+            AudioFrameReader.Format.MP3);
+
+        assertThat(frames.next()).isTrue();
+        assertThat(frames.getOffset()).isZero();
+        assertThat(frames.getSamples()).isEqualTo(1152);
+        assertThat(frames.getSampleRate()).isEqualTo(44100);
+        assertThat(frames.getChannels()).isEqualTo(2);
+        assertThat(frames.getBitrate()).isBetween(127_000, 129_000);
+        assertThat(frames.next()).isTrue();
+        assertThat(frames.getOffset()).isEqualTo(417);
+        assertThat(frames.next()).isFalse();
+        assertThat(frames.getOffset()).isEqualTo(-1);
+    }
+
+    @Test
+    void mpeg2AndMpeg25Layer3() {
+        AudioFrameReader mpeg2 = new AudioFrameReader(new SyntheticAudio()
+            .mp3(MPEG2_L3_64K_22050, 3).mp3(MPEG2_L3_64K_22050, true, true).toBuffer(), AudioFrameReader.Format.MP3);
+        assertThat(readLengths(mpeg2)).containsExactly(208, 208, 208, 209);
+        assertThat(mpeg2.getSampleRate()).isEqualTo(22050);
+        assertThat(mpeg2.getSamples()).isEqualTo(576);
+
+        AudioFrameReader mpeg25 = new AudioFrameReader(new SyntheticAudio().mp3(MPEG25_L3_32K_11025, 3).toBuffer(),
+            AudioFrameReader.Format.MP3);
+        assertThat(readLengths(mpeg25)).containsExactly(208, 208, 208);
+        assertThat(mpeg25.getSampleRate()).isEqualTo(11025);
+        assertThat(mpeg25.getSamples()).isEqualTo(576);
+    }
+
+    @Test
+    void mpeg1Layer1AndLayer2() {
+        AudioFrameReader layer1 = new AudioFrameReader(new SyntheticAudio()
+            .mp3(MPEG1_L1_128K_32000, 2).mp3(MPEG1_L1_128K_32000, true, false).toBuffer(), AudioFrameReader.Format.MP3);
+        assertThat(readLengths(layer1)).containsExactly(192, 192, 196);
+        assertThat(layer1.getSamples()).isEqualTo(384);
+
+        AudioFrameReader layer2 = new AudioFrameReader(new SyntheticAudio().mp3(MPEG1_L2_128K_48000, 2).toBuffer(),
+            AudioFrameReader.Format.MP3);
+        assertThat(readLengths(layer2)).containsExactly(384, 384);
+        assertThat(layer2.getSampleRate()).isEqualTo(48000);
+        assertThat(layer2.getSamples()).isEqualTo(1152);
+    }
+
+    @Test
+    void leadingId3TagIsSkipped() {
+        AudioFrameReader frames = new AudioFrameReader(new SyntheticAudio()
+            .id3(100).mp3(MPEG1_L3_128K_44100, 2).toBuffer(), AudioFrameReader.Format.MP3);
+
+        assertThat(frames.next()).isTrue();
+        assertThat(frames.getOffset()).isEqualTo(110);
+        assertThat(frames.getSkippedBytes()).isZero();
+    }
+
+    @Test
+    void trailingGarbageAndFalseSyncAreSkipped() {
+        byte[] id3v1 = new byte[128];
+        System.arraycopy("TAG".getBytes(StandardCharsets.US_ASCII), 0, id3v1, 0, 3);
+        // Byte rác chứa sync giả: header hợp lệ nhưng không có frame nào ở đúng chỗ nó trỏ tới để xác nhận.
+        // Rác phải không bắt đầu ngay bằng sync, vì frame liền sau frame trước được tin mà không cần xác nhận
+        byte[] falseSync = {0x12, 0x34, (byte) 0xFF, (byte) 0xFB, (byte) 0x90, 0x00, 0x01, 0x02};
+        AudioFrameReader frames = new AudioFrameReader(new SyntheticAudio()
+            .mp3(MPEG1_L3_128K_44100, 2)
+            .bytes(falseSync)
+            .mp3(MPEG1_L3_128K_44100, 2)
+            .bytes(id3v1)
+            .toBuffer(), AudioFrameReader.Format.MP3);
+
+        assertThat(readOffsets(frames)).containsExactly(0, 417, 842, 1259);
+        assertThat(frames.getSkippedBytes()).isEqualTo(falseSync.length + id3v1.length);
+    }
+
+    @Test
+    void xingFrameIsRecognised() {
+        AudioFrameReader frames = new AudioFrameReader(new SyntheticAudio()
+            .xing().mp3(MPEG1_L3_128K_44100, 1).toBuffer(), AudioFrameReader.Format.MP3);
+
+        assertThat(frames.next()).isTrue();
+        assertThat(frames.isInfoFrame()).isTrue();
+        assertThat(frames.next()).isTrue();
+        assertThat(frames.isInfoFrame()).isFalse();
+    }
+
+    @Test
+    void adtsFramesWithAndWithoutCrc() {
+        AudioFrameReader frames = new AudioFrameReader(new SyntheticAudio()
+            .adts(371, false).adts(372, true).adts(300, false).bytes(new byte[]{1, 2, 3}).toBuffer(),
+            AudioFrameReader.Format.ADTS);
+
+        assertThat(readLengths(frames)).containsExactly(371, 372, 300);
+        assertThat(frames.getSampleRate()).isEqualTo(44100);
+        assertThat(frames.getChannels()).isEqualTo(2);
+        assertThat(frames.getSamples()).isEqualTo(1024);
+        assertThat(frames.getSkippedBytes()).isEqualTo(3);
+        assertThat(frames.isInfoFrame()).isFalse();
+    }
+
+    @Test
+    void formatFromContentType() {
+        assertThat(AudioFrameReader.formatOf("audio/mpeg")).isEqualTo(AudioFrameReader.Format.MP3);
+        assertThat(AudioFrameReader.formatOf("audio/aac")).isEqualTo(AudioFrameReader.Format.ADTS);
+        assertThat(AudioFrameReader.formatOf("audio/mp4")).isNull();
+    }
+
+    private static List<Integer> readLengths(AudioFrameReader frames) {
+        List<Integer> lengths = new ArrayList<>();
+        while (frames.next()) {
+            lengths.add(frames.getLength());
+        }
+        return lengths;
+    }
+
+    private static List<Integer> readOffsets(AudioFrameReader frames) {
+        List<Integer> offsets = new ArrayList<>();
+        while (frames.next()) {
+            offsets.add(frames.getOffset());
+        }
+        return offsets;
+    }
+}
@@ -0,0 +1,93 @@
+package com.spring3.oauth.jwt.helpers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.spring3.oauth.jwt.helpers.SyntheticAudio.MPEG1_L3_128K_44100;
+import static com.spring3.oauth.jwt.helpers.SyntheticAudio.MPEG2_L3_64K_22050;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AudioSeekTableTests {
+
+    // ID3 50 byte + header 10 byte, rồi frame Xing 417 byte
+    private static final int FIRST_AUDIO_FRAME = 60 + 417;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void marksFrameContainingEachInterval() throws IOException {
+        Path source = write(new SyntheticAudio().id3(50).xing().mp3(MPEG1_L3_128K_44100, 100).toByteArray());
+
+        AudioSeekTable table = AudioSeekTable.scan(source, AudioFrameReader.Format.MP3, 1000);
+
+        // Mỗi frame 1152 / 44100 s ~ 26.12 ms: giây 1 nằm trong frame 38, giây 2 trong frame 76
+        assertThat(table.getOffsets()).containsExactly(FIRST_AUDIO_FRAME, FIRST_AUDIO_FRAME + 38 * 417,
+            FIRST_AUDIO_FRAME + 76 * 417);
+        assertThat(table.getDurationMillis()).isEqualTo(2612);
+        assertThat(table.getBitrate()).isBetween(127_000, 128_000);
+    }
+
+    @Test
+    void offsetAtClampsToTable() throws IOException {
+        Path source = write(new SyntheticAudio().mp3(MPEG2_L3_64K_22050, 200).toByteArray());
+
+        AudioSeekTable table = AudioSeekTable.scan(source, AudioFrameReader.Format.MP3, 500);
+
+        // MPEG-2: 576 mẫu ở 22.05 kHz ~ 26.12 ms mỗi frame, 208 byte
+        assertThat(table.offsetAt(-10)).isZero();
+        assertThat(table.offsetAt(499)).isZero();
+        assertThat(table.offsetAt(1750)).isEqualTo(57 * 208);
+        assertThat(table.offsetAt(Long.MAX_VALUE)).isEqualTo(table.getOffsets()[table.getOffsets().length - 1]);
+    }
+
+    @Test
+    void encodeDecodeRoundTrip() throws IOException {
+        SyntheticAudio audio = new SyntheticAudio().id3(20);
+        for (int i = 0; i < 400; i++) {
+            audio.mp3(MPEG1_L3_128K_44100, i % 3 == 0, i % 5 == 0);
+        }
+        AudioSeekTable table = AudioSeekTable.scan(write(audio.toByteArray()), AudioFrameReader.Format.MP3, 250);
+
+        byte[] encoded = table.encode();
+        AudioSeekTable decoded = AudioSeekTable.decode(encoded);
+
+        assertThat(decoded.getIntervalMillis()).isEqualTo(250);
+        assertThat(decoded.getOffsets()).containsExactly(table.getOffsets());
+        // Hiệu offset ~ 10 frame ~ 4 KB nên mỗi mốc chỉ tốn 2 byte
+        assertThat(encoded.length).isLessThan(4 + table.getOffsets().length * 2 + 1);
+    }
+
+    @Test
+    void scansAdts() throws IOException {
+        SyntheticAudio audio = new SyntheticAudio();
+        for (int i = 0; i < 100; i++) {
+            audio.adts(400, i % 2 == 1);
+        }
+
+        AudioSeekTable table = AudioSeekTable.scan(write(audio.toByteArray()), AudioFrameReader.Format.ADTS, 1000);
+
+        // 1024 / 44100 s ~ 23.22 ms: giây 1 nằm trong frame 43
+        assertThat(table.getOffsets()).containsExactly(0L, 43 * 400L, 86 * 400L);
+        assertThat(table.getDurationMillis()).isEqualTo(2322);
+    }
+
+    @Test
+    void rejectsCorruptTableAndFilesWithoutFrames() throws IOException {
+        assertThatThrownBy(() -> AudioSeekTable.decode(new byte[]{(byte) 0xE8, 0x07, 0x05, 0x01}))
+            .isInstanceOf(IllegalArgumentException.class);
+        Path text = write("plain text, no frames".getBytes(StandardCharsets.US_ASCII));
+        assertThatThrownBy(() -> AudioSeekTable.scan(text, AudioFrameReader.Format.MP3, 1000))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Path write(byte[] bytes) throws IOException {
+        return Files.write(directory.resolve("source"), bytes);
+    }
+}
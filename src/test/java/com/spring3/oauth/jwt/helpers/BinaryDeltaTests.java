@@ -0,0 +1,93 @@
+package com.spring3.oauth.jwt.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryDeltaTests {
+
+    private static final String CHAPTER = paragraphs(40);
+
+    @Test
+    void emptyTexts() {
+        assertRoundTrip("", "");
+        assertRoundTrip("", CHAPTER);
+        assertRoundTrip(CHAPTER, "");
+    }
+
+    @Test
+    void textsShorterThanOneBlock() {
+        assertRoundTrip("abc", "abd");
+        assertRoundTrip("short", CHAPTER);
+    }
+
+    @Test
+    void identicalTextIsOneCopy() {
+        byte[] delta = assertRoundTrip(CHAPTER, CHAPTER);
+
+        // 2 varint độ dài + một lệnh COPY
+        assertThat(delta.length).isLessThan(16);
+    }
+
+    @Test
+    void prefixOnlyChange() {
+        byte[] delta = assertRoundTrip(CHAPTER, "<p>Lời tựa mới của tác giả.</p>" + CHAPTER);
+
+        assertThat(delta.length).isLessThan(100);
+    }
+
+    @Test
+    void suffixOnlyChange() {
+        byte[] delta = assertRoundTrip(CHAPTER, CHAPTER.substring(0, CHAPTER.length() - 50) + "<p>Hết chương.</p>");
+
+        assertThat(delta.length).isLessThan(100);
+    }
+
+    @Test
+    void editInTheMiddle() {
+        int middle = CHAPTER.length() / 2;
+        byte[] delta = assertRoundTrip(CHAPTER,
+            CHAPTER.substring(0, middle) + "<p>Đoạn chèn thêm.</p>" + CHAPTER.substring(middle + 30));
+
+        assertThat(delta.length).isLessThan(120);
+    }
+
+    @Test
+    void fullyRewrittenText() {
+        byte[] base = CHAPTER.getBytes(StandardCharsets.UTF_8);
+        byte[] target = new byte[base.length];
+        new Random(7).nextBytes(target);
+
+        assertThat(BinaryDelta.apply(base, BinaryDelta.encode(base, target))).isEqualTo(target);
+    }
+
+    @Test
+    void rejectsDeltaForAnotherBase() {
+        byte[] delta = BinaryDelta.encode(bytes(CHAPTER), bytes(CHAPTER + "x"));
+
+        assertThatThrownBy(() -> BinaryDelta.apply(bytes(CHAPTER + "yy"), delta))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static byte[] assertRoundTrip(String base, String target) {
+        byte[] delta = BinaryDelta.encode(bytes(base), bytes(target));
+        assertThat(new String(BinaryDelta.apply(bytes(base), delta), StandardCharsets.UTF_8)).isEqualTo(target);
+        return delta;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String paragraphs(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append("<p>Đoạn ").append(i).append(": chàng đi qua cầu, gió thổi lạnh ngắt, trăng soi bóng nước.</p>\n");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,176 @@
+package com.spring3.oauth.jwt.helpers;
+
+import com.spring3.oauth.jwt.helpers.ChapterSegmentStore.Location;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChapterSegmentStoreTests {
+
+    private static final long SEGMENT_BYTES = 1 << 20;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendAndReadRoundTrip() throws IOException {
+        try (ChapterSegmentStore store = new ChapterSegmentStore(directory, SEGMENT_BYTES)) {
+            String first = "<p>Chương một: trăng soi bóng nước.</p>".repeat(50);
+            Location firstLocation = store.append(1, ChapterSegmentStore.compress(first));
+            store.sync();
+
+            assertThat(firstLocation.getSegment()).isEqualTo(1);
+            assertThat(firstLocation.getOffset()).isEqualTo(16);
+            assertThat(ChapterSegmentStore.decompress(store.read(firstLocation))).isEqualTo(first);
+
+            // Segment đang ghi đã được map với kích thước cũ: đọc bản ghi mới phải map lại
+            String second = "<p>Chương hai.</p>";
+            Location secondLocation = store.append(2, ChapterSegmentStore.compress(second));
+            store.sync();
+
+            assertThat(secondLocation.getOffset())
+                .isEqualTo(firstLocation.getOffset() + firstLocation.getLength() + 16);
+            assertThat(ChapterSegmentStore.decompress(store.read(secondLocation))).isEqualTo(second);
+            assertThat(ChapterSegmentStore.decompress(store.read(firstLocation))).isEqualTo(first);
+        }
+    }
+
+    @Test
+    void readIsAReadOnlyViewOfThePayload() throws IOException {
+        try (ChapterSegmentStore store = new ChapterSegmentStore(directory, SEGMENT_BYTES)) {
+            byte[] payload = randomBytes(300, 1);
+            Location location = store.append(7, payload);
+            store.sync();
+
+            ByteBuffer view = store.read(location);
+
+            assertThat(view.isReadOnly()).isTrue();
+            assertThat(view.remaining()).isEqualTo(300);
+            byte[] copy = new byte[view.remaining()];
+            view.duplicate().get(copy);
+            assertThat(copy).isEqualTo(payload);
+        }
+    }
+
+    @Test
+    void corruptedByteFailsTheChecksum() throws IOException {
+        Location location;
+        try (ChapterSegmentStore store = new ChapterSegmentStore(directory, SEGMENT_BYTES)) {
+            location = store.append(1, ChapterSegmentStore.compress("<p>Nội dung sẽ bị hỏng.</p>"));
+        }
+        try (FileChannel file = FileChannel.open(directory.resolve("chapters-000001.seg"), StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            long position = location.getOffset() + location.getLength() / 2;
+            file.read(one, position);
+            one.put(0, (byte) (one.get(0) ^ 0x01)).rewind();
+            file.write(one, position);
+        }
+
+        try (ChapterSegmentStore store = new ChapterSegmentStore(directory, SEGMENT_BYTES)) {
+            assertThatThrownBy(() -> store.read(location))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("checksum mismatch");
+        }
+    }
+
+    @Test
+    void truncatedSegmentIsReported() throws IOException {
+        try (ChapterSegmentStore store = new ChapterSegmentStore(directory, SEGMENT_BYTES)) {
+            Location location = store.append(1, randomBytes(100, 2));
+            Location beyondEnd = new Location(location.getSegment(), location.getOffset() + 50, 100,
+                location.getCrc());
+
+            assertThatThrownBy(() -> store.read(beyondEnd))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("truncated");
+        }
+    }
+
+    @Test
+    void rollsOverToANewSegment() throws IOException {
+        List<Location> locations = new ArrayList<>();
+        List<byte[]> payloads = new ArrayList<>();
+        // 3 bản ghi 316 byte vừa một segment 1000 byte
+        try (ChapterSegmentStore store = new ChapterSegmentStore(directory, 1000)) {
+            for (int i = 0; i < 10; i++) {
+                byte[] payload = randomBytes(300, i);
+                payloads.add(payload);
+                locations.add(store.append(i, payload));
+            }
+            store.sync();
+
+            assertThat(locations).extracting(Location::getSegment)
+                .containsExactly(1, 1, 1, 2, 2, 2, 3, 3, 3, 4);
+            assertThat(locations.get(3).getOffset()).isEqualTo(16);
+            for (int i = 0; i < 10; i++) {
+                assertThat(bytes(store.read(locations.get(i)))).isEqualTo(payloads.get(i));
+            }
+            // Bản ghi lớn hơn cả segment vẫn được ghi, một mình một segment
+            Location large = store.append(10, randomBytes(5000, 10));
+            assertThat(large.getSegment()).isEqualTo(5);
+            assertThat(store.append(11, randomBytes(10, 11)).getSegment()).isEqualTo(6);
+        }
+        assertThat(Files.size(directory.resolve("chapters-000001.seg"))).isEqualTo(3 * 316);
+    }
+
+    @Test
+    void reopenContinuesTheLastSegment() throws IOException {
+        Location first;
+        Location last;
+        try (ChapterSegmentStore store = new ChapterSegmentStore(directory, 1000)) {
+            first = store.append(1, randomBytes(300, 1));
+            store.append(2, randomBytes(300, 2));
+            store.append(3, randomBytes(300, 3));
+            last = store.append(4, randomBytes(300, 4));
+        }
+        assertThat(last.getSegment()).isEqualTo(2);
+
+        try (ChapterSegmentStore store = new ChapterSegmentStore(directory, 1000)) {
+            assertThat(bytes(store.read(first))).isEqualTo(randomBytes(300, 1));
+            assertThat(bytes(store.read(last))).isEqualTo(randomBytes(300, 4));
+
+            // Ghi tiếp ngay sau bản ghi cuối của segment cao nhất
+            Location next = store.append(5, randomBytes(300, 5));
+            assertThat(next.getSegment()).isEqualTo(2);
+            assertThat(next.getOffset()).isEqualTo(316 + 16);
+            assertThat(bytes(store.read(next))).isEqualTo(randomBytes(300, 5));
+        }
+    }
+
+    @Test
+    void strayFilesAreIgnoredOnOpen() throws IOException {
+        Files.write(directory.resolve("chapters-old.seg"), new byte[]{1, 2, 3});
+        Files.write(directory.resolve("chapters-99999999999.seg"), new byte[]{1, 2, 3});
+        Files.write(directory.resolve("chapters-000003.seg.bak"), new byte[]{1, 2, 3});
+        Files.createFile(directory.resolve("chapters-000002.seg"));
+
+        try (ChapterSegmentStore store = new ChapterSegmentStore(directory, SEGMENT_BYTES)) {
+            assertThat(store.append(1, randomBytes(10, 1)).getSegment()).isEqualTo(2);
+        }
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,93 @@
+package com.spring3.oauth.jwt.helpers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.spring3.oauth.jwt.helpers.SyntheticAudio.MPEG1_L3_128K_44100;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HlsSegmenterTests {
+
+    // Tag ID3 chứa PTS ở đầu mỗi segment: header 10 byte + frame PRIV (10 byte header, owner + '\0', 8 byte PTS)
+    private static final int TIMESTAMP_TAG_SIZE = 73;
+    private static final double MP3_FRAME_SECONDS = 1152 / 44100.0;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void cutsMp3AtFrameBoundariesWithTimestampTags() throws IOException {
+        byte[] audio = new SyntheticAudio().id3(50).xing().mp3(MPEG1_L3_128K_44100, 99).toByteArray();
+        Path source = write(audio);
+
+        HlsSegmenter.Result result = HlsSegmenter.segment(source, AudioFrameReader.Format.MP3,
+            directory.resolve("hls"), "/hls/7/", "mp3", 1.0);
+
+        // Frame Xing không tính thời lượng: 39 frame đầu vượt 1 giây, còn lại 21 frame
+        assertThat(result.getSegments()).isEqualTo(3);
+        assertThat(result.getDurationSeconds()).isCloseTo(99 * MP3_FRAME_SECONDS, within(1e-9));
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        long[] expectedPts = {0, Math.round(39 * MP3_FRAME_SECONDS * 90_000), Math.round(78 * MP3_FRAME_SECONDS * 90_000)};
+        for (int i = 0; i < 3; i++) {
+            byte[] segment = Files.readAllBytes(directory.resolve("hls").resolve(HlsSegmenter.segmentFileName(i, "mp3")));
+            assertThat(new String(segment, 0, 3, StandardCharsets.US_ASCII)).isEqualTo("ID3");
+            assertThat(ByteBuffer.wrap(segment, TIMESTAMP_TAG_SIZE - Long.BYTES, Long.BYTES).getLong())
+                .isEqualTo(expectedPts[i]);
+            assertThat(segment[TIMESTAMP_TAG_SIZE] & 0xFF).isEqualTo(0xFF);
+            frames.write(segment, TIMESTAMP_TAG_SIZE, segment.length - TIMESTAMP_TAG_SIZE);
+        }
+        // Mọi frame được copy nguyên vẹn, đúng thứ tự; tag ID3 của file gốc bị bỏ
+        assertThat(frames.toByteArray()).isEqualTo(Arrays.copyOfRange(audio, 60, audio.length));
+    }
+
+    @Test
+    void writesVodPlaylist() throws IOException {
+        Path source = write(new SyntheticAudio().mp3(MPEG1_L3_128K_44100, 100).toByteArray());
+
+        HlsSegmenter.segment(source, AudioFrameReader.Format.MP3, directory, "/hls/7/", "mp3", 1.0);
+
+        List<String> playlist = Files.readAllLines(directory.resolve(HlsSegmenter.PLAYLIST_FILE));
+        assertThat(playlist).startsWith("#EXTM3U").endsWith("#EXT-X-ENDLIST");
+        assertThat(playlist).contains("#EXT-X-PLAYLIST-TYPE:VOD", "#EXT-X-TARGETDURATION:2",
+            "#EXTINF:1.019,", "#EXTINF:0.575,", "/hls/7/00000.mp3", "/hls/7/00001.mp3", "/hls/7/00002.mp3");
+        assertThat(playlist).filteredOn(line -> line.startsWith("#EXTINF")).hasSize(3);
+    }
+
+    @Test
+    void segmentsAdts() throws IOException {
+        SyntheticAudio audio = new SyntheticAudio();
+        for (int i = 0; i < 50; i++) {
+            audio.adts(300 + i, i % 2 == 0);
+        }
+        Path source = write(audio.toByteArray());
+
+        HlsSegmenter.Result result = HlsSegmenter.segment(source, AudioFrameReader.Format.ADTS, directory, "", "aac", 0.5);
+
+        // 22 frame 1024 mẫu ở 44.1 kHz vượt 0.5 giây
+        assertThat(result.getSegments()).isEqualTo(3);
+        assertThat(result.getDurationSeconds()).isCloseTo(50 * 1024 / 44100.0, within(1e-9));
+    }
+
+    @Test
+    void rejectsFileWithoutFrames() throws IOException {
+        Path source = write("not audio at all".getBytes(StandardCharsets.US_ASCII));
+
+        assertThatThrownBy(() -> HlsSegmenter.segment(source, AudioFrameReader.Format.MP3, directory, "", "mp3", 1.0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Path write(byte[] bytes) throws IOException {
+        return Files.write(directory.resolve("source"), bytes);
+    }
+}
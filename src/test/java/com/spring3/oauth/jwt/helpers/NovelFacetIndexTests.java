@@ -0,0 +1,164 @@
+package com.spring3.oauth.jwt.helpers;
+
+import com.spring3.oauth.jwt.entity.enums.NovelStatusEnum;
+import com.spring3.oauth.jwt.helpers.NovelFacetIndex.NovelFacets;
+import com.spring3.oauth.jwt.helpers.NovelFacetIndex.Result;
+import com.spring3.oauth.jwt.helpers.NovelFacetIndex.SortField;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NovelFacetIndexTests {
+
+    private static final NovelFacetIndex INDEX = NovelFacetIndex.build(List.of(
+        novel(1, NovelStatusEnum.ONGOING, false, 10, 100, 1, 2),
+        novel(2, NovelStatusEnum.COMPLETED, false, 30, 50, 2),
+        novel(3, NovelStatusEnum.ONGOING, true, 20, 300, 1, 3),
+        novel(70, NovelStatusEnum.DROPPED, false, 20, 10, 3),
+        novel(130, NovelStatusEnum.COMPLETED, true, 5, 200, 1, 2, 3)));
+
+    @Test
+    void noFilterMatchesEverything() {
+        Result result = search(INDEX, null, true, null, null, SortField.ID, true);
+
+        assertThat(result.getTotal()).isEqualTo(5);
+        assertThat(result.getNovelIds()).containsExactly(1, 2, 3, 70, 130);
+        assertThat(result.getGenreCounts()).containsExactly(
+            entry(1, 3), entry(2, 3), entry(3, 3));
+        assertThat(result.getStatusCounts())
+            .containsEntry(NovelStatusEnum.ONGOING, 2)
+            .containsEntry(NovelStatusEnum.COMPLETED, 2)
+            .containsEntry(NovelStatusEnum.DROPPED, 1);
+        assertThat(result.getOpenCount()).isEqualTo(3);
+        assertThat(result.getClosedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void genreMatchAllVersusAny() {
+        Result all = search(INDEX, List.of(1, 2), true, null, null, SortField.ID, true);
+        Result any = search(INDEX, List.of(1, 2), false, null, null, SortField.ID, true);
+
+        assertThat(all.getNovelIds()).containsExactly(1, 130);
+        assertThat(any.getNovelIds()).containsExactly(1, 2, 3, 130);
+        // Thể loại không tồn tại: AND ra rỗng, OR không ảnh hưởng
+        assertThat(search(INDEX, List.of(1, 99), true, null, null, SortField.ID, true).getTotal()).isZero();
+        assertThat(search(INDEX, List.of(2, 99), false, null, null, SortField.ID, true).getNovelIds())
+            .containsExactly(1, 2, 130);
+    }
+
+    @Test
+    void statusAndClosedFiltersAndFacetCounts() {
+        Result result = search(INDEX, null, true, Set.of(NovelStatusEnum.ONGOING, NovelStatusEnum.COMPLETED),
+            false, SortField.ID, true);
+
+        assertThat(result.getNovelIds()).containsExactly(1, 2);
+        // Đếm facet tính trên tập đã lọc
+        assertThat(result.getGenreCounts()).containsExactly(entry(1, 1), entry(2, 2));
+        assertThat(result.getStatusCounts())
+            .containsEntry(NovelStatusEnum.ONGOING, 1)
+            .containsEntry(NovelStatusEnum.COMPLETED, 1)
+            .containsEntry(NovelStatusEnum.DROPPED, 0);
+        assertThat(result.getClosedCount()).isZero();
+
+        assertThat(search(INDEX, null, true, null, true, SortField.ID, true).getNovelIds())
+            .containsExactly(3, 130);
+    }
+
+    @Test
+    void sortsWithIdDescendingTieBreak() {
+        // Bằng lượt thích thì id lớn hơn đứng trước, theo cả hai chiều
+        assertThat(search(INDEX, null, true, null, null, SortField.LIKE_COUNTS, false).getNovelIds())
+            .containsExactly(2, 70, 3, 1, 130);
+        assertThat(search(INDEX, null, true, null, null, SortField.LIKE_COUNTS, true).getNovelIds())
+            .containsExactly(130, 1, 70, 3, 2);
+        assertThat(search(INDEX, null, true, null, null, SortField.READ_COUNTS, false).getNovelIds())
+            .containsExactly(3, 130, 1, 2, 70);
+    }
+
+    @Test
+    void pagesAreSlicesOfTheFullOrder() {
+        Random random = new Random(11);
+        List<NovelFacets> novels = new ArrayList<>();
+        for (int id = 1; id <= 500; id++) {
+            novels.add(new NovelFacets(id, NovelStatusEnum.values()[random.nextInt(3)], random.nextBoolean(),
+                random.nextInt(50), random.nextInt(1000), random.nextInt(100), new int[]{random.nextInt(5)}));
+        }
+        NovelFacetIndex index = NovelFacetIndex.build(novels);
+        int[] expected = novels.stream()
+            .sorted(Comparator.comparingInt(NovelFacets::getLikeCounts).reversed()
+                .thenComparing(Comparator.comparingInt(NovelFacets::getNovelId).reversed()))
+            .mapToInt(NovelFacets::getNovelId)
+            .toArray();
+
+        List<Integer> paged = new ArrayList<>();
+        for (int offset = 0; offset < 520; offset += 37) {
+            for (int id : index.search(null, true, null, null, SortField.LIKE_COUNTS, false, offset, 37)
+                .getNovelIds()) {
+                paged.add(id);
+            }
+        }
+
+        assertThat(paged).containsExactly(Arrays.stream(expected).boxed().toArray(Integer[]::new));
+        assertThat(index.search(null, true, null, null, SortField.ID, true, 500, 10).getNovelIds()).isEmpty();
+        assertThat(index.search(null, true, null, null, SortField.ID, true, 0, 0).getNovelIds()).isEmpty();
+    }
+
+    @Test
+    void withAndWithoutAreCopyOnWrite() {
+        NovelFacetIndex updated = INDEX
+            .with(novel(2, NovelStatusEnum.DROPPED, true, 30, 50, 4))
+            .with(novel(200, NovelStatusEnum.ONGOING, false, 1, 1, 1))
+            .without(70);
+
+        // Index cũ không đổi
+        assertThat(INDEX.size()).isEqualTo(5);
+        assertThat(search(INDEX, List.of(2), true, null, null, SortField.ID, true).getNovelIds())
+            .containsExactly(1, 2, 130);
+
+        assertThat(updated.size()).isEqualTo(5);
+        assertThat(search(updated, null, true, null, null, SortField.ID, true).getNovelIds())
+            .containsExactly(1, 2, 3, 130, 200);
+        assertThat(search(updated, List.of(2), true, null, null, SortField.ID, true).getNovelIds())
+            .containsExactly(1, 130);
+        assertThat(search(updated, List.of(4), true, null, null, SortField.ID, true).getNovelIds())
+            .containsExactly(2);
+        assertThat(search(updated, List.of(1), true, null, null, SortField.ID, true).getNovelIds())
+            .containsExactly(1, 3, 130, 200);
+        assertThat(search(updated, null, true, Set.of(NovelStatusEnum.DROPPED), true, SortField.ID, true)
+            .getNovelIds()).containsExactly(2);
+        assertThat(updated.without(999)).isSameAs(updated);
+    }
+
+    @Test
+    void emptyIndex() {
+        NovelFacetIndex index = NovelFacetIndex.build(List.of());
+
+        assertThat(index.size()).isZero();
+        assertThat(search(index, List.of(1), false, null, false, SortField.ID, true).getTotal()).isZero();
+        assertThat(search(index.with(novel(5, null, false, 0, 0)), null, true, null, null, SortField.ID, true)
+            .getNovelIds()).containsExactly(5);
+    }
+
+    private static Result search(NovelFacetIndex index, List<Integer> genreIds, boolean matchAll,
+                                 Set<NovelStatusEnum> statuses, Boolean closed, SortField sortField,
+                                 boolean ascending) {
+        return index.search(genreIds, matchAll, statuses, closed, sortField, ascending, 0, 100);
+    }
+
+    private static NovelFacets novel(int id, NovelStatusEnum status, boolean closed, int likes, int reads,
+                                     int... genreIds) {
+        return new NovelFacets(id, status, closed, likes, reads, id, genreIds);
+    }
+
+    private static Map.Entry<Integer, Integer> entry(int key, int value) {
+        return Map.entry(key, value);
+    }
+}
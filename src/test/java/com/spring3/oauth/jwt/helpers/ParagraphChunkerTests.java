@@ -0,0 +1,134 @@
+package com.spring3.oauth.jwt.helpers;
+
+import com.spring3.oauth.jwt.helpers.ParagraphChunker.Chunk;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParagraphChunkerTests {
+
+    @Test
+    void emptyAndShortContent() {
+        assertThat(ParagraphChunker.split(new byte[0], 100, 100)).isEmpty();
+
+        List<Chunk> chunks = split("<p>Ngắn.</p>", 100, 100);
+
+        assertThat(chunks).hasSize(1);
+        assertThat(chunks.get(0).getStart()).isZero();
+        assertThat(chunks.get(0).getEnd()).isEqualTo(bytes("<p>Ngắn.</p>").length - 1);
+    }
+
+    @Test
+    void cutsAfterTheFirstParagraphEndPastTarget() {
+        String content = paragraph(40) + paragraph(40) + paragraph(40) + paragraph(40);
+
+        List<Chunk> chunks = split(content, 50, 100);
+
+        // Phần đầu dùng firstBytes: đoạn 1 chưa đủ 50 byte nên kéo tới hết đoạn 2
+        assertThat(texts(content, chunks)).containsExactly(
+            paragraph(40) + paragraph(40),
+            paragraph(40) + paragraph(40));
+    }
+
+    @Test
+    void recognisesLineBreaksAndTagsCaseInsensitively() {
+        String content = "a".repeat(20) + "<BR>" + "b".repeat(20) + "<br />" + "c".repeat(20) + "\n"
+            + "d".repeat(20) + "</P>" + "e".repeat(20);
+
+        List<String> texts = texts(content, split(content, 15, 15));
+
+        assertThat(texts).containsExactly(
+            "a".repeat(20) + "<BR>",
+            "b".repeat(20) + "<br />",
+            "c".repeat(20) + "\n",
+            "d".repeat(20) + "</P>",
+            "e".repeat(20));
+    }
+
+    @Test
+    void fallsBackToEarlierParagraphEnd() {
+        // Sau target không có ranh giới trong 2 * target, nhưng có một ranh giới sau nửa target
+        String content = "x".repeat(70) + "</p>" + "y".repeat(300);
+
+        List<String> texts = texts(content, split(content, 100, 1000));
+
+        assertThat(texts.get(0)).isEqualTo("x".repeat(70) + "</p>");
+    }
+
+    @Test
+    void overlongParagraphCutsAtWhitespace() {
+        String content = "<p>" + "chữ ".repeat(200) + "</p>";
+
+        List<Chunk> chunks = split(content, 100, 100);
+
+        assertThat(chunks.size()).isGreaterThan(3);
+        for (String text : texts(content, chunks.subList(0, chunks.size() - 1))) {
+            assertThat(text).endsWith(" ");
+        }
+        assertCovers(content, chunks);
+    }
+
+    @Test
+    void neverSplitsMultiByteCharacters() {
+        // Không có khoảng trắng hay thẻ: chỉ còn ranh giới ký tự UTF-8
+        String content = "ữ".repeat(500);
+
+        List<Chunk> chunks = split(content, 100, 100);
+
+        assertCovers(content, chunks);
+        assertThat(String.join("", texts(content, chunks))).isEqualTo(content);
+        for (String text : texts(content, chunks)) {
+            assertThat(text).doesNotContain("�");
+        }
+    }
+
+    @Test
+    void chunksAreContiguousAndIndexed() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            content.append(paragraph(10 + i * 7 % 150));
+        }
+
+        List<Chunk> chunks = split(content.toString(), 2048, 8192);
+
+        assertCovers(content.toString(), chunks);
+        for (int i = 0; i < chunks.size() - 1; i++) {
+            assertThat(texts(content.toString(), chunks.subList(i, i + 1)).get(0)).endsWith("</p>");
+        }
+    }
+
+    private static void assertCovers(String content, List<Chunk> chunks) {
+        long next = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            assertThat(chunks.get(i).getIndex()).isEqualTo(i);
+            assertThat(chunks.get(i).getStart()).isEqualTo(next);
+            assertThat(chunks.get(i).getEnd()).isGreaterThanOrEqualTo(chunks.get(i).getStart());
+            next = chunks.get(i).getEnd() + 1;
+        }
+        assertThat(next).isEqualTo(bytes(content).length);
+    }
+
+    private static List<Chunk> split(String content, int firstBytes, int targetBytes) {
+        return ParagraphChunker.split(bytes(content), firstBytes, targetBytes);
+    }
+
+    private static List<String> texts(String content, List<Chunk> chunks) {
+        byte[] data = bytes(content);
+        return chunks.stream()
+            .map(chunk -> new String(data, (int) chunk.getStart(), (int) (chunk.getEnd() - chunk.getStart() + 1),
+                StandardCharsets.UTF_8))
+            .toList();
+    }
+
+    // Đoạn văn đúng length byte UTF-8, tính cả thẻ <p></p>
+    private static String paragraph(int length) {
+        return "<p>" + "a".repeat(length - 7) + "</p>";
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,109 @@
+package com.spring3.oauth.jwt.helpers;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Dựng luồng MP3 / ADTS giả cho test: header frame đúng chuẩn, phần thân là byte 0x55 (không thể tạo sync giả)
+final class SyntheticAudio {
+
+    // MPEG-1 layer III 128 kbps 44.1 kHz: 417 byte (+1 khi padding), 1152 mẫu
+    static final int MPEG1_L3_128K_44100 = header(3, 1, 9, 0);
+    // MPEG-1 layer II 128 kbps 48 kHz: 384 byte, 1152 mẫu
+    static final int MPEG1_L2_128K_48000 = header(3, 2, 8, 1);
+    // MPEG-1 layer I 128 kbps 32 kHz: 192 byte (+4 khi padding), 384 mẫu
+    static final int MPEG1_L1_128K_32000 = header(3, 3, 4, 2);
+    // MPEG-2 layer III 64 kbps 22.05 kHz: 208 byte, 576 mẫu
+    static final int MPEG2_L3_64K_22050 = header(2, 1, 8, 0);
+    // MPEG-2.5 layer III 32 kbps 11.025 kHz: 208 byte, 576 mẫu
+    static final int MPEG25_L3_32K_11025 = header(0, 1, 4, 0);
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private static int header(int versionBits, int layerBits, int bitrateIndex, int sampleRateIndex) {
+        // Không CRC (protection bit = 1), stereo
+        return 0xFFE00000 | versionBits << 19 | layerBits << 17 | 1 << 16 | bitrateIndex << 12 | sampleRateIndex << 10;
+    }
+
+    static int mp3FrameLength(int header) {
+        if (header == MPEG1_L3_128K_44100) {
+            return 417;
+        }
+        if (header == MPEG1_L2_128K_48000) {
+            return 384;
+        }
+        if (header == MPEG1_L1_128K_32000) {
+            return 192;
+        }
+        return 208;
+    }
+
+    SyntheticAudio id3(int bodySize) {
+        out.writeBytes(new byte[]{'I', 'D', '3', 3, 0, 0,
+            (byte) ((bodySize >>> 21) & 0x7F), (byte) ((bodySize >>> 14) & 0x7F),
+            (byte) ((bodySize >>> 7) & 0x7F), (byte) (bodySize & 0x7F)});
+        out.writeBytes(new byte[bodySize]);
+        return this;
+    }
+
+    SyntheticAudio mp3(int header, boolean padding, boolean crc) {
+        int length = mp3FrameLength(header) + (padding ? ((header >>> 17) & 3) == 3 ? 4 : 1 : 0);
+        int value = header | (padding ? 1 << 9 : 0);
+        if (crc) {
+            value &= ~(1 << 16);
+        }
+        byte[] frame = body(length);
+        ByteBuffer.wrap(frame).putInt(value);
+        out.writeBytes(frame);
+        return this;
+    }
+
+    SyntheticAudio mp3(int header, int count) {
+        for (int i = 0; i < count; i++) {
+            mp3(header, false, false);
+        }
+        return this;
+    }
+
+    // Frame Xing của MPEG-1 layer III stereo không CRC: tag nằm sau 4 byte header + 32 byte side info
+    SyntheticAudio xing() {
+        byte[] frame = body(mp3FrameLength(MPEG1_L3_128K_44100));
+        ByteBuffer.wrap(frame).putInt(MPEG1_L3_128K_44100).position(36).put("Xing".getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes(frame);
+        return this;
+    }
+
+    // AAC-LC 44.1 kHz stereo, một raw data block (1024 mẫu); có CRC thì header 9 byte
+    SyntheticAudio adts(int length, boolean crc) {
+        byte[] frame = body(length);
+        frame[0] = (byte) 0xFF;
+        frame[1] = (byte) (crc ? 0xF0 : 0xF1);
+        frame[2] = (byte) (1 << 6 | 4 << 2);
+        frame[3] = (byte) (2 << 6 | (length >>> 11) & 3);
+        frame[4] = (byte) (length >>> 3);
+        frame[5] = (byte) ((length & 7) << 5 | 0x1F);
+        frame[6] = (byte) 0xFC;
+        out.writeBytes(frame);
+        return this;
+    }
+
+    SyntheticAudio bytes(byte[] bytes) {
+        out.writeBytes(bytes);
+        return this;
+    }
+
+    byte[] toByteArray() {
+        return out.toByteArray();
+    }
+
+    ByteBuffer toBuffer() {
+        return ByteBuffer.wrap(toByteArray());
+    }
+
+    private static byte[] body(int length) {
+        byte[] frame = new byte[length];
+        Arrays.fill(frame, (byte) 0x55);
+        return frame;
+    }
+}
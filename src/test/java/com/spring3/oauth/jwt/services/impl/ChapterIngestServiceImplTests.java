@@ -0,0 +1,278 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring3.oauth.jwt.entity.Chapter;
+import com.spring3.oauth.jwt.entity.Novel;
+import com.spring3.oauth.jwt.entity.enums.ChapterIngestStatusEnum;
+import com.spring3.oauth.jwt.entity.enums.NovelStatusEnum;
+import com.spring3.oauth.jwt.events.ChapterChangedEvent;
+import com.spring3.oauth.jwt.events.NovelChangedEvent;
+import com.spring3.oauth.jwt.helpers.RefreshableCRUDRepositoryImpl;
+import com.spring3.oauth.jwt.models.dtos.ChapterIngestItemDTO;
+import com.spring3.oauth.jwt.models.dtos.ChapterIngestResponseDTO;
+import com.spring3.oauth.jwt.repositories.ChapterRepository;
+import com.spring3.oauth.jwt.repositories.NovelQueryRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@RecordApplicationEvents
+class ChapterIngestServiceImplTests {
+
+    @Configuration
+    @EntityScan(basePackageClasses = Novel.class)
+    @EnableJpaRepositories(basePackageClasses = NovelQueryRepository.class,
+        repositoryBaseClass = RefreshableCRUDRepositoryImpl.class)
+    @Import({ChapterIngestServiceImpl.class, ChapterContentServiceImpl.class})
+    static class Config {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @DynamicPropertySource
+    static void contentDirectory(DynamicPropertyRegistry registry) throws IOException {
+        registry.add("novel.chapter-content.dir", Files.createTempDirectory("chapter-ingest-")::toString);
+    }
+
+    @Autowired
+    private ChapterIngestServiceImpl chapterIngestService;
+
+    @Autowired
+    private ChapterContentServiceImpl chapterContentService;
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private Novel novel;
+
+    @BeforeEach
+    void seed() {
+        novel = new Novel();
+        novel.setSlug("novel");
+        novel.setTitle("Novel");
+        novel.setStatus(NovelStatusEnum.ONGOING);
+        novel.setReleasedAt(LocalDateTime.now());
+        entityManager.persist(novel);
+        entityManager.flush();
+    }
+
+    @Test
+    void jsonArrayAndNdjson() {
+        ChapterIngestResponseDTO array = chapterIngestService.ingestJson(novel.getId(), stream("""
+            [{"chapterNo": 1, "title": "Mở đầu", "contentDoc": "<p>Một</p>"},
+             {"chapterNo": 2, "title": "  ", "contentDoc": "<p>Hai</p>"},
+             {"chapterNo": 3, "title": "Chương ba", "contentDoc": "<p>Ba</p>", "novelId": 999},
+             {"chapterNo": 4, "title": "Chương bốn", "contentDoc": "<p>Bốn</p>"}]
+            """));
+
+        assertThat(statuses(array)).containsExactly(ChapterIngestStatusEnum.CREATED, ChapterIngestStatusEnum.INVALID,
+            ChapterIngestStatusEnum.INVALID, ChapterIngestStatusEnum.CREATED);
+        assertThat(array.getCreated()).isEqualTo(2);
+        assertThat(array.getRejected()).isEqualTo(2);
+
+        // NDJSON: lỗi cú pháp ghi nhận một dòng INVALID rồi dừng, các chương trước vẫn được nhập
+        ChapterIngestResponseDTO ndjson = chapterIngestService.ingestJson(novel.getId(), stream("""
+            {"chapterNo": 5, "title": "Chương năm", "contentDoc": "<p>Năm</p>"}
+            {"chapterNo": 6, "title": "Chương sáu", "contentDoc": "<p>Sáu</p>"}
+            {"chapterNo": 7, "title": oops}
+            {"chapterNo": 8, "title": "Chương tám", "contentDoc": "<p>Tám</p>"}
+            """));
+
+        assertThat(statuses(ndjson)).containsExactly(ChapterIngestStatusEnum.CREATED,
+            ChapterIngestStatusEnum.CREATED, ChapterIngestStatusEnum.INVALID);
+        assertThat(totalChapters()).isEqualTo(4);
+        assertThat(content(5)).isEqualTo("<p>Năm</p>");
+        assertThat(chapter(1).getTitle()).isEqualTo("Mở đầu");
+        assertThat(chapter(1).getWordCount()).isEqualTo(1);
+    }
+
+    @Test
+    void zipEntriesAreNamedByChapterNumber() throws IOException {
+        byte[] zip = zip(Map.of(
+            "1.html", "<p>Một</p>",
+            "chapters/2 - Tiêu đề hai.txt", "Hai",
+            "3_Khác.md", "Ba",
+            "4.json", "{\"chapterNo\": 40, \"title\": \"Từ JSON\", \"contentDoc\": \"<p>Bốn mươi</p>\"}",
+            "5.json", "{not json",
+            "cover.jpg", "binary",
+            "chuong-mot.txt", "không có số",
+            "99999999999.txt", "số quá lớn"));
+
+        ChapterIngestResponseDTO response = chapterIngestService.ingestZip(novel.getId(),
+            new ByteArrayInputStream(zip));
+
+        assertThat(response.getReceived()).isEqualTo(8);
+        assertThat(response.getCreated()).isEqualTo(4);
+        assertThat(response.getItems()).filteredOn(item -> item.getStatus() == ChapterIngestStatusEnum.INVALID)
+            .extracting(ChapterIngestItemDTO::getMessage)
+            .anySatisfy(message -> assertThat(message).startsWith("Malformed chapter in 5.json"))
+            .anySatisfy(message -> assertThat(message).startsWith("Unsupported entry cover.jpg"))
+            .anySatisfy(message -> assertThat(message).startsWith("Unsupported entry chuong-mot.txt"))
+            .anySatisfy(message -> assertThat(message).startsWith("Invalid chapter number in 99999999999.txt"));
+        assertThat(chapter(1).getTitle()).isEqualTo("Chương 1");
+        assertThat(chapter(2).getTitle()).isEqualTo("Tiêu đề hai");
+        assertThat(chapter(3).getTitle()).isEqualTo("Khác");
+        assertThat(chapter(40).getTitle()).isEqualTo("Từ JSON");
+        assertThat(content(2)).isEqualTo("Hai");
+        assertThat(content(40)).isEqualTo("<p>Bốn mươi</p>");
+        assertThat(totalChapters()).isEqualTo(4);
+    }
+
+    @Test
+    void duplicateChapterNumbersAreRejected() {
+        Chapter existing = new Chapter();
+        existing.setNovel(novel);
+        existing.setChapterNo(2);
+        existing.setTitle("Có sẵn");
+        existing.setReleasedAt(LocalDateTime.now());
+        entityManager.persist(existing);
+        entityManager.flush();
+
+        ChapterIngestResponseDTO response = chapterIngestService.ingestJson(novel.getId(), stream("""
+            {"chapterNo": 1, "title": "Một", "contentDoc": "a"}
+            {"chapterNo": 2, "title": "Hai", "contentDoc": "b"}
+            {"chapterNo": 1, "title": "Một lần nữa", "contentDoc": "c"}
+            {"chapterNo": 3, "title": "Ba", "contentDoc": "d"}
+            """));
+
+        List<ChapterIngestItemDTO> items = response.getItems();
+        assertThat(items).extracting(ChapterIngestItemDTO::getIndex).containsExactly(0, 1, 2, 3);
+        assertThat(statuses(response)).containsExactly(ChapterIngestStatusEnum.CREATED,
+            ChapterIngestStatusEnum.DUPLICATE, ChapterIngestStatusEnum.DUPLICATE, ChapterIngestStatusEnum.CREATED);
+        assertThat(items.get(1).getMessage()).isEqualTo("Chapter number already exists in novel");
+        assertThat(items.get(2).getMessage()).isEqualTo("Chapter number repeated in this request");
+        assertThat(chapter(1).getTitle()).isEqualTo("Một");
+        assertThat(chapter(2).getTitle()).isEqualTo("Có sẵn");
+        assertThat(totalChapters()).isEqualTo(2);
+    }
+
+    @Test
+    void batchesOfFiveHundredCommitSeparately() {
+        StringBuilder body = new StringBuilder();
+        for (int chapterNo = 1; chapterNo <= 1201; chapterNo++) {
+            body.append("{\"chapterNo\": ").append(chapterNo).append(", \"title\": \"Chương ").append(chapterNo)
+                .append("\", \"contentDoc\": \"<p>Nội dung ").append(chapterNo).append("</p>\"}\n");
+        }
+        // Trùng với một chương ở lô đầu, nằm ở lô thứ hai
+        body.append("{\"chapterNo\": 7, \"title\": \"Trùng\", \"contentDoc\": \"x\"}\n");
+
+        ChapterIngestResponseDTO response = chapterIngestService.ingestJson(novel.getId(), stream(body.toString()));
+
+        assertThat(response.getReceived()).isEqualTo(1202);
+        assertThat(response.getCreated()).isEqualTo(1201);
+        assertThat(response.getItems().get(1201).getStatus()).isEqualTo(ChapterIngestStatusEnum.DUPLICATE);
+        assertThat(response.getItems()).extracting(ChapterIngestItemDTO::getChapterId)
+            .filteredOn(id -> id != null)
+            .doesNotHaveDuplicates();
+        assertThat(totalChapters()).isEqualTo(1201);
+        // Mỗi lô một cặp event
+        assertThat(events.stream(ChapterChangedEvent.class)).hasSize(3);
+        assertThat(events.stream(NovelChangedEvent.class))
+            .hasSize(3)
+            .allSatisfy(event -> assertThat(event.getNovelId()).isEqualTo(novel.getId()));
+        assertThat(content(500)).isEqualTo("<p>Nội dung 500</p>");
+        assertThat(content(501)).isEqualTo("<p>Nội dung 501</p>");
+        assertThat(content(1201)).isEqualTo("<p>Nội dung 1201</p>");
+    }
+
+    @Test
+    void nextChapterAndTotalFollowIngestedChapters() {
+        Chapter existing = new Chapter();
+        existing.setNovel(novel);
+        existing.setChapterNo(5);
+        existing.setTitle("Năm");
+        existing.setReleasedAt(LocalDateTime.now());
+        entityManager.persist(existing);
+        entityManager.flush();
+
+        // Số chương không liên tiếp, không theo thứ tự
+        chapterIngestService.ingestJson(novel.getId(), stream("""
+            [{"chapterNo": 20, "title": "Hai mươi", "contentDoc": "b"},
+             {"chapterNo": 10, "title": "Mười", "contentDoc": "a"},
+             {"chapterNo": 15, "title": "Mười lăm", "contentDoc": "c"}]
+            """));
+
+        assertThat(chapterRepository.findNextChapterNo("novel", 5)).isEqualTo(10);
+        assertThat(chapterRepository.findNextChapterNo("novel", 10)).isEqualTo(15);
+        assertThat(chapterRepository.findNextChapterNo("novel", 15)).isEqualTo(20);
+        assertThat(chapterRepository.findNextChapterNo("novel", 20)).isNull();
+        assertThat(totalChapters()).isEqualTo(3);
+        assertThat(events.stream(NovelChangedEvent.class)).hasSize(1);
+    }
+
+    private int totalChapters() {
+        return jdbcTemplate.queryForObject("SELECT total_chaps FROM novels WHERE id = ?", Integer.class,
+            novel.getId());
+    }
+
+    // Con trỏ nội dung được ghi bằng JDBC nên phải đọc lại từ DB
+    private Chapter chapter(int chapterNo) {
+        entityManager.clear();
+        return chapterRepository.findByChapterNoAndNovelSlug(chapterNo, "novel");
+    }
+
+    private String content(int chapterNo) {
+        return chapterContentService.getContent(chapter(chapterNo));
+    }
+
+    private static List<ChapterIngestStatusEnum> statuses(ChapterIngestResponseDTO response) {
+        return response.getItems().stream().map(ChapterIngestItemDTO::getStatus).toList();
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] zip(Map<String, String> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes, StandardCharsets.UTF_8)) {
+            zip.putNextEntry(new ZipEntry("chapters/"));
+            zip.closeEntry();
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
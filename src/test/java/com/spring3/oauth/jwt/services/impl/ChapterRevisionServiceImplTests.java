@@ -0,0 +1,177 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.spring3.oauth.jwt.entity.Chapter;
+import com.spring3.oauth.jwt.entity.Novel;
+import com.spring3.oauth.jwt.entity.enums.NovelStatusEnum;
+import com.spring3.oauth.jwt.helpers.RefreshableCRUDRepositoryImpl;
+import com.spring3.oauth.jwt.models.dtos.ChapterRevisionDTO;
+import com.spring3.oauth.jwt.repositories.ChapterRepository;
+import com.spring3.oauth.jwt.repositories.ChapterRevisionRepository;
+import com.spring3.oauth.jwt.repositories.NovelQueryRepository;
+import com.spring3.oauth.jwt.services.ChapterContentService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "novel.chapter-revisions.snapshot-interval=4"
+})
+class ChapterRevisionServiceImplTests {
+
+    @Configuration
+    @EntityScan(basePackageClasses = Novel.class)
+    @EnableJpaRepositories(basePackageClasses = NovelQueryRepository.class,
+        repositoryBaseClass = RefreshableCRUDRepositoryImpl.class)
+    @Import(ChapterRevisionServiceImpl.class)
+    static class Config {
+    }
+
+    @Autowired
+    private ChapterRevisionServiceImpl chapterRevisionService;
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    @Autowired
+    private ChapterRevisionRepository chapterRevisionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private ChapterContentService chapterContentService;
+
+    private Chapter chapter;
+
+    // Nội dung theo thứ tự phiên bản: versions.get(k - 1) là bản k
+    private final List<String> versions = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        Novel novel = new Novel();
+        novel.setSlug("novel");
+        novel.setTitle("Novel");
+        novel.setStatus(NovelStatusEnum.ONGOING);
+        novel.setReleasedAt(LocalDateTime.now());
+        entityManager.persist(novel);
+
+        chapter = new Chapter();
+        chapter.setNovel(novel);
+        chapter.setChapterNo(1);
+        chapter.setTitle("Chương 1 - v1");
+        chapter.setReleasedAt(LocalDateTime.now());
+        entityManager.persist(chapter);
+        versions.add(paragraphs(30, "v1"));
+        when(chapterContentService.getContent(any())).thenAnswer(invocation -> versions.get(versions.size() - 1));
+    }
+
+    @Test
+    void everyRevisionOfALongChainIsReconstructed() {
+        for (int i = 2; i <= 11; i++) {
+            String previous = versions.get(versions.size() - 1);
+            String next = i == 6
+                ? paragraphs(30, "viết lại")
+                : previous.replace("Đoạn " + i + ":", "Đoạn " + i + " (sửa lần " + i + "):");
+            update("Chương 1 - v" + i, next);
+        }
+
+        assertThat(chapter.getRevisionNo()).isEqualTo(11);
+        for (int revisionNo = 1; revisionNo <= 11; revisionNo++) {
+            ChapterRevisionDTO revision = chapterRevisionService.getRevision("novel", 1, revisionNo);
+            assertThat(revision.getContentDoc()).as("revision %d", revisionNo).isEqualTo(versions.get(revisionNo - 1));
+            assertThat(revision.getTitle()).isEqualTo("Chương 1 - v" + revisionNo);
+        }
+    }
+
+    @Test
+    void deltasAreSmallAndSnapshotsFollowTheInterval() {
+        for (int i = 2; i <= 9; i++) {
+            String previous = versions.get(versions.size() - 1);
+            update("Chương 1 - v" + i, previous + "<p>Thêm đoạn " + i + ".</p>");
+        }
+
+        List<ChapterRevisionDTO> revisions = chapterRevisionService.getRevisions("novel", 1);
+
+        assertThat(revisions.get(0).isCurrent()).isTrue();
+        assertThat(revisions.get(0).getRevisionNo()).isEqualTo(9);
+        for (ChapterRevisionDTO revision : revisions.subList(1, revisions.size())) {
+            // Bản chia hết cho snapshot-interval lưu đầy đủ, các bản khác là delta nhỏ
+            assertThat(revision.getSnapshot()).as("revision %d", revision.getRevisionNo())
+                .isEqualTo(revision.getRevisionNo() % 4 == 0);
+            if (!revision.getSnapshot()) {
+                assertThat(revision.getStoredBytes()).isLessThan(revision.getContentLength() / 10);
+            }
+        }
+    }
+
+    @Test
+    void snapshotIntervalChangedBetweenWrites() {
+        ChapterRevisionServiceImpl everyThird = new ChapterRevisionServiceImpl(chapterRepository,
+            chapterRevisionRepository, chapterContentService, 3);
+        // Bản 1..9 ghi với interval 3 (snapshot ở 3, 6), bản 10..13 với interval 4 (snapshot ở 12)
+        for (int i = 2; i <= 14; i++) {
+            String previous = versions.get(versions.size() - 1);
+            update(i <= 10 ? everyThird : chapterRevisionService, "Chương 1 - v" + i,
+                previous.replace("Đoạn " + i + ":", "Đoạn " + i + " (sửa lần " + i + "):"));
+        }
+
+        for (ChapterRevisionServiceImpl reader : List.of(everyThird, chapterRevisionService)) {
+            for (int revisionNo = 1; revisionNo <= 14; revisionNo++) {
+                assertThat(reader.getRevision("novel", 1, revisionNo).getContentDoc())
+                    .as("revision %d", revisionNo)
+                    .isEqualTo(versions.get(revisionNo - 1));
+            }
+        }
+    }
+
+    @Test
+    void titleOnlyChangeKeepsContent() {
+        update("Tiêu đề mới", versions.get(0));
+
+        ChapterRevisionDTO first = chapterRevisionService.getRevision("novel", 1, 1);
+
+        assertThat(first.getTitle()).isEqualTo("Chương 1 - v1");
+        assertThat(first.getContentDoc()).isEqualTo(versions.get(0));
+    }
+
+    // Như updateChapter: ghi nội dung mới rồi lưu bản vừa bị thay
+    private void update(String title, String content) {
+        update(chapterRevisionService, title, content);
+    }
+
+    private void update(ChapterRevisionServiceImpl service, String title, String content) {
+        String previousTitle = chapter.getTitle();
+        String previousContent = versions.get(versions.size() - 1);
+        LocalDateTime previousSince = chapter.getUpdatedAt() != null ? chapter.getUpdatedAt() : chapter.getReleasedAt();
+        chapter.setTitle(title);
+        chapter.setUpdatedAt(LocalDateTime.now());
+        versions.add(content);
+        service.recordRevision(chapter, previousTitle, previousContent, previousSince, content);
+        entityManager.flush();
+    }
+
+    private static String paragraphs(int count, String label) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append("<p>Đoạn ").append(i).append(": ").append(label)
+                .append(" - chàng đi qua cầu, gió thổi lạnh ngắt, trăng soi bóng nước.</p>\n");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,153 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.spring3.oauth.jwt.exception.NotFoundException;
+import com.spring3.oauth.jwt.models.dtos.ListeningPositionResponseDTO;
+import com.spring3.oauth.jwt.models.request.ListeningHeartbeatRequest;
+import com.spring3.oauth.jwt.repositories.UserListeningPositionRepository;
+import com.spring3.oauth.jwt.services.NovelResolverService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.Invocation;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ListeningPositionServiceImplTests {
+
+    private final UserListeningPositionRepository repository = mock(UserListeningPositionRepository.class);
+    private final NovelResolverService resolver = mock(NovelResolverService.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private ListeningPositionServiceImpl service;
+
+    // Mỗi lần flush: danh sách dòng upsert, mỗi dòng là map chỉ số tham số -> giá trị
+    private final List<List<Map<Integer, Object>>> flushes = new ArrayList<>();
+    private RuntimeException failure;
+    private Runnable duringFlush;
+
+    @BeforeEach
+    void setUp() {
+        when(resolver.getIdBySlug("novel-a")).thenReturn(1);
+        when(resolver.getIdBySlug("novel-b")).thenReturn(2);
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+                if (duringFlush != null) {
+                    duringFlush.run();
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+                flushes.add(rows(invocation.getArgument(1), invocation.getArgument(3)));
+                return new int[0][];
+            });
+        service = new ListeningPositionServiceImpl(repository, resolver, jdbcTemplate,
+            mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void heartbeatsCoalescePerUserAndNovel() {
+        service.heartbeat(request(7L, "novel-a", 10, 1_000L));
+        service.heartbeat(request(7L, "novel-a", 10, 6_000L));
+        service.heartbeat(request(7L, "novel-a", 11, 2_000L));
+        // Cùng user, truyện khác trong cùng khoảng flush: không được ghi đè vị trí của truyện A
+        service.heartbeat(request(7L, "novel-b", 20, 3_000L));
+        service.heartbeat(request(3L, "novel-a", 12, 4_000L));
+
+        service.flush();
+
+        assertThat(flushes).hasSize(1);
+        // Thứ tự (userId, novelId); tham số: 1 position, 3 user, 4 chapter, 5 novel
+        assertThat(flushes.get(0)).extracting(row -> List.of(row.get(3), row.get(5), row.get(4), row.get(1)))
+            .containsExactly(
+                List.of(3L, 1, 12, 4_000L),
+                List.of(7L, 1, 11, 2_000L),
+                List.of(7L, 2, 20, 3_000L));
+
+        service.flush();
+        assertThat(flushes).hasSize(1);
+    }
+
+    @Test
+    void failedFlushIsRetriedWithoutOverwritingNewerPositions() {
+        service.heartbeat(request(7L, "novel-a", 10, 1_000L));
+        service.heartbeat(request(7L, "novel-b", 20, 2_000L));
+        failure = new QueryTimeoutException("timeout");
+
+        service.flush();
+
+        assertThat(flushes).isEmpty();
+        // Lô lỗi vẫn đọc được từ bộ nhớ
+        assertThat(service.getPosition(7L, "novel-a").getPositionMs()).isEqualTo(1_000L);
+
+        service.heartbeat(request(7L, "novel-a", 10, 9_000L));
+        failure = null;
+        service.flush();
+
+        assertThat(flushes).hasSize(1);
+        assertThat(flushes.get(0)).extracting(row -> List.of(row.get(5), row.get(1)))
+            .containsExactly(List.of(1, 9_000L), List.of(2, 2_000L));
+    }
+
+    @Test
+    void getPositionPrefersMemoryThenFlushingThenDatabase() {
+        service.heartbeat(request(7L, "novel-a", 10, 1_000L));
+        List<ListeningPositionResponseDTO> seenDuringFlush = new ArrayList<>();
+        duringFlush = () -> {
+            // Ô đã được tách khỏi slots nhưng chưa commit: đọc từ lô flushing
+            seenDuringFlush.add(service.getPosition(7L, "novel-a"));
+            service.heartbeat(request(7L, "novel-a", 10, 5_000L));
+            seenDuringFlush.add(service.getPosition(7L, "novel-a"));
+        };
+
+        service.flush();
+
+        assertThat(seenDuringFlush).extracting(ListeningPositionResponseDTO::getPositionMs)
+            .containsExactly(1_000L, 5_000L);
+        assertThat(service.getPosition(7L, "novel-a").getPositionMs()).isEqualTo(5_000L);
+        verify(repository, never()).findPosition(7L, 1);
+
+        // Không còn trong bộ nhớ thì đọc DB
+        assertThatThrownBy(() -> service.getPosition(7L, "novel-b")).isInstanceOf(NotFoundException.class);
+        verify(repository).findPosition(7L, 2);
+    }
+
+    private static ListeningHeartbeatRequest request(long userId, String slug, int chapterId, long positionMs) {
+        return new ListeningHeartbeatRequest(userId, slug, chapterId, positionMs);
+    }
+
+    // Chạy setter trên PreparedStatement giả và đọc lại các lời gọi setXxx(index, value)
+    @SuppressWarnings("unchecked")
+    private static List<Map<Integer, Object>> rows(Collection<?> batch, ParameterizedPreparedStatementSetter<?> setter)
+        throws Exception {
+        List<Map<Integer, Object>> rows = new ArrayList<>();
+        for (Object row : batch) {
+            PreparedStatement statement = mock(PreparedStatement.class);
+            ((ParameterizedPreparedStatementSetter<Object>) setter).setValues(statement, row);
+            Map<Integer, Object> parameters = new TreeMap<>();
+            for (Invocation invocation : mockingDetails(statement).getInvocations()) {
+                parameters.put(invocation.getArgument(0), invocation.getArgument(1));
+            }
+            rows.add(parameters);
+        }
+        return rows;
+    }
+}
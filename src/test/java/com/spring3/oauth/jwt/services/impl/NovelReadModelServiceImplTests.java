@@ -0,0 +1,147 @@
+package com.spring3.oauth.jwt.services.impl;
+
+import com.spring3.oauth.jwt.entity.Author;
+import com.spring3.oauth.jwt.entity.Genre;
+import com.spring3.oauth.jwt.entity.Novel;
+import com.spring3.oauth.jwt.entity.enums.NovelStatusEnum;
+import com.spring3.oauth.jwt.helpers.NovelCursor;
+import com.spring3.oauth.jwt.helpers.RefreshableCRUDRepositoryImpl;
+import com.spring3.oauth.jwt.models.dtos.NovelResponseDTO;
+import com.spring3.oauth.jwt.repositories.NovelQueryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class NovelReadModelServiceImplTests {
+
+    @Configuration
+    @EntityScan(basePackageClasses = Novel.class)
+    @EnableJpaRepositories(basePackageClasses = NovelQueryRepository.class,
+        repositoryBaseClass = RefreshableCRUDRepositoryImpl.class)
+    @Import(NovelReadModelServiceImpl.class)
+    static class Config {
+    }
+
+    @Autowired
+    private NovelReadModelServiceImpl novelReadModelService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private final List<Genre> genres = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < 3; i++) {
+            Genre genre = new Genre();
+            genre.setName("genre-" + i);
+            entityManager.persist(genre);
+            genres.add(genre);
+        }
+        Author author = new Author();
+        author.setName("author");
+        entityManager.persist(author);
+
+        for (int i = 0; i < 30; i++) {
+            Novel novel = new Novel();
+            novel.setSlug("novel-" + i);
+            novel.setTitle("Novel " + i);
+            novel.setStatus(NovelStatusEnum.ONGOING);
+            novel.setReleasedAt(LocalDateTime.now().minusDays(i));
+            novel.setLikeCounts(i);
+            novel.setReadCounts(100 - i);
+            novel.setAverageRatings(BigDecimal.ZERO);
+            novel.setAuthor(author);
+            // Mỗi truyện thuộc nhiều thể loại để kiểm tra không bị trùng dòng khi phân trang
+            novel.setGenres(new ArrayList<>(genres.subList(0, 1 + i % 3)));
+            entityManager.persist(novel);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void trendingPageIsBuiltWithBoundedQueries() {
+        Page<NovelResponseDTO> page = novelReadModelService.getTrending(
+            PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "likeCounts")));
+
+        // 1 query lấy trang + 1 query COUNT + 1 query genres cho cả trang
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(page.getContent()).hasSize(20);
+        assertThat(page.getTotalElements()).isEqualTo(30);
+        assertThat(page.getContent()).extracting(NovelResponseDTO::getSlug).doesNotHaveDuplicates();
+        assertThat(page.getContent().get(0).getSlug()).isEqualTo("novel-29");
+        assertThat(page.getContent().get(0).getAuthorName()).isEqualTo("author");
+        assertThat(page.getContent().get(0).getGenreNames()).containsExactlyInAnyOrder("genre-0", "genre-1", "genre-2");
+    }
+
+    @Test
+    void genreFilterDoesNotDuplicateMultiGenreNovels() {
+        Page<NovelResponseDTO> page = novelReadModelService.getByGenreIds(
+            List.of(genres.get(0).getId(), genres.get(1).getId()), PageRequest.of(0, 20));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(page.getTotalElements()).isEqualTo(30);
+        assertThat(page.getContent()).extracting(NovelResponseDTO::getSlug).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void lastPageSkipsCountQuery() {
+        Page<NovelResponseDTO> page = novelReadModelService.getTopRead(PageRequest.of(1, 20));
+
+        // Trang cuối: Spring Data tự suy ra tổng nên không cần COUNT
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(page.getContent()).hasSize(10);
+    }
+
+    @Test
+    void keysetPagesWalkAllNovelsWithoutCount() {
+        List<String> slugs = new ArrayList<>();
+        NovelCursor cursor = NovelCursor.FIRST;
+        List<NovelResponseDTO> page;
+        do {
+            page = novelReadModelService.getTrendingAfter(cursor, 7);
+            page.forEach(novel -> slugs.add(novel.getSlug()));
+            if (!page.isEmpty()) {
+                NovelResponseDTO last = page.get(page.size() - 1);
+                cursor = NovelCursor.decode(new NovelCursor(last.getLikeCounts(), last.getId()).encode());
+            }
+        } while (page.size() == 7);
+
+        assertThat(slugs).hasSize(30).doesNotHaveDuplicates();
+        assertThat(slugs.get(0)).isEqualTo("novel-29");
+        // 5 trang, mỗi trang 1 query lấy dữ liệu + 1 query genres, không có COUNT
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(10);
+    }
+}